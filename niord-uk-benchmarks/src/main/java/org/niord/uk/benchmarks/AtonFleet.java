@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.benchmarks;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonTag;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
+
+/**
+ * The AtoN Fleet Class.
+ * <p/>
+ * Generates synthetic fleets of AtoN nodes for the benchmarks. The fleets
+ * cycle through a representative mix of structures, every other one of
+ * which is also equipped with a light, so that both the structure and the
+ * equipment members of the datasets are exercised.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class AtonFleet {
+
+    /**
+     * No public initialization
+     */
+    private AtonFleet() {
+    }
+
+    /**
+     * Generates a synthetic fleet of the provided number of AtoN structures,
+     * spread around the UK waters.
+     *
+     * @param size      The number of AtoN structures in the fleet
+     * @return the generated AtoN fleet
+     */
+    public static List<AtonNode> generate(int size) {
+        final GeometryFactory geometryFactory = new GeometryFactory();
+        final Date timestamp = Date.from(Instant.parse("2023-01-01T00:00:00Z"));
+        final List<AtonNode> atonNodes = new ArrayList<>(size);
+        int id = 1;
+        for(int i = 0; i < size; i++) {
+            final double lat = 50.0 + (i % 1000) * 0.008;
+            final double lon = -6.0 + (i / 1000) * 0.08 % 8.0;
+            final AtonNode atonNode = generateAtonNode(id++, lat, lon, timestamp, geometryFactory, structureTags(i));
+            if(i % 2 == 0) {
+                final AtonNode lightNode = generateAtonNode(id++, lat, lon, timestamp, geometryFactory, List.of(
+                        new AtonTag(TAG_ATON_TYPE, "light"),
+                        new AtonTag("seamark:light:character", "Fl"),
+                        new AtonTag("seamark:light:colour", "white"),
+                        new AtonTag("seamark:light:period", "5"),
+                        new AtonTag("seamark:light:range", "10"),
+                        new AtonTag("seamark:status", "permanent")));
+                lightNode.setParent(atonNode);
+                atonNode.setChildren(new LinkedHashSet<>(List.of(lightNode)));
+            }
+            atonNodes.add(atonNode);
+        }
+        return atonNodes;
+    }
+
+    /**
+     * Returns the tags of the i-th AtoN structure of the fleet.
+     *
+     * @param i         The index of the AtoN structure
+     * @return the AtoN structure tags
+     */
+    private static List<AtonTag> structureTags(int i) {
+        return switch (i % 4) {
+            case 0 -> List.of(
+                    new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                    new AtonTag("seamark:name", "Beacon " + i),
+                    new AtonTag("seamark:beacon_cardinal:category", "north"),
+                    new AtonTag("seamark:beacon_cardinal:colour", "black;yellow"),
+                    new AtonTag("seamark:beacon_cardinal:colour_pattern", "horizontal"),
+                    new AtonTag("seamark:beacon_cardinal:shape", "stake"),
+                    new AtonTag("seamark:status", "permanent"));
+            case 1 -> List.of(
+                    new AtonTag(TAG_ATON_TYPE, "buoy_lateral"),
+                    new AtonTag("seamark:name", "Buoy " + i),
+                    new AtonTag("seamark:buoy_lateral:category", "port"),
+                    new AtonTag("seamark:buoy_lateral:colour", "red"),
+                    new AtonTag("seamark:buoy_lateral:shape", "can"),
+                    new AtonTag("seamark:status", "permanent"));
+            case 2 -> List.of(
+                    new AtonTag(TAG_ATON_TYPE, "light_major"),
+                    new AtonTag("seamark:name", "Lighthouse " + i),
+                    new AtonTag("seamark:light_major:colour", "white"),
+                    new AtonTag("seamark:status", "permanent"));
+            default -> List.of(
+                    new AtonTag(TAG_ATON_TYPE, "virtual_aton"),
+                    new AtonTag("seamark:name", "Virtual AtoN " + i),
+                    new AtonTag("seamark:virtual_aton:mmsi", String.valueOf(992350000 + i % 10000)),
+                    new AtonTag("seamark:virtual_aton:category", "north_cardinal"));
+        };
+    }
+
+    /**
+     * A helper function to generate a single AtoN node.
+     *
+     * @param id                The ID of the AtoN node
+     * @param lat               The latitude of the AtoN node
+     * @param lon               The longitude of the AtoN node
+     * @param timestamp         The timestamp of the AtoN node
+     * @param geometryFactory   The geometry factory
+     * @param tags              The tags of the AtoN node
+     * @return the generated AtoN node
+     */
+    private static AtonNode generateAtonNode(int id, double lat, double lon, Date timestamp, GeometryFactory geometryFactory, List<AtonTag> tags) {
+        final AtonNode atonNode = new AtonNode();
+        atonNode.setId(id);
+        atonNode.setAtonUid("aton-" + id);
+        atonNode.setChangeset(0);
+        atonNode.setLat(lat);
+        atonNode.setLon(lon);
+        atonNode.setGeometry(geometryFactory.createPoint(new Coordinate(lon, lat)));
+        atonNode.setTimestamp(timestamp);
+        atonNode.setTags(new ArrayList<>(tags));
+        atonNode.setChildren(new LinkedHashSet<>());
+        return atonNode;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.benchmarks;
+
+import org.niord.uk.importer.aton.batch.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Import Parser Benchmark Class.
+ * <p/>
+ * Measures the parsing of the UK light characteristics, fog signals and
+ * design codes found in the AtoN import spreadsheets.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportParserBenchmark {
+
+    /*
+     * A representative sample of light characteristics.
+     */
+    private static final String[] LIGHT_CHARACTERISTICS = {
+            "Mo(U)15s",
+            "Fl(2+1)W.10s",
+            "Iso.WRG.4s",
+            "Al Fl.WR.4s",
+            "Fl.G.3s",
+            "F.R",
+            "VQ+LFl.R",
+            "Oc.WRG.5s",
+            "2 Oc.W.R G.1,5s",
+            "Q(6)+LFl W 15s",
+            "Fl G 2s",
+            "Fl 5s",
+            "Mo(A) 5s"
+    };
+
+    /*
+     * A representative sample of fog signals.
+     */
+    private static final String[] FOG_SIGNALS = {
+            "HORN(3)30s   (2+2+2+2+2+20)",
+            "SIREN(1)30s   (5+25)",
+            "BELL.15s   (2,5+12,5)",
+            "HORN   MO(U)30s   (0,75+1+0,75+1+2,5+24)",
+            "HORN",
+            "Horn(2)60s (5+5+5+45)",
+            "Horn (2) 60s",
+            "Horn (2) 30s"
+    };
+
+    /*
+     * A representative sample of design codes.
+     */
+    private static final String[] DESIGN_CODES = {
+            "2S5NC/B",
+            "1S7EC/RA",
+            "2S5EC",
+            "+1S7SC/R",
+            "2S1SWSP/B",
+            "1S10SM",
+            "NS1SL",
+            "1S9SC-AIS/R/MH",
+            "3S4.5NC",
+            "4B4SL"
+    };
+
+    /**
+     * Parses the sample light characteristics.
+     *
+     * @param blackhole the JMH blackhole
+     */
+    @Benchmark
+    public void parseLightCharacteristics(Blackhole blackhole) {
+        for(String lightCharacteristic : LIGHT_CHARACTERISTICS) {
+            blackhole.consume(UkLightParser.parseLightCharacteristics(UkLightParser.newInstance(), lightCharacteristic));
+        }
+    }
+
+    /**
+     * Parses the sample fog signals.
+     *
+     * @param blackhole the JMH blackhole
+     */
+    @Benchmark
+    public void parseFogSignals(Blackhole blackhole) {
+        for(String fogSignal : FOG_SIGNALS) {
+            blackhole.consume(UkFogSignalParser.parseFogSignal(UkFogSignalParser.newInstance(), fogSignal));
+        }
+    }
+
+    /**
+     * Parses the sample design codes.
+     *
+     * @param blackhole the JMH blackhole
+     */
+    @Benchmark
+    public void parseDesignCodes(Blackhole blackhole) {
+        for(String designCode : DESIGN_CODES) {
+            blackhole.consume(UkDesignCodeParser.parseDesignCode(UkDesignCodeParser.newInstance(), designCode));
+        }
+    }
+
+}
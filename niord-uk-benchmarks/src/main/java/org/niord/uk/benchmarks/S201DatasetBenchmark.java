@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.benchmarks;
+
+import _int.iho.s201.gml.cs0._1.Dataset;
+import jakarta.xml.bind.JAXBException;
+import org.niord.core.aton.AtonNode;
+import org.niord.uk.s201.models.S201DatasetInfo;
+import org.niord.uk.s201.utils.S201DatasetBuilder;
+import org.niord.uk.s201.utils.S201DatasetWriter;
+import org.niord.uk.s201.utils.S201JaxbPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The S-201 Dataset Benchmark Class.
+ * <p/>
+ * Measures the generation of S-201 datasets over synthetic AtoN fleets of
+ * different sizes, both by building and marshalling the complete dataset
+ * and by streaming it through the S-201 dataset writer.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class S201DatasetBenchmark {
+
+    @Param({"1", "100", "10000", "100000"})
+    int fleetSize;
+
+    // Benchmark Variables
+    private S201DatasetInfo info;
+    private List<AtonNode> atonNodes;
+
+    /**
+     * Generates the AtoN fleet and warms up the JAXB pool.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws JAXBException {
+        this.info = new S201DatasetInfo("benchmark", "benchmark", Collections.emptyList());
+        this.atonNodes = AtonFleet.generate(this.fleetSize);
+        S201JaxbPool.getInstance().warmUp();
+    }
+
+    /**
+     * Builds the complete S-201 dataset.
+     *
+     * @return the S-201 dataset
+     */
+    @Benchmark
+    public Dataset packageToDataset() {
+        return new S201DatasetBuilder().packageToDataset(this.info, this.atonNodes);
+    }
+
+    /**
+     * Builds and marshals the complete S-201 dataset.
+     *
+     * @return the marshalled S-201 dataset
+     */
+    @Benchmark
+    public String marshalDataset() throws JAXBException {
+        return S201JaxbPool.getInstance().marshal(new S201DatasetBuilder().packageToDataset(this.info, this.atonNodes));
+    }
+
+    /**
+     * Streams the S-201 dataset through the dataset writer.
+     */
+    @Benchmark
+    public void writeDataset() throws IOException, JAXBException {
+        new S201DatasetWriter().write(this.info, this.atonNodes, OutputStream.nullOutputStream());
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.benchmarks;
+
+import jakarta.xml.bind.JAXBException;
+import org.niord.uk.s100.common.utils.S100XmlUtils;
+import org.niord.uk.s125.models.S125DatasetInfo;
+import org.niord.uk.s125.utils.S125DatasetBuilder;
+import org.niord.uk.s125.utils.S125JaxbPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The XML Utilities Benchmark Class.
+ * <p/>
+ * Measures the pretty printing of marshalled S-125 datasets of different
+ * sizes, both into a string and directly into an output stream.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class XmlUtilsBenchmark {
+
+    @Param({"1", "100", "10000", "100000"})
+    int fleetSize;
+
+    @Param({"4"})
+    int indent;
+
+    // Benchmark Variables
+    private String xml;
+    private byte[] xmlBytes;
+
+    /**
+     * Generates the marshalled S-125 dataset of the AtoN fleet.
+     */
+    @Setup(Level.Trial)
+    public void setup() throws JAXBException {
+        this.xml = S125JaxbPool.getInstance().marshal(new S125DatasetBuilder().packageToDataset(
+                new S125DatasetInfo("benchmark", "benchmark", Collections.emptyList()),
+                AtonFleet.generate(this.fleetSize)));
+        this.xmlBytes = this.xml.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pretty prints the marshalled dataset into a string.
+     *
+     * @return the pretty printed dataset
+     */
+    @Benchmark
+    public String xmlPrettyPrintString() {
+        return S100XmlUtils.xmlPrettyPrint(this.xml, this.indent);
+    }
+
+    /**
+     * Pretty prints the marshalled dataset into an output stream.
+     */
+    @Benchmark
+    public void xmlPrettyPrintStream() {
+        S100XmlUtils.xmlPrettyPrint(new ByteArrayInputStream(this.xmlBytes), OutputStream.nullOutputStream(), this.indent);
+    }
+
+}
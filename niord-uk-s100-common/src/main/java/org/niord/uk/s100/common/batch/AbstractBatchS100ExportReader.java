@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.batch;
+
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+import org.apache.commons.lang3.StringUtils;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.batch.AbstractItemHandler;
+import org.niord.uk.s100.common.services.S100AtonLoaderService;
+import org.niord.uk.s100.common.services.S100ExportBudgetService;
+import org.niord.uk.s100.common.services.S100ForkJoinPoolService;
+import org.niord.uk.s100.common.utils.S100DatasetAdapter;
+import org.niord.uk.s100.common.utils.S100DatasetWriter;
+import org.niord.uk.s100.common.utils.S100ExportBudget;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+
+/**
+ * Reads the S-100 dataset of an export batch job as a sequence of marshalled
+ * dataset fragments, i.e. the dataset head, the chunks of dataset members and
+ * the dataset tail.
+ * <p/>
+ * The batch job data file contains the UIDs of the AtoN nodes to be exported,
+ * one per line, in the order they should appear in the dataset. Since the
+ * same AtoN nodes always produce the same fragments, the checkpoint holds the
+ * number of fragments already read, and a restarted job skips them without
+ * generating them again. The checkpoint also holds a digest of the AtoN
+ * nodes, so that a job is never resumed once they have changed.
+ * <p/>
+ * Each S-100 data product (e.g. S-125) provides its own named reader, which
+ * supplies the product dataset information, builder and writer.
+ *
+ * @param <I> the type of the dataset information
+ * @param <B> the type of the dataset builder
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class AbstractBatchS100ExportReader<I, B extends S100DatasetAdapter<I, ?, ?>> extends AbstractItemHandler {
+
+    /**
+     * The batch job property holding the GML dataset identifier.
+     */
+    public static final String DATASET_ID_PROPERTY = "datasetId";
+
+    /**
+     * The batch job property holding the producing organisation.
+     */
+    public static final String ORGANISATION_PROPERTY = "organisation";
+
+    /**
+     * The batch job property holding whether to generate stable dataset IDs.
+     */
+    public static final String STABLE_IDS_PROPERTY = "stableIds";
+
+    /**
+     * The batch job step context, shared with the export writer.
+     */
+    @Inject
+    StepContext stepContext;
+
+    /**
+     * The S-100 AtoN Loader Service.
+     */
+    @Inject
+    S100AtonLoaderService atonLoaderService;
+
+    /**
+     * The S-100 Fork-Join Pool Service.
+     */
+    @Inject
+    S100ForkJoinPoolService forkJoinPoolService;
+
+    /**
+     * The S-100 Export Budget Service.
+     */
+    @Inject
+    S100ExportBudgetService exportBudgetService;
+
+    private Iterator<String> fragments;
+    private int fragmentNo = 0;
+    private int totalFragmentNo;
+    private String digest;
+    private S100ExportBudget.Permit permit;
+
+    /**
+     * Creates the dataset builder of the data product.
+     *
+     * @param stableIds whether to generate stable dataset IDs
+     * @return the dataset builder
+     */
+    protected abstract B createBuilder(boolean stableIds);
+
+    /**
+     * Creates the dataset information of the data product.
+     *
+     * @param datasetId the GML dataset identifier
+     * @param organisation the producing organisation
+     * @param atonNodes the AtoN nodes to be exported
+     * @return the dataset information
+     */
+    protected abstract I createDatasetInfo(String datasetId, String organisation, List<AtonNode> atonNodes);
+
+    /**
+     * Creates the dataset writer of the data product.
+     *
+     * @param builder the dataset builder
+     * @param forkJoinPool the pool to render the member chunks in parallel, if any
+     * @return the dataset writer
+     */
+    protected abstract S100DatasetWriter<I, ?, ?> createWriter(B builder, ForkJoinPool forkJoinPool);
+
+    /**
+     * Returns the number of AtoN nodes to be loaded per query, as configured
+     * for the data product.
+     *
+     * @return the number of AtoN nodes to be loaded per query
+     */
+    protected abstract int getSearchPageSize();
+
+    /** {@inheritDoc} **/
+    @Override
+    public void open(Serializable prevCheckpointInfo) throws Exception {
+
+        try {
+            // Get hold of the data file with the AtoN UIDs
+            final Path path = batchService.getBatchJobDataFile(jobContext.getInstanceId());
+            final List<String> atonUIDs = Files.readAllLines(path, StandardCharsets.UTF_8)
+                    .stream()
+                    .filter(StringUtils::isNotBlank)
+                    .map(String::trim)
+                    .toList();
+
+            // Make sure there is enough memory to export them before loading
+            // any, estimating their number with count-only queries. The
+            // permit is released once the reader is closed
+            permit = exportBudgetService.admit(atonLoaderService.estimateAtonCount(atonUIDs, this.getSearchPageSize()));
+
+            // Load the AtoN nodes, fully initialised since the fragments are
+            // generated across multiple chunk transactions
+            final List<AtonNode> atonNodes = this.loadAtonNodes(atonUIDs);
+
+            // Fast forward to the previous fragment index, as long as the
+            // AtoN nodes are still the ones it was taken for
+            digest = S100ExportCheckpoint.digest(atonNodes);
+            fragmentNo = S100ExportCheckpoint.restore(prevCheckpointInfo, digest, 1)[0];
+
+            // Prepare the dataset fragments, skipping the ones already written
+            final I datasetInfo = this.createDatasetInfo(
+                    (String) job.getProperties().get(DATASET_ID_PROPERTY),
+                    (String) job.getProperties().get(ORGANISATION_PROPERTY),
+                    atonNodes);
+            final B builder = this.createBuilder(Boolean.TRUE.equals(job.getProperties().get(STABLE_IDS_PROPERTY)));
+            fragments = this.createWriter(builder, forkJoinPoolService.getForkJoinPool())
+                    .fragments(datasetInfo, atonNodes, fragmentNo);
+
+            // Estimate the number of fragments for the progress reports
+            final long memberNo = atonNodes.stream().mapToLong(aton -> 1 + builder.getChildren(aton).size()).sum()
+                    + builder.collectAidsToNavigationLinks(atonNodes).size();
+            totalFragmentNo = (int) (2 + (memberNo + S100DatasetWriter.DEFAULT_CHUNK_SIZE - 1) / S100DatasetWriter.DEFAULT_CHUNK_SIZE);
+
+            getLog().info("Start exporting " + atonNodes.size() + " AtoNs from fragment " + fragmentNo + " of " + totalFragmentNo);
+
+        } catch (Exception e) {
+            getLog().log(Level.SEVERE, "Error opening " + jobContext.getJobName() + " data file", e);
+            // Release the export budget, if already admitted
+            this.close();
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public Object readItem() throws Exception {
+        if (fragments.hasNext()) {
+
+            // Every now and then, update the progress
+            if (fragmentNo % 10 == 0) {
+                updateProgress(Math.min(100, (int)(100.0 * fragmentNo / totalFragmentNo)));
+            }
+
+            fragmentNo++;
+            return fragments.next();
+        }
+
+        // Let the writer know that the dataset is complete
+        stepContext.setTransientUserData(Boolean.TRUE);
+        getLog().info("Completed reading all " + fragmentNo + " fragments.");
+        return null;
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void close() throws Exception {
+        // Release the export budget
+        if (permit != null) {
+            permit.close();
+            permit = null;
+        }
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return new S100ExportCheckpoint(digest, new int[]{fragmentNo});
+    }
+
+    /**
+     * Loads the AtoN nodes of the provided UIDs in the same order, along with
+     * everything the dataset members are generated from, i.e. their tags,
+     * their parents, their links and all their children.
+     *
+     * @param atonUIDs the UIDs of the AtoN nodes to load
+     * @return the loaded AtoN nodes
+     */
+    protected List<AtonNode> loadAtonNodes(List<String> atonUIDs) {
+        final List<AtonNode> atonNodes = atonLoaderService.loadAtonNodes(atonUIDs, this.getSearchPageSize());
+
+        // Make sure nothing is lazily loaded outside of this transaction
+        atonLoaderService.initialiseAtonNodes(atonNodes);
+
+        if (atonNodes.size() < atonUIDs.size()) {
+            getLog().warning("Exporting " + atonNodes.size() + " out of " + atonUIDs.size() + " AtoNs, the rest no longer exist");
+        }
+        return atonNodes;
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.batch;
+
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+import org.niord.core.batch.AbstractItemHandler;
+import org.niord.core.repo.RepositoryService;
+import org.niord.uk.s100.common.utils.S100SchemaValidator;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Writes the S-100 dataset fragments of an export batch job into the
+ * repository.
+ * <p/>
+ * The fragments are appended to a partial file, which is synced to disk at
+ * the end of every chunk, so the checkpoint is simply the length of the
+ * partial file. A restarted job truncates the partial file back to the last
+ * checkpoint and carries on from there. Once all the fragments have been
+ * written, the partial file is renamed to the final export file, so that an
+ * incomplete dataset is never served for download. If requested, the
+ * dataset is validated against the product schema before that, and the job
+ * fails instead of publishing an invalid dataset.
+ * <p/>
+ * Each S-100 data product (e.g. S-125) provides its own named writer, which
+ * supplies the product export folder and schema validator.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class AbstractBatchS100ExportWriter extends AbstractItemHandler {
+
+    /**
+     * The suffix of the exported datasets still being written.
+     */
+    public static final String PARTIAL_SUFFIX = ".part";
+
+    /**
+     * The batch job property defining whether to validate the dataset.
+     */
+    public static final String VALIDATE_PROPERTY = "validate";
+
+    /**
+     * The batch job step context, shared with the export reader.
+     */
+    @Inject
+    StepContext stepContext;
+
+    /**
+     * The Repository Service.
+     */
+    @Inject
+    RepositoryService repositoryService;
+
+    private String datasetId;
+    private Path exportFile;
+    private Path partialFile;
+    private FileChannel channel;
+    private long position = 0L;
+
+    /**
+     * Returns the name of the data product, e.g. "S-125".
+     *
+     * @return the data product name
+     */
+    protected abstract String getProduct();
+
+    /**
+     * Returns the repository folder of the exported datasets of the data
+     * product.
+     *
+     * @return the export folder
+     */
+    protected abstract String getExportFolder();
+
+    /**
+     * Returns the schema validator of the data product.
+     *
+     * @return the schema validator
+     */
+    protected abstract S100SchemaValidator getSchemaValidator();
+
+    /**
+     * Returns the path of the exported dataset with the provided GML dataset
+     * identifier.
+     *
+     * @param repoRoot the repository root
+     * @param exportFolder the repository folder of the exported datasets
+     * @param datasetId the GML dataset identifier
+     * @return the path of the exported dataset
+     */
+    public static Path getExportFile(Path repoRoot, String exportFolder, String datasetId) {
+        return repoRoot.resolve(exportFolder).resolve(datasetId + ".gml");
+    }
+
+    /**
+     * Returns the path of the exported dataset with the provided GML dataset
+     * identifier, while it is still being written.
+     *
+     * @param repoRoot the repository root
+     * @param exportFolder the repository folder of the exported datasets
+     * @param datasetId the GML dataset identifier
+     * @return the path of the partially exported dataset
+     */
+    public static Path getPartialExportFile(Path repoRoot, String exportFolder, String datasetId) {
+        return repoRoot.resolve(exportFolder).resolve(datasetId + ".gml" + PARTIAL_SUFFIX);
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void open(Serializable prevCheckpointInfo) throws Exception {
+
+        try {
+            // Resolve the export files
+            datasetId = (String) job.getProperties().get(AbstractBatchS100ExportReader.DATASET_ID_PROPERTY);
+            exportFile = getExportFile(repositoryService.getRepoRoot(), this.getExportFolder(), datasetId);
+            partialFile = getPartialExportFile(repositoryService.getRepoRoot(), this.getExportFolder(), datasetId);
+            Files.createDirectories(partialFile.getParent());
+
+            // Drop anything written after the previous checkpoint
+            if (prevCheckpointInfo != null) {
+                position = (Long) prevCheckpointInfo;
+            }
+            channel = FileChannel.open(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(position);
+            channel.position(position);
+
+            getLog().info("Start writing " + partialFile + " from byte " + position);
+
+        } catch (Exception e) {
+            getLog().log(Level.SEVERE, "Error opening " + jobContext.getJobName() + " output file", e);
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void writeItems(List<Object> items) throws Exception {
+        for (Object item : items) {
+            final ByteBuffer buffer = StandardCharsets.UTF_8.encode((String) item);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        }
+
+        // Make sure the checkpoint only covers what is on disk
+        channel.force(false);
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return position;
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void close() throws Exception {
+        if (channel != null) {
+            channel.close();
+        }
+
+        // Publish the export file only once the dataset is complete
+        if (Boolean.TRUE.equals(stepContext.getTransientUserData()) && stepContext.getException() == null) {
+            if (Boolean.TRUE.equals(job.getProperties().get(VALIDATE_PROPERTY))) {
+                validate();
+            }
+            Files.move(partialFile, exportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            getLog().info("Completed writing " + exportFile + " with " + position + " bytes.");
+        }
+    }
+
+    /**
+     * Validates the complete partial file against the product schema.
+     *
+     * @throws Exception if the dataset is not valid
+     */
+    private void validate() throws Exception {
+        final S100SchemaValidator.Validation validation = this.getSchemaValidator()
+                .newValidation(datasetId)
+                .validate(partialFile)
+                .complete();
+        if (!validation.isValid()) {
+            getLog().severe("The " + this.getProduct() + " dataset " + datasetId + " failed the schema validation with " + validation.getErrorCount() + " errors");
+            validation.getErrors().forEach(getLog()::severe);
+            throw new Exception("The " + this.getProduct() + " dataset " + datasetId + " failed the schema validation: " + String.join("; ", validation.getErrors()));
+        }
+        getLog().info("Validated " + partialFile + " in " + validation.getValidationTimeMillis() + " ms");
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.batch;
+
+import org.niord.core.aton.AtonLink;
+import org.niord.core.aton.AtonNode;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * The checkpoint of an S-100 export batch job, i.e. the number of dataset
+ * fragments already read for each exported product, along with a digest of
+ * the AtoN nodes the fragments were generated from.
+ * <p/>
+ * The fragments are only skipped when a job is restarted, instead of being
+ * generated again, so they must line up with the ones already written. The
+ * digest covers the order, the versions, the children and the links of the
+ * exported AtoN nodes, which is everything that decides where each fragment
+ * starts, and a restart is refused as soon as it no longer matches.
+ *
+ * @param digest        The digest of the exported AtoN nodes
+ * @param fragmentNos   The number of fragments already read for each product
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public record S100ExportCheckpoint(String digest, int[] fragmentNos) implements Serializable {
+
+    /**
+     * Restores the number of fragments already read for each product out of
+     * the provided previous checkpoint, making sure it was taken for the
+     * same AtoN nodes.
+     *
+     * @param prevCheckpointInfo    The previous checkpoint, if any
+     * @param digest                The digest of the AtoN nodes being exported
+     * @param products              The number of products being exported
+     * @return the number of fragments already read for each product
+     * @throws IllegalStateException if the checkpoint does not match the AtoN nodes
+     */
+    public static int[] restore(Serializable prevCheckpointInfo, String digest, int products) {
+        // Sanity Check
+        if(prevCheckpointInfo == null) {
+            return new int[products];
+        }
+
+        // Only resume from the checkpoints of the same AtoN nodes
+        if(!(prevCheckpointInfo instanceof S100ExportCheckpoint checkpoint)
+                || checkpoint.fragmentNos() == null
+                || checkpoint.fragmentNos().length != products) {
+            throw new IllegalStateException("Cannot restart the S-100 export from an unknown checkpoint: " + prevCheckpointInfo);
+        }
+        if(!checkpoint.digest().equals(digest)) {
+            throw new IllegalStateException("Cannot restart the S-100 export since the exported AtoNs have changed in the meantime");
+        }
+        return checkpoint.fragmentNos().clone();
+    }
+
+    /**
+     * Generates the digest of the provided AtoN nodes, out of their UIDs and
+     * versions in the dataset order, along with the IDs of their links and,
+     * all the way down, their children in the same way.
+     *
+     * @param atonNodes     The exported AtoN nodes
+     * @return the hex encoded digest of the AtoN nodes
+     */
+    public static String digest(List<AtonNode> atonNodes) {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        digest(messageDigest, atonNodes);
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    /**
+     * Updates the provided message digest with the provided AtoN nodes. The
+     * links and the children are always digested in the order of their IDs,
+     * no matter what order they were loaded in.
+     *
+     * @param messageDigest The message digest to be updated
+     * @param atonNodes     The AtoN nodes to be digested
+     */
+    private static void digest(MessageDigest messageDigest, List<AtonNode> atonNodes) {
+        for(AtonNode atonNode : atonNodes) {
+            final StringBuilder entry = new StringBuilder()
+                    .append(atonNode.getAtonUid())
+                    .append(':').append(atonNode.getChangeset())
+                    .append(':');
+            Optional.ofNullable(atonNode.getLinks())
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .map(AtonLink::getId)
+                    .sorted(Comparator.nullsLast(Comparator.naturalOrder()))
+                    .forEach(id -> entry.append(id).append(','));
+            messageDigest.update(entry.append('[').toString().getBytes(StandardCharsets.UTF_8));
+            digest(messageDigest, Optional.ofNullable(atonNode.getChildren())
+                    .stream()
+                    .flatMap(Collection::stream)
+                    .sorted(Comparator.comparing(AtonNode::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList());
+            messageDigest.update((byte) ']');
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * The S-100 AtoN Record Entity.
+ * <p/>
+ * Niord does not keep any history of the deleted AtoN nodes, so this entity
+ * keeps a record of every AtoN UID that has been seen while generating the
+ * S-100 (e.g. S-125 and S-201) update datasets. When an AtoN UID is no
+ * longer present, its record is marked as deleted, so that the deletion can
+ * be reported to the consumers of the update datasets. The records are
+ * shared by all the data products, since they only concern the AtoN nodes
+ * themselves.
+ * <p/>
+ * Each record also keeps the ID and the changeset of the AtoN node it was
+ * last seen with. The IDs allow picking up the newly created AtoN nodes
+ * incrementally, while the changesets make sure that the changesets handed
+ * out to the consumers never go backwards, even after the AtoN node with
+ * the latest changeset has been deleted.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "IDX_S100_ATON_RECORD_DELETED", columnList = "deletedChangeset")
+})
+@NamedQueries({
+        @NamedQuery(name  = "S100AtonRecord.findWatermarks",
+                query = "select max(r.nodeId), max(r.changeset), max(r.deletedChangeset) from S100AtonRecord r"),
+        @NamedQuery(name  = "S100AtonRecord.findByAtonUids",
+                query = "select r from S100AtonRecord r where r.atonUid in (:atonUids)"),
+        @NamedQuery(name  = "S100AtonRecord.countPresent",
+                query = "select count(r) from S100AtonRecord r where r.deletedChangeset is null"),
+        @NamedQuery(name  = "S100AtonRecord.findDeletedSince",
+                query = "select r.atonUid from S100AtonRecord r where r.deletedChangeset >= :changeset order by r.deletedChangeset, r.atonUid"),
+        @NamedQuery(name  = "S100AtonRecord.markDeleted",
+                query = "update S100AtonRecord r set r.deletedChangeset = :changeset, r.deletedDate = :date " +
+                        "where r.deletedChangeset is null and not exists (select n.id from AtonNode n where n.atonUid = r.atonUid)")
+})
+public class S100AtonRecord {
+
+    // Class Variables
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(unique = true, nullable = false)
+    private String atonUid;
+
+    private Integer nodeId;
+
+    private Integer changeset;
+
+    private Integer deletedChangeset;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date deletedDate;
+
+    /**
+     * Empty Constructor.
+     */
+    public S100AtonRecord() {
+    }
+
+    /**
+     * Constructor for a newly seen AtoN UID.
+     *
+     * @param atonUid the AtoN UID
+     */
+    public S100AtonRecord(String atonUid) {
+        this.atonUid = atonUid;
+    }
+
+    /**
+     * Gets id.
+     *
+     * @return the id
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Sets id.
+     *
+     * @param id the id
+     */
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets aton uid.
+     *
+     * @return the aton uid
+     */
+    public String getAtonUid() {
+        return atonUid;
+    }
+
+    /**
+     * Sets aton uid.
+     *
+     * @param atonUid the aton uid
+     */
+    public void setAtonUid(String atonUid) {
+        this.atonUid = atonUid;
+    }
+
+    /**
+     * Gets node id.
+     *
+     * @return the node id
+     */
+    public Integer getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Sets node id.
+     *
+     * @param nodeId the node id
+     */
+    public void setNodeId(Integer nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Gets changeset.
+     *
+     * @return the changeset
+     */
+    public Integer getChangeset() {
+        return changeset;
+    }
+
+    /**
+     * Sets changeset.
+     *
+     * @param changeset the changeset
+     */
+    public void setChangeset(Integer changeset) {
+        this.changeset = changeset;
+    }
+
+    /**
+     * Gets deleted changeset.
+     *
+     * @return the deleted changeset
+     */
+    public Integer getDeletedChangeset() {
+        return deletedChangeset;
+    }
+
+    /**
+     * Sets deleted changeset.
+     *
+     * @param deletedChangeset the deleted changeset
+     */
+    public void setDeletedChangeset(Integer deletedChangeset) {
+        this.deletedChangeset = deletedChangeset;
+    }
+
+    /**
+     * Gets deleted date.
+     *
+     * @return the deleted date
+     */
+    public Date getDeletedDate() {
+        return deletedDate;
+    }
+
+    /**
+     * Sets deleted date.
+     *
+     * @param deletedDate the deleted date
+     */
+    public void setDeletedDate(Date deletedDate) {
+        this.deletedDate = deletedDate;
+    }
+
+}
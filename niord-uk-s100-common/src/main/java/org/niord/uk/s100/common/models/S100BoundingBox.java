@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models;
+
+import org.niord.core.aton.AtonNode;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * The S-100 Bounding Box Class.
+ * <p/>
+ * The geographic bounding box the AtoN nodes of an S-100 dataset (e.g.
+ * S-125) are requested within. Bounding boxes crossing the antimeridian are
+ * given with a minimum longitude greater than the maximum one.
+ *
+ * @param minLat    The minimum latitude
+ * @param minLon    The minimum longitude
+ * @param maxLat    The maximum latitude
+ * @param maxLon    The maximum longitude
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public record S100BoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+
+    /**
+     * Creates the bounding box of the provided request parameters, validating
+     * that either all or none of them have been provided, and that they lie
+     * within the valid latitude and longitude ranges.
+     *
+     * @param minLat    The minimum latitude
+     * @param minLon    The minimum longitude
+     * @param maxLat    The maximum latitude
+     * @param maxLon    The maximum longitude
+     * @return the bounding box, or null if none of the parameters have been provided
+     * @throws IllegalArgumentException for invalid bounding box parameters
+     */
+    public static S100BoundingBox of(Double minLat, Double minLon, Double maxLat, Double maxLon) {
+        final long bboxParams = Stream.of(minLat, minLon, maxLat, maxLon).filter(Objects::nonNull).count();
+        if(bboxParams == 0) {
+            return null;
+        } else if(bboxParams != 4) {
+            throw new IllegalArgumentException("The bounding box requires all of minLat, minLon, maxLat and maxLon");
+        } else if(Stream.of(minLat, maxLat).anyMatch(lat -> lat < -90.0 || lat > 90.0)
+                || Stream.of(minLon, maxLon).anyMatch(lon -> lon < -180.0 || lon > 180.0)) {
+            throw new IllegalArgumentException("The bounding box must lie within latitudes -90 to 90 and longitudes -180 to 180");
+        } else if(minLat > maxLat) {
+            throw new IllegalArgumentException("The bounding box minLat must not exceed its maxLat");
+        }
+        return new S100BoundingBox(minLat, minLon, maxLat, maxLon);
+    }
+
+    /**
+     * Checks whether the provided position lies within the bounding box,
+     * including its edges.
+     *
+     * @param lat       The latitude of the position
+     * @param lon       The longitude of the position
+     * @return whether the position lies within the bounding box
+     */
+    public boolean contains(double lat, double lon) {
+        if(lat < this.minLat || lat > this.maxLat) {
+            return false;
+        }
+        return this.minLon <= this.maxLon
+                ? lon >= this.minLon && lon <= this.maxLon
+                : lon >= this.minLon || lon <= this.maxLon;
+    }
+
+    /**
+     * Checks whether the position of the provided AtoN node lies within the
+     * bounding box. AtoN nodes without a position never do.
+     *
+     * @param atonNode  The AtoN node
+     * @return whether the AtoN node lies within the bounding box
+     */
+    public boolean contains(AtonNode atonNode) {
+        return atonNode.getLat() != null
+                && atonNode.getLon() != null
+                && this.contains(atonNode.getLat(), atonNode.getLon());
+    }
+
+}
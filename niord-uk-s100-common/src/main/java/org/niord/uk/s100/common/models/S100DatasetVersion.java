@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * The S-100 Dataset Version Class.
+ * <p/>
+ * Summarises the state of the AtoN nodes an S-100 dataset (e.g. S-125) is
+ * generated from, i.e. the latest changeset, the latest modification time
+ * and the number of AtoN nodes, so that the freshness of a previously
+ * generated dataset can be checked without generating it again. The latest
+ * changeset and modification time cover any created or modified AtoN node,
+ * while the number of AtoN nodes covers any deleted ones.
+ *
+ * @param changeset     The latest AtoN node changeset
+ * @param lastModified  The latest AtoN node modification time
+ * @param count         The number of AtoN nodes
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public record S100DatasetVersion(int changeset, Date lastModified, long count) {
+
+    /**
+     * Generates a tag that uniquely identifies the dataset generated out of
+     * this version of the AtoN nodes, with the provided request parameters.
+     * The tag only depends on the version and the parameters, so anything
+     * else the dataset depends on, e.g. the reference date of a strongly
+     * tagged dataset, has to be passed as a parameter.
+     *
+     * @param parameters    The request parameters the dataset depends on
+     * @return the dataset tag
+     */
+    public String tag(Object... parameters) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        digest.update("%d:%d:%d".formatted(this.changeset, this.lastModified().getTime(), this.count)
+                .getBytes(StandardCharsets.UTF_8));
+        for(Object parameter : parameters) {
+            digest.update(("|" + parameter).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    /**
+     * Returns the latest AtoN node modification time, truncated to seconds
+     * as required by the HTTP date headers.
+     *
+     * @return the latest AtoN node modification time
+     */
+    @Override
+    public Date lastModified() {
+        return new Date(this.lastModified == null ? 0L : this.lastModified.getTime() / 1000L * 1000L);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models.vo;
+
+/**
+ * The S-100 Dataset Export Job Vo Class.
+ * <p>
+ * This is a VO object to transfer the information about the export batch
+ * job of a single S-100 (e.g. S-125) dataset, i.e. the batch job execution
+ * ID, the GML identifier of the exported dataset and the URL it can be
+ * downloaded from once the batch job has completed.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100DatasetExportJobVo {
+
+    // Class Variables
+    private long jobId;
+    private String datasetId;
+    private String downloadUrl;
+
+    /**
+     * Gets job id.
+     *
+     * @return the job id
+     */
+    public long getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Sets job id.
+     *
+     * @param jobId the job id
+     */
+    public void setJobId(long jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Gets dataset id.
+     *
+     * @return the dataset id
+     */
+    public String getDatasetId() {
+        return datasetId;
+    }
+
+    /**
+     * Sets dataset id.
+     *
+     * @param datasetId the dataset id
+     */
+    public void setDatasetId(String datasetId) {
+        this.datasetId = datasetId;
+    }
+
+    /**
+     * Gets download url.
+     *
+     * @return the download url
+     */
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+
+    /**
+     * Sets download url.
+     *
+     * @param downloadUrl the download url
+     */
+    public void setDownloadUrl(String downloadUrl) {
+        this.downloadUrl = downloadUrl;
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models.vo;
+
+import java.util.List;
+
+/**
+ * The S-100 Dataset Update Vo Class.
+ * <p>
+ * This is a VO object to transfer the information about an S-100 update
+ * dataset, i.e. the changeset it was generated since, the latest changeset
+ * it includes, which should be used as the base of the next update, and
+ * the UIDs of the AtoNs deleted in the meantime.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100DatasetUpdateVo {
+
+    // Class Variables
+    private int since;
+    private int changeset;
+    private List<String> deleted;
+
+    /**
+     * Gets since.
+     *
+     * @return the since
+     */
+    public int getSince() {
+        return since;
+    }
+
+    /**
+     * Sets since.
+     *
+     * @param since the since
+     */
+    public void setSince(int since) {
+        this.since = since;
+    }
+
+    /**
+     * Gets changeset.
+     *
+     * @return the changeset
+     */
+    public int getChangeset() {
+        return changeset;
+    }
+
+    /**
+     * Sets changeset.
+     *
+     * @param changeset the changeset
+     */
+    public void setChangeset(int changeset) {
+        this.changeset = changeset;
+    }
+
+    /**
+     * Gets deleted.
+     *
+     * @return the deleted
+     */
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Sets deleted.
+     *
+     * @param deleted the deleted
+     */
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+
+}
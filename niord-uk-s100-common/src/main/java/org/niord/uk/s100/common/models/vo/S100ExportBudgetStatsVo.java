@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models.vo;
+
+/**
+ * The S-100 Export Budget Statistics Vo Class.
+ * <p>
+ * This is a VO object to transfer the current usage of the S-100 export
+ * memory budget, i.e. how much of it is reserved by the running exports and
+ * how many exports are queued waiting for it, so that it can be sized
+ * appropriately.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExportBudgetStatsVo {
+
+    // Class Variables
+    private long budget;
+    private long used;
+    private int active;
+    private int queued;
+    private int maxQueued;
+    private long admitted;
+    private long delayed;
+    private long rejected;
+    private long waitTimeMillis;
+
+    /**
+     * Gets budget.
+     *
+     * @return the budget
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets budget.
+     *
+     * @param budget the budget
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Gets used.
+     *
+     * @return the used
+     */
+    public long getUsed() {
+        return used;
+    }
+
+    /**
+     * Sets used.
+     *
+     * @param used the used
+     */
+    public void setUsed(long used) {
+        this.used = used;
+    }
+
+    /**
+     * Gets active.
+     *
+     * @return the active
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * Sets active.
+     *
+     * @param active the active
+     */
+    public void setActive(int active) {
+        this.active = active;
+    }
+
+    /**
+     * Gets queued.
+     *
+     * @return the queued
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Sets queued.
+     *
+     * @param queued the queued
+     */
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * Gets max queued.
+     *
+     * @return the max queued
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Sets max queued.
+     *
+     * @param maxQueued the max queued
+     */
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Gets admitted.
+     *
+     * @return the admitted
+     */
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * Sets admitted.
+     *
+     * @param admitted the admitted
+     */
+    public void setAdmitted(long admitted) {
+        this.admitted = admitted;
+    }
+
+    /**
+     * Gets delayed.
+     *
+     * @return the delayed
+     */
+    public long getDelayed() {
+        return delayed;
+    }
+
+    /**
+     * Sets delayed.
+     *
+     * @param delayed the delayed
+     */
+    public void setDelayed(long delayed) {
+        this.delayed = delayed;
+    }
+
+    /**
+     * Gets rejected.
+     *
+     * @return the rejected
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Sets rejected.
+     *
+     * @param rejected the rejected
+     */
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    /**
+     * Gets wait time millis.
+     *
+     * @return the wait time millis
+     */
+    public long getWaitTimeMillis() {
+        return waitTimeMillis;
+    }
+
+    /**
+     * Sets wait time millis.
+     *
+     * @param waitTimeMillis the wait time millis
+     */
+    public void setWaitTimeMillis(long waitTimeMillis) {
+        this.waitTimeMillis = waitTimeMillis;
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models.vo;
+
+/**
+ * The S-100 JAXB Pool Statistics Vo Class.
+ * <p>
+ * This is a VO object to transfer the current usage statistics of the
+ * JAXB marshaller/unmarshaller pool of an S-100 data product, so that it
+ * can be sized appropriately.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100JaxbPoolStatsVo {
+
+    // Class Variables
+    private int size;
+    private int idleMarshallers;
+    private int idleUnmarshallers;
+    private long hits;
+    private long misses;
+    private long waits;
+    private long waitTimeMillis;
+
+    /**
+     * Gets size.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets size.
+     *
+     * @param size the size
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets idle marshallers.
+     *
+     * @return the idle marshallers
+     */
+    public int getIdleMarshallers() {
+        return idleMarshallers;
+    }
+
+    /**
+     * Sets idle marshallers.
+     *
+     * @param idleMarshallers the idle marshallers
+     */
+    public void setIdleMarshallers(int idleMarshallers) {
+        this.idleMarshallers = idleMarshallers;
+    }
+
+    /**
+     * Gets idle unmarshallers.
+     *
+     * @return the idle unmarshallers
+     */
+    public int getIdleUnmarshallers() {
+        return idleUnmarshallers;
+    }
+
+    /**
+     * Sets idle unmarshallers.
+     *
+     * @param idleUnmarshallers the idle unmarshallers
+     */
+    public void setIdleUnmarshallers(int idleUnmarshallers) {
+        this.idleUnmarshallers = idleUnmarshallers;
+    }
+
+    /**
+     * Gets hits.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Sets hits.
+     *
+     * @param hits the hits
+     */
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * Gets misses.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Sets misses.
+     *
+     * @param misses the misses
+     */
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * Gets waits.
+     *
+     * @return the waits
+     */
+    public long getWaits() {
+        return waits;
+    }
+
+    /**
+     * Sets waits.
+     *
+     * @param waits the waits
+     */
+    public void setWaits(long waits) {
+        this.waits = waits;
+    }
+
+    /**
+     * Gets wait time millis.
+     *
+     * @return the wait time millis
+     */
+    public long getWaitTimeMillis() {
+        return waitTimeMillis;
+    }
+
+    /**
+     * Sets wait time millis.
+     *
+     * @param waitTimeMillis the wait time millis
+     */
+    public void setWaitTimeMillis(long waitTimeMillis) {
+        this.waitTimeMillis = waitTimeMillis;
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models.vo;
+
+import java.util.Set;
+
+/**
+ * The S-100 Preset Plan Vo Class.
+ * <p>
+ * This is a VO object to transfer a summary of the preset plan of an S-100
+ * data product (e.g. S-125), i.e. the digest of the preset it was compiled
+ * from, how many tag keys and seamark types it defines and whether it was
+ * read from the cache, along with the drift between the preset and the tag
+ * mappings of the data product.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100PresetPlanVo {
+
+    // Class Variables
+    private String digest;
+    private int keys;
+    private int types;
+    private boolean cached;
+    private long loadTimeMillis;
+    private Set<String> undefinedKeys;
+    private Set<String> unmappedKeys;
+
+    /**
+     * Gets digest.
+     *
+     * @return the digest
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Sets digest.
+     *
+     * @param digest the digest
+     */
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    /**
+     * Gets keys.
+     *
+     * @return the keys
+     */
+    public int getKeys() {
+        return keys;
+    }
+
+    /**
+     * Sets keys.
+     *
+     * @param keys the keys
+     */
+    public void setKeys(int keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Gets types.
+     *
+     * @return the types
+     */
+    public int getTypes() {
+        return types;
+    }
+
+    /**
+     * Sets types.
+     *
+     * @param types the types
+     */
+    public void setTypes(int types) {
+        this.types = types;
+    }
+
+    /**
+     * Is cached boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Sets cached.
+     *
+     * @param cached the cached
+     */
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    /**
+     * Gets load time millis.
+     *
+     * @return the load time millis
+     */
+    public long getLoadTimeMillis() {
+        return loadTimeMillis;
+    }
+
+    /**
+     * Sets load time millis.
+     *
+     * @param loadTimeMillis the load time millis
+     */
+    public void setLoadTimeMillis(long loadTimeMillis) {
+        this.loadTimeMillis = loadTimeMillis;
+    }
+
+    /**
+     * Gets undefined keys, i.e. the mapped tag keys the preset does not
+     * define.
+     *
+     * @return the undefined keys
+     */
+    public Set<String> getUndefinedKeys() {
+        return undefinedKeys;
+    }
+
+    /**
+     * Sets undefined keys.
+     *
+     * @param undefinedKeys the undefined keys
+     */
+    public void setUndefinedKeys(Set<String> undefinedKeys) {
+        this.undefinedKeys = undefinedKeys;
+    }
+
+    /**
+     * Gets unmapped keys, i.e. the preset tag keys no tag mapping uses.
+     *
+     * @return the unmapped keys
+     */
+    public Set<String> getUnmappedKeys() {
+        return unmappedKeys;
+    }
+
+    /**
+     * Sets unmapped keys.
+     *
+     * @param unmappedKeys the unmapped keys
+     */
+    public void setUnmappedKeys(Set<String> unmappedKeys) {
+        this.unmappedKeys = unmappedKeys;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models.vo;
+
+import java.util.List;
+
+/**
+ * The S-100 Validation Statistics Vo Class.
+ * <p>
+ * This is a VO object to transfer the current statistics of the schema
+ * validation of an S-100 data product, i.e. how many datasets were
+ * validated, how many of them failed and with how many errors, and how long
+ * the validation took, along with the errors of the last failed dataset.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ValidationStatsVo {
+
+    // Class Variables
+    private long validations;
+    private long failures;
+    private long errors;
+    private long validationTimeMillis;
+    private String lastFailure;
+    private List<String> lastErrors;
+
+    /**
+     * Gets validations.
+     *
+     * @return the validations
+     */
+    public long getValidations() {
+        return validations;
+    }
+
+    /**
+     * Sets validations.
+     *
+     * @param validations the validations
+     */
+    public void setValidations(long validations) {
+        this.validations = validations;
+    }
+
+    /**
+     * Gets failures.
+     *
+     * @return the failures
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Sets failures.
+     *
+     * @param failures the failures
+     */
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+
+    /**
+     * Gets errors.
+     *
+     * @return the errors
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets errors.
+     *
+     * @param errors the errors
+     */
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Gets validation time millis.
+     *
+     * @return the validation time millis
+     */
+    public long getValidationTimeMillis() {
+        return validationTimeMillis;
+    }
+
+    /**
+     * Sets validation time millis.
+     *
+     * @param validationTimeMillis the validation time millis
+     */
+    public void setValidationTimeMillis(long validationTimeMillis) {
+        this.validationTimeMillis = validationTimeMillis;
+    }
+
+    /**
+     * Gets last failure.
+     *
+     * @return the last failure
+     */
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Sets last failure.
+     *
+     * @param lastFailure the last failure
+     */
+    public void setLastFailure(String lastFailure) {
+        this.lastFailure = lastFailure;
+    }
+
+    /**
+     * Gets last errors.
+     *
+     * @return the last errors
+     */
+    public List<String> getLastErrors() {
+        return lastErrors;
+    }
+
+    /**
+     * Sets last errors.
+     *
+     * @param lastErrors the last errors
+     */
+    public void setLastErrors(List<String> lastErrors) {
+        this.lastErrors = lastErrors;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.niord.core.aton.AtonLink;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonService;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The S-100 AtoN Loader Service
+ * <p/>
+ * Loads the AtoN nodes of previously resolved S-100 datasets by their UIDs,
+ * in pages to keep the queries within the database parameter limits, or
+ * estimates their number without loading any of them. It is shared by the
+ * dataset services of all the data products and by the export batch jobs,
+ * which also need the AtoN nodes to be fully initialised since their
+ * datasets are generated across multiple chunk transactions.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S100AtonLoaderService {
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    AtonService atonService;
+
+    /**
+     * Loads the AtoN nodes of the provided UIDs in the same order, querying
+     * the provided number of UIDs at a time. Any AtoN nodes deleted in the
+     * meantime are skipped.
+     *
+     * @param atonUIDs the UIDs of the AtoN nodes to load
+     * @param pageSize the number of UIDs per query
+     * @return the loaded AtoN nodes
+     */
+    public List<AtonNode> loadAtonNodes(List<String> atonUIDs, int pageSize) {
+        final Map<String, AtonNode> atonNodesByUid = new HashMap<>();
+        for(int i = 0; i < atonUIDs.size(); i += pageSize) {
+            this.atonService.findByAtonUids(atonUIDs.subList(i, Math.min(atonUIDs.size(), i + pageSize)).toArray(String[]::new))
+                    .forEach(atonNode -> atonNodesByUid.putIfAbsent(atonNode.getAtonUid(), atonNode));
+        }
+        return atonUIDs.stream()
+                .map(atonNodesByUid::get)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Initialises everything the dataset members of the provided AtoN nodes
+     * are generated from, i.e. their tags, their parents, their links along
+     * with the linked AtoN nodes and, all the way down, their children in
+     * the same way. This way nothing is lazily loaded once the transaction
+     * the AtoN nodes were loaded in is over.
+     *
+     * @param atonNodes the AtoN nodes to be initialised
+     */
+    public void initialiseAtonNodes(List<AtonNode> atonNodes) {
+        final Set<AtonNode> initialised = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<AtonNode> pending = new ArrayDeque<>(atonNodes);
+        while(!pending.isEmpty()) {
+            final AtonNode atonNode = pending.poll();
+            if(!initialised.add(atonNode)) {
+                continue;
+            }
+            Hibernate.initialize(atonNode.getTags());
+            Hibernate.initialize(atonNode.getParent());
+            Hibernate.initialize(atonNode.getLinks());
+            for(AtonLink atonLink : atonNode.getLinks()) {
+                Hibernate.initialize(atonLink.getPeers());
+            }
+            Hibernate.initialize(atonNode.getChildren());
+            pending.addAll(atonNode.getChildren());
+        }
+    }
+
+    /**
+     * Estimates the number of AtoN nodes an S-100 dataset for the provided
+     * UIDs consists of without loading any of them, so that the export can
+     * be admitted before the AtoN nodes are loaded. The estimate counts the
+     * AtoN nodes, their children and the AtoN nodes they are directly linked
+     * with, querying the provided number of UIDs at a time.
+     *
+     * @param atonUIDs the UIDs of the AtoN nodes
+     * @param pageSize the number of UIDs per query
+     * @return the estimated number of AtoN nodes
+     */
+    public int estimateAtonCount(List<String> atonUIDs, int pageSize) {
+        long count = 0L;
+        for(int i = 0; i < atonUIDs.size(); i += pageSize) {
+            final List<String> page = atonUIDs.subList(i, Math.min(atonUIDs.size(), i + pageSize));
+            count += this.em.createQuery("select count(n) from AtonNode n " +
+                            "left join n.parent p " +
+                            "where n.atonUid in (:atonUids) or p.atonUid in (:atonUids)", Long.class)
+                    .setParameter("atonUids", page)
+                    .getSingleResult();
+            count += this.em.createQuery("select count(distinct peer) from AtonNode n " +
+                            "join n.links l " +
+                            "join l.peers peer " +
+                            "where n.atonUid in (:atonUids)", Long.class)
+                    .setParameter("atonUids", page)
+                    .getSingleResult();
+        }
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+}
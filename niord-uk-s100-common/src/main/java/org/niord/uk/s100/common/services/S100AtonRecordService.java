@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.niord.uk.s100.common.models.S100AtonRecord;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The S-100 AtoN Record Service
+ * <p/>
+ * Keeps the S-100 AtoN records in line with the AtoN nodes currently in
+ * Niord, so that the update datasets of all the S-100 data products (e.g.
+ * S-125 and S-201) can report the AtoNs deleted since a given changeset.
+ * The records are first populated on start-up, and then reconciled
+ * periodically by a scheduled task, so that the update requests only ever
+ * read them. Each reconciliation is incremental, i.e. only the AtoN nodes
+ * created or modified since the previous one are loaded, while the deleted
+ * ones are detected in the database, and it is skipped altogether when no
+ * AtoN node has been created, modified or deleted in the meantime.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S100AtonRecordService {
+
+    /**
+     * The maximum number of AtoN UIDs updated in a single statement.
+     */
+    public static final int UPDATE_BATCH_SIZE = 1000;
+
+    @Inject
+    Logger log;
+
+    @Inject
+    EntityManager em;
+
+    // Service Variables
+    private final Object lock = new Object();
+    private List<Number> reconciledState;
+
+    /**
+     * Populates the AtoN records on start-up, so that the AtoN nodes deleted
+     * from then on can be reported.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        try {
+            this.reconcile();
+        } catch (RuntimeException ex) {
+            log.error("Failed to populate the S-100 AtoN records: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Reconciles the AtoN records periodically, so that the AtoN nodes
+     * deleted in the meantime are picked up without the update requests
+     * having to write anything.
+     */
+    @Scheduled(every = "${niord.s100.aton-records.reconcile-interval:60s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledReconcile() {
+        try {
+            this.reconcile();
+        } catch (RuntimeException ex) {
+            log.error("Failed to reconcile the S-100 AtoN records: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Brings the S-100 AtoN records in line with the AtoN nodes currently in
+     * Niord, marking the records of the AtoN nodes no longer present as
+     * deleted, and returns the changeset to be used as the base of the next
+     * update dataset. Nothing is written when neither the latest changeset
+     * nor the number of AtoN nodes has changed since the previous
+     * reconciliation, since no AtoN node can have been created, modified or
+     * deleted then.
+     * <p/>
+     * The reconciliation runs in its own transaction and one at a time, so
+     * that concurrent reconciliations do not record the same AtoN twice.
+     *
+     * @return the changeset to be used as the base of the next update
+     */
+    public int reconcile() {
+        synchronized (this.lock) {
+            final List<Number> nodeState = QuarkusTransaction.requiringNew().call(this::findNodeState);
+            if(nodeState.equals(this.reconciledState)) {
+                return QuarkusTransaction.requiringNew().call(this::findLatestChangeset);
+            }
+            final int changeset = QuarkusTransaction.requiringNew().call(this::reconcileRecords);
+            this.reconciledState = nodeState;
+            return changeset;
+        }
+    }
+
+    /**
+     * Returns the UIDs of the AtoN nodes deleted in or after the provided
+     * changeset.
+     *
+     * @param changeset the changeset to look for deletions since
+     * @return the UIDs of the deleted AtoN nodes
+     */
+    public List<String> findDeletedSince(int changeset) {
+        return this.em.createNamedQuery("S100AtonRecord.findDeletedSince", String.class)
+                .setParameter("changeset", changeset)
+                .getResultList();
+    }
+
+    /**
+     * Returns the latest changeset handed out as the base of an update
+     * dataset, i.e. the latest changeset of the AtoN nodes currently in
+     * Niord, of the recorded ones and of the recorded deletions. Unlike the
+     * latest AtoN node changeset, this never goes backwards, even when the
+     * AtoN node with the latest changeset is deleted, since its record keeps
+     * its changeset.
+     *
+     * @return the latest changeset handed out
+     */
+    public int findLatestChangeset() {
+        final Object[] watermarks = this.em.createNamedQuery("S100AtonRecord.findWatermarks", Object[].class)
+                .getSingleResult();
+        return Stream.of(
+                        this.em.createQuery("select max(n.changeset) from AtonNode n", Integer.class).getSingleResult(),
+                        watermarks[1],
+                        watermarks[2])
+                .filter(Objects::nonNull)
+                .mapToInt(changeset -> ((Number) changeset).intValue())
+                .max()
+                .orElse(0);
+    }
+
+    /**
+     * Returns the current state of the AtoN nodes, i.e. their latest
+     * changeset and their number, which changes whenever an AtoN node is
+     * created, modified or deleted.
+     *
+     * @return the current state of the AtoN nodes
+     */
+    protected List<Number> findNodeState() {
+        final Object[] result = this.em.createQuery("select max(n.changeset), count(n) from AtonNode n", Object[].class)
+                .getSingleResult();
+        return Arrays.asList((Number) result[0], (Number) result[1]);
+    }
+
+    /**
+     * Records the AtoN nodes created or modified since the previous
+     * reconciliation, and marks the records of the AtoN nodes no longer
+     * present as deleted.
+     * <p/>
+     * The deletions are stamped with the latest changeset handed out so far,
+     * which is at least the base changeset any consumer may hold, so that
+     * they are always reported to consumers asking for the deletions since
+     * their base changeset. A changeset beyond the latest one is not used,
+     * since the base changesets are also used to select the AtoN nodes
+     * modified after them, and Niord may still assign it to an AtoN node.
+     *
+     * @return the changeset to be used as the base of the next update
+     */
+    protected int reconcileRecords() {
+        final int changeset = this.findLatestChangeset();
+        final Object[] watermarks = this.em.createNamedQuery("S100AtonRecord.findWatermarks", Object[].class)
+                .getSingleResult();
+        final int lastNodeId = Optional.ofNullable((Number) watermarks[0]).map(Number::intValue).orElse(0);
+        final int lastChangeset = Optional.ofNullable((Number) watermarks[1]).map(Number::intValue).orElse(0);
+
+        // Pick up the AtoN nodes created or modified since the previous
+        // reconciliation, which on the first one means all of them
+        final List<Object[]> changed = this.em.createQuery("select n.id, n.atonUid, n.changeset from AtonNode n " +
+                        "where n.atonUid is not null and (n.id > :nodeId or n.changeset > :changeset) " +
+                        "order by n.id", Object[].class)
+                .setParameter("nodeId", lastNodeId)
+                .setParameter("changeset", lastChangeset)
+                .getResultList();
+
+        // Update their records in batches, restoring any deleted ones
+        int created = 0;
+        int restored = 0;
+        for(int i = 0; i < changed.size(); i += UPDATE_BATCH_SIZE) {
+            final List<Object[]> batch = changed.subList(i, Math.min(i + UPDATE_BATCH_SIZE, changed.size()));
+            final Map<String, S100AtonRecord> records = this.em.createNamedQuery("S100AtonRecord.findByAtonUids", S100AtonRecord.class)
+                    .setParameter("atonUids", batch.stream().map(node -> (String) node[1]).distinct().toList())
+                    .getResultStream()
+                    .collect(Collectors.toMap(S100AtonRecord::getAtonUid, Function.identity()));
+            for(Object[] node : batch) {
+                S100AtonRecord record = records.get((String) node[1]);
+                if(record == null) {
+                    record = new S100AtonRecord((String) node[1]);
+                    records.put(record.getAtonUid(), record);
+                    this.em.persist(record);
+                    created++;
+                } else if(record.getDeletedChangeset() != null) {
+                    record.setDeletedChangeset(null);
+                    record.setDeletedDate(null);
+                    restored++;
+                }
+                record.setNodeId((Integer) node[0]);
+                record.setChangeset(Math.max(Optional.ofNullable(record.getChangeset()).orElse(0), Optional.ofNullable((Integer) node[2]).orElse(0)));
+            }
+            this.em.flush();
+            this.em.clear();
+        }
+
+        // Only look for deleted AtoN nodes when there are more records
+        // present than AtoN UIDs, and then let the database find them
+        int deleted = 0;
+        final long present = this.em.createNamedQuery("S100AtonRecord.countPresent", Long.class).getSingleResult();
+        final long atonUids = this.em.createQuery("select count(distinct n.atonUid) from AtonNode n where n.atonUid is not null", Long.class)
+                .getSingleResult();
+        if(present > atonUids) {
+            deleted = this.em.createNamedQuery("S100AtonRecord.markDeleted")
+                    .setParameter("changeset", changeset)
+                    .setParameter("date", new Date())
+                    .executeUpdate();
+        }
+
+        // Log the changes, if any
+        if(created > 0 || deleted > 0 || restored > 0) {
+            log.info("Updated the S-100 AtoN records in changeset %d with %d new, %d deleted and %d restored AtoNs".formatted(
+                    changeset, created, deleted, restored));
+        }
+        return this.findLatestChangeset();
+    }
+
+}
@@ -0,0 +1,869 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.xml.bind.JAXBException;
+import org.niord.core.NiordApp;
+import org.niord.core.aton.AtonLink;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonSearchParams;
+import org.niord.core.aton.AtonService;
+import org.niord.core.batch.BatchService;
+import org.niord.core.repo.RepositoryService;
+import org.niord.model.search.PagedSearchResultVo;
+import org.niord.uk.s100.common.batch.AbstractBatchS100ExportReader;
+import org.niord.uk.s100.common.batch.AbstractBatchS100ExportWriter;
+import org.niord.uk.s100.common.models.S100BoundingBox;
+import org.niord.uk.s100.common.models.S100DatasetInfo;
+import org.niord.uk.s100.common.models.S100DatasetVersion;
+import org.niord.uk.s100.common.models.vo.S100DatasetUpdateVo;
+import org.niord.uk.s100.common.utils.*;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * The S-100 Dataset Service
+ * <p/>
+ * Generates the datasets of an S-100 data product (e.g. S-125) for the
+ * requested AtoN nodes, along with all the AtoN nodes they are linked with,
+ * either directly, as an exchange set, as an update since a changeset or
+ * through a batch export job. The datasets are streamed through the
+ * product's dataset builder, JAXB pool and schema validator, which are the
+ * only product-specific parts of the process.
+ * <p/>
+ * Each data product provides its own request-scoped service, which supplies
+ * the product-specific parts and the product configuration.
+ * <p/>
+ * @param <I> the type of the dataset information
+ * @param <D> the type of the JAXB dataset
+ * @param <M> the type of the JAXB dataset members
+ * @param <T> the type of the dataset member feature types
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class S100DatasetService<I extends S100DatasetInfo, D, M, T> {
+
+    @Inject
+    Logger log;
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    AtonService atonService;
+
+    @Inject
+    NiordApp app;
+
+    @Inject
+    S100ForkJoinPoolService forkJoinPoolService;
+
+    @Inject
+    S100AtonRecordService atonRecordService;
+
+    @Inject
+    S100AtonLoaderService atonLoaderService;
+
+    @Inject
+    BatchService batchService;
+
+    @Inject
+    RepositoryService repositoryService;
+
+    /**
+     * Returns the name of the data product, e.g. "S-125".
+     *
+     * @return the data product name
+     */
+    protected abstract String getProduct();
+
+    /**
+     * Creates the dataset builder of the data product.
+     *
+     * @param stableIds whether to generate stable dataset IDs
+     * @return the dataset builder
+     */
+    protected abstract S100DatasetAdapter<I, D, M> createBuilder(boolean stableIds);
+
+    /**
+     * Creates the dataset information of the data product.
+     *
+     * @param datasetId the GML dataset identifier
+     * @param organisation the producing organisation
+     * @param atonNodes the AtoN nodes to be included in the dataset
+     * @return the dataset information
+     */
+    protected abstract I createDatasetInfo(String datasetId, String organisation, List<AtonNode> atonNodes);
+
+    /**
+     * Returns the shared JAXB pool of the data product.
+     *
+     * @return the JAXB pool
+     */
+    protected abstract S100JaxbPool<D> getJaxbPool();
+
+    /**
+     * Returns the shared schema validator of the data product.
+     *
+     * @return the schema validator
+     */
+    protected abstract S100SchemaValidator getSchemaValidator();
+
+    /**
+     * Creates the exchange set writer of the data product.
+     *
+     * @return the exchange set writer
+     */
+    protected abstract S100ExchangeSetWriter createExchangeSetWriter();
+
+    /**
+     * Returns the fragment cache of the data product.
+     *
+     * @return the fragment cache
+     */
+    protected abstract S100FragmentCache getFragmentCache();
+
+    /**
+     * Returns the name of the export batch job of the data product.
+     *
+     * @return the export batch job name
+     */
+    protected abstract String getExportJob();
+
+    /**
+     * Returns the repository folder of the exported datasets of the data
+     * product.
+     *
+     * @return the export folder
+     */
+    protected abstract String getExportFolder();
+
+    /**
+     * Returns the maximum depth of the AtoN links to follow.
+     *
+     * @return the maximum link depth
+     */
+    protected abstract int getMaxLinkDepth();
+
+    /**
+     * Returns the maximum number of linked AtoN nodes to pick up.
+     *
+     * @return the maximum number of linked AtoN nodes
+     */
+    protected abstract int getMaxLinkNodes();
+
+    /**
+     * Returns the number of AtoN nodes to search for or load per query.
+     *
+     * @return the search page size
+     */
+    protected abstract int getSearchPageSize();
+
+    /**
+     * Returns the maximum number of AtoN nodes to include in a dataset.
+     *
+     * @return the maximum number of AtoN nodes
+     */
+    protected abstract int getMaxSearchNodes();
+
+    /**
+     * Returns whether the datasets are generated with stable dataset IDs.
+     *
+     * @return whether stable dataset IDs are enabled
+     */
+    protected abstract boolean isStableIds();
+
+    /**
+     * Returns the maximum number of members of each dataset of an exchange
+     * set, 0 for no limit.
+     *
+     * @return the maximum number of members per dataset
+     */
+    protected abstract int getSplitMaxMembers();
+
+    /**
+     * Returns the maximum size in bytes of each dataset of an exchange set,
+     * 0 for no limit.
+     *
+     * @return the maximum size per dataset
+     */
+    protected abstract long getSplitMaxBytes();
+
+    /**
+     * Generates S-100 compliant GML for the message
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param language the language
+     * @param atonUIDs the aton UID
+     * @return the generated GML
+     * @throws JAXBException for any errors while marshalling the GML
+     */
+    @Transactional
+    public String generateGML(String language, String gmlDatasetId, String... atonUIDs) throws JAXBException {
+        // Try to access the AtoN
+        final List<AtonNode> atonNodes = this.retrieveAtonNodes(atonUIDs);
+
+        // Use the utilities to translate the AtoN node to an S-100 dataset
+        final D dataset = this.createBuilder(this.isStableIds()).packageToDataset(this.createDatasetInfo(gmlDatasetId, app.getOrganisation(), atonNodes), atonNodes);
+        return this.getJaxbPool().marshal(dataset);
+    }
+
+    /**
+     * Generates S-100 compliant GML for the AtoN nodes previously resolved
+     * by {@link #resolveAtonUids(AtonSearchParams, S100BoundingBox, Set)} or
+     * {@link #resolveAtonUids(String...)}, and streams it directly into the
+     * provided output stream, applying the requested indentation while
+     * writing. The AtoN nodes are only loaded again, so the search and the
+     * link retrieval are not repeated.
+     * @param outputStream the output stream to write the GML into
+     * @param indent the XML indentation, 0 will minify the output
+     * @param validate whether to validate the GML against the product schema
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param language the language
+     * @param atonUIDs the resolved AtoN UIDs in the dataset order
+     * @throws JAXBException for any errors while marshalling the GML
+     */
+    @Transactional
+    public void generateGML(OutputStream outputStream, int indent, boolean validate, String language, String gmlDatasetId, List<String> atonUIDs) throws JAXBException {
+        // Load the resolved AtoN nodes
+        final List<AtonNode> atonNodes = this.loadAtonNodes(atonUIDs);
+
+        // And stream them as an S-100 dataset
+        this.writeGML(outputStream, indent, validate, gmlDatasetId, atonNodes);
+    }
+
+    /**
+     * Generates an S-100 dataset for the AtoN nodes previously resolved by
+     * {@link #resolveAtonUids(AtonSearchParams, S100BoundingBox, Set)}, and streams it
+     * directly into the provided output stream packaged as an S-100 exchange
+     * set, i.e. along with the exchange catalogue and the product XSDs.
+     * <p/>
+     * If the dataset would exceed the configured maximum number of members
+     * or size, it is split into multiple datasets within the same exchange
+     * set. The split datasets are generated one after the other by the
+     * calling thread, which the AtoN nodes belong to, and each one is only
+     * opened once the previous one has been written, so that just one of
+     * them is in memory at any time. Only the member chunks of the dataset
+     * being written are marshalled in parallel. The split datasets always
+     * use stable IDs, so that the AtoN nodes linked across them can be
+     * referenced through their dataset files.
+     * @param outputStream the output stream to write the exchange set into
+     * @param indent the XML indentation, 0 will minify the output
+     * @param validate whether to validate the GML against the product schema
+     * @param language the language
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param atonUIDs the resolved AtoN UIDs in the dataset order
+     * @throws IOException for any errors while writing the exchange set
+     */
+    @Transactional
+    public void generateExchangeSet(OutputStream outputStream, int indent, boolean validate, String language, String gmlDatasetId, List<String> atonUIDs) throws IOException {
+        // Load the resolved AtoN nodes
+        final List<AtonNode> atonNodes = this.loadAtonNodes(atonUIDs);
+
+        // Split them into size-bounded datasets, if required
+        final I datasetInfo = this.createDatasetInfo(gmlDatasetId, app.getOrganisation(), atonNodes);
+        final List<S100DatasetSplitter.Split> splits = new S100DatasetSplitter(this.createBuilder(false), this.getSplitMaxMembers(), this.getSplitMaxBytes()).split(atonNodes);
+        if (splits.size() <= 1) {
+            this.createExchangeSetWriter().write(datasetInfo, os -> {
+                try {
+                    this.writeGML(os, indent, validate, datasetInfo, atonNodes);
+                } catch (JAXBException ex) {
+                    throw new IOException(ex);
+                }
+            }, outputStream);
+            return;
+        }
+
+        // Write the split datasets one by one, opening each one only when
+        // its turn comes, since they are all generated by this thread
+        final S100ExchangeSetWriter exchangeSetWriter = this.createExchangeSetWriter();
+        final List<I> splitInfos = splits.stream()
+                .map(split -> this.createDatasetInfo(gmlDatasetId + "-" + (split.index() + 1), app.getOrganisation(), split.atonNodes()))
+                .toList();
+        final List<S100ExchangeSetWriter.DatasetFile> datasetFiles = new ArrayList<>();
+        for (S100DatasetSplitter.Split split : splits) {
+            final I splitInfo = splitInfos.get(split.index());
+            datasetFiles.add(new S100ExchangeSetWriter.DatasetFile(splitInfo, os -> {
+                final S100DatasetAdapter<I, D, M> builder = this.createBuilder(true);
+                builder.setExternalDatasets(split.externalReferences().entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> exchangeSetWriter.getDatasetFileName(splitInfos.get(e.getValue())))));
+                builder.setExcludedLinks(split.excludedLinks());
+                final InputStream gml;
+                try {
+                    // Members referencing other datasets are not cached, since
+                    // their references also include the dataset file names
+                    gml = this.createWriter(builder, split.externalReferences().isEmpty() ? this.getFragmentCache() : null, this.forkJoinPoolService.getForkJoinPool())
+                            .open(splitInfo, split.atonNodes());
+                } catch (JAXBException ex) {
+                    throw new IOException(ex);
+                }
+                this.writeGML(os, indent, validate, splitInfo, gml);
+            }));
+        }
+        log.info("Splitting the %s dataset %s into %d datasets".formatted(this.getProduct(), gmlDatasetId, splits.size()));
+        exchangeSetWriter.write(datasetInfo, datasetFiles, outputStream);
+    }
+
+    /**
+     * Starts a batch job exporting the S-100 dataset for the provided AtoN
+     * UIDs, along with all the AtoN nodes they are linked with, into the
+     * repository. The AtoN nodes are resolved straight away and handed over
+     * to the batch job as a data file of AtoN UIDs, so that the dataset
+     * contents are fixed even if the job is restarted.
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param validate whether to validate the GML against the product schema
+     * @param atonUIDs the aton UID
+     * @return the batch job execution ID
+     * @throws Exception for any errors while starting the batch job
+     */
+    @Transactional
+    public long startExportJob(String gmlDatasetId, boolean validate, String... atonUIDs) throws Exception {
+        // Try to access the AtoN
+        final List<AtonNode> atonNodes = this.retrieveAtonNodes(atonUIDs);
+
+        // Hand over the AtoN UIDs in the dataset order
+        final String data = atonNodes.stream()
+                .map(AtonNode::getAtonUid)
+                .collect(Collectors.joining("\n"));
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(AbstractBatchS100ExportReader.DATASET_ID_PROPERTY, gmlDatasetId);
+        properties.put(AbstractBatchS100ExportReader.ORGANISATION_PROPERTY, app.getOrganisation());
+        properties.put(AbstractBatchS100ExportReader.STABLE_IDS_PROPERTY, this.isStableIds());
+        properties.put(AbstractBatchS100ExportWriter.VALIDATE_PROPERTY, validate);
+
+        // And start the batch job
+        return this.batchService.startBatchJobWithDataFile(
+                this.getExportJob(),
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+                gmlDatasetId + ".txt",
+                properties);
+    }
+
+    /**
+     * Returns the S-100 dataset exported into the repository by a batch job.
+     * @param gmlDatasetId the GML dataset identifier string
+     * @return the exported S-100 dataset file, if complete
+     */
+    public Optional<Path> getExportFile(String gmlDatasetId) {
+        return Optional.of(AbstractBatchS100ExportWriter.getExportFile(this.repositoryService.getRepoRoot(), this.getExportFolder(), this.validateDatasetId(gmlDatasetId)))
+                .filter(Files::isRegularFile);
+    }
+
+    /**
+     * Returns whether the S-100 dataset is still being exported into the
+     * repository by a batch job.
+     * @param gmlDatasetId the GML dataset identifier string
+     * @return whether the S-100 dataset export is still in progress
+     */
+    public boolean isExportInProgress(String gmlDatasetId) {
+        return Files.isRegularFile(AbstractBatchS100ExportWriter.getPartialExportFile(this.repositoryService.getRepoRoot(), this.getExportFolder(), this.validateDatasetId(gmlDatasetId)));
+    }
+
+    /**
+     * Resolves the AtoN nodes of the S-100 update dataset since the provided
+     * changeset, i.e. the AtoN nodes created or modified after it along with
+     * all the AtoN nodes they are linked with, and returns their UIDs in the
+     * dataset order. Modified equipment is included through the structure
+     * it belongs to. This way the export cost can be estimated and the
+     * update dataset generated later without resolving the AtoN nodes again.
+     * @param since the changeset to include the changes after
+     * @return the resolved AtoN UIDs in the dataset order
+     */
+    @Transactional
+    public List<String> resolveChangedAtonUids(int since) {
+        // Pick up the AtoN nodes changed since the provided changeset
+        final List<AtonNode> atonNodes = this.findChangedAtonNodes(since);
+
+        // Iterate through the AtoN links and pick up all references
+        this.iterativeLinkRetrieval(atonNodes);
+
+        // And hand over their UIDs
+        return atonNodes.stream()
+                .map(AtonNode::getAtonUid)
+                .toList();
+    }
+
+    /**
+     * Generates an S-100 compliant GML update dataset for the AtoN nodes
+     * previously resolved by {@link #resolveChangedAtonUids(int)}, and
+     * streams it directly into the provided output stream, applying the
+     * requested indentation while writing. The AtoN nodes deleted since the
+     * provided changeset are reported by {@link #getDatasetUpdate(int)}.
+     * @param outputStream the output stream to write the GML into
+     * @param indent the XML indentation, 0 will minify the output
+     * @param validate whether to validate the GML against the product schema
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param language the language
+     * @param since the changeset to include the changes after
+     * @param atonUIDs the resolved AtoN UIDs in the dataset order
+     * @throws JAXBException for any errors while marshalling the GML
+     */
+    @Transactional
+    public void generateUpdateGML(OutputStream outputStream, int indent, boolean validate, String language, String gmlDatasetId, int since, List<String> atonUIDs) throws JAXBException {
+        // Load the resolved AtoN nodes
+        final List<AtonNode> atonNodes = this.loadAtonNodes(atonUIDs);
+
+        // And stream them as an S-100 update dataset
+        final I datasetInfo = this.createDatasetInfo(gmlDatasetId, app.getOrganisation(), atonNodes);
+        datasetInfo.setAbstractText("Update of the %s dataset with the AtoNs changed since changeset %d".formatted(this.getProduct(), since));
+        this.writeGML(outputStream, indent, validate, datasetInfo, atonNodes);
+    }
+
+    /**
+     * Returns the S-100 dataset update information since the provided
+     * changeset, i.e. the latest changeset to be used as the base of the
+     * next update and the UIDs of the AtoN nodes deleted in the meantime.
+     * The AtoN records are only read here, while the deletions are picked
+     * up by the periodic reconciliation of the AtoN record service.
+     * @param since the changeset to report the deletions since
+     * @return the S-100 dataset update information
+     */
+    @Transactional
+    public S100DatasetUpdateVo getDatasetUpdate(int since) {
+        final S100DatasetUpdateVo datasetUpdate = new S100DatasetUpdateVo();
+        datasetUpdate.setSince(since);
+        datasetUpdate.setChangeset(this.atonRecordService.findLatestChangeset());
+        datasetUpdate.setDeleted(this.atonRecordService.findDeletedSince(since));
+        return datasetUpdate;
+    }
+
+    /**
+     * Returns the current version of all the AtoN nodes, using a single
+     * aggregate query. This is used for the S-100 update datasets, which
+     * change along with any of the AtoN nodes. The changeset is the latest
+     * one handed out by the AtoN record service, so that it does not go
+     * backwards when the AtoN node with the latest changeset is deleted.
+     * @return the current version of the AtoN nodes
+     */
+    @Transactional
+    public S100DatasetVersion getDatasetVersion() {
+        final Object[] result = this.em.createQuery("select max(n.timestamp), count(n) from AtonNode n", Object[].class)
+                .getSingleResult();
+        return new S100DatasetVersion(
+                this.atonRecordService.findLatestChangeset(),
+                (Date) result[0],
+                Optional.ofNullable((Number) result[1]).map(Number::longValue).orElse(0L));
+    }
+
+    /**
+     * Returns the current version of the AtoN nodes an S-100 dataset is
+     * generated from, i.e. the provided resolved AtoN nodes along with their
+     * children, so that only the changes that affect the dataset are
+     * detected. The closure is aggregated in pages of AtoN nodes, to keep
+     * the queries within the database parameter limits, and the pages are
+     * then combined into the latest changeset and timestamp along with the
+     * total count.
+     * @param atonUIDs the resolved AtoN UIDs of the dataset
+     * @return the current version of the AtoN nodes of the dataset
+     */
+    @Transactional
+    public S100DatasetVersion getDatasetVersion(List<String> atonUIDs) {
+        int changeset = 0;
+        Date timestamp = null;
+        long count = 0L;
+        for(int i = 0; i < atonUIDs.size(); i += this.getSearchPageSize()) {
+            final Object[] result = this.em.createQuery("select max(n.changeset), max(n.timestamp), count(n) from AtonNode n " +
+                            "left join n.parent p " +
+                            "where n.atonUid in (:atonUids) or p.atonUid in (:atonUids)", Object[].class)
+                    .setParameter("atonUids", atonUIDs.subList(i, Math.min(atonUIDs.size(), i + this.getSearchPageSize())))
+                    .getSingleResult();
+            changeset = Math.max(changeset, Optional.ofNullable((Number) result[0]).map(Number::intValue).orElse(0));
+            if(result[1] != null && (timestamp == null || timestamp.before((Date) result[1]))) {
+                timestamp = (Date) result[1];
+            }
+            count += Optional.ofNullable((Number) result[2]).map(Number::longValue).orElse(0L);
+        }
+        return new S100DatasetVersion(changeset, timestamp, count);
+    }
+
+    /**
+     * Streams the provided AtoN nodes as an S-100 dataset into the provided
+     * output stream, applying the requested indentation while writing.
+     *
+     * @param outputStream the output stream to write the GML into
+     * @param indent the XML indentation, 0 will minify the output
+     * @param validate whether to validate the GML against the product schema
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param atonNodes the AtoN nodes to be included in the dataset
+     * @throws JAXBException for any errors while marshalling the GML
+     */
+    protected void writeGML(OutputStream outputStream, int indent, boolean validate, String gmlDatasetId, List<AtonNode> atonNodes) throws JAXBException {
+        this.writeGML(outputStream, indent, validate, this.createDatasetInfo(gmlDatasetId, app.getOrganisation(), atonNodes), atonNodes);
+    }
+
+    /**
+     * Streams the provided AtoN nodes as an S-100 dataset with the provided
+     * dataset information into the provided output stream, applying the
+     * requested indentation while writing. If requested, the dataset is also
+     * validated against the product schema in the same pass. Since the dataset
+     * has already been sent by the time the validation completes, any
+     * validation errors are only logged and reported in the validation
+     * statistics.
+     *
+     * @param outputStream the output stream to write the GML into
+     * @param indent the XML indentation, 0 will minify the output
+     * @param validate whether to validate the GML against the product schema
+     * @param datasetInfo the S-100 dataset information
+     * @param atonNodes the AtoN nodes to be included in the dataset
+     * @throws JAXBException for any errors while marshalling the GML
+     */
+    protected void writeGML(OutputStream outputStream, int indent, boolean validate, I datasetInfo, List<AtonNode> atonNodes) throws JAXBException {
+        this.writeGML(outputStream, indent, validate, datasetInfo,
+                this.createWriter(this.createBuilder(this.isStableIds()), this.getFragmentCache(), this.forkJoinPoolService.getForkJoinPool()).open(datasetInfo, atonNodes));
+    }
+
+    /**
+     * Streams the provided, already opened S-100 dataset into the provided
+     * output stream, applying the requested indentation and validation the
+     * same way as {@link #writeGML(OutputStream, int, boolean, S100DatasetInfo, List)}.
+     *
+     * @param outputStream the output stream to write the GML into
+     * @param indent the XML indentation, 0 will minify the output
+     * @param validate whether to validate the GML against the product schema
+     * @param datasetInfo the S-100 dataset information
+     * @param gml the opened S-100 dataset input stream
+     */
+    protected void writeGML(OutputStream outputStream, int indent, boolean validate, I datasetInfo, InputStream gml) {
+        final S100SchemaValidator.Validation validation = validate ? this.getSchemaValidator().newValidation(datasetInfo.getDatasetId()) : null;
+        S100XmlUtils.xmlPrettyPrint(
+                gml,
+                outputStream,
+                indent,
+                validation != null ? validation::filter : UnaryOperator.identity());
+
+        // Report the validation outcome
+        if (validation != null && !validation.complete().isValid()) {
+            log.warn("The %s dataset %s failed the schema validation with %d errors in %d ms: %s".formatted(
+                    this.getProduct(), datasetInfo.getDatasetId(), validation.getErrorCount(), validation.getValidationTimeMillis(), String.join("; ", validation.getErrors())));
+        }
+    }
+
+    /**
+     * Validates that the provided GML dataset identifier can be safely used
+     * as a repository file name.
+     * @param gmlDatasetId the GML dataset identifier string
+     * @return the validated GML dataset identifier string
+     */
+    protected String validateDatasetId(String gmlDatasetId) {
+        if (gmlDatasetId == null || !gmlDatasetId.matches("[\\w\\-]+")) {
+            throw new IllegalArgumentException("Invalid dataset ID: " + gmlDatasetId);
+        }
+        return gmlDatasetId;
+    }
+
+    /**
+     * Resolves the AtoN nodes of the S-100 dataset for the provided UIDs,
+     * i.e. along with all the AtoN nodes they are linked with, and returns
+     * their UIDs in the dataset order. This way the export cost can be
+     * estimated and the dataset generated later without resolving the AtoN
+     * nodes again.
+     * @param atonUIDs the aton UID
+     * @return the resolved AtoN UIDs in the dataset order
+     */
+    @Transactional
+    public List<String> resolveAtonUids(String... atonUIDs) {
+        return this.retrieveAtonNodes(atonUIDs).stream()
+                .map(AtonNode::getAtonUid)
+                .toList();
+    }
+
+    /**
+     * Estimates the number of AtoN nodes of the S-100 dataset for the
+     * provided UIDs without loading any of them, so that the export can be
+     * admitted before the AtoN nodes are resolved. The estimate counts the
+     * requested AtoN nodes, their children and the AtoN nodes they are
+     * directly linked with, in pages to keep the queries within the database
+     * parameter limits.
+     * @param atonUIDs the aton UID
+     * @return the estimated number of AtoN nodes
+     */
+    @Transactional
+    public int estimateAtonCount(String... atonUIDs) {
+        return this.atonLoaderService.estimateAtonCount(Arrays.asList(atonUIDs), this.getSearchPageSize());
+    }
+
+    /**
+     * Estimates the number of AtoN nodes of the S-100 dataset for the AtoN
+     * nodes matching the provided search parameters, out of the total number
+     * of matches reported by a single-row search page, so that the export
+     * can be admitted before the AtoN nodes are searched for and resolved.
+     * @param params the AtoN search parameters
+     * @return the estimated number of AtoN nodes
+     */
+    @Transactional
+    public int estimateAtonCount(AtonSearchParams params) {
+        params.maxSize(1);
+        params.page(0);
+        final PagedSearchResultVo<AtonNode> result = this.atonService.search(params);
+        return (int) Math.min(result.getTotal(), this.getMaxSearchNodes());
+    }
+
+    /**
+     * Estimates the number of AtoN nodes of the S-100 update dataset since
+     * the provided changeset with a count-only query, so that the export
+     * can be admitted before the changed AtoN nodes are resolved.
+     * @param since the changeset to include the changes after
+     * @return the estimated number of AtoN nodes
+     */
+    @Transactional
+    public int estimateChangedAtonCount(int since) {
+        final long count = this.em.createQuery("select count(n) from AtonNode n " +
+                        "where n.changeset > :changeset", Long.class)
+                .setParameter("changeset", since)
+                .getSingleResult();
+        return (int) Math.min(count, this.getMaxSearchNodes());
+    }
+
+    /**
+     * Retrieves the AtoN nodes for the provided UIDs, along with all the
+     * AtoN nodes they are linked with.
+     *
+     * @param atonUIDs the aton UID
+     * @return the retrieved AtoN nodes
+     */
+    public List<AtonNode> retrieveAtonNodes(String... atonUIDs) {
+        // Try to access the AtoN
+        final List<AtonNode> atonNodes = this.atonService.findByAtonUids(atonUIDs);
+
+        // Iterate through the AtoN links and pick up all references
+        this.iterativeLinkRetrieval(atonNodes);
+
+        // Validate the AtoN
+        if (atonNodes.isEmpty()) {
+            throw new IllegalArgumentException("No AtoN not found for UIDs: " + Arrays.toString(atonUIDs));
+        }
+
+        // And return the nodes
+        return atonNodes;
+    }
+
+    /**
+     * Resolves the AtoN nodes of the S-100 dataset for all the AtoN nodes
+     * matching the provided search parameters (e.g. bounding box, areas) and
+     * feature types, i.e. along with all the AtoN nodes they are linked with,
+     * and returns their UIDs in the dataset order. This way the dataset
+     * version can be checked and the dataset generated later without
+     * resolving the AtoN nodes again.
+     *
+     * @param params the AtoN search parameters
+     * @param bbox the bounding box to include AtoNs within, if any
+     * @param featureTypes the feature types to include, all if empty
+     * @return the resolved AtoN UIDs in the dataset order
+     */
+    @Transactional
+    public List<String> resolveAtonUids(AtonSearchParams params, S100BoundingBox bbox, Set<T> featureTypes) {
+        // Search for the matching AtoN nodes
+        final List<AtonNode> atonNodes = this.searchAtonNodes(params, bbox, featureTypes);
+
+        // Iterate through the AtoN links and pick up all references
+        this.iterativeLinkRetrieval(atonNodes);
+
+        // And hand over their UIDs
+        return atonNodes.stream()
+                .map(AtonNode::getAtonUid)
+                .toList();
+    }
+
+    /**
+     * Loads the AtoN nodes of the provided UIDs in the same order, in pages
+     * to keep the queries within the database parameter limits. Any AtoN
+     * nodes deleted in the meantime are skipped.
+     *
+     * @param atonUIDs the UIDs of the AtoN nodes to load
+     * @return the loaded AtoN nodes
+     */
+    protected List<AtonNode> loadAtonNodes(List<String> atonUIDs) {
+        return this.atonLoaderService.loadAtonNodes(atonUIDs, this.getSearchPageSize());
+    }
+
+    /**
+     * Searches for the AtoN nodes matching the provided search parameters,
+     * going through all the result pages up to the maximum dataset size,
+     * and keeps the ones within the bounding box and of the requested
+     * feature types. Since equipment is always encoded along with the
+     * structure it belongs to, the matching AtoN nodes are replaced by their
+     * top-level AtoN nodes, so that none of them is encoded twice.
+     *
+     * @param params the AtoN search parameters
+     * @param bbox the bounding box to include AtoNs within, if any
+     * @param featureTypes the feature types to include, all if empty
+     * @return the matching top-level AtoN nodes
+     */
+    protected List<AtonNode> searchAtonNodes(AtonSearchParams params, S100BoundingBox bbox, Set<T> featureTypes) {
+        final S100DatasetAdapter<I, D, M> builder = this.createBuilder(false);
+        final Set<AtonNode> included = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<AtonNode> atonNodes = new ArrayList<>();
+        params.maxSize(this.getSearchPageSize());
+        for(int page = 0; atonNodes.size() < this.getMaxSearchNodes(); page++) {
+            params.page(page);
+            final PagedSearchResultVo<AtonNode> result = this.atonService.search(params);
+            result.getData()
+                    .stream()
+                    .filter(atonNode -> bbox == null || bbox.contains(atonNode))
+                    .filter(atonNode -> featureTypes.isEmpty() || featureTypes.contains(builder.resolveAtonType(atonNode)))
+                    .map(this::getRootAtonNode)
+                    .filter(included::add)
+                    .limit(this.getMaxSearchNodes() - atonNodes.size())
+                    .forEach(atonNodes::add);
+
+            // Stop at the last page
+            if(result.getData().size() < this.getSearchPageSize() || (long) (page + 1) * this.getSearchPageSize() >= result.getTotal()) {
+                break;
+            }
+        }
+        return atonNodes;
+    }
+
+    /**
+     * Finds the AtoN nodes created or modified after the provided changeset,
+     * up to the maximum dataset size. Since equipment is always encoded
+     * along with the structure it belongs to, changed equipment is replaced
+     * by the top-level AtoN node it is attached to.
+     *
+     * @param since the changeset to include the changes after
+     * @return the changed top-level AtoN nodes
+     */
+    protected List<AtonNode> findChangedAtonNodes(int since) {
+        final Set<AtonNode> included = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<AtonNode> atonNodes = new ArrayList<>();
+        for(AtonNode atonNode : this.em.createQuery("select n from AtonNode n " +
+                        "where n.changeset > :changeset " +
+                        "order by n.changeset, n.id", AtonNode.class)
+                .setParameter("changeset", since)
+                .setMaxResults(this.getMaxSearchNodes())
+                .getResultList()) {
+            final AtonNode root = this.getRootAtonNode(atonNode);
+            if(included.add(root)) {
+                atonNodes.add(root);
+            }
+        }
+        return atonNodes;
+    }
+
+    /**
+     * This is a small helper function that iterates over the provided list
+     * of AtoN nodes and will pick up the included links in order to append
+     * them to the provided list. This way we can construct a dataset with
+     * all the AtoN nodes that are applicable.
+     * <p/>
+     * The linked AtoN nodes are picked up breadth-first, loading the links
+     * of each level in pages of AtoN nodes, until either the maximum link
+     * depth or the maximum number of linked AtoN nodes has been reached.
+     * The maximum number only applies to the linked AtoN nodes, so that the
+     * links are always followed no matter how many AtoN nodes have been
+     * selected. The linked AtoN nodes are replaced by their top-level AtoN
+     * nodes, since equipment is always encoded along with the structure it
+     * belongs to.
+     *
+     * @param atonNodes the AtoN nodes list to be iterated through
+     */
+    protected void iterativeLinkRetrieval(List<AtonNode> atonNodes) {
+        // Keep track of the AtoN nodes already included
+        final Set<AtonNode> included = Collections.newSetFromMap(new IdentityHashMap<>());
+        included.addAll(atonNodes);
+        final int maxSize = atonNodes.size() + this.getMaxLinkNodes();
+
+        // Go through the AtoN node links one level at a time
+        List<AtonNode> frontier = new ArrayList<>(atonNodes);
+        for(int depth = 0; !frontier.isEmpty(); depth++) {
+            // Check the depth and size limits
+            if(depth >= this.getMaxLinkDepth() || atonNodes.size() >= maxSize) {
+                log.warn("Stopped the %s link retrieval at depth %d with %d AtoN nodes".formatted(this.getProduct(), depth, atonNodes.size()));
+                break;
+            }
+
+            // Load the links of the whole level, a page at a time
+            this.fetchLinks(frontier);
+
+            // And pick up the linked AtoN nodes not already included
+            final List<AtonNode> appended = new ArrayList<>();
+            for(AtonNode atonNode : frontier) {
+                for(AtonLink atonLink : atonNode.getLinks()) {
+                    for(AtonNode peer : atonLink.getPeers()) {
+                        final AtonNode root = this.getRootAtonNode(peer);
+                        if(atonNodes.size() + appended.size() < maxSize && included.add(root)) {
+                            appended.add(root);
+                        }
+                    }
+                }
+            }
+            atonNodes.addAll(appended);
+            frontier = appended;
+        }
+    }
+
+    /**
+     * Returns the top-level AtoN node the provided AtoN node is attached to,
+     * i.e. the AtoN node itself if it has no parent.
+     *
+     * @param atonNode the AtoN node
+     * @return the top-level AtoN node
+     */
+    protected AtonNode getRootAtonNode(AtonNode atonNode) {
+        AtonNode root = atonNode;
+        while(root.getParent() != null) {
+            root = root.getParent();
+        }
+        return root;
+    }
+
+    /**
+     * Loads the links of the provided AtoN nodes, along with the AtoN nodes
+     * they link to, using one query per page of AtoN nodes instead of lazily
+     * loading them one AtoN node at a time. The pages keep the queries within
+     * the database parameter limits, and the join fetched rows of each query
+     * bounded, no matter how large the selection is.
+     *
+     * @param atonNodes the AtoN nodes to load the links for
+     */
+    protected void fetchLinks(List<AtonNode> atonNodes) {
+        for(int i = 0; i < atonNodes.size(); i += this.getSearchPageSize()) {
+            this.em.createQuery("select distinct n from AtonNode n " +
+                            "left join fetch n.links l " +
+                            "left join fetch l.peers " +
+                            "where n in (:atonNodes)", AtonNode.class)
+                    .setParameter("atonNodes", atonNodes.subList(i, Math.min(atonNodes.size(), i + this.getSearchPageSize())))
+                    .getResultList();
+        }
+    }
+
+    /**
+     * Creates the dataset writer for the provided dataset builder, marshalling
+     * through the JAXB pool of the data product.
+     *
+     * @param builder the dataset builder
+     * @param fragmentCache the cache of pre-rendered members, if any
+     * @param forkJoinPool the pool to marshal the member chunks in parallel, if any
+     * @return the dataset writer
+     */
+    protected S100DatasetWriter<I, D, M> createWriter(S100DatasetAdapter<I, D, M> builder, S100FragmentCache fragmentCache, ForkJoinPool forkJoinPool) {
+        return new S100DatasetWriter<>(builder, this.getJaxbPool(), S100DatasetWriter.DEFAULT_CHUNK_SIZE, fragmentCache, forkJoinPool);
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.servlet.ServletRequest;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.uk.s100.common.models.vo.S100ExportBudgetStatsVo;
+import org.niord.uk.s100.common.utils.S100ExportBudget;
+import org.slf4j.Logger;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The S-100 Export Budget Service
+ * <p/>
+ * Initialises the export memory budget shared by all the S-100 data
+ * products (i.e. S-125 and S-201) when the application starts up, and
+ * admits the exports into it based on their memory cost, as estimated out
+ * of the number of AtoN nodes they include.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S100ExportBudgetService {
+
+    /**
+     * The request attribute holding the permit of the export admitted for
+     * the request, if any.
+     */
+    public static final String PERMIT_ATTRIBUTE = S100ExportBudget.Permit.class.getName();
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "niord.s100.export-budget.max-bytes", defaultValue = "268435456")
+    long maxBytes;
+
+    @ConfigProperty(name = "niord.s100.export-budget.bytes-per-aton", defaultValue = "16384")
+    long bytesPerAton;
+
+    @ConfigProperty(name = "niord.s100.export-budget.max-queued", defaultValue = "8")
+    int maxQueued;
+
+    @ConfigProperty(name = "niord.s100.export-budget.max-wait", defaultValue = "30000")
+    long maxWait;
+
+    @ConfigProperty(name = "niord.s100.export-budget.retry-after", defaultValue = "30")
+    int retryAfter;
+
+    /**
+     * Initialises the S-100 export budget on start-up.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        try {
+            S100ExportBudget.initialise(this.maxBytes, this.maxQueued, this.maxWait);
+            log.info("Initialised the S-100 export budget of " + this.maxBytes + " bytes with " + this.maxQueued + " queued exports");
+        } catch (RuntimeException ex) {
+            log.error("Failed to initialise the S-100 export budget: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Admits an S-100 export of the provided number of AtoN nodes into the
+     * export budget, waiting in the queue if the budget is exhausted. The
+     * returned permit must be closed once the export has completed.
+     *
+     * @param atonCount the number of AtoN nodes to be exported
+     * @return the permit holding the reserved export cost
+     * @throws RejectedExecutionException if the export could not be admitted
+     */
+    public S100ExportBudget.Permit admit(int atonCount) {
+        final S100ExportBudget.Permit permit = S100ExportBudget.getInstance().acquire(this.estimateCost(atonCount));
+        log.debug("Admitted an S-100 export of " + atonCount + " AtoNs reserving " + permit.getReserved() + " bytes");
+        return permit;
+    }
+
+    /**
+     * Admits an S-100 export of the provided number of AtoN nodes into the
+     * export budget, like {@link #admit(int)}, and binds the returned permit
+     * to the provided request. This way the permit is also released once the
+     * request completes, by the {@link S100ExportPermitListener}, even if the
+     * export never gets to run, e.g. when the response is never written.
+     *
+     * @param atonCount the number of AtoN nodes to be exported
+     * @param request the request the export is generated for
+     * @return the permit holding the reserved export cost
+     * @throws RejectedExecutionException if the export could not be admitted
+     */
+    public S100ExportBudget.Permit admit(int atonCount, ServletRequest request) {
+        final S100ExportBudget.Permit permit = this.admit(atonCount);
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return permit;
+    }
+
+    /**
+     * Estimates the memory cost of an S-100 export of the provided number
+     * of AtoN nodes.
+     *
+     * @param atonCount the number of AtoN nodes to be exported
+     * @return the estimated memory cost in bytes
+     */
+    public long estimateCost(int atonCount) {
+        return Math.max(0, atonCount) * this.bytesPerAton;
+    }
+
+    /**
+     * Returns the time in seconds the clients of rejected exports should
+     * wait before retrying.
+     *
+     * @return the retry-after time in seconds
+     */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Returns the current statistics of the S-100 export budget.
+     *
+     * @return the budget statistics
+     */
+    public S100ExportBudgetStatsVo getStats() {
+        return S100ExportBudget.getInstance().getStats();
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+import jakarta.servlet.annotation.WebListener;
+import org.niord.uk.s100.common.utils.S100ExportBudget;
+
+/**
+ * The S-100 Export Permit Listener
+ * <p/>
+ * Releases the export budget permits bound to the requests by the
+ * {@link S100ExportBudgetService} once the requests complete. The exports
+ * normally release their permits as soon as they have been written, but
+ * this makes sure that the budget is not leaked when the response of an
+ * admitted export is never written, e.g. when the request fails or the
+ * client goes away before the streaming starts. Since closing a permit is
+ * idempotent, releasing it here again is harmless.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@WebListener
+public class S100ExportPermitListener implements ServletRequestListener {
+
+    /**
+     * Releases the export budget permit of the completed request, if any.
+     *
+     * @param event the request completion event
+     */
+    @Override
+    public void requestDestroyed(ServletRequestEvent event) {
+        if(event.getServletRequest().getAttribute(S100ExportBudgetService.PERMIT_ATTRIBUTE) instanceof S100ExportBudget.Permit permit) {
+            event.getServletRequest().removeAttribute(S100ExportBudgetService.PERMIT_ATTRIBUTE);
+            permit.close();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The S-100 Fork-Join Pool Service
+ * <p/>
+ * Holds the application-wide fork-join pool used to marshal the members of
+ * large S-100 (e.g. S-125 and S-201) datasets in parallel, shared by all
+ * the data products. The members themselves are always generated by the
+ * thread the AtoN nodes were loaded by. A parallelism of zero or less disables
+ * the pool, in which case the datasets are generated sequentially.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S100ForkJoinPoolService {
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "niord.s100.fork-join-pool.parallelism", defaultValue = "0")
+    int parallelism;
+
+    // Service Variables
+    private ForkJoinPool forkJoinPool;
+
+    /**
+     * Initialises the S-100 fork-join pool, if enabled.
+     */
+    @PostConstruct
+    void init() {
+        if(this.parallelism > 0) {
+            this.forkJoinPool = new ForkJoinPool(this.parallelism);
+            log.info("Initialised the S-100 fork-join pool with parallelism " + this.parallelism);
+        }
+    }
+
+    /**
+     * Shuts down the S-100 fork-join pool, if enabled.
+     */
+    @PreDestroy
+    void destroy() {
+        if(this.forkJoinPool != null) {
+            this.forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the S-100 fork-join pool, or null if parallel generation is
+     * disabled.
+     *
+     * @return the S-100 fork-join pool
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return this.forkJoinPool;
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.inject.Inject;
+import org.niord.uk.s100.common.models.vo.S100PresetPlanVo;
+import org.niord.uk.s100.common.utils.S100PresetPlan;
+import org.slf4j.Logger;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The S-100 Preset Plan Service
+ * <p/>
+ * Compiles the INT-1 preset of an S-100 data product (e.g. S-125) into its
+ * preset plan when the application starts up, reusing the plan cached by a
+ * previous start-up if the preset has not changed, so that the product
+ * dataset builder can look up its type, tag and geometry decisions straight
+ * away, and reports any drift between the preset and the tag mappings of the
+ * product dataset builder.
+ * Only the S-100 tag keys are checked for drift, since the seamark ones are
+ * defined by the main INT-1 preset, which is not part of the products.
+ * <p/>
+ * Each data product provides its own application-scoped service, which
+ * triggers the compilation on start-up.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class S100PresetPlanService {
+
+    /**
+     * The tag key prefix of the S-100 specific tags.
+     */
+    public static final String S100_TAG_PREFIX = "s100:";
+
+    @Inject
+    Logger log;
+
+    // Service Variables
+    private long loadTimeMillis;
+
+    /**
+     * Returns the name of the data product, e.g. "S-125".
+     *
+     * @return the data product name
+     */
+    protected abstract String getProduct();
+
+    /**
+     * Initialises the shared preset plan of the data product.
+     *
+     * @param cacheFolder the folder of the cached plans, null for none
+     * @return the preset plan of the data product
+     */
+    protected abstract S100PresetPlan initialisePlan(Path cacheFolder);
+
+    /**
+     * Returns the compiled preset plan of the data product.
+     *
+     * @return the preset plan of the data product
+     */
+    public abstract S100PresetPlan getPlan();
+
+    /**
+     * Returns the tag keys the dataset builder of the data product maps.
+     *
+     * @return the mapped tag keys
+     */
+    protected abstract Set<String> getMappedTagKeys();
+
+    /**
+     * Returns the configured folder of the cached plans, if any.
+     *
+     * @return the configured cache folder
+     */
+    protected abstract Optional<String> getCacheDir();
+
+    /**
+     * Compiles the preset plan of the data product, logging any drift
+     * between the preset and the tag mappings.
+     */
+    protected void initialise() {
+        final long t0 = System.currentTimeMillis();
+        try {
+            final S100PresetPlan plan = this.initialisePlan(this.getCacheFolder());
+            this.loadTimeMillis = System.currentTimeMillis() - t0;
+            log.info("Loaded the " + this.getProduct() + " preset plan of " + plan.getKeys().size() + " tag keys for " + plan.getTypes().size()
+                    + " seamark types" + (plan.isCached() ? " from the cache" : "") + " in " + this.loadTimeMillis + " ms");
+
+            // Report any drift between the preset and the tag mappings
+            final Set<String> undefinedKeys = this.getUndefinedKeys(plan);
+            if (!undefinedKeys.isEmpty()) {
+                log.warn("The " + this.getProduct() + " tag mappings use " + undefinedKeys.size() + " tag keys not defined in the "
+                        + this.getProduct() + " preset: " + undefinedKeys);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to compile the " + this.getProduct() + " preset plan: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns a summary of the preset plan of the data product, along with
+     * the drift between the preset and the tag mappings.
+     *
+     * @return the preset plan summary
+     */
+    public S100PresetPlanVo getStats() {
+        final S100PresetPlan plan = this.getPlan();
+        final S100PresetPlanVo stats = new S100PresetPlanVo();
+        stats.setDigest(plan.getDigest());
+        stats.setKeys(plan.getKeys().size());
+        stats.setTypes(plan.getTypes().size());
+        stats.setCached(plan.isCached());
+        stats.setLoadTimeMillis(this.loadTimeMillis);
+        stats.setUndefinedKeys(this.getUndefinedKeys(plan));
+        stats.setUnmappedKeys(this.getUnmappedKeys(plan));
+        return stats;
+    }
+
+    /**
+     * Returns the S-100 tag keys the tag mappings use, but the preset does
+     * not define.
+     *
+     * @param plan the preset plan
+     * @return the undefined tag keys, sorted
+     */
+    protected Set<String> getUndefinedKeys(S100PresetPlan plan) {
+        return this.getMappedTagKeys()
+                .stream()
+                .filter(key -> key.startsWith(S100_TAG_PREFIX))
+                .filter(key -> plan.getField(key).isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Returns the tag keys the preset defines, but the tag mappings do not
+     * use.
+     *
+     * @param plan the preset plan
+     * @return the unmapped tag keys, sorted
+     */
+    protected Set<String> getUnmappedKeys(S100PresetPlan plan) {
+        final Set<String> mappedKeys = this.getMappedTagKeys();
+        return plan.getKeys()
+                .stream()
+                .filter(key -> !mappedKeys.contains(key))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Returns the folder the compiled preset plans are cached in, which
+     * defaults to a folder under the temporary directory.
+     *
+     * @return the preset plan cache folder
+     */
+    protected Path getCacheFolder() {
+        return this.getCacheDir()
+                .filter(dir -> !dir.isBlank())
+                .map(Path::of)
+                .orElseGet(() -> Path.of(System.getProperty("java.io.tmpdir"), "niord-uk"));
+    }
+
+}
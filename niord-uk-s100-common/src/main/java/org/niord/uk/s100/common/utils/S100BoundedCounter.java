@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * The S-100 Bounded Counter Class.
+ * <p/>
+ * Counts the occurrences of each of the provided keys, e.g. the unknown
+ * seamark types encountered while generating the S-100 datasets, from any
+ * number of threads. Since the keys come from the AtoN data, the number of
+ * distinct keys counted is bounded, and any keys beyond it are counted
+ * under {@value #OTHER_KEY}, so that the counter cannot grow indefinitely.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100BoundedCounter {
+
+    /**
+     * The key the occurrences of the keys beyond the bound are counted under.
+     */
+    public static final String OTHER_KEY = "*";
+
+    // Class Variables
+    private final int maxKeys;
+    private final AtomicInteger reservedKeys;
+    private final Map<String, LongAdder> counts;
+
+    /**
+     * Class Constructor.
+     *
+     * @param maxKeys   The maximum number of distinct keys to be counted
+     */
+    public S100BoundedCounter(int maxKeys) {
+        this.maxKeys = maxKeys;
+        this.reservedKeys = new AtomicInteger();
+        this.counts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Counts an occurrence of the provided key. A slot is reserved for every
+     * new key before it is added, so that concurrent increments can never
+     * exceed the maximum number of distinct keys.
+     *
+     * @param key       The key to be counted
+     */
+    public void increment(String key) {
+        LongAdder count = this.counts.get(key);
+        if(count == null) {
+            count = this.counts.computeIfAbsent(this.reserveKey() ? key : OTHER_KEY, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Returns the number of occurrences counted so far for each key, sorted
+     * by key.
+     *
+     * @return the occurrences per key
+     */
+    public Map<String, Long> getCounts() {
+        return this.counts.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), (a, b) -> a, TreeMap::new));
+    }
+
+    /**
+     * Reserves a slot for a new key, unless all the slots have already been
+     * reserved.
+     *
+     * @return whether a slot was reserved
+     */
+    private boolean reserveKey() {
+        int reserved;
+        do {
+            reserved = this.reservedKeys.get();
+            if(reserved >= this.maxKeys) {
+                return false;
+            }
+        } while(!this.reservedKeys.compareAndSet(reserved, reserved + 1));
+        return true;
+    }
+
+}
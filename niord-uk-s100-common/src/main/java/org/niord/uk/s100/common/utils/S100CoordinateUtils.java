@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+
+import java.util.Arrays;
+
+/**
+ * The S-100 Coordinate Utilities Class.
+ * <p/>
+ * The S-100 (e.g. S-125 and S-201) line and area geometries can contain a
+ * large number of coordinates. This class keeps them as flat primitive
+ * arrays of interleaved longitude/latitude values, from the JTS coordinate
+ * sequence all the way to the GML position lists, so that no coordinate or
+ * boxed double objects are allocated until the final array is handed over
+ * to JAXB. It also supports simplifying the coordinates for the minimum
+ * scale the features are meant to be displayed at.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100CoordinateUtils {
+
+    /**
+     * The smallest distance that can be told apart on a chart display, in
+     * metres at a scale of 1:1, i.e. 0.3mm.
+     */
+    public static final double DISPLAY_RESOLUTION = 0.0003;
+
+    /**
+     * The approximate length of a degree of latitude in metres.
+     */
+    public static final double METRES_PER_DEGREE = 111_320.0;
+
+    /**
+     * Extracts the 2D coordinates of the provided coordinate sequence into
+     * a flat array of interleaved longitude/latitude values.
+     *
+     * @param sequence  The coordinate sequence
+     * @return the flat coordinates array
+     */
+    public static double[] toArray(CoordinateSequence sequence) {
+        final int size = sequence.size();
+        final double[] coords = new double[size * 2];
+        for(int i = 0; i < size; i++) {
+            coords[2 * i] = sequence.getX(i);
+            coords[2 * i + 1] = sequence.getY(i);
+        }
+        return coords;
+    }
+
+    /**
+     * Boxes the provided flat coordinates array into the array type expected
+     * by the GML positions and position lists.
+     *
+     * @param coords    The flat coordinates array
+     * @return the boxed coordinates array
+     */
+    public static Double[] box(double[] coords) {
+        final Double[] boxed = new Double[coords.length];
+        for(int i = 0; i < coords.length; i++) {
+            boxed[i] = coords[i];
+        }
+        return boxed;
+    }
+
+    /**
+     * Returns the simplification tolerance in degrees for features that are
+     * displayed at or above the provided minimum scale, i.e. the distance
+     * that cannot be told apart on a chart of that scale.
+     *
+     * @param scaleMinimum  The minimum scale denominator, e.g. 50000
+     * @return the simplification tolerance in degrees, 0 for no simplification
+     */
+    public static double toleranceForScale(long scaleMinimum) {
+        return scaleMinimum > 0 ? scaleMinimum * DISPLAY_RESOLUTION / METRES_PER_DEGREE : 0.0;
+    }
+
+    /**
+     * Simplifies the provided flat coordinates array using the
+     * Douglas-Peucker algorithm, without allocating any coordinate objects.
+     * The first and last coordinates are always kept, so closed rings remain
+     * closed. If the simplified rings would collapse, i.e. end up with fewer
+     * than 4 coordinates, the original coordinates are returned.
+     *
+     * @param coords    The flat coordinates array
+     * @param tolerance The simplification tolerance in degrees
+     * @param ring      Whether the coordinates form a closed ring
+     * @return the simplified flat coordinates array
+     */
+    public static double[] simplify(double[] coords, double tolerance, boolean ring) {
+        final int size = coords.length / 2;
+        final int minSize = ring ? 4 : 2;
+        if(tolerance <= 0.0 || size <= minSize) {
+            return coords;
+        }
+
+        // Mark the coordinates to keep, processing the segments iteratively
+        final boolean[] keep = new boolean[size];
+        keep[0] = keep[size - 1] = true;
+        final int[] stack = new int[2 * size];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size - 1;
+        final double toleranceSquared = tolerance * tolerance;
+        while(top > 0) {
+            final int last = stack[--top];
+            final int first = stack[--top];
+            int furthest = -1;
+            double furthestDistance = toleranceSquared;
+            for(int i = first + 1; i < last; i++) {
+                final double distance = segmentDistanceSquared(coords, i, first, last);
+                if(distance > furthestDistance) {
+                    furthest = i;
+                    furthestDistance = distance;
+                }
+            }
+            if(furthest >= 0) {
+                keep[furthest] = true;
+                stack[top++] = first;
+                stack[top++] = furthest;
+                stack[top++] = furthest;
+                stack[top++] = last;
+            }
+        }
+
+        // And collect the kept coordinates
+        final double[] simplified = new double[coords.length];
+        int length = 0;
+        for(int i = 0; i < size; i++) {
+            if(keep[i]) {
+                simplified[length++] = coords[2 * i];
+                simplified[length++] = coords[2 * i + 1];
+            }
+        }
+        return length / 2 < minSize ? coords : Arrays.copyOf(simplified, length);
+    }
+
+    /**
+     * Computes the squared distance of a coordinate from the segment between
+     * two other coordinates of the provided flat coordinates array.
+     *
+     * @param coords    The flat coordinates array
+     * @param point     The index of the coordinate
+     * @param start     The index of the segment start coordinate
+     * @param end       The index of the segment end coordinate
+     * @return the squared distance of the coordinate from the segment
+     */
+    private static double segmentDistanceSquared(double[] coords, int point, int start, int end) {
+        final double x = coords[2 * point], y = coords[2 * point + 1];
+        final double x1 = coords[2 * start], y1 = coords[2 * start + 1];
+        final double dx = coords[2 * end] - x1, dy = coords[2 * end + 1] - y1;
+        final double lengthSquared = dx * dx + dy * dy;
+        final double t = lengthSquared == 0.0 ? 0.0 : Math.max(0.0, Math.min(1.0, ((x - x1) * dx + (y - y1) * dy) / lengthSquared));
+        final double px = x1 + t * dx - x, py = y1 + t * dy - y;
+        return px * px + py * py;
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.niord.core.aton.AtonLink;
+import org.niord.core.aton.AtonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The S-100 Dataset Adapter Interface.
+ * <p/>
+ * The S-100 data products (e.g. S-125 and S-201) are generated in the same
+ * way, but each one uses its own JAXB binding of the dataset and its members.
+ * This interface provides the product-specific operations the product
+ * agnostic utilities (e.g. the {@link S100DatasetWriter}) require, so that
+ * they can be shared by all the products. It is implemented by the dataset
+ * builder of each product.
+ *
+ * @param <I> the type of the dataset information
+ * @param <D> the type of the JAXB dataset
+ * @param <M> the type of the JAXB dataset members
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public interface S100DatasetAdapter<I, D, M> {
+
+    /**
+     * Translates the provided list of AtoN nodes into a complete dataset,
+     * including all the dataset members.
+     *
+     * @param datasetInfo   The Dataset information
+     * @param atonNodes     The list of AtoN nodes
+     * @return the complete dataset
+     */
+    D packageToDataset(I datasetInfo, List<AtonNode> atonNodes);
+
+    /**
+     * Initialises the dataset for the provided list of AtoN nodes,
+     * populating everything apart from the dataset members, and pre-assigns
+     * the IDs of all the dataset members.
+     *
+     * @param datasetInfo   The Dataset information
+     * @param atonNodes     The list of AtoN nodes
+     * @return the initialised dataset without any members
+     */
+    D initialiseDataset(I datasetInfo, List<AtonNode> atonNodes);
+
+    /**
+     * Creates a new empty dataset, to marshal the dataset members with.
+     *
+     * @return the new empty dataset
+     */
+    D createDataset();
+
+    /**
+     * Adds the provided members to the provided dataset.
+     *
+     * @param dataset       The dataset
+     * @param members       The members to be added
+     */
+    void addDatasetMembers(D dataset, List<M> members);
+
+    /**
+     * Sets the dataset files of the AtoN nodes encoded in other datasets of
+     * the same exchange set, so that they can be referenced across the
+     * datasets.
+     *
+     * @param externalDatasets  The dataset file names, indexed by the AtoN UIDs
+     */
+    void setExternalDatasets(Map<String, String> externalDatasets);
+
+    /**
+     * Sets the IDs of the AtoN links that should not be encoded in the
+     * dataset, e.g. because they are encoded in another dataset of the same
+     * exchange set.
+     *
+     * @param excludedLinks     The IDs of the excluded AtoN links
+     */
+    void setExcludedLinks(Set<Integer> excludedLinks);
+
+    /**
+     * Returns the children of the provided AtoN node, in the order their
+     * dataset members are generated.
+     *
+     * @param atonNode      The AtoN node
+     * @return the children of the AtoN node
+     */
+    List<AtonNode> getChildren(AtonNode atonNode);
+
+    /**
+     * Returns the peers of the provided AtoN link, in the order their
+     * references are generated.
+     *
+     * @param atonLink      The AtoN link
+     * @return the peers of the AtoN link
+     */
+    List<AtonNode> getPeers(AtonLink atonLink);
+
+    /**
+     * Resolves the type of the dataset member of the provided AtoN node.
+     *
+     * @param atonNode      The AtoN node
+     * @return the member type, or null if the AtoN node cannot be encoded
+     */
+    Object resolveAtonType(AtonNode atonNode);
+
+    /**
+     * Counts the AtoN node as one of an unknown type, since it cannot be
+     * encoded as a dataset member.
+     *
+     * @param atonNode      The AtoN node
+     */
+    void countUnknownAtonType(AtonNode atonNode);
+
+    /**
+     * Collects the aggregation and association links of the provided AtoN
+     * nodes that will be encoded in the dataset, in the order they are
+     * generated and without any duplicates.
+     *
+     * @param atonNodes     The AtoN nodes to collect the links from
+     * @return the ordered list of aggregation/association links
+     */
+    List<AtonLink> collectAidsToNavigationLinks(List<AtonNode> atonNodes);
+
+    /**
+     * Generates the dataset member of the provided AtoN node.
+     *
+     * @param atonNode      The AtoN node
+     * @return the generated dataset member
+     */
+    M generateAidsToNavigation(AtonNode atonNode);
+
+    /**
+     * Generates the aggregation dataset member of the provided AtoN link.
+     *
+     * @param atonLink      The AtoN link
+     * @return the generated aggregation member
+     */
+    M generateAggregation(AtonLink atonLink);
+
+    /**
+     * Generates the association dataset member of the provided AtoN link.
+     *
+     * @param atonLink      The AtoN link
+     * @return the generated association member
+     */
+    M generateAssociation(AtonLink atonLink);
+
+    /**
+     * Returns all the dataset IDs used by the dataset member of the provided
+     * AtoN node, i.e. the ID of the member itself, its geometry and its
+     * references.
+     *
+     * @param atonNode      The AtoN node of the dataset member
+     * @return the list of dataset IDs used by the member
+     */
+    List<String> generateMemberIds(AtonNode atonNode);
+
+    /**
+     * Returns the dataset ID of the provided dataset member.
+     *
+     * @param member        The dataset member
+     * @return the dataset ID of the member
+     */
+    String getMemberId(M member);
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.niord.core.aton.AtonLink;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonTag;
+
+import java.util.*;
+
+/**
+ * The S-100 Dataset Splitter Class.
+ * <p/>
+ * Some consumers cannot load GML datasets above a certain size, while large
+ * datasets also drive up the memory needed to generate them. This class
+ * splits the AtoN nodes of a dataset into multiple datasets, each capped by
+ * the number of members and/or their estimated size in bytes. Structures are
+ * always kept together with their equipment children, and AtoN nodes linked
+ * through aggregations or associations are kept together as well, as long
+ * as they fit within the caps. Groups that do not fit in any dataset on
+ * their own are placed in a dataset of their own.
+ * <p/>
+ * Links that still end up spanning multiple datasets are only encoded in
+ * the dataset of their first peer, referencing the peers in the other
+ * datasets through their dataset files. The member sizes are estimated out
+ * of their tags and coordinates, so the byte size cap should allow for some
+ * headroom.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100DatasetSplitter {
+
+    /**
+     * The estimated size in bytes of a dataset member without any tags or
+     * coordinates, i.e. its member envelope, IDs and bounding shape.
+     */
+    public static final int MEMBER_SIZE = 1024;
+
+    /**
+     * The estimated size in bytes of each tag on top of its key and value.
+     */
+    public static final int TAG_SIZE = 16;
+
+    /**
+     * The estimated size in bytes of each coordinate.
+     */
+    public static final int COORDINATE_SIZE = 40;
+
+    // Class Variables
+    private final S100DatasetAdapter<?, ?, ?> builder;
+    private final int maxMembers;
+    private final long maxBytes;
+
+    /**
+     * Class Constructor.
+     *
+     * @param builder       The product builder used to navigate the AtoN nodes
+     * @param maxMembers    The maximum number of members per dataset, 0 for no limit
+     * @param maxBytes      The maximum estimated size in bytes per dataset, 0 for no limit
+     */
+    public S100DatasetSplitter(S100DatasetAdapter<?, ?, ?> builder, int maxMembers, long maxBytes) {
+        this.builder = builder;
+        this.maxMembers = maxMembers;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Splits the provided AtoN nodes into datasets within the caps, keeping
+     * their original order within each dataset. If no caps are set, or all
+     * the AtoN nodes fit in a single dataset, a single split is returned.
+     *
+     * @param atonNodes     The AtoN nodes to be split
+     * @return the dataset splits
+     */
+    public List<Split> split(List<AtonNode> atonNodes) {
+        final List<AtonNode> nodes = Optional.ofNullable(atonNodes).orElse(Collections.emptyList());
+
+        // Each AtoN node forms a unit along with its children
+        final int size = nodes.size();
+        final int[] members = new int[size];
+        final long[] bytes = new long[size];
+        final Map<AtonNode, Integer> unitOf = new IdentityHashMap<>();
+        final Map<AtonNode, Integer> topLevelUnitOf = new IdentityHashMap<>();
+        for(int i = 0; i < size; i++) {
+            final AtonNode atonNode = nodes.get(i);
+            final List<AtonNode> children = this.builder.getChildren(atonNode);
+            members[i] = 1 + children.size();
+            bytes[i] = estimateSize(atonNode) + children.stream().mapToLong(S100DatasetSplitter::estimateSize).sum();
+            topLevelUnitOf.putIfAbsent(atonNode, i);
+            unitOf.putIfAbsent(atonNode, i);
+            for(AtonNode child : children) {
+                unitOf.putIfAbsent(child, i);
+            }
+        }
+
+        // Group the linked units together, as long as they fit in a dataset
+        final List<AtonLink> links = this.builder.collectAidsToNavigationLinks(nodes);
+        final int[] groups = new int[size];
+        Arrays.setAll(groups, i -> i);
+        for(AtonLink atonLink : links) {
+            final Set<Integer> roots = new TreeSet<>();
+            for(AtonNode peer : this.builder.getPeers(atonLink)) {
+                Optional.ofNullable(unitOf.get(peer)).ifPresent(unit -> roots.add(find(groups, unit)));
+            }
+            if(roots.size() > 1 && this.fits(roots.stream().mapToInt(r -> members[r]).sum(), roots.stream().mapToLong(r -> bytes[r]).sum())) {
+                final int root = roots.iterator().next();
+                for(int other : roots) {
+                    if(other != root) {
+                        groups[other] = root;
+                        members[root] += members[other];
+                        bytes[root] += bytes[other];
+                    }
+                }
+            }
+        }
+
+        // Pack the groups into datasets, in the order they first appear
+        final int[] splitOf = new int[size];
+        final Map<Integer, Integer> groupSplits = new HashMap<>();
+        int splitCount = 0;
+        int splitMembers = 0;
+        long splitBytes = 0;
+        for(int i = 0; i < size; i++) {
+            final int root = find(groups, i);
+            if(!groupSplits.containsKey(root)) {
+                if(splitCount == 0 || !this.fits(splitMembers + members[root], splitBytes + bytes[root])) {
+                    splitCount++;
+                    splitMembers = 0;
+                    splitBytes = 0;
+                }
+                groupSplits.put(root, splitCount - 1);
+                splitMembers += members[root];
+                splitBytes += bytes[root];
+            }
+            splitOf[i] = groupSplits.get(root);
+        }
+
+        // Collect the AtoN nodes of each dataset
+        final List<List<AtonNode>> splitNodes = new ArrayList<>();
+        final List<Map<String, Integer>> externalReferences = new ArrayList<>();
+        final List<Set<Integer>> excludedLinks = new ArrayList<>();
+        for(int s = 0; s < Math.max(1, splitCount); s++) {
+            splitNodes.add(new ArrayList<>());
+            externalReferences.add(new HashMap<>());
+            excludedLinks.add(new HashSet<>());
+        }
+        for(int i = 0; i < size; i++) {
+            splitNodes.get(splitOf[i]).add(nodes.get(i));
+        }
+
+        // And assign each link spanning multiple datasets to the dataset of
+        // its first peer, referencing the peers in other datasets from there
+        for(AtonLink atonLink : links) {
+            final List<AtonNode> peers = this.builder.getPeers(atonLink);
+            final Integer owner = peers.stream()
+                    .map(topLevelUnitOf::get)
+                    .filter(Objects::nonNull)
+                    .map(unit -> splitOf[unit])
+                    .findFirst()
+                    .orElse(null);
+            if(owner == null) {
+                continue;
+            }
+            for(AtonNode peer : peers) {
+                final Integer unit = unitOf.get(peer);
+                if(unit != null && splitOf[unit] != owner) {
+                    excludedLinks.get(splitOf[unit]).add(atonLink.getId());
+                    Optional.ofNullable(peer.getAtonUid()).ifPresent(uid -> externalReferences.get(owner).put(uid, splitOf[unit]));
+                }
+            }
+        }
+
+        // Return the splits
+        final List<Split> splits = new ArrayList<>();
+        for(int s = 0; s < splitNodes.size(); s++) {
+            splits.add(new Split(s, splitNodes.get(s), externalReferences.get(s), excludedLinks.get(s)));
+        }
+        return splits;
+    }
+
+    /**
+     * Estimates the size in bytes of the dataset member of the provided AtoN
+     * node, out of its tags and coordinates.
+     *
+     * @param atonNode      The AtoN node
+     * @return the estimated member size in bytes
+     */
+    public static long estimateSize(AtonNode atonNode) {
+        long size = MEMBER_SIZE;
+        for(AtonTag atonTag : Optional.ofNullable(atonNode.getTags()).orElse(Collections.emptyList())) {
+            size += TAG_SIZE + Optional.ofNullable(atonTag.getK()).map(String::length).orElse(0) + Optional.ofNullable(atonTag.getV()).map(String::length).orElse(0);
+        }
+        if(atonNode.getGeometry() != null) {
+            size += (long) COORDINATE_SIZE * atonNode.getGeometry().getNumPoints();
+        }
+        return size;
+    }
+
+    /**
+     * Returns whether the provided number of members and estimated size fit
+     * within the caps of a single dataset.
+     *
+     * @param members       The number of members
+     * @param bytes         The estimated size in bytes
+     * @return whether they fit in a single dataset
+     */
+    protected boolean fits(int members, long bytes) {
+        return (this.maxMembers <= 0 || members <= this.maxMembers) && (this.maxBytes <= 0 || bytes <= this.maxBytes);
+    }
+
+    /**
+     * Finds the root group of the provided unit, compressing the path to it
+     * along the way.
+     *
+     * @param groups        The parent group of each unit
+     * @param unit          The unit
+     * @return the root group of the unit
+     */
+    private static int find(int[] groups, int unit) {
+        while(groups[unit] != unit) {
+            groups[unit] = groups[groups[unit]];
+            unit = groups[unit];
+        }
+        return unit;
+    }
+
+    /**
+     * A dataset split, i.e. the AtoN nodes of one of the datasets, along with
+     * the datasets of the AtoN nodes its links reference in other datasets,
+     * and the links it should not encode since they are encoded in another
+     * dataset.
+     *
+     * @param index                 The index of the dataset
+     * @param atonNodes             The AtoN nodes of the dataset
+     * @param externalReferences    The dataset indices of the AtoN nodes in other datasets, indexed by their UIDs
+     * @param excludedLinks         The IDs of the links encoded in other datasets
+     */
+    public record Split(int index, List<AtonNode> atonNodes, Map<String, Integer> externalReferences, Set<Integer> excludedLinks) {
+    }
+
+}
@@ -0,0 +1,702 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import org.niord.core.aton.AtonLink;
+import org.niord.core.aton.AtonLinkType;
+import org.niord.core.aton.AtonNode;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * The S-100 Dataset Writer Class.
+ *
+ * This class streams an S-100 Dataset directly into an output stream through
+ * StAX, without ever holding the complete JAXB object graph or the complete
+ * marshalled string in memory. The dataset envelope (i.e. everything apart
+ * from the dataset members) is read out of a dataset marshalled with a single
+ * sample member of each member type, through an {@link XMLStreamReader}, and
+ * written again through an {@link XMLStreamWriter} with the sample members
+ * left out. The dataset members are generated by the
+ * {@link S100DatasetAdapter} of the data product (i.e. its dataset builder)
+ * and each one is marshalled through the product's {@link S100JaxbPool} as a
+ * JAXB fragment into an {@link XMLStreamWriter} of its chunk.
+ *
+ * Since JAXB groups the dataset members by their type, the writer goes
+ * through the AtoN nodes once for every member type, in the same order as
+ * JAXB would output them, using the element names of the sample members.
+ * JAXB declares all the namespaces it knows about on the dataset element,
+ * and the member fragments are marshalled with those already in scope, so
+ * they never declare any namespaces of their own. This way the members are
+ * safe to cache and reuse in any other dataset, and the produced dataset
+ * only differs from marshalling the complete dataset generated by the dataset
+ * builder of the data product in its whitespace, i.e. it is byte-identical
+ * once indented by {@link S100XmlUtils#xmlPrettyPrint(InputStream, OutputStream, int)},
+ * as the datasets are always served.
+ *
+ * If a fork-join pool is provided, the member chunks are marshalled in
+ * parallel, a few chunks ahead of the output. The members themselves are
+ * still generated by the calling thread though, since the AtoN nodes are
+ * JPA entities whose lazily loaded associations must not be accessed by
+ * any other thread. Since all the dataset IDs are pre-assigned, the output
+ * is still identical to the one generated sequentially.
+ *
+ * @param <I> the type of the dataset information
+ * @param <D> the type of the JAXB dataset
+ * @param <M> the type of the JAXB dataset members
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100DatasetWriter<I, D, M> {
+
+    /**
+     * The default number of members to be marshalled in each chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    /**
+     * The local name of the dataset members section element.
+     */
+    public static final String MEMBERS_ELEMENT = "members";
+
+    // Class Variables
+    private final S100DatasetAdapter<I, D, M> builder;
+    private final S100JaxbPool<D> jaxbPool;
+    private final int chunkSize;
+    private final S100FragmentCache fragmentCache;
+    private final ForkJoinPool forkJoinPool;
+    private final XMLInputFactory xmlInputFactory;
+    private final XMLOutputFactory xmlOutputFactory;
+
+    /**
+     * Class Constructor.
+     *
+     * @param builder       The dataset builder to generate the members
+     * @param jaxbPool      The JAXB pool to marshal the dataset with
+     * @param chunkSize     The number of members to be marshalled per chunk
+     * @param fragmentCache The cache of pre-rendered members, if any
+     * @param forkJoinPool  The pool to marshal the member chunks in parallel, if any
+     */
+    public S100DatasetWriter(S100DatasetAdapter<I, D, M> builder,
+                             S100JaxbPool<D> jaxbPool,
+                             int chunkSize,
+                             S100FragmentCache fragmentCache,
+                             ForkJoinPool forkJoinPool) {
+        this.builder = builder;
+        this.jaxbPool = jaxbPool;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.fragmentCache = fragmentCache;
+        this.forkJoinPool = forkJoinPool;
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.xmlOutputFactory = XMLOutputFactory.newInstance();
+    }
+
+    /**
+     * Writes the provided list of AtoN nodes as an S-100 Dataset into the
+     * provided output stream, using the UTF-8 encoding.
+     *
+     * @param datasetInfo   The Dataset information
+     * @param atonNodes     The list of AtoN nodes
+     * @param outputStream  The output stream to write the dataset into
+     * @throws IOException for any errors while writing into the output stream
+     * @throws JAXBException for any errors while marshalling the dataset
+     */
+    public void write(I datasetInfo,
+                      List<AtonNode> atonNodes,
+                      OutputStream outputStream) throws IOException, JAXBException {
+        final Iterator<String> fragments = this.fragments(datasetInfo, atonNodes);
+        try {
+            while(fragments.hasNext()) {
+                outputStream.write(fragments.next().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (UncheckedIOException ex) {
+            this.rethrow(ex);
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Opens an input stream from which the provided list of AtoN nodes can
+     * be read as an S-100 Dataset, using the UTF-8 encoding. The dataset
+     * members are only generated and marshalled as the stream is read, so
+     * it can be piped into further stream processing (e.g. indentation)
+     * without ever holding the complete dataset in memory.
+     *
+     * @param datasetInfo   The Dataset information
+     * @param atonNodes     The list of AtoN nodes
+     * @return the input stream to read the dataset from
+     * @throws JAXBException for any errors while marshalling the dataset
+     */
+    public InputStream open(I datasetInfo,
+                            List<AtonNode> atonNodes) throws JAXBException {
+        final Iterator<String> fragments = this.fragments(datasetInfo, atonNodes);
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return fragments.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return new ByteArrayInputStream(fragments.next().getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    /**
+     * Prepares the S-100 Dataset for the provided list of AtoN nodes and
+     * returns an iterator over its marshalled fragments, i.e. the dataset
+     * head, the chunks of dataset members and the dataset tail. The member
+     * chunks are only generated as the iterator advances.
+     *
+     * Any marshalling errors raised while iterating are wrapped in an
+     * {@link UncheckedIOException}.
+     *
+     * @param datasetInfo   The Dataset information
+     * @param atonNodes     The list of AtoN nodes
+     * @return the iterator over the marshalled dataset fragments
+     * @throws JAXBException for any errors while marshalling the dataset
+     */
+    protected Iterator<String> fragments(I datasetInfo,
+                                         List<AtonNode> atonNodes) throws JAXBException {
+        return this.fragments(datasetInfo, atonNodes, 0);
+    }
+
+    /**
+     * Prepares the S-100 Dataset for the provided list of AtoN nodes and
+     * returns an iterator over its marshalled fragments, skipping the
+     * provided number of fragments without rendering them. Since the same
+     * AtoN nodes always produce the same fragments, this allows a partially
+     * written dataset to be resumed from the last fragment written, e.g.
+     * when restarting an export job.
+     *
+     * Any marshalling errors raised while iterating are wrapped in an
+     * {@link UncheckedIOException}.
+     *
+     * @param datasetInfo   The Dataset information
+     * @param atonNodes     The list of AtoN nodes
+     * @param skip          The number of fragments to skip
+     * @return the iterator over the remaining marshalled dataset fragments
+     * @throws JAXBException for any errors while marshalling the dataset
+     */
+    public Iterator<String> fragments(I datasetInfo,
+                                      List<AtonNode> atonNodes,
+                                      int skip) throws JAXBException {
+        // Initialise the dataset - this also pre-assigns all the member IDs
+        final List<AtonNode> nodes = Optional.ofNullable(atonNodes).orElse(Collections.emptyList());
+        final D dataset = this.builder.initialiseDataset(datasetInfo, nodes);
+
+        // Collect the members to be written, in the builder's order
+        final List<AtonNode> memberNodes = nodes.stream()
+                .flatMap(aton -> Stream.concat(Stream.of(aton), this.builder.getChildren(aton).stream()))
+                .toList();
+        final List<Object> memberNodeKeys = memberNodes.stream()
+                .map(this.builder::resolveAtonType)
+                .toList();
+        final List<AtonLink> memberLinks = this.builder.collectAidsToNavigationLinks(nodes);
+        final List<Object> memberLinkKeys = memberLinks.stream()
+                .map(link -> link.getLinkCategory().getAtonLinkType())
+                .map(Object.class::cast)
+                .toList();
+
+        // Generate a sample member for each distinct member type
+        final Map<Object, M> samples = new LinkedHashMap<>();
+        for(int i = 0; i < memberNodes.size(); i++) {
+            final AtonNode atonNode = memberNodes.get(i);
+            if(memberNodeKeys.get(i) == null) {
+                this.builder.countUnknownAtonType(atonNode);
+                continue;
+            }
+            samples.computeIfAbsent(memberNodeKeys.get(i), k -> this.builder.generateAidsToNavigation(atonNode));
+        }
+        for(int i = 0; i < memberLinks.size(); i++) {
+            final AtonLink atonLink = memberLinks.get(i);
+            samples.computeIfAbsent(memberLinkKeys.get(i), k -> this.generateLink(atonLink));
+        }
+
+        // Marshal the dataset with the samples to get the dataset envelope
+        // along with the order and the element name of each member type
+        this.builder.addDatasetMembers(dataset, new ArrayList<>(samples.values()));
+        final Envelope envelope = this.readEnvelope(this.jaxbPool.marshal(dataset), samples);
+        if(samples.isEmpty()) {
+            return skip > 0 ? Collections.emptyIterator() : List.of(envelope.head() + envelope.tail()).iterator();
+        }
+
+        // Order the members the same way JAXB would output them
+        final Map<Object, List<Object>> membersByKey = new HashMap<>();
+        for(int i = 0; i < memberNodes.size(); i++) {
+            membersByKey.computeIfAbsent(memberNodeKeys.get(i), k -> new ArrayList<>()).add(memberNodes.get(i));
+        }
+        for(int i = 0; i < memberLinks.size(); i++) {
+            membersByKey.computeIfAbsent(memberLinkKeys.get(i), k -> new ArrayList<>()).add(memberLinks.get(i));
+        }
+        final List<Member> members = envelope.memberNames()
+                .entrySet()
+                .stream()
+                .flatMap(e -> membersByKey.get(e.getKey()).stream().map(source -> new Member(source, e.getValue())))
+                .toList();
+
+        // Now go through the head, the member chunks and the tail, starting
+        // from the first fragment that should not be skipped
+        final int memberChunks = (members.size() + chunkSize - 1) / chunkSize;
+        return new Iterator<>() {
+            private final Deque<Future<String>> pending = new ArrayDeque<>();
+            private boolean headWritten = skip > 0;
+            private boolean tailWritten = skip > memberChunks + 1;
+            private int memberIndex = (int) Math.min(members.size(), Math.max(0L, skip - 1L) * chunkSize);
+
+            @Override
+            public boolean hasNext() {
+                return !this.tailWritten;
+            }
+
+            @Override
+            public String next() {
+                // The dataset head comes first
+                if(!this.headWritten) {
+                    this.headWritten = true;
+                    return envelope.head();
+                }
+
+                // Then the members in chunks, either one at a time or
+                // marshalled a few chunks ahead in the fork-join pool. The
+                // chunks are always prepared by the calling thread though,
+                // since that is the one the AtoN nodes belong to
+                if(forkJoinPool == null && this.memberIndex < members.size()) {
+                    return renderChunk(prepareChunk(this.nextChunk()), envelope);
+                }
+                while(forkJoinPool != null
+                        && this.pending.size() < 2 * forkJoinPool.getParallelism()
+                        && this.memberIndex < members.size()) {
+                    final List<PreparedMember<M>> chunk = prepareChunk(this.nextChunk());
+                    this.pending.add(forkJoinPool.submit(() -> renderChunk(chunk, envelope)));
+                }
+                if(!this.pending.isEmpty()) {
+                    return await(this.pending.poll());
+                }
+
+                // And finally the dataset tail
+                if(this.tailWritten) {
+                    throw new NoSuchElementException();
+                }
+                this.tailWritten = true;
+                return envelope.tail();
+            }
+
+            /**
+             * Picks up the next chunk of members to be rendered.
+             *
+             * @return the next chunk of members
+             */
+            private List<Member> nextChunk() {
+                final int end = Math.min(members.size(), this.memberIndex + chunkSize);
+                final List<Member> chunk = members.subList(this.memberIndex, end);
+                this.memberIndex = end;
+                return chunk;
+            }
+        };
+    }
+
+    /**
+     * Prepares the provided chunk of dataset members, i.e. the AtoN nodes and
+     * the aggregation/association links, to be rendered. The AtoN node
+     * members are looked up in the fragment cache whenever possible, while
+     * the rest are generated by the dataset builder.
+     * <p/>
+     * This is where all the AtoN nodes and links are accessed, along with
+     * their lazily loaded tags, links, parents and children, so it should
+     * only ever be called by the thread the AtoN nodes were loaded by.
+     *
+     * @param chunk         The chunk of AtoN nodes and links to be prepared
+     * @return the prepared chunk of dataset members
+     */
+    protected List<PreparedMember<M>> prepareChunk(List<Member> chunk) {
+        final List<PreparedMember<M>> prepared = new ArrayList<>(chunk.size());
+        for(Member member : chunk) {
+            if(member.source() instanceof AtonNode atonNode) {
+                // Check the fragment cache first
+                final String key = this.fragmentCache != null ? this.fragmentKey(atonNode) : null;
+                final List<String> ids = key != null ? this.builder.generateMemberIds(atonNode) : Collections.emptyList();
+                final String cached = key != null ? this.fragmentCache.get(key, ids) : null;
+                if(cached != null) {
+                    prepared.add(new PreparedMember<>(member.name(), null, cached, null, ids));
+                    continue;
+                }
+
+                // Otherwise generate the member
+                final M generated = this.builder.generateAidsToNavigation(atonNode);
+                if(generated != null) {
+                    prepared.add(new PreparedMember<>(member.name(), generated, null, key, ids));
+                }
+            } else if(member.source() instanceof AtonLink atonLink) {
+                final M generated = this.generateLink(atonLink);
+                if(generated != null) {
+                    prepared.add(new PreparedMember<>(member.name(), generated, null, null, Collections.emptyList()));
+                }
+            }
+        }
+        return prepared;
+    }
+
+    /**
+     * Renders the provided chunk of prepared dataset members. The generated
+     * members are marshalled one by one as JAXB fragments into an XML stream
+     * writer, with the namespaces of the dataset element in scope, populating
+     * the fragment cache on the way. The cached fragments are written as they
+     * are, in between the marshalled ones.
+     * <p/>
+     * Since the prepared members are plain JAXB objects and strings, that
+     * do not reference any AtoN nodes, multiple chunks can be rendered
+     * concurrently by any thread.
+     *
+     * @param chunk         The chunk of prepared dataset members
+     * @param envelope      The envelope of the dataset
+     * @return the rendered chunk of dataset members
+     */
+    protected String renderChunk(List<PreparedMember<M>> chunk, Envelope envelope) {
+        final StringWriter output = new StringWriter();
+        try {
+            final XMLStreamWriter writer = this.xmlOutputFactory.createXMLStreamWriter(output);
+            try {
+                writer.setNamespaceContext(envelope.namespaceContext());
+                for(PreparedMember<M> member : chunk) {
+                    // Cached fragments go straight into the output
+                    if(member.fragment() != null) {
+                        output.write(member.fragment());
+                        continue;
+                    }
+
+                    // Otherwise marshal the member right after the previous one
+                    final int start = output.getBuffer().length();
+                    this.marshalMember(member, writer);
+                    writer.flush();
+                    if(member.key() != null) {
+                        this.fragmentCache.put(member.key(), output.getBuffer().substring(start), member.ids());
+                    }
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException | JAXBException ex) {
+            throw new UncheckedIOException(new IOException(ex));
+        }
+        return output.toString();
+    }
+
+    /**
+     * Marshals the provided dataset member as a JAXB fragment into the
+     * provided XML stream writer, under the element name of its member type.
+     *
+     * @param member        The prepared dataset member
+     * @param writer        The XML stream writer to marshal the member into
+     * @throws JAXBException for any errors while marshalling the member
+     */
+    @SuppressWarnings("unchecked")
+    protected void marshalMember(PreparedMember<M> member, XMLStreamWriter writer) throws JAXBException {
+        this.jaxbPool.marshalFragment(new JAXBElement<>(member.name(), (Class<M>) member.member().getClass(), member.member()), writer);
+    }
+
+    /**
+     * Waits for the provided chunk rendering task to complete and returns
+     * its result, unwrapping any unchecked exceptions it raised.
+     *
+     * @param task          The chunk rendering task
+     * @return the rendered chunk of dataset members
+     */
+    private String await(Future<String> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while rendering the S-100 dataset members"));
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new UncheckedIOException(new IOException(ex.getCause()));
+        }
+    }
+
+    /**
+     * Generates the fragment cache key of the dataset member of the provided
+     * AtoN node. Apart from the AtoN node ID and version, the key also
+     * includes the node's parent and children, since they are referenced by
+     * the member.
+     *
+     * @param atonNode      The AtoN node of the dataset member
+     * @return the fragment cache key, or null if the member cannot be cached
+     */
+    protected String fragmentKey(AtonNode atonNode) {
+        // Only persisted AtoN nodes can be cached
+        if(atonNode.getId() == null) {
+            return null;
+        }
+
+        final StringBuilder key = new StringBuilder()
+                .append(atonNode.getId())
+                .append(':').append(atonNode.getChangeset())
+                .append(':').append(Optional.ofNullable(atonNode.getTimestamp()).map(Date::getTime).orElse(null))
+                .append(':').append(Optional.ofNullable(atonNode.getParent()).map(AtonNode::getId).orElse(null))
+                .append(':');
+        this.builder.getChildren(atonNode)
+                .forEach(child -> key.append(child.getId()).append(','));
+        return key.toString();
+    }
+
+    /**
+     * Reads the provided marshalled dataset, which contains a sample member
+     * of each member type, and writes its envelope again through StAX, i.e.
+     * everything up to and including the opening members tag as the head,
+     * and everything from the closing members tag onwards as the tail. The
+     * sample members and any whitespace-only text are left out. On the way,
+     * the element names of the sample members are collected, in the order
+     * JAXB outputs them, along with the namespaces declared on the dataset
+     * and the members elements, which are in scope of every member.
+     *
+     * @param xml           The marshalled dataset containing the samples
+     * @param samples       The sample members of each member type
+     * @return the dataset envelope
+     * @throws JAXBException if the samples cannot be located in the dataset
+     */
+    protected Envelope readEnvelope(String xml, Map<Object, M> samples) throws JAXBException {
+        final Map<String, Object> sampleKeys = new HashMap<>();
+        samples.forEach((key, sample) -> sampleKeys.put(this.builder.getMemberId(sample), key));
+        final Map<Object, QName> memberNames = new LinkedHashMap<>();
+        final Map<String, String> namespaces = new LinkedHashMap<>();
+        final StringWriter output = new StringWriter();
+        int headLength = -1;
+        try {
+            final XMLStreamReader reader = this.xmlInputFactory.createXMLStreamReader(new StringReader(xml));
+            final XMLStreamWriter writer = this.xmlOutputFactory.createXMLStreamWriter(output);
+            try {
+                int depth = 0;
+                int membersDepth = -1;
+                writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                while(reader.hasNext()) {
+                    final int event = reader.next();
+
+                    // Skip the sample members, only keeping their names
+                    if(membersDepth > 0) {
+                        if(event == XMLStreamConstants.START_ELEMENT && ++depth == membersDepth + 1) {
+                            final Object key = sampleKeys.get(reader.getAttributeValue(null, "id"));
+                            if(key != null) {
+                                memberNames.putIfAbsent(key, reader.getName());
+                            }
+                        } else if(event == XMLStreamConstants.END_ELEMENT && depth-- == membersDepth) {
+                            membersDepth = -1;
+                            writer.writeEndElement();
+                        }
+                        continue;
+                    }
+
+                    // And copy everything else
+                    switch(event) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            depth++;
+                            this.copyStartElement(reader, writer);
+                            final boolean members = headLength < 0 && MEMBERS_ELEMENT.equals(reader.getLocalName());
+                            if(depth == 1 || members) {
+                                for(int i = 0; i < reader.getNamespaceCount(); i++) {
+                                    namespaces.put(Optional.ofNullable(reader.getNamespacePrefix(i)).orElse(""), reader.getNamespaceURI(i));
+                                }
+                            }
+                            if(members) {
+                                // Close the opening members tag to end the head
+                                membersDepth = depth;
+                                writer.writeCharacters("");
+                                writer.flush();
+                                headLength = output.getBuffer().length();
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            depth--;
+                            writer.writeEndElement();
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE, XMLStreamConstants.CDATA -> {
+                            if(!reader.isWhiteSpace()) {
+                                writer.writeCharacters(reader.getText());
+                            }
+                        }
+                        case XMLStreamConstants.END_DOCUMENT -> writer.writeEndDocument();
+                        default -> {
+                            // Nothing else is marshalled by JAXB
+                        }
+                    }
+                }
+                writer.flush();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new JAXBException(ex);
+        }
+
+        // Make sure all the samples were found
+        if(memberNames.size() != samples.size()) {
+            throw new JAXBException("Failed to locate the members of the marshalled S-100 dataset");
+        }
+        final String envelope = output.toString();
+        if(headLength < 0) {
+            return new Envelope(envelope, "", namespaces, memberNames);
+        }
+        return new Envelope(envelope.substring(0, headLength), envelope.substring(headLength), namespaces, memberNames);
+    }
+
+    /**
+     * Copies the start element the provided reader is positioned at into the
+     * provided writer, along with its namespace declarations and attributes.
+     *
+     * @param reader        The XML stream reader positioned at a start element
+     * @param writer        The XML stream writer
+     * @throws XMLStreamException for any errors while copying the element
+     */
+    protected void copyStartElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(
+                Optional.ofNullable(reader.getPrefix()).orElse(""),
+                reader.getLocalName(),
+                Optional.ofNullable(reader.getNamespaceURI()).orElse(""));
+        for(int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String prefix = reader.getNamespacePrefix(i);
+            if(prefix == null || prefix.isEmpty()) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(prefix, reader.getNamespaceURI(i));
+            }
+        }
+        for(int i = 0; i < reader.getAttributeCount(); i++) {
+            final String prefix = reader.getAttributePrefix(i);
+            if(prefix == null || prefix.isEmpty()) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(prefix, reader.getAttributeNamespace(i), reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    /**
+     * Rethrows the cause of an unchecked exception raised while iterating
+     * through the dataset fragments.
+     *
+     * @param ex            The unchecked exception
+     */
+    private void rethrow(UncheckedIOException ex) throws IOException, JAXBException {
+        if(ex.getCause().getCause() instanceof JAXBException jaxbException) {
+            throw jaxbException;
+        }
+        throw ex.getCause();
+    }
+
+    /**
+     * Generates the aggregation or association entry for the provided
+     * AtoN link.
+     *
+     * @param atonLink      The AtoN link
+     * @return the generated aggregation/association entry
+     */
+    protected M generateLink(AtonLink atonLink) {
+        return atonLink.getLinkCategory().getAtonLinkType() == AtonLinkType.AGGREGATION ?
+                this.builder.generateAggregation(atonLink) :
+                this.builder.generateAssociation(atonLink);
+    }
+
+    /**
+     * The envelope of a marshalled dataset, i.e. the head up to and
+     * including the opening members tag, the tail from the closing members
+     * tag onwards, the namespaces in scope of the members and the element
+     * names of the member types in the order JAXB outputs them.
+     *
+     * @param head          The dataset head
+     * @param tail          The dataset tail
+     * @param namespaces    The namespace URIs in scope of the members, by prefix
+     * @param memberNames   The element names of the member types, in order
+     */
+    protected record Envelope(String head, String tail, Map<String, String> namespaces, Map<Object, QName> memberNames) {
+
+        /**
+         * Returns the namespace context of the members, i.e. the namespaces
+         * declared on the dataset and the members elements.
+         *
+         * @return the namespace context of the members
+         */
+        public NamespaceContext namespaceContext() {
+            return new NamespaceContext() {
+                @Override
+                public String getNamespaceURI(String prefix) {
+                    return namespaces.get(prefix);
+                }
+
+                @Override
+                public String getPrefix(String namespaceURI) {
+                    return namespaces.entrySet()
+                            .stream()
+                            .filter(e -> e.getValue().equals(namespaceURI))
+                            .map(Map.Entry::getKey)
+                            .findFirst()
+                            .orElse(null);
+                }
+
+                @Override
+                public Iterator<String> getPrefixes(String namespaceURI) {
+                    return namespaces.entrySet()
+                            .stream()
+                            .filter(e -> e.getValue().equals(namespaceURI))
+                            .map(Map.Entry::getKey)
+                            .iterator();
+                }
+            };
+        }
+
+    }
+
+    /**
+     * A dataset member to be rendered, i.e. the AtoN node or link it is
+     * generated from, along with its element name.
+     *
+     * @param source        The AtoN node or link of the member
+     * @param name          The element name of the member
+     */
+    protected record Member(Object source, QName name) {
+    }
+
+    /**
+     * A dataset member prepared to be rendered, i.e. its element name along
+     * with either its cached fragment or the generated JAXB member, and the
+     * fragment cache key and dataset IDs to cache it with.
+     *
+     * @param name          The element name of the member
+     * @param member        The generated member, if not cached
+     * @param fragment      The cached fragment of the member, if any
+     * @param key           The fragment cache key of the member, if any
+     * @param ids           The dataset IDs used by the member
+     * @param <M>           the type of the JAXB dataset members
+     */
+    protected record PreparedMember<M>(QName name, M member, String fragment, String key, List<String> ids) {
+    }
+
+}
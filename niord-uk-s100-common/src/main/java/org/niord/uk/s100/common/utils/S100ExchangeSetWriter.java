@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.niord.uk.s100.common.models.S100DatasetInfo;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The S-100 Exchange Set Writer Class.
+ * <p/>
+ * Packages the datasets of an S-100 data product (e.g. S-125 or S-201) as
+ * an S-100 exchange set, i.e. a ZIP archive with the exchange catalogue,
+ * the dataset files and the XSD files bundled with the product library,
+ * under the folders of the product. The archive is written directly into the
+ * provided output stream while the datasets are being generated, so nothing
+ * is ever staged in temporary files. The dataset files are generated one
+ * by one by the calling thread, since their callbacks access the JPA
+ * entities the datasets are generated from; any parallelism is left to the
+ * dataset writers, which only marshal the prepared members concurrently.
+ * Apart from the contents of the datasets, the archive only depends on the
+ * issue date, which also stamps all the archive entries, so the same
+ * datasets are always packaged into the same bytes on the same day.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExchangeSetWriter {
+
+    /**
+     * The root folder of the exchange set.
+     */
+    public static final String ROOT_FOLDER = "S100_ROOT/";
+
+    /**
+     * The exchange catalogue file.
+     */
+    public static final String CATALOGUE_FILE = ROOT_FOLDER + "CATALOG.XML";
+
+    /**
+     * The S-100 exchange catalogue namespace.
+     */
+    public static final String XC_NAMESPACE = "http://www.iho.int/s100/xc/5.0";
+
+    // Class Variables
+    private final String datasetFolder;
+    private final String supportFolder;
+    private final S100XsdCache xsdCache;
+
+    /**
+     * Class Constructor.
+     *
+     * @param product       The S-100 data product, e.g. "S-125"
+     * @param xsdCache      The cache of the XSDs to be included
+     */
+    public S100ExchangeSetWriter(String product, S100XsdCache xsdCache) {
+        this.datasetFolder = ROOT_FOLDER + product + "/DATASET_FILES/";
+        this.supportFolder = ROOT_FOLDER + product + "/SUPPORT_FILES/";
+        this.xsdCache = xsdCache;
+    }
+
+    /**
+     * Returns the folder of the dataset files.
+     *
+     * @return the folder of the dataset files
+     */
+    public String getDatasetFolder() {
+        return datasetFolder;
+    }
+
+    /**
+     * Returns the folder of the support files, i.e. the XSDs.
+     *
+     * @return the folder of the support files
+     */
+    public String getSupportFolder() {
+        return supportFolder;
+    }
+
+    /**
+     * Writes the exchange set into the provided output stream. The
+     * dataset file contents are written by the provided dataset content
+     * callback. The output stream is finished but not closed.
+     *
+     * @param datasetInfo   The dataset information
+     * @param content       The dataset content callback
+     * @param outputStream  The output stream to write the exchange set into
+     * @throws IOException for any errors while writing the exchange set
+     */
+    public void write(S100DatasetInfo datasetInfo,
+                      DatasetContent content,
+                      OutputStream outputStream) throws IOException {
+        this.write(datasetInfo, List.of(new DatasetFile(datasetInfo, content)), outputStream);
+    }
+
+    /**
+     * Writes the exchange set with the provided dataset files into the
+     * provided output stream. The catalogue is identified by the provided
+     * catalogue information, while each dataset file is described by its
+     * own dataset information. The dataset file callbacks are invoked one
+     * by one by the calling thread, since they usually access the JPA
+     * entities the datasets are generated from. The output stream is
+     * finished but not closed.
+     *
+     * @param catalogueInfo The dataset information identifying the catalogue
+     * @param datasetFiles  The dataset files to be included
+     * @param outputStream  The output stream to write the exchange set into
+     * @throws IOException for any errors while writing the exchange set
+     */
+    public void write(S100DatasetInfo catalogueInfo,
+                      List<DatasetFile> datasetFiles,
+                      OutputStream outputStream) throws IOException {
+        final ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        final LocalDate issueDate = LocalDate.now();
+
+        // Start with the exchange catalogue
+        zipOutputStream.putNextEntry(this.newEntry(CATALOGUE_FILE, issueDate));
+        this.writeCatalogue(catalogueInfo, datasetFiles.stream().map(DatasetFile::datasetInfo).toList(), issueDate, zipOutputStream);
+        zipOutputStream.closeEntry();
+
+        // Then the datasets, streamed one by one
+        for(DatasetFile datasetFile : datasetFiles) {
+            zipOutputStream.putNextEntry(this.newEntry(this.datasetFolder + this.getDatasetFileName(datasetFile.datasetInfo()), issueDate));
+            datasetFile.content().write(new FilterOutputStream(zipOutputStream) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    this.out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    this.flush();
+                }
+            });
+            zipOutputStream.closeEntry();
+        }
+
+        // And finally the XSDs
+        this.writeXsds(zipOutputStream, issueDate);
+        zipOutputStream.finish();
+        zipOutputStream.flush();
+    }
+
+    /**
+     * Returns the name of the dataset file in the exchange set.
+     *
+     * @param datasetInfo   The dataset information
+     * @return the dataset file name
+     */
+    public String getDatasetFileName(S100DatasetInfo datasetInfo) {
+        return datasetInfo.getFileIdentifier() + ".gml";
+    }
+
+    /**
+     * Writes the exchange catalogue for the provided datasets.
+     *
+     * @param catalogueInfo The dataset information identifying the catalogue
+     * @param datasetInfos  The dataset information of each dataset file
+     * @param issueDate     The issue date of the exchange set
+     * @param outputStream  The output stream to write the catalogue into
+     * @throws IOException for any errors while writing the catalogue
+     */
+    protected void writeCatalogue(S100DatasetInfo catalogueInfo, List<S100DatasetInfo> datasetInfos, LocalDate issueDate, OutputStream outputStream) throws IOException {
+        final String today = issueDate.toString();
+        try {
+            final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            writer.setPrefix("S100XC", XC_NAMESPACE);
+            writer.writeStartElement(XC_NAMESPACE, "S100_ExchangeCatalogue");
+            writer.writeNamespace("S100XC", XC_NAMESPACE);
+
+            // The catalogue identification
+            writer.writeStartElement(XC_NAMESPACE, "identifier");
+            this.writeElement(writer, "identifier", catalogueInfo.getDatasetId());
+            this.writeElement(writer, "editionNumber", "1");
+            this.writeElement(writer, "date", today);
+            writer.writeEndElement();
+            writer.writeStartElement(XC_NAMESPACE, "contact");
+            this.writeElement(writer, "organization", catalogueInfo.getAgency());
+            writer.writeEndElement();
+            this.writeProductSpecification(writer, catalogueInfo);
+            this.writeElement(writer, "exchangeCatalogueDescription", catalogueInfo.getTitle());
+
+            // The dataset discovery metadata
+            for(S100DatasetInfo datasetInfo : datasetInfos) {
+                writer.writeStartElement(XC_NAMESPACE, "datasetDiscoveryMetadata");
+                this.writeElement(writer, "fileName", this.datasetFolder.substring(ROOT_FOLDER.length()) + this.getDatasetFileName(datasetInfo));
+                this.writeElement(writer, "description", datasetInfo.getAbstractText());
+                this.writeElement(writer, "dataProtection", "false");
+                this.writeElement(writer, "purpose", "newDataset");
+                this.writeElement(writer, "editionNumber", "1");
+                this.writeElement(writer, "issueDate", today);
+                this.writeProductSpecification(writer, datasetInfo);
+                this.writeElement(writer, "producingAgency", datasetInfo.getAgency());
+                this.writeElement(writer, "encodingFormat", "GML");
+                this.writeElement(writer, "defaultLocale", datasetInfo.getLanguage());
+                writer.writeEndElement();
+            }
+
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Copies the cached XSD files of the product library into the support
+     * files folder of the exchange set, keeping their relative paths so that
+     * the schema imports still resolve.
+     *
+     * @param zipOutputStream   The exchange set output stream
+     * @param issueDate         The issue date of the exchange set
+     * @throws IOException for any errors while copying the XSDs
+     */
+    protected void writeXsds(ZipOutputStream zipOutputStream, LocalDate issueDate) throws IOException {
+        for(S100XsdCache.Xsd xsd : this.xsdCache.getXsds()) {
+            zipOutputStream.putNextEntry(this.newEntry(this.supportFolder + xsd.name(), issueDate));
+            zipOutputStream.write(xsd.content());
+            zipOutputStream.closeEntry();
+        }
+    }
+
+    /**
+     * Creates a new archive entry stamped with the issue date of the
+     * exchange set, rather than the time it happens to be written at.
+     *
+     * @param name          The name of the entry
+     * @param issueDate     The issue date of the exchange set
+     * @return the new archive entry
+     */
+    private ZipEntry newEntry(String name, LocalDate issueDate) {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(issueDate.atStartOfDay());
+        return entry;
+    }
+
+    /**
+     * Writes the product specification of the provided dataset.
+     *
+     * @param writer        The XML stream writer
+     * @param datasetInfo   The dataset information
+     * @throws XMLStreamException for any errors while writing the XML
+     */
+    private void writeProductSpecification(XMLStreamWriter writer, S100DatasetInfo datasetInfo) throws XMLStreamException {
+        writer.writeStartElement(XC_NAMESPACE, "productSpecification");
+        this.writeElement(writer, "productIdentifier", datasetInfo.getProductionIdentifier());
+        this.writeElement(writer, "version", datasetInfo.getProductionEdition());
+        writer.writeEndElement();
+    }
+
+    /**
+     * Writes a simple exchange catalogue element, unless its value is
+     * missing.
+     *
+     * @param writer        The XML stream writer
+     * @param name          The element name
+     * @param value         The element value
+     * @throws XMLStreamException for any errors while writing the XML
+     */
+    private void writeElement(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        if(value == null) {
+            return;
+        }
+        writer.writeStartElement(XC_NAMESPACE, name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    /**
+     * The callback writing the dataset file contents into the exchange set.
+     */
+    @FunctionalInterface
+    public interface DatasetContent {
+
+        /**
+         * Writes the dataset file contents into the provided output stream.
+         *
+         * @param outputStream  The output stream of the dataset file
+         * @throws IOException for any errors while writing the dataset
+         */
+        void write(OutputStream outputStream) throws IOException;
+
+    }
+
+    /**
+     * A dataset file of the exchange set, i.e. its dataset information
+     * along with the callback writing its contents.
+     *
+     * @param datasetInfo   The dataset information
+     * @param content       The dataset content callback
+     */
+    public record DatasetFile(S100DatasetInfo datasetInfo, DatasetContent content) {
+    }
+
+}
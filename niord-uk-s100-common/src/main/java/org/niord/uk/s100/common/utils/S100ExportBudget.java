@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.niord.uk.s100.common.models.vo.S100ExportBudgetStatsVo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The S-100 Export Budget Class.
+ * <p/>
+ * Generating large S-100 datasets takes up a lot of memory, so a handful of
+ * concurrent exports can exhaust the heap. This class keeps a shared memory
+ * budget that each export has to reserve its estimated cost from before it
+ * starts. Exports that do not fit in the remaining budget are held in a
+ * bounded first-in-first-out queue until enough of the budget is released,
+ * while exports arriving when the queue is full, or waiting in it for too
+ * long, are rejected. Exports costing more than the whole budget are only
+ * admitted when no other export is running.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExportBudget {
+
+    /**
+     * The default memory budget in bytes.
+     */
+    public static final long DEFAULT_BUDGET = 256L * 1024 * 1024;
+
+    /**
+     * The default maximum number of exports waiting for the budget.
+     */
+    public static final int DEFAULT_MAX_QUEUED = 8;
+
+    /**
+     * The default maximum time in milliseconds to wait for the budget.
+     */
+    public static final long DEFAULT_MAX_WAIT = 30000L;
+
+    // The shared budget instance
+    private static volatile S100ExportBudget instance;
+
+    // Class Variables
+    private final long budget;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final ReentrantLock lock;
+    private final Condition released;
+    private final Deque<Object> queue;
+    private long used;
+    private int active;
+    private final LongAdder admitted;
+    private final LongAdder delayed;
+    private final LongAdder rejected;
+    private final LongAdder waitNanos;
+
+    /**
+     * Class Constructor.
+     *
+     * @param budget        The memory budget in bytes
+     * @param maxQueued     The maximum number of exports waiting for the budget
+     * @param maxWaitMillis The maximum time in milliseconds to wait for the budget
+     */
+    protected S100ExportBudget(long budget, int maxQueued, long maxWaitMillis) {
+        this.budget = Math.max(1, budget);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.lock = new ReentrantLock();
+        this.released = this.lock.newCondition();
+        this.queue = new ArrayDeque<>();
+        this.admitted = new LongAdder();
+        this.delayed = new LongAdder();
+        this.rejected = new LongAdder();
+        this.waitNanos = new LongAdder();
+    }
+
+    /**
+     * Returns the shared S-100 export budget, initialising it with the
+     * default settings if that has not already happened.
+     *
+     * @return the shared S-100 export budget
+     */
+    public static S100ExportBudget getInstance() {
+        return instance != null ? instance : initialise(DEFAULT_BUDGET, DEFAULT_MAX_QUEUED, DEFAULT_MAX_WAIT);
+    }
+
+    /**
+     * Initialises the shared S-100 export budget with the provided settings.
+     * If the budget has already been initialised, the existing budget is
+     * returned.
+     *
+     * @param budget        The memory budget in bytes
+     * @param maxQueued     The maximum number of exports waiting for the budget
+     * @param maxWaitMillis The maximum time in milliseconds to wait for the budget
+     * @return the shared S-100 export budget
+     */
+    public static synchronized S100ExportBudget initialise(long budget, int maxQueued, long maxWaitMillis) {
+        if(instance == null) {
+            instance = new S100ExportBudget(budget, maxQueued, maxWaitMillis);
+        }
+        return instance;
+    }
+
+    /**
+     * Reserves the provided cost out of the budget, waiting in the queue if
+     * the budget is currently exhausted. The returned permit must be closed
+     * once the export has completed, in order to release its cost.
+     *
+     * @param cost      The estimated memory cost of the export in bytes
+     * @return the permit holding the reserved cost
+     * @throws RejectedExecutionException if the queue is full or the wait timed out
+     */
+    public Permit acquire(long cost) {
+        final long reserved = Math.max(0, Math.min(cost, this.budget));
+        this.lock.lock();
+        try {
+            // Admit straight away if nobody is waiting and the budget allows
+            if(this.queue.isEmpty() && this.used + reserved <= this.budget) {
+                return this.admit(reserved);
+            }
+
+            // Otherwise join the queue, if there is still room
+            if(this.queue.size() >= this.maxQueued) {
+                this.rejected.increment();
+                throw new RejectedExecutionException("The S-100 export queue is full");
+            }
+            final Object ticket = new Object();
+            this.queue.addLast(ticket);
+            this.delayed.increment();
+
+            // And wait for our turn and enough of the budget to be released
+            final long start = System.nanoTime();
+            long remaining = this.maxWaitNanos;
+            try {
+                while(this.queue.peekFirst() != ticket || this.used + reserved > this.budget) {
+                    if(remaining <= 0) {
+                        this.rejected.increment();
+                        throw new RejectedExecutionException("Timed out waiting for the S-100 export budget");
+                    }
+                    remaining = this.released.awaitNanos(remaining);
+                }
+                return this.admit(reserved);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                this.rejected.increment();
+                throw new RejectedExecutionException("Interrupted while waiting for the S-100 export budget", ex);
+            } finally {
+                this.queue.remove(ticket);
+                this.waitNanos.add(System.nanoTime() - start);
+                this.released.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current statistics of the budget.
+     *
+     * @return the budget statistics
+     */
+    public S100ExportBudgetStatsVo getStats() {
+        final S100ExportBudgetStatsVo stats = new S100ExportBudgetStatsVo();
+        this.lock.lock();
+        try {
+            stats.setBudget(this.budget);
+            stats.setUsed(this.used);
+            stats.setActive(this.active);
+            stats.setQueued(this.queue.size());
+        } finally {
+            this.lock.unlock();
+        }
+        stats.setMaxQueued(this.maxQueued);
+        stats.setAdmitted(this.admitted.sum());
+        stats.setDelayed(this.delayed.sum());
+        stats.setRejected(this.rejected.sum());
+        stats.setWaitTimeMillis(this.waitNanos.sum() / 1_000_000L);
+        return stats;
+    }
+
+    /**
+     * Admits an export, reserving the provided cost out of the budget. This
+     * should only be called while holding the lock.
+     *
+     * @param reserved  The cost to be reserved
+     * @return the permit holding the reserved cost
+     */
+    private Permit admit(long reserved) {
+        this.used += reserved;
+        this.active++;
+        this.admitted.increment();
+        return new Permit(reserved);
+    }
+
+    /**
+     * Releases the provided cost back to the budget and wakes up the queued
+     * exports.
+     *
+     * @param reserved  The cost to be released
+     */
+    private void release(long reserved) {
+        this.lock.lock();
+        try {
+            this.used -= reserved;
+            this.active--;
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * A permit holding the cost reserved for an export out of the budget,
+     * which is released when the permit is closed. Closing the permit more
+     * than once has no further effect.
+     */
+    public class Permit implements AutoCloseable {
+
+        // Class Variables
+        private final long reserved;
+        private final AtomicBoolean closed;
+
+        /**
+         * Class Constructor.
+         *
+         * @param reserved  The reserved cost
+         */
+        private Permit(long reserved) {
+            this.reserved = reserved;
+            this.closed = new AtomicBoolean();
+        }
+
+        /**
+         * Returns the cost reserved out of the budget.
+         *
+         * @return the reserved cost in bytes
+         */
+        public long getReserved() {
+            return this.reserved;
+        }
+
+        /**
+         * Releases the reserved cost back to the budget.
+         */
+        @Override
+        public void close() {
+            if(this.closed.compareAndSet(false, true)) {
+                release(this.reserved);
+            }
+        }
+
+    }
+
+}
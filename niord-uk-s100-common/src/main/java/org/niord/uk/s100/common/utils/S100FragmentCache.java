@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The S-100 Fragment Cache Class.
+ * <p/>
+ * Most AtoNs change rarely, so there is no need to re-generate and
+ * re-marshal their S-100 dataset members for every single request. This
+ * class implements a size-bounded LRU cache of pre-rendered dataset member
+ * fragments. Since the GML IDs of the members depend on the dataset they
+ * are included in, the fragments are stored as templates where all the
+ * GML IDs (and references to them) are replaced by placeholders, which are
+ * then populated with the correct IDs whenever a fragment is reused.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100FragmentCache {
+
+    /**
+     * The default maximum number of cached fragments.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    // Class Variables
+    private final int maxSize;
+    private final Map<String, Template> templates;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Class Constructor.
+     */
+    public S100FragmentCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param maxSize   The maximum number of cached fragments
+     */
+    public S100FragmentCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return this.size() > S100FragmentCache.this.maxSize;
+            }
+        };
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Looks up the cached fragment for the provided key and renders it with
+     * the provided GML IDs.
+     *
+     * @param key       The cache key of the fragment
+     * @param ids       The GML IDs to render the fragment with
+     * @return the rendered fragment, or null if not cached
+     */
+    public String get(String key, List<String> ids) {
+        // Sanity Check
+        if(key == null) {
+            return null;
+        }
+
+        final Template template;
+        synchronized (this.templates) {
+            template = this.templates.get(key);
+        }
+        if(template == null || template.slots() > ids.size()) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return template.render(ids);
+    }
+
+    /**
+     * Caches the provided rendered fragment under the provided key, after
+     * replacing the provided GML IDs with placeholders.
+     *
+     * @param key       The cache key of the fragment
+     * @param fragment  The rendered fragment
+     * @param ids       The GML IDs the fragment was rendered with
+     */
+    public void put(String key, String fragment, List<String> ids) {
+        // Sanity Check
+        if(key == null || fragment == null) {
+            return;
+        }
+
+        final Template template = Template.of(fragment, ids);
+        synchronized (this.templates) {
+            this.templates.put(key, template);
+        }
+    }
+
+    /**
+     * Removes all the cached fragments.
+     */
+    public void clear() {
+        synchronized (this.templates) {
+            this.templates.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached fragments.
+     *
+     * @return the number of cached fragments
+     */
+    public int size() {
+        synchronized (this.templates) {
+            return this.templates.size();
+        }
+    }
+
+    /**
+     * Gets the maximum number of cached fragments.
+     *
+     * @return the maximum number of cached fragments
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of cache hits.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cache misses.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * A fragment template, i.e. the fragment text split around the GML IDs
+     * it contains, along with the index of the ID for each split.
+     *
+     * @param parts     The fragment text parts
+     * @param indexes   The ID index following each part
+     */
+    protected record Template(String[] parts, int[] indexes) {
+
+        /**
+         * Generates a template out of the provided fragment, by locating all
+         * the GML ID attributes and references that match the provided IDs.
+         *
+         * @param fragment  The rendered fragment
+         * @param ids       The GML IDs the fragment was rendered with
+         * @return the fragment template
+         */
+        static Template of(String fragment, List<String> ids) {
+            // Locate all the ID occurrences, i.e. "ID" or "#ID"
+            final TreeMap<Integer, int[]> occurrences = new TreeMap<>();
+            for(int i = 0; i < ids.size(); i++) {
+                final String id = ids.get(i);
+                for(String quoted : new String[]{"\"" + id + "\"", "\"#" + id + "\""}) {
+                    for(int from = fragment.indexOf(quoted); from >= 0; from = fragment.indexOf(quoted, from + 1)) {
+                        final int start = from + quoted.length() - id.length() - 1;
+                        occurrences.putIfAbsent(start, new int[]{i, id.length()});
+                    }
+                }
+            }
+
+            // And split the fragment around them
+            final String[] parts = new String[occurrences.size() + 1];
+            final int[] indexes = new int[occurrences.size()];
+            int position = 0;
+            int slot = 0;
+            for(Map.Entry<Integer, int[]> occurrence : occurrences.entrySet()) {
+                parts[slot] = fragment.substring(position, occurrence.getKey());
+                indexes[slot] = occurrence.getValue()[0];
+                position = occurrence.getKey() + occurrence.getValue()[1];
+                slot++;
+            }
+            parts[slot] = fragment.substring(position);
+            return new Template(parts, indexes);
+        }
+
+        /**
+         * Returns the number of distinct IDs required to render the template.
+         *
+         * @return the number of required IDs
+         */
+        int slots() {
+            return Arrays.stream(this.indexes).max().orElse(-1) + 1;
+        }
+
+        /**
+         * Renders the template with the provided GML IDs.
+         *
+         * @param ids       The GML IDs to render the template with
+         * @return the rendered fragment
+         */
+        String render(List<String> ids) {
+            final StringBuilder builder = new StringBuilder();
+            for(int i = 0; i < this.indexes.length; i++) {
+                builder.append(this.parts[i]).append(ids.get(this.indexes[i]));
+            }
+            return builder.append(this.parts[this.indexes.length]).toString();
+        }
+
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import jakarta.xml.bind.*;
+import org.niord.uk.s100.common.models.vo.S100JaxbPoolStatsVo;
+
+import javax.xml.stream.XMLStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The S-100 JAXB Pool Class.
+ * <p/>
+ * Creating the JAXB context for an S-100 data product is expensive, and
+ * so is creating the marshallers and unmarshallers out of it. Therefore,
+ * this class keeps a single JAXB context for the dataset binding of a data
+ * product, along with a bounded pool of marshallers and unmarshallers that
+ * can be reused by any thread. The pool keeps track of how many times a
+ * pooled instance was available (hits), how many times a new instance had
+ * to be created (misses), and how long the callers had to wait once the
+ * pool was exhausted.
+ * <p/>
+ * Each data product extends this class to provide its shared pool, so that
+ * the marshallers are configured exactly like the ones of the product's
+ * own library.
+ *
+ * @param <D> the type of the JAXB dataset
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100JaxbPool<D> {
+
+    /**
+     * The default number of marshallers/unmarshallers in the pool.
+     */
+    public static final int DEFAULT_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // Class Variables
+    private final int size;
+    private final Class<D> datasetClass;
+    private final JAXBContext jaxbContext;
+    private final Map<String, Object> marshallerProperties;
+    private final BlockingQueue<Marshaller> marshallers;
+    private final BlockingQueue<Unmarshaller> unmarshallers;
+    private final AtomicInteger marshallersCreated;
+    private final AtomicInteger unmarshallersCreated;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder waits;
+    private final LongAdder waitNanos;
+
+    /**
+     * Class Constructor.
+     *
+     * @param size                  The maximum number of marshallers/unmarshallers
+     * @param datasetClass          The JAXB dataset type
+     * @param contextClass          The JAXB dataset implementation to create the context for
+     * @param marshallerProperties  The properties to configure the marshallers with
+     * @throws JAXBException for any errors while creating the JAXB context
+     */
+    public S100JaxbPool(int size,
+                        Class<D> datasetClass,
+                        Class<? extends D> contextClass,
+                        Map<String, Object> marshallerProperties) throws JAXBException {
+        this.size = Math.max(1, size);
+        this.datasetClass = datasetClass;
+        this.jaxbContext = JAXBContext.newInstance(contextClass);
+        this.marshallerProperties = Collections.unmodifiableMap(new LinkedHashMap<>(marshallerProperties));
+        this.marshallers = new ArrayBlockingQueue<>(this.size);
+        this.unmarshallers = new ArrayBlockingQueue<>(this.size);
+        this.marshallersCreated = new AtomicInteger();
+        this.unmarshallersCreated = new AtomicInteger();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.waits = new LongAdder();
+        this.waitNanos = new LongAdder();
+    }
+
+    /**
+     * Pre-creates all the marshallers and unmarshallers of the pool, so that
+     * the first requests do not have to pay for it.
+     *
+     * @throws JAXBException for any errors while creating the instances
+     */
+    public void warmUp() throws JAXBException {
+        this.fill(this.marshallers, this.marshallersCreated, this::createMarshaller);
+        this.fill(this.unmarshallers, this.unmarshallersCreated, this.jaxbContext::createUnmarshaller);
+    }
+
+    /**
+     * Marshals the provided dataset into a string.
+     *
+     * @param dataset   The dataset
+     * @return the marshalled dataset
+     * @throws JAXBException for any errors while marshalling the dataset
+     */
+    public String marshal(D dataset) throws JAXBException {
+        final StringWriter stringWriter = new StringWriter();
+        this.marshal(dataset, stringWriter);
+        return stringWriter.toString();
+    }
+
+    /**
+     * Marshals the provided dataset into the provided writer.
+     *
+     * @param dataset   The dataset
+     * @param writer    The writer to marshal the dataset into
+     * @throws JAXBException for any errors while marshalling the dataset
+     */
+    public void marshal(D dataset, Writer writer) throws JAXBException {
+        final Marshaller marshaller = this.borrow(this.marshallers, this.marshallersCreated, this::createMarshaller);
+        try {
+            marshaller.marshal(dataset, writer);
+        } finally {
+            this.marshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Marshals the provided JAXB element as a fragment into the provided
+     * XML stream writer, i.e. without starting or ending the document, so
+     * that it can be nested into a document written by the caller. Any
+     * namespaces already bound in the writer's namespace context are not
+     * declared again.
+     *
+     * @param element   The JAXB element
+     * @param writer    The XML stream writer to marshal the element into
+     * @throws JAXBException for any errors while marshalling the element
+     */
+    public void marshalFragment(JAXBElement<?> element, XMLStreamWriter writer) throws JAXBException {
+        final Marshaller marshaller = this.borrow(this.marshallers, this.marshallersCreated, this::createMarshaller);
+        try {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            marshaller.marshal(element, writer);
+        } finally {
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, this.marshallerProperties.getOrDefault(Marshaller.JAXB_FRAGMENT, Boolean.FALSE));
+            this.marshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Unmarshals the provided dataset string.
+     *
+     * @param xml       The dataset string
+     * @return the unmarshalled dataset
+     * @throws JAXBException for any errors while unmarshalling the dataset
+     */
+    public D unmarshal(String xml) throws JAXBException {
+        return this.unmarshal(new StringReader(xml));
+    }
+
+    /**
+     * Unmarshals the dataset of the provided reader.
+     *
+     * @param reader    The reader to unmarshal the dataset from
+     * @return the unmarshalled dataset
+     * @throws JAXBException for any errors while unmarshalling the dataset
+     */
+    public D unmarshal(Reader reader) throws JAXBException {
+        final Unmarshaller unmarshaller = this.borrow(this.unmarshallers, this.unmarshallersCreated, this.jaxbContext::createUnmarshaller);
+        try {
+            return this.datasetClass.cast(JAXBIntrospector.getValue(unmarshaller.unmarshal(reader)));
+        } finally {
+            this.unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    /**
+     * Returns the current statistics of the pool.
+     *
+     * @return the pool statistics
+     */
+    public S100JaxbPoolStatsVo getStats() {
+        final S100JaxbPoolStatsVo stats = new S100JaxbPoolStatsVo();
+        stats.setSize(this.size);
+        stats.setIdleMarshallers(this.marshallers.size());
+        stats.setIdleUnmarshallers(this.unmarshallers.size());
+        stats.setHits(this.hits.sum());
+        stats.setMisses(this.misses.sum());
+        stats.setWaits(this.waits.sum());
+        stats.setWaitTimeMillis(this.waitNanos.sum() / 1_000_000L);
+        return stats;
+    }
+
+    /**
+     * Borrows an instance out of the provided pool. If no pooled instance
+     * is available, a new one is created as long as the pool has not reached
+     * its maximum size, otherwise we wait for an instance to be returned.
+     *
+     * @param pool      The pool to borrow the instance from
+     * @param created   The counter of the instances created for the pool
+     * @param factory   The factory to create new instances
+     * @return the borrowed instance
+     * @throws JAXBException for any errors while creating a new instance
+     */
+    private <T> T borrow(BlockingQueue<T> pool, AtomicInteger created, JaxbFactory<T> factory) throws JAXBException {
+        // First try the pool
+        final T pooled = pool.poll();
+        if(pooled != null) {
+            this.hits.increment();
+            return pooled;
+        }
+
+        // If there is still room, create a new instance
+        if(created.getAndIncrement() < this.size) {
+            this.misses.increment();
+            return factory.create();
+        }
+        created.decrementAndGet();
+
+        // Otherwise wait for an instance to be returned
+        final long start = System.nanoTime();
+        try {
+            return pool.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new JAXBException("Interrupted while waiting for a pooled S-100 JAXB instance", ex);
+        } finally {
+            this.waits.increment();
+            this.waitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Fills up the provided pool with new instances, until it reaches its
+     * maximum size.
+     *
+     * @param pool      The pool to be filled
+     * @param created   The counter of the instances created for the pool
+     * @param factory   The factory to create new instances
+     * @throws JAXBException for any errors while creating a new instance
+     */
+    private <T> void fill(BlockingQueue<T> pool, AtomicInteger created, JaxbFactory<T> factory) throws JAXBException {
+        int current;
+        while((current = created.get()) < this.size) {
+            if(created.compareAndSet(current, current + 1)) {
+                pool.offer(factory.create());
+            }
+        }
+    }
+
+    /**
+     * Creates a new marshaller, configured with the marshaller properties of
+     * the pool.
+     *
+     * @return the new marshaller
+     * @throws JAXBException for any errors while creating the marshaller
+     */
+    private Marshaller createMarshaller() throws JAXBException {
+        final Marshaller marshaller = this.jaxbContext.createMarshaller();
+        for(Map.Entry<String, Object> property : this.marshallerProperties.entrySet()) {
+            marshaller.setProperty(property.getKey(), property.getValue());
+        }
+        return marshaller;
+    }
+
+    /**
+     * A factory of JAXB instances that might throw a JAXB exception.
+     *
+     * @param <T> the type of the JAXB instances
+     */
+    @FunctionalInterface
+    private interface JaxbFactory<T> {
+        T create() throws JAXBException;
+    }
+
+}
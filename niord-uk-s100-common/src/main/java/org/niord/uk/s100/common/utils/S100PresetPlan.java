@@ -0,0 +1,537 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * The S-100 Preset Plan Class.
+ * <p/>
+ * The INT-1 preset extension of each S-100 data product (e.g. the
+ * INT-1-preset_S125Ext.xml for S-125) already defines the tag vocabulary of
+ * the product AtoN types, i.e. which tag keys each seamark type supports
+ * and which values these tags may take. This class compiles such a preset
+ * into an immutable plan, indexed by tag key, by seamark type and by preset
+ * item, so that the builders and validators can look them up directly
+ * instead of walking the preset XML or duplicating its tag names. The
+ * preset items also define the geometries each seamark type may be mapped
+ * with (e.g. "node,closedway") and the tag values that identify them
+ * (e.g. "seamark:radio_station:category=ais" for the AIS transmitters).
+ * <p/>
+ * The seamark type of a tag key is the segment following the tag
+ * namespace, e.g. "beacon_cardinal" for "seamark:beacon_cardinal:system"
+ * and "generic_beacon" for "s100:aidsToNavigation:generic_beacon:height".
+ * Since compiling the plan means parsing the whole preset, the compiled
+ * plan can also be cached in serialized form, keyed by the digest of the
+ * preset, so that later start-ups can skip the parsing altogether. A plan
+ * cached for a different preset is never used, so the plan always matches
+ * the preset bundled with the application. Since the cache folder is
+ * configurable, the cached plans are read back through a filter that only
+ * admits the plan classes along with the collections and strings they are
+ * made of, so that nothing else ever gets deserialized out of it.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100PresetPlan implements Serializable {
+
+    /**
+     * The tag key prefixes followed by the seamark type.
+     */
+    public static final List<String> TYPE_PREFIXES = List.of("s100:aidsToNavigation:", "seamark:");
+
+    /**
+     * The preset geometry of the AtoN nodes.
+     */
+    public static final String GEOMETRY_NODE = "node";
+
+    /**
+     * The preset geometry of the open ways, i.e. lines.
+     */
+    public static final String GEOMETRY_WAY = "way";
+
+    /**
+     * The preset geometry of the closed ways, i.e. areas.
+     */
+    public static final String GEOMETRY_CLOSED_WAY = "closedway";
+
+    /**
+     * The filter of the classes the cached plans may be deserialized into.
+     */
+    static final ObjectInputFilter CACHE_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=16;maxarray=1000000;" +
+            S100PresetPlan.class.getName() + ";" +
+            S100PresetPlan.class.getName() + "$*;" +
+            "java.util.*;java.lang.String;java.lang.Object;!*");
+
+    @Serial
+    private static final long serialVersionUID = 2L;
+
+    // Class Variables
+    private final String digest;
+    private final Map<String, Field> fields;
+    private final SortedSet<String> keys;
+    private final SortedMap<String, List<String>> types;
+    private final Map<String, Item> items;
+    private transient boolean cached;
+
+    /**
+     * Class Constructor.
+     *
+     * @param digest    The digest of the preset the plan was compiled from
+     * @param fields    The preset fields
+     * @param items     The preset items
+     */
+    protected S100PresetPlan(String digest, Collection<Field> fields, Collection<Item> items) {
+        final Map<String, Field> fieldIndex = new HashMap<>();
+        final SortedMap<String, List<String>> typeIndex = new TreeMap<>();
+        final Map<String, Item> itemIndex = new HashMap<>();
+        for(Field field : fields) {
+            fieldIndex.merge(field.key(), field, Field::merge);
+        }
+        final SortedSet<String> keys = new TreeSet<>(fieldIndex.keySet());
+        for(String key : keys) {
+            Optional.ofNullable(getType(key)).ifPresent(type -> typeIndex.computeIfAbsent(type, t -> new ArrayList<>()).add(key));
+        }
+        typeIndex.replaceAll((type, typeKeys) -> List.copyOf(typeKeys));
+        for(Item item : items) {
+            itemIndex.putIfAbsent(item.name(), item);
+        }
+        this.digest = digest;
+        this.fields = Collections.unmodifiableMap(fieldIndex);
+        this.keys = Collections.unmodifiableSortedSet(keys);
+        this.types = Collections.unmodifiableSortedMap(typeIndex);
+        this.items = Collections.unmodifiableMap(itemIndex);
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param plan      The compiled preset plan to share the indexes of
+     */
+    protected S100PresetPlan(S100PresetPlan plan) {
+        this.digest = plan.digest;
+        this.fields = plan.fields;
+        this.keys = plan.keys;
+        this.types = plan.types;
+        this.items = plan.items;
+        this.cached = plan.cached;
+    }
+
+    /**
+     * Loads the preset plan of the provided preset contents, either out of
+     * the provided cache folder, or by compiling the preset and caching the
+     * compiled plan. Cached plans of a different preset digest, or ones that
+     * cannot be read or hold anything other than a plan, are simply compiled
+     * again.
+     *
+     * @param preset        The preset contents
+     * @param cacheFolder   The folder of the cached plans, null for none
+     * @return the preset plan
+     * @throws IOException for any errors while compiling the preset
+     */
+    public static S100PresetPlan load(byte[] preset, Path cacheFolder) throws IOException {
+        final String digest = digest(preset);
+        final Path cacheFile = cacheFolder != null ? cacheFolder.resolve("s100-preset-plan-" + digest + ".ser") : null;
+
+        // Try the cached plan first
+        if(cacheFile != null && Files.isRegularFile(cacheFile)) {
+            try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+                in.setObjectInputFilter(CACHE_FILTER);
+                final S100PresetPlan plan = (S100PresetPlan) in.readObject();
+                if(digest.equals(plan.getDigest())) {
+                    plan.cached = true;
+                    return plan;
+                }
+            } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+                // Stale or corrupted, so compile it again
+            }
+        }
+
+        // Otherwise compile the preset and cache the plan
+        final S100PresetPlan plan = compile(digest, new ByteArrayInputStream(preset));
+        if(cacheFile != null) {
+            Files.createDirectories(cacheFolder);
+            final Path tmpFile = Files.createTempFile(cacheFolder, "s100-preset-plan-", ".tmp");
+            try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeObject(plan);
+            }
+            Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return plan;
+    }
+
+    /**
+     * Compiles the preset plan out of the provided preset XML. The list
+     * entries of the preset chunks are resolved for the fields referencing
+     * them, while the value domains of fields referencing chunks defined
+     * elsewhere, e.g. in the main INT-1 preset, are left open.
+     *
+     * @param digest    The digest of the preset
+     * @param preset    The preset XML input stream
+     * @return the compiled preset plan
+     * @throws IOException for any errors while parsing the preset
+     */
+    public static S100PresetPlan compile(String digest, InputStream preset) throws IOException {
+        final Document document;
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            document = factory.newDocumentBuilder().parse(preset);
+        } catch (ParserConfigurationException | SAXException ex) {
+            throw new IOException("Invalid preset: " + ex.getMessage(), ex);
+        }
+
+        // Index the chunk list entries first
+        final Map<String, List<String>> chunks = new HashMap<>();
+        final NodeList chunkNodes = document.getElementsByTagName("chunk");
+        for(int i = 0; i < chunkNodes.getLength(); i++) {
+            final Element chunk = (Element) chunkNodes.item(i);
+            chunks.put(chunk.getAttribute("id"), listEntries(chunk));
+        }
+
+        // And compile all the items along with their fields
+        final List<Field> fields = new ArrayList<>();
+        final List<Item> items = new ArrayList<>();
+        final NodeList itemNodes = document.getElementsByTagName("item");
+        for(int i = 0; i < itemNodes.getLength(); i++) {
+            final Element item = (Element) itemNodes.item(i);
+            final Map<String, String> fixedKeys = new LinkedHashMap<>();
+            for(Node node = item.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if(node instanceof Element element && !element.getAttribute("key").isEmpty()) {
+                    if(element.getTagName().equals("key")) {
+                        fixedKeys.put(element.getAttribute("key"), element.getAttribute("value"));
+                    } else {
+                        Optional.ofNullable(compileField(element, chunks)).ifPresent(fields::add);
+                    }
+                }
+            }
+            items.add(new Item(item.getAttribute("name"), itemGeometries(item), fixedKeys));
+        }
+        return new S100PresetPlan(digest, fields, items);
+    }
+
+    /**
+     * Looks up the preset field of the provided tag key.
+     *
+     * @param key       The tag key
+     * @return the preset field, if defined
+     */
+    public Optional<Field> getField(String key) {
+        return Optional.ofNullable(key).map(this.fields::get);
+    }
+
+    /**
+     * Returns the tag keys the preset defines for the provided seamark type.
+     *
+     * @param type      The seamark type, e.g. "beacon_cardinal"
+     * @return the tag keys of the seamark type, sorted
+     */
+    public List<String> getKeys(String type) {
+        return Optional.ofNullable(type).map(this.types::get).orElse(Collections.emptyList());
+    }
+
+    /**
+     * Returns all the tag keys the preset defines, sorted.
+     *
+     * @return all the tag keys
+     */
+    public Set<String> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Looks up the preset item with the provided name.
+     *
+     * @param name      The preset item name, e.g. "Cardinal Beacon"
+     * @return the preset item, if defined
+     */
+    public Optional<Item> getItem(String name) {
+        return Optional.ofNullable(name).map(this.items::get);
+    }
+
+    /**
+     * Returns all the seamark types the preset defines tag keys for, sorted.
+     *
+     * @return all the seamark types
+     */
+    public Set<String> getTypes() {
+        return this.types.keySet();
+    }
+
+    /**
+     * Returns whether the provided value is allowed for the provided tag
+     * key. Tag keys not defined in the preset, or with open value domains,
+     * allow any values.
+     *
+     * @param key       The tag key
+     * @param value     The tag value
+     * @return whether the value is allowed
+     */
+    public boolean isAllowed(String key, String value) {
+        final Field field = this.fields.get(key);
+        return field == null || field.isAllowed(value);
+    }
+
+    /**
+     * Returns whether the provided single value is allowed for the provided
+     * tag key, i.e. one of the values of a multi-valued AtoN tag, which may
+     * be split before being checked even if the preset does not define the
+     * tag key as multi-valued, e.g. a "seamark:status" combo. Tag keys not
+     * defined in the preset, or with open value domains, allow any values.
+     *
+     * @param key       The tag key
+     * @param element   The single tag value
+     * @return whether the value is allowed
+     */
+    public boolean isAllowedElement(String key, String element) {
+        final Field field = this.fields.get(key);
+        return field == null || field.isAllowedElement(element);
+    }
+
+    /**
+     * Returns the digest of the preset the plan was compiled from.
+     *
+     * @return the preset digest
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Returns whether the plan was read from the cache instead of being
+     * compiled out of the preset.
+     *
+     * @return whether the plan was read from the cache
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Returns the seamark type of the provided tag key, i.e. the segment
+     * following the tag namespace.
+     *
+     * @param key       The tag key
+     * @return the seamark type, or null if the tag key is not type specific
+     */
+    public static String getType(String key) {
+        for(String prefix : TYPE_PREFIXES) {
+            if(key.startsWith(prefix)) {
+                final int end = key.indexOf(':', prefix.length());
+                return end > prefix.length() ? key.substring(prefix.length(), end) : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the digest identifying the provided preset contents.
+     *
+     * @param preset    The preset contents
+     * @return the preset digest
+     */
+    protected static String digest(byte[] preset) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(preset), 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Compiles the preset field of the provided preset element.
+     *
+     * @param element   The preset element
+     * @param chunks    The chunk list entries, indexed by the chunk ID
+     * @return the preset field, or null for unsupported elements
+     */
+    private static Field compileField(Element element, Map<String, List<String>> chunks) {
+        final String key = element.getAttribute("key");
+        return switch (element.getTagName()) {
+            case "text" -> new Field(key, element.getTagName(), element.getAttribute("type"), false, Set.of(), true);
+            case "check" -> new Field(key, element.getTagName(), null, false, Set.of(
+                    Optional.of(element.getAttribute("value_on")).filter(v -> !v.isEmpty()).orElse("yes"),
+                    Optional.of(element.getAttribute("value_off")).filter(v -> !v.isEmpty()).orElse("no")), false);
+            case "combo", "multiselect" -> {
+                final Set<String> values = new TreeSet<>(listEntries(element));
+                boolean open = false;
+                if(!element.getAttribute("values").isEmpty()) {
+                    values.addAll(Arrays.asList(element.getAttribute("values").split(element.getTagName().equals("combo") ? "," : ";")));
+                }
+                for(Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+                    if(node instanceof Element reference && reference.getTagName().equals("reference")) {
+                        final List<String> chunk = chunks.get(reference.getAttribute("ref"));
+                        if(chunk != null) {
+                            values.addAll(chunk);
+                        } else {
+                            open = true;
+                        }
+                    }
+                }
+                yield new Field(key, element.getTagName(), null, element.getTagName().equals("multiselect"), values, open || values.isEmpty());
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the geometries the provided preset item applies to, which are
+     * inherited from the enclosing groups if the item does not define any.
+     *
+     * @param item      The preset item element
+     * @return the item geometries, empty if the item applies to all
+     */
+    private static Set<String> itemGeometries(Element item) {
+        for(Node node = item; node instanceof Element element; node = node.getParentNode()) {
+            if(!element.getAttribute("type").isEmpty()) {
+                return Set.of(element.getAttribute("type").split(","));
+            }
+        }
+        return Set.of();
+    }
+
+    /**
+     * Collects the values of the list entries directly under the provided
+     * preset element.
+     *
+     * @param element   The preset element
+     * @return the list entry values
+     */
+    private static List<String> listEntries(Element element) {
+        final List<String> values = new ArrayList<>();
+        for(Node node = element.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if(node instanceof Element entry && entry.getTagName().equals("list_entry")) {
+                values.add(entry.getAttribute("value"));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * A preset field, i.e. a tag key along with its value domain.
+     *
+     * @param key           The tag key
+     * @param kind          The preset element kind, e.g. "combo"
+     * @param valueType     The value type of text fields, e.g. "real"
+     * @param multiValued   Whether the tag holds multiple ";" separated values
+     * @param values        The allowed values
+     * @param open          Whether values outside the allowed ones are accepted
+     */
+    public record Field(String key, String kind, String valueType, boolean multiValued, Set<String> values, boolean open) implements Serializable {
+
+        /**
+         * Class Constructor.
+         */
+        public Field {
+            values = Collections.unmodifiableSet(new TreeSet<>(values));
+        }
+
+        /**
+         * Returns whether the provided value is allowed for this field. The
+         * values of multi-valued fields are checked one by one.
+         *
+         * @param value     The tag value
+         * @return whether the value is allowed
+         */
+        public boolean isAllowed(String value) {
+            if(this.open || value == null) {
+                return true;
+            }
+            if(!this.multiValued) {
+                return this.values.contains(value);
+            }
+            for(String item : value.split(S100TagMapping.VALUE_SEPARATOR)) {
+                if(!this.values.contains(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns whether the provided single value is allowed for this
+         * field, without splitting it into multiple values.
+         *
+         * @param element   The single tag value
+         * @return whether the value is allowed
+         */
+        public boolean isAllowedElement(String element) {
+            return this.open || element == null || this.values.contains(element);
+        }
+
+        /**
+         * Merges this field with another definition of the same tag key,
+         * e.g. from another preset item.
+         *
+         * @param other     The other field definition
+         * @return the merged field
+         */
+        Field merge(Field other) {
+            final Set<String> merged = new TreeSet<>(this.values);
+            merged.addAll(other.values);
+            return new Field(this.key, this.kind, this.valueType, this.multiValued || other.multiValued, merged, this.open || other.open);
+        }
+
+    }
+
+    /**
+     * A preset item, i.e. the geometries it applies to along with the fixed
+     * tag values that identify it.
+     *
+     * @param name          The preset item name
+     * @param geometries    The geometries the item applies to, empty for all
+     * @param fixedKeys     The fixed tag values of the item, indexed by key
+     */
+    public record Item(String name, Set<String> geometries, Map<String, String> fixedKeys) implements Serializable {
+
+        /**
+         * Class Constructor.
+         */
+        public Item {
+            geometries = Set.copyOf(geometries);
+            fixedKeys = Collections.unmodifiableMap(new LinkedHashMap<>(fixedKeys));
+        }
+
+        /**
+         * Returns whether the item applies to the provided geometry.
+         *
+         * @param geometry  The preset geometry, e.g. "closedway"
+         * @return whether the item applies to the geometry
+         */
+        public boolean allowsGeometry(String geometry) {
+            return this.geometries.isEmpty() || this.geometries.contains(geometry);
+        }
+
+    }
+
+}
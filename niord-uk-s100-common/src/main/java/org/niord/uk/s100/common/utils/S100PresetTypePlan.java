@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.niord.uk.s100.common.utils;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
+
+/**
+ * The S-100 Preset Type Plan Class.
+ * <p/>
+ * Each S-100 data product (e.g. S-125) maps the seamark types to its own
+ * AtoN types, which are linked to the preset items they are edited with.
+ * This class compiles the decisions the dataset builders make for these
+ * AtoN types out of the preset plan, so that they can be looked up directly
+ * while generating the dataset members:
+ * <ul>
+ *     <li>The AtoN types identified by more than just the seamark type,
+ *     e.g. the AIS transmitters, which the preset defines as radio stations
+ *     with an "ais" category.</li>
+ *     <li>The geometries the AtoN types may be encoded with, i.e. the ones
+ *     their preset items apply to.</li>
+ * </ul>
+ * The preset items shared by all the AtoN types (e.g. the supplementary
+ * information) are ignored, since they do not tell the types apart.
+ *
+ * @param <T> the type of the product AtoN types
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100PresetTypePlan<T> {
+
+    // Class Variables
+    private final Function<String, T> lookup;
+    private final Map<T, List<CategoryType<T>>> categoryTypes;
+    private final Map<T, Set<String>> geometries;
+
+    /**
+     * Class Constructor.
+     *
+     * @param plan          The preset plan
+     * @param atonTypes     The AtoN types of the data product
+     * @param itemNames     The names of the preset items of each AtoN type
+     * @param lookup        The lookup of the AtoN types by their seamark type
+     */
+    public S100PresetTypePlan(S100PresetPlan plan,
+                              Collection<T> atonTypes,
+                              Function<T, List<String>> itemNames,
+                              Function<String, T> lookup) {
+        // Find the preset items shared by all the AtoN types
+        final Set<String> sharedItems = new HashSet<>();
+        atonTypes.stream().findFirst().map(itemNames).ifPresent(sharedItems::addAll);
+        atonTypes.forEach(atonType -> sharedItems.retainAll(itemNames.apply(atonType)));
+
+        // And index the decisions of the type specific items
+        final Map<T, List<CategoryType<T>>> categoryIndex = new HashMap<>();
+        final Map<T, Set<String>> geometryIndex = new HashMap<>();
+        for(T atonType : atonTypes) {
+            final List<S100PresetPlan.Item> items = itemNames.apply(atonType)
+                    .stream()
+                    .filter(name -> !sharedItems.contains(name))
+                    .map(plan::getItem)
+                    .flatMap(Optional::stream)
+                    .toList();
+
+            // Items identified by other seamark types override them
+            for(S100PresetPlan.Item item : items) {
+                final T seamarkType = lookup.apply(item.fixedKeys().get(TAG_ATON_TYPE));
+                final Map<String, String> conditions = new LinkedHashMap<>(item.fixedKeys());
+                conditions.remove(TAG_ATON_TYPE);
+                if(seamarkType != null && !seamarkType.equals(atonType) && !conditions.isEmpty()) {
+                    categoryIndex.computeIfAbsent(seamarkType, t -> new ArrayList<>()).add(new CategoryType<>(conditions, atonType));
+                }
+            }
+
+            // Only restrict the geometries if all the items do
+            if(!items.isEmpty() && items.stream().noneMatch(item -> item.geometries().isEmpty())) {
+                final Set<String> itemGeometries = new HashSet<>();
+                items.forEach(item -> itemGeometries.addAll(item.geometries()));
+                geometryIndex.put(atonType, Set.copyOf(itemGeometries));
+            }
+        }
+        categoryIndex.replaceAll((seamarkType, categories) -> List.copyOf(categories));
+        this.lookup = lookup;
+        this.categoryTypes = Collections.unmodifiableMap(categoryIndex);
+        this.geometries = Collections.unmodifiableMap(geometryIndex);
+    }
+
+    /**
+     * Resolves the AtoN type of the provided seamark type, taking into
+     * account the other tag values that identify the AtoN types defined by
+     * the preset, e.g. radio stations with an "ais" category are AIS
+     * transmitters. These tag values are only looked up for the seamark
+     * types that depend on them.
+     *
+     * @param seamarkType   The seamark type
+     * @param tagValues     The lookup of the AtoN tag values by their key
+     * @return the AtoN type, or null if the seamark type is unknown
+     */
+    public T resolveAtonType(String seamarkType, UnaryOperator<String> tagValues) {
+        final T atonType = this.lookup.apply(seamarkType);
+        if(atonType == null) {
+            return null;
+        }
+        for(CategoryType<T> categoryType : this.categoryTypes.getOrDefault(atonType, Collections.emptyList())) {
+            if(categoryType.matches(tagValues)) {
+                return categoryType.atonType();
+            }
+        }
+        return atonType;
+    }
+
+    /**
+     * Returns whether the provided AtoN type may be encoded with the provided
+     * geometry. AtoN types whose preset items do not restrict their
+     * geometries may be encoded with any geometry.
+     *
+     * @param atonType      The AtoN type
+     * @param geometry      The preset geometry, e.g. "closedway"
+     * @return whether the AtoN type may be encoded with the geometry
+     */
+    public boolean allowsGeometry(T atonType, String geometry) {
+        final Set<String> atonTypeGeometries = this.geometries.get(atonType);
+        return atonTypeGeometries == null || atonTypeGeometries.contains(geometry);
+    }
+
+    /**
+     * An AtoN type identified by further tag values of another seamark type.
+     *
+     * @param conditions    The tag values identifying the AtoN type
+     * @param atonType      The identified AtoN type
+     * @param <T> the type of the product AtoN types
+     */
+    protected record CategoryType<T>(Map<String, String> conditions, T atonType) {
+
+        /**
+         * Returns whether the provided AtoN tag values match all the
+         * conditions of the AtoN type.
+         *
+         * @param tagValues The lookup of the AtoN tag values by their key
+         * @return whether the tag values match
+         */
+        boolean matches(UnaryOperator<String> tagValues) {
+            for(Map.Entry<String, String> condition : this.conditions.entrySet()) {
+                if(!condition.getValue().equals(tagValues.apply(condition.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
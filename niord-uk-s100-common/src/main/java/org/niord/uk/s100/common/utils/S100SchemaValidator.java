@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.niord.uk.s100.common.models.vo.S100ValidationStatsVo;
+import org.xml.sax.*;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The S-100 Schema Validator Class.
+ * <p/>
+ * Compiling the XSDs of an S-100 data product (e.g. S-125 or S-201, along
+ * with the S-100 GML profile they import) is expensive, so this class holds
+ * them compiled once into a shared {@link Schema}, which can then be used by
+ * any thread to validate the generated datasets. The validation can either
+ * happen while the dataset is being streamed, by filtering the XML stream
+ * reader it is read through, or over an already written dataset file. The
+ * class keeps track of how many datasets were validated, how many failed,
+ * and how long the validation took, so that its overhead can be monitored.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100SchemaValidator {
+
+    /**
+     * The maximum number of errors reported for each validation.
+     */
+    public static final int MAX_REPORTED_ERRORS = 10;
+
+    // Class Variables
+    private final Schema schema;
+    private final LongAdder validations;
+    private final LongAdder failures;
+    private final LongAdder errors;
+    private final LongAdder validationNanos;
+    private volatile Validation lastFailure;
+
+    /**
+     * Class Constructor.
+     *
+     * @param schema    The compiled schema to validate against
+     */
+    public S100SchemaValidator(Schema schema) {
+        this.schema = schema;
+        this.validations = new LongAdder();
+        this.failures = new LongAdder();
+        this.errors = new LongAdder();
+        this.validationNanos = new LongAdder();
+    }
+
+    /**
+     * Compiles the schema at the provided location. Only the XSDs of the
+     * product libraries may be imported, nothing is ever resolved over the
+     * network.
+     *
+     * @param schemaUrl     The location of the schema
+     * @return the compiled schema
+     * @throws SAXException for any errors while compiling the schema
+     */
+    public static Schema compileSchema(URL schemaUrl) throws SAXException {
+        final SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        schemaFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        schemaFactory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "jar,file");
+        return schemaFactory.newSchema(schemaUrl);
+    }
+
+    /**
+     * Starts a new validation of the provided dataset.
+     *
+     * @param name      The name of the validated dataset, for reporting
+     * @return the new validation
+     */
+    public Validation newValidation(String name) {
+        return new Validation(name);
+    }
+
+    /**
+     * Returns the current statistics of the validator.
+     *
+     * @return the validator statistics
+     */
+    public S100ValidationStatsVo getStats() {
+        final S100ValidationStatsVo stats = new S100ValidationStatsVo();
+        stats.setValidations(this.validations.sum());
+        stats.setFailures(this.failures.sum());
+        stats.setErrors(this.errors.sum());
+        stats.setValidationTimeMillis(this.validationNanos.sum() / 1_000_000L);
+        final Validation failure = this.lastFailure;
+        if(failure != null) {
+            stats.setLastFailure(failure.getName());
+            stats.setLastErrors(failure.getErrors());
+        }
+        return stats;
+    }
+
+    /**
+     * A single validation of a dataset against the compiled schema.
+     * Validation errors do not stop the validation, they are all counted,
+     * and the first few of them are kept for reporting.
+     */
+    public class Validation implements ErrorHandler {
+
+        // Class Variables
+        private final String name;
+        private final List<String> errors;
+        private int errorCount;
+        private long nanos;
+        private boolean completed;
+
+        /**
+         * Class Constructor.
+         *
+         * @param name      The name of the validated dataset
+         */
+        protected Validation(String name) {
+            this.name = name;
+            this.errors = new ArrayList<>();
+        }
+
+        /**
+         * Wraps the provided XML stream reader, so that all the XML events
+         * read through it are also validated. The validation is complete
+         * once the whole document has been read.
+         *
+         * @param reader    The XML stream reader of the dataset
+         * @return the validating XML stream reader
+         */
+        public XMLStreamReader filter(XMLStreamReader reader) {
+            final ValidatorHandler validatorHandler = schema.newValidatorHandler();
+            validatorHandler.setErrorHandler(this);
+            return new ValidatingStreamReader(reader, validatorHandler);
+        }
+
+        /**
+         * Validates the provided dataset file.
+         *
+         * @param file      The dataset file
+         * @return the validation
+         * @throws IOException for any errors while reading the dataset file
+         */
+        public Validation validate(Path file) throws IOException {
+            final Validator validator = schema.newValidator();
+            validator.setErrorHandler(this);
+            final long start = System.nanoTime();
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                validator.validate(new StreamSource(inputStream, file.toUri().toString()));
+            } catch (SAXException ex) {
+                this.record(ex);
+            } finally {
+                this.nanos += System.nanoTime() - start;
+            }
+            return this;
+        }
+
+        /**
+         * Completes the validation, recording its outcome in the validator
+         * statistics.
+         *
+         * @return the validation
+         */
+        public Validation complete() {
+            if(!this.completed) {
+                this.completed = true;
+                validations.increment();
+                validationNanos.add(this.nanos);
+                if(!this.isValid()) {
+                    failures.increment();
+                    S100SchemaValidator.this.errors.add(this.errorCount);
+                    lastFailure = this;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Returns whether the dataset is valid.
+         *
+         * @return whether the dataset is valid
+         */
+        public boolean isValid() {
+            return this.errorCount == 0;
+        }
+
+        /**
+         * Gets the name of the validated dataset.
+         *
+         * @return the name of the validated dataset
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of validation errors.
+         *
+         * @return the number of validation errors
+         */
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * Gets the first few validation errors.
+         *
+         * @return the first few validation errors
+         */
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * Gets the validation time in milliseconds.
+         *
+         * @return the validation time in milliseconds
+         */
+        public long getValidationTimeMillis() {
+            return nanos / 1_000_000L;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void warning(SAXParseException exception) {
+            // Warnings do not invalidate the dataset
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void error(SAXParseException exception) {
+            this.record(exception);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void fatalError(SAXParseException exception) {
+            this.record(exception);
+        }
+
+        /**
+         * Records a validation error.
+         *
+         * @param exception the validation error
+         */
+        private void record(SAXException exception) {
+            this.errorCount++;
+            if(this.errors.size() < MAX_REPORTED_ERRORS) {
+                this.errors.add(exception instanceof SAXParseException parseException ?
+                        "%d:%d: %s".formatted(parseException.getLineNumber(), parseException.getColumnNumber(), parseException.getMessage()) :
+                        exception.getMessage());
+            }
+        }
+
+        /**
+         * An XML stream reader that forwards all the XML events read through
+         * it to a schema validator handler, timing the validation on the way.
+         */
+        private class ValidatingStreamReader extends StreamReaderDelegate implements Locator {
+
+            // Class Variables
+            private final ValidatorHandler validatorHandler;
+            private boolean started;
+
+            /**
+             * Class Constructor.
+             *
+             * @param reader            The XML stream reader to validate
+             * @param validatorHandler  The schema validator handler
+             */
+            ValidatingStreamReader(XMLStreamReader reader, ValidatorHandler validatorHandler) {
+                super(reader);
+                this.validatorHandler = validatorHandler;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public int next() throws XMLStreamException {
+                final int event = super.next();
+                final long start = System.nanoTime();
+                try {
+                    if(!this.started) {
+                        this.started = true;
+                        this.validatorHandler.setDocumentLocator(this);
+                        this.validatorHandler.startDocument();
+                    }
+                    this.forward(event);
+                } catch (SAXException ex) {
+                    record(ex);
+                } finally {
+                    nanos += System.nanoTime() - start;
+                }
+                return event;
+            }
+
+            /**
+             * Forwards the current XML event to the validator handler.
+             *
+             * @param event     The current XML event
+             * @throws SAXException for any errors while validating the event
+             */
+            private void forward(int event) throws SAXException {
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        for(int i = 0; i < this.getNamespaceCount(); i++) {
+                            this.validatorHandler.startPrefixMapping(nonNull(this.getNamespacePrefix(i)), nonNull(this.getNamespaceURI(i)));
+                        }
+                        final AttributesImpl attributes = new AttributesImpl();
+                        for(int i = 0; i < this.getAttributeCount(); i++) {
+                            attributes.addAttribute(
+                                    nonNull(this.getAttributeNamespace(i)),
+                                    this.getAttributeLocalName(i),
+                                    qualifiedName(this.getAttributePrefix(i), this.getAttributeLocalName(i)),
+                                    "CDATA",
+                                    this.getAttributeValue(i));
+                        }
+                        this.validatorHandler.startElement(nonNull(this.getNamespaceURI()), this.getLocalName(), qualifiedName(this.getPrefix(), this.getLocalName()), attributes);
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        this.validatorHandler.endElement(nonNull(this.getNamespaceURI()), this.getLocalName(), qualifiedName(this.getPrefix(), this.getLocalName()));
+                        for(int i = 0; i < this.getNamespaceCount(); i++) {
+                            this.validatorHandler.endPrefixMapping(nonNull(this.getNamespacePrefix(i)));
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE, XMLStreamConstants.CDATA ->
+                            this.validatorHandler.characters(this.getTextCharacters(), this.getTextStart(), this.getTextLength());
+                    case XMLStreamConstants.END_DOCUMENT ->
+                            this.validatorHandler.endDocument();
+                    default -> {
+                        // Nothing else is validated
+                    }
+                }
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public String getPublicId() {
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public String getSystemId() {
+                return this.getLocation().getSystemId();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public int getLineNumber() {
+                return this.getLocation().getLineNumber();
+            }
+
+            /** {@inheritDoc} */
+            @Override
+            public int getColumnNumber() {
+                return this.getLocation().getColumnNumber();
+            }
+
+        }
+
+    }
+
+    /**
+     * Replaces null strings with empty ones, as expected by SAX.
+     *
+     * @param value     The string value
+     * @return the string value, or an empty string if null
+     */
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Generates the qualified name of an element or attribute.
+     *
+     * @param prefix    The namespace prefix
+     * @param localName The local name
+     * @return the qualified name
+     */
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.niord.core.aton.AtonTag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The S-100 Tag Mapping Class.
+ * <p/>
+ * Most of the fields of the S-100 dataset members (e.g. S-125 and S-201)
+ * are populated straight out of a single AtoN tag each, by parsing the tag
+ * value and handing it over to a setter, or adding it to a list. This class
+ * holds such tag key to field bindings for a dataset member type. Each
+ * feature type declares its bindings once, in a constant, and then applies
+ * them to every member it generates with a plain loop, i.e. one map lookup
+ * and one parser call per field, without allocating any lambdas or
+ * optionals.
+ * <p/>
+ * For example:
+ * <pre>
+ *     S100TagMapping.&lt;BeaconCardinal&gt;builder()
+ *          .value("seamark:beacon_cardinal:shape", S125EnumParser::parseBeaconShape, BeaconCardinal::setBeaconShape)
+ *          .elements("seamark:beacon_cardinal:colour", S125EnumParser::parseColour, BeaconCardinal::getColours)
+ *          .build();
+ * </pre>
+ *
+ * @param <T> the type of the dataset members populated
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100TagMapping<T> {
+
+    /**
+     * The separator of the multi-valued AtoN tags.
+     */
+    public static final String VALUE_SEPARATOR = ";";
+
+    // Class Variables
+    private final String[] keys;
+    private final Binding<T>[] bindings;
+    private final Consumer<T>[] defaults;
+    private final boolean[] multiValued;
+
+    /**
+     * Class Constructor.
+     *
+     * @param keys          The AtoN tag keys
+     * @param bindings      The bindings of the AtoN tag values, in the same order
+     * @param defaults      The bindings of the missing AtoN tags, null for none
+     * @param multiValued   Whether each AtoN tag is split into multiple values
+     */
+    protected S100TagMapping(String[] keys, Binding<T>[] bindings, Consumer<T>[] defaults, boolean[] multiValued) {
+        this.keys = keys;
+        this.bindings = bindings;
+        this.defaults = defaults;
+        this.multiValued = multiValued;
+    }
+
+    /**
+     * Returns a new builder for the tag mapping of a dataset member type.
+     *
+     * @param <T> the type of the dataset members populated
+     * @return the tag mapping builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Wraps the provided parser, so that blank tag values are not parsed but
+     * treated as missing, e.g. for numeric fields.
+     *
+     * @param parser    The tag value parser
+     * @param <V> the type of the parsed values
+     * @return the parser skipping the blank tag values
+     */
+    public static <V> Function<String, V> nonBlank(Function<String, V> parser) {
+        return value -> StringUtils.isNotBlank(value) ? parser.apply(value) : null;
+    }
+
+    /**
+     * Populates the provided dataset member out of the provided AtoN tags,
+     * indexed by their keys. The fields of missing AtoN tags are set to
+     * their default values, if any, or otherwise left untouched.
+     *
+     * @param atonTags  The AtoN tags indexed by their keys
+     * @param member    The dataset member to populate
+     */
+    public void apply(Map<String, AtonTag> atonTags, T member) {
+        this.apply(atonTags, member, null, null);
+    }
+
+    /**
+     * Populates the provided dataset member out of the provided AtoN tags,
+     * indexed by their keys, just like {@link #apply(Map, Object)}, while
+     * also checking the tag values against the value domains of the provided
+     * preset plan. The tag values outside the value domains are still bound
+     * as usual, but are also reported to the provided consumer, so that they
+     * can be counted in the data quality reports. The multi-valued AtoN tags
+     * are checked one value at a time, whatever the preset field kind.
+     *
+     * @param atonTags  The AtoN tags indexed by their keys
+     * @param member    The dataset member to populate
+     * @param plan      The preset plan to check the tag values against, null for none
+     * @param rejected  The consumer of the tag keys and values outside the value domains
+     */
+    public void apply(Map<String, AtonTag> atonTags, T member, S100PresetPlan plan, BiConsumer<String, String> rejected) {
+        for(int i = 0; i < this.keys.length; i++) {
+            final AtonTag atonTag = atonTags.get(this.keys[i]);
+            if(atonTag != null && atonTag.getV() != null) {
+                if(plan != null) {
+                    this.check(i, atonTag.getV(), plan, rejected);
+                }
+                this.bindings[i].bind(member, atonTag.getV());
+            } else if(this.defaults[i] != null) {
+                this.defaults[i].accept(member);
+            }
+        }
+    }
+
+    /**
+     * Returns the AtoN tag keys of the mapping, in the order they are
+     * applied.
+     *
+     * @return the AtoN tag keys
+     */
+    public List<String> getKeys() {
+        return List.of(this.keys);
+    }
+
+    /**
+     * Reports the provided value of the AtoN tag at the provided index if it
+     * falls outside the value domain of the preset plan, or for multi-valued
+     * AtoN tags, each one of its values that does.
+     *
+     * @param index     The index of the AtoN tag key
+     * @param value     The AtoN tag value
+     * @param plan      The preset plan to check the tag value against
+     * @param rejected  The consumer of the tag keys and values outside the value domains
+     */
+    private void check(int index, String value, S100PresetPlan plan, BiConsumer<String, String> rejected) {
+        if(!this.multiValued[index]) {
+            if(!plan.isAllowed(this.keys[index], value)) {
+                rejected.accept(this.keys[index], value);
+            }
+            return;
+        }
+        for(String item : value.split(VALUE_SEPARATOR)) {
+            if(!plan.isAllowedElement(this.keys[index], item)) {
+                rejected.accept(this.keys[index], item);
+            }
+        }
+    }
+
+    /**
+     * The binding of an AtoN tag value to a field of the dataset members.
+     *
+     * @param <T> the type of the dataset members populated
+     */
+    @FunctionalInterface
+    protected interface Binding<T> {
+
+        /**
+         * Binds the provided AtoN tag value to the dataset member.
+         *
+         * @param member    The dataset member to populate
+         * @param value     The AtoN tag value
+         */
+        void bind(T member, String value);
+
+    }
+
+    /**
+     * The S-100 Tag Mapping Builder Class.
+     *
+     * @param <T> the type of the dataset members populated
+     */
+    public static class Builder<T> {
+
+        // Class Variables
+        private final List<String> keys = new ArrayList<>();
+        private final List<Binding<T>> bindings = new ArrayList<>();
+        private final List<Consumer<T>> defaults = new ArrayList<>();
+        private final List<Boolean> multiValued = new ArrayList<>();
+
+        /**
+         * Binds the provided AtoN tag to a single valued field, which is set
+         * to the parsed tag value.
+         *
+         * @param key       The AtoN tag key
+         * @param parser    The tag value parser
+         * @param setter    The field setter
+         * @param <V> the type of the field
+         * @return the builder
+         */
+        public <V> Builder<T> value(String key, Function<String, V> parser, BiConsumer<T, V> setter) {
+            return this.bind(key, (member, value) -> setter.accept(member, parser.apply(value)), null);
+        }
+
+        /**
+         * Binds the provided AtoN tag to a single valued field, which is set
+         * to the parsed tag value, or to the provided default value if the
+         * AtoN tag is missing or could not be parsed.
+         *
+         * @param key           The AtoN tag key
+         * @param parser        The tag value parser
+         * @param setter        The field setter
+         * @param defaultValue  The default field value
+         * @param <V> the type of the field
+         * @return the builder
+         */
+        public <V> Builder<T> value(String key, Function<String, V> parser, BiConsumer<T, V> setter, V defaultValue) {
+            return this.bind(key, (member, value) -> {
+                final V parsed = parser.apply(value);
+                setter.accept(member, parsed != null ? parsed : defaultValue);
+            }, member -> setter.accept(member, defaultValue));
+        }
+
+        /**
+         * Binds the provided AtoN tag to a list field, which the parsed tag
+         * value is added to, unless it could not be parsed.
+         *
+         * @param key       The AtoN tag key
+         * @param parser    The tag value parser
+         * @param getter    The list field getter
+         * @param <V> the type of the list elements
+         * @return the builder
+         */
+        public <V> Builder<T> element(String key, Function<String, V> parser, Function<T, ? extends Collection<V>> getter) {
+            return this.bind(key, (member, value) -> {
+                final V element = parser.apply(value);
+                if(element != null) {
+                    getter.apply(member).add(element);
+                }
+            }, null);
+        }
+
+        /**
+         * Binds the provided multi-valued AtoN tag to a list field, which all
+         * the parsed tag values are added to, except the ones that could not
+         * be parsed.
+         *
+         * @param key       The AtoN tag key
+         * @param parser    The tag value parser, applied to each value
+         * @param getter    The list field getter
+         * @param <V> the type of the list elements
+         * @return the builder
+         */
+        public <V> Builder<T> elements(String key, Function<String, V> parser, Function<T, ? extends Collection<V>> getter) {
+            return this.bind(key, (member, value) -> {
+                final Collection<V> collection = getter.apply(member);
+                for(String item : value.split(VALUE_SEPARATOR)) {
+                    final V element = parser.apply(item);
+                    if(element != null) {
+                        collection.add(element);
+                    }
+                }
+            }, null, true);
+        }
+
+        /**
+         * Adds the provided bindings for the AtoN tag.
+         *
+         * @param key       The AtoN tag key
+         * @param binding   The binding of the AtoN tag value
+         * @param absent    The binding of the missing AtoN tag, null for none
+         * @return the builder
+         */
+        protected Builder<T> bind(String key, Binding<T> binding, Consumer<T> absent) {
+            return this.bind(key, binding, absent, false);
+        }
+
+        /**
+         * Adds the provided bindings for the AtoN tag, which may hold multiple
+         * values that are checked against the preset plan one by one.
+         *
+         * @param key           The AtoN tag key
+         * @param binding       The binding of the AtoN tag value
+         * @param absent        The binding of the missing AtoN tag, null for none
+         * @param multiValued   Whether the binding splits the AtoN tag value
+         * @return the builder
+         */
+        protected Builder<T> bind(String key, Binding<T> binding, Consumer<T> absent, boolean multiValued) {
+            this.keys.add(key);
+            this.bindings.add(binding);
+            this.defaults.add(absent);
+            this.multiValued.add(multiValued);
+            return this;
+        }
+
+        /**
+         * Builds the tag mapping out of the bindings added so far.
+         *
+         * @return the tag mapping
+         */
+        @SuppressWarnings("unchecked")
+        public S100TagMapping<T> build() {
+            final boolean[] multiValued = new boolean[this.multiValued.size()];
+            for(int i = 0; i < multiValued.length; i++) {
+                multiValued[i] = this.multiValued.get(i);
+            }
+            return new S100TagMapping<>(this.keys.toArray(String[]::new), this.bindings.toArray(Binding[]::new), this.defaults.toArray(Consumer[]::new), multiValued);
+        }
+
+    }
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import javax.xml.stream.*;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.UnaryOperator;
+
+/**
+ * The S-100 XML Utilities Class.
+ * <p/>
+ * A utility class some static XML helper methods to be used by all the S-100
+ * data product modules.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100XmlUtils {
+
+    /**
+     * A string processor to try and prettify the input XML into something
+     * more easily readable.
+     * <p/>
+     * The original Niord version wasn't working due to existing while spaces
+     * in the DOM. Based on the DOM specification, whitespaces outside the t
+     * ags are perfectly valid, and they are properly preserved. Therefore,
+     * all whitespace-only text is dropped while re-writing the XML, and the
+     * indentation is then applied as the output is written.
+     *
+     * @param input     The XML string input
+     * @param indent    The XML indentation, 0 will minify the output
+     * @return The prettified output
+     */
+    public static String xmlPrettyPrint(String input, int indent) {
+        try {
+            final StringWriter stringWriter = new StringWriter();
+            xmlPrettyPrint(
+                    xmlInputFactory().createXMLStreamReader(new StringReader(input)),
+                    XMLOutputFactory.newInstance().createXMLStreamWriter(stringWriter),
+                    indent);
+            return stringWriter.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * A stream processor to try and prettify the input XML into something
+     * more easily readable, while it is being copied from the input into
+     * the output stream. This way the XML never has to be held in memory
+     * as a whole. The output is always encoded in UTF-8, without an XML
+     * declaration.
+     *
+     * @param input     The XML input stream
+     * @param output    The output stream to write the prettified XML into
+     * @param indent    The XML indentation, 0 will minify the output
+     */
+    public static void xmlPrettyPrint(InputStream input, OutputStream output, int indent) {
+        xmlPrettyPrint(input, output, indent, UnaryOperator.identity());
+    }
+
+    /**
+     * A stream processor to try and prettify the input XML into something
+     * more easily readable, while it is being copied from the input into
+     * the output stream, same as {@link #xmlPrettyPrint(InputStream, OutputStream, int)}.
+     * The provided filter can wrap the XML stream reader, so that any further
+     * processing of the XML events (e.g. schema validation) happens in the
+     * same pass.
+     *
+     * @param input     The XML input stream
+     * @param output    The output stream to write the prettified XML into
+     * @param indent    The XML indentation, 0 will minify the output
+     * @param filter    The filter to wrap the XML stream reader with
+     */
+    public static void xmlPrettyPrint(InputStream input, OutputStream output, int indent, UnaryOperator<XMLStreamReader> filter) {
+        try {
+            xmlPrettyPrint(
+                    filter.apply(xmlInputFactory().createXMLStreamReader(input)),
+                    XMLOutputFactory.newInstance().createXMLStreamWriter(output, StandardCharsets.UTF_8.name()),
+                    indent);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Copies all the XML events of the provided reader into the provided
+     * writer, dropping any whitespace-only text and applying the requested
+     * indentation. Elements without any content are written as empty
+     * elements.
+     *
+     * @param reader    The XML stream reader
+     * @param writer    The XML stream writer
+     * @param indent    The XML indentation, 0 will minify the output
+     * @throws XMLStreamException for any errors while processing the XML
+     */
+    protected static void xmlPrettyPrint(XMLStreamReader reader, XMLStreamWriter writer, int indent) throws XMLStreamException {
+        // Keep track of whether each open element contains nested elements
+        final Deque<Boolean> nestedElements = new ArrayDeque<>();
+        final String lineSeparator = System.lineSeparator();
+        PendingElement pendingElement = null;
+
+        try {
+            while (reader.hasNext()) {
+                final int event = reader.next();
+
+                // Whitespace-only text does not count as content
+                if (isWhitespace(reader, event)) {
+                    continue;
+                }
+
+                // An element directly followed by its end is empty
+                if (pendingElement != null) {
+                    pendingElement.write(writer, event == XMLStreamConstants.END_ELEMENT);
+                    pendingElement = null;
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        nestedElements.pop();
+                        continue;
+                    }
+                }
+
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        writeIndentation(writer, nestedElements, indent, lineSeparator);
+                        pendingElement = new PendingElement(reader);
+                        nestedElements.push(Boolean.FALSE);
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (Boolean.TRUE.equals(nestedElements.pop()) && indent > 0) {
+                            writer.writeCharacters(lineSeparator + " ".repeat(indent * nestedElements.size()));
+                        }
+                        writer.writeEndElement();
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE ->
+                            writer.writeCharacters(reader.getText());
+                    case XMLStreamConstants.CDATA ->
+                            writer.writeCData(reader.getText());
+                    case XMLStreamConstants.ENTITY_REFERENCE ->
+                            writer.writeEntityRef(reader.getLocalName());
+                    case XMLStreamConstants.COMMENT -> {
+                        writeIndentation(writer, nestedElements, indent, lineSeparator);
+                        writer.writeComment(reader.getText());
+                    }
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                        writeIndentation(writer, nestedElements, indent, lineSeparator);
+                        writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                    }
+                    case XMLStreamConstants.END_DOCUMENT -> {
+                        writer.writeEndDocument();
+                        if (indent > 0) {
+                            writer.writeCharacters(lineSeparator);
+                        }
+                    }
+                    default -> {
+                        // Nothing else needs to be copied
+                    }
+                }
+            }
+            writer.flush();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes the indentation before a new element, comment or processing
+     * instruction, and marks the enclosing element as having nested content.
+     *
+     * @param writer            The XML stream writer
+     * @param nestedElements    The nested element flags of the open elements
+     * @param indent            The XML indentation
+     * @param lineSeparator     The line separator
+     * @throws XMLStreamException for any errors while processing the XML
+     */
+    private static void writeIndentation(XMLStreamWriter writer,
+                                         Deque<Boolean> nestedElements,
+                                         int indent,
+                                         String lineSeparator) throws XMLStreamException {
+        if (!nestedElements.isEmpty()) {
+            nestedElements.pop();
+            nestedElements.push(Boolean.TRUE);
+            if (indent > 0) {
+                writer.writeCharacters(lineSeparator + " ".repeat(indent * nestedElements.size()));
+            }
+        }
+    }
+
+    /**
+     * Checks whether the current event of the reader is whitespace-only
+     * text.
+     *
+     * @param reader    The XML stream reader
+     * @param event     The current event
+     * @return whether the current event is whitespace-only text
+     */
+    private static boolean isWhitespace(XMLStreamReader reader, int event) {
+        return event == XMLStreamConstants.SPACE
+                || (event == XMLStreamConstants.CHARACTERS && reader.isWhiteSpace());
+    }
+
+    /**
+     * Creates a secure XML input factory for reading the XML to be
+     * prettified.
+     *
+     * @return the XML input factory
+     */
+    private static XMLInputFactory xmlInputFactory() {
+        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return xmlInputFactory;
+    }
+
+    /**
+     * A start element captured from the XML stream reader, which is only
+     * written once we know whether it has any content or not.
+     */
+    private static class PendingElement {
+
+        // Class Variables
+        private final String prefix;
+        private final String localName;
+        private final String namespaceURI;
+        private final String[][] namespaces;
+        private final String[][] attributes;
+
+        /**
+         * Class Constructor.
+         *
+         * @param reader    The XML stream reader positioned at a start element
+         */
+        PendingElement(XMLStreamReader reader) {
+            this.prefix = reader.getPrefix();
+            this.localName = reader.getLocalName();
+            this.namespaceURI = reader.getNamespaceURI();
+            this.namespaces = new String[reader.getNamespaceCount()][];
+            for (int i = 0; i < this.namespaces.length; i++) {
+                this.namespaces[i] = new String[]{reader.getNamespacePrefix(i), reader.getNamespaceURI(i)};
+            }
+            this.attributes = new String[reader.getAttributeCount()][];
+            for (int i = 0; i < this.attributes.length; i++) {
+                this.attributes[i] = new String[]{
+                        reader.getAttributePrefix(i),
+                        reader.getAttributeNamespace(i),
+                        reader.getAttributeLocalName(i),
+                        reader.getAttributeValue(i)
+                };
+            }
+        }
+
+        /**
+         * Writes the captured element along with its namespace declarations
+         * and attributes.
+         *
+         * @param writer    The XML stream writer
+         * @param empty     Whether the element should be written as empty
+         * @throws XMLStreamException for any errors while processing the XML
+         */
+        void write(XMLStreamWriter writer, boolean empty) throws XMLStreamException {
+            final String elementPrefix = this.prefix == null ? "" : this.prefix;
+            final String elementNamespaceURI = this.namespaceURI == null ? "" : this.namespaceURI;
+            if (empty) {
+                writer.writeEmptyElement(elementPrefix, this.localName, elementNamespaceURI);
+            } else {
+                writer.writeStartElement(elementPrefix, this.localName, elementNamespaceURI);
+            }
+            for (String[] namespace : this.namespaces) {
+                if (namespace[0] == null || namespace[0].isEmpty()) {
+                    writer.writeDefaultNamespace(namespace[1]);
+                } else {
+                    writer.writeNamespace(namespace[0], namespace[1]);
+                }
+            }
+            for (String[] attribute : this.attributes) {
+                if (attribute[0] == null || attribute[0].isEmpty()) {
+                    writer.writeAttribute(attribute[2], attribute[3]);
+                } else {
+                    writer.writeAttribute(attribute[0], attribute[1], attribute[2], attribute[3]);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The S-100 XSD Cache Class.
+ * <p/>
+ * Validating clients keep fetching the XSD files bundled with the S-100
+ * product libraries (e.g. S-125 and S-201), which never change while the
+ * application is running. This class reads all of them out of a library
+ * once, keeping their raw bytes along with a pre-compressed gzip variant
+ * and an ETag derived from their contents, so that they can be served
+ * without creating a class loader or copying anything per request. The
+ * XSDs are indexed by their path relative to the XSD folder of the library,
+ * e.g. "S125.xsd".
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100XsdCache {
+
+    /**
+     * The XSD folder in the S-100 product libraries.
+     */
+    public static final String XSD_FOLDER = "xsd/";
+
+    // Class Variables
+    private final Map<String, Xsd> xsds;
+
+    /**
+     * Class Constructor.
+     *
+     * @param xsds      The cached XSDs, indexed by their relative paths
+     */
+    public S100XsdCache(Map<String, Xsd> xsds) {
+        this.xsds = Collections.unmodifiableMap(new TreeMap<>(xsds));
+    }
+
+    /**
+     * Class Constructor.
+     * <p/>
+     * Loads all the XSDs bundled with the library of the provided class.
+     *
+     * @param xsdSource     A class of the library the XSDs are bundled with
+     * @throws IOException for any errors while reading the XSDs
+     */
+    public S100XsdCache(Class<?> xsdSource) throws IOException {
+        this(load(xsdSource));
+    }
+
+    /**
+     * Loads all the XSDs bundled with the library of the provided class. The
+     * library is read entry by entry, without being extracted anywhere.
+     *
+     * @param xsdSource     A class of the library the XSDs are bundled with
+     * @return the loaded XSDs, indexed by their relative paths
+     * @throws IOException for any errors while reading the XSDs
+     */
+    protected static Map<String, Xsd> load(Class<?> xsdSource) throws IOException {
+        final Map<String, Xsd> xsds = new HashMap<>();
+
+        // Locate the library the XSDs are bundled with
+        final URL location = Optional.ofNullable(xsdSource.getProtectionDomain().getCodeSource())
+                .map(CodeSource::getLocation)
+                .filter(url -> url.getPath().endsWith(".jar"))
+                .orElse(null);
+        if(location == null) {
+            return xsds;
+        }
+
+        // And read all the XSD entries
+        try(ZipInputStream jarInputStream = new ZipInputStream(location.openStream())) {
+            for(ZipEntry entry = jarInputStream.getNextEntry(); entry != null; entry = jarInputStream.getNextEntry()) {
+                if(!entry.isDirectory() && entry.getName().startsWith(XSD_FOLDER) && entry.getName().endsWith(".xsd")) {
+                    final String name = entry.getName().substring(XSD_FOLDER.length());
+                    xsds.put(name, Xsd.of(name, jarInputStream.readAllBytes()));
+                }
+            }
+        }
+        return xsds;
+    }
+
+    /**
+     * Looks up the cached XSD with the provided relative path.
+     *
+     * @param name      The relative path of the XSD, e.g. "S125.xsd"
+     * @return the cached XSD, if found
+     */
+    public Optional<Xsd> get(String name) {
+        return Optional.ofNullable(name).map(this.xsds::get);
+    }
+
+    /**
+     * Returns all the cached XSDs, sorted by their relative paths.
+     *
+     * @return all the cached XSDs
+     */
+    public Collection<Xsd> getXsds() {
+        return this.xsds.values();
+    }
+
+    /**
+     * Returns the number of cached XSDs.
+     *
+     * @return the number of cached XSDs
+     */
+    public int size() {
+        return this.xsds.size();
+    }
+
+    /**
+     * A cached XSD, i.e. its raw contents, along with their gzip compressed
+     * variant and their ETag.
+     *
+     * @param name      The relative path of the XSD
+     * @param content   The raw XSD contents
+     * @param gzipped   The gzip compressed XSD contents
+     * @param etag      The ETag value of the XSD contents
+     */
+    public record Xsd(String name, byte[] content, byte[] gzipped, String etag) {
+
+        /**
+         * Generates a cached XSD out of the provided raw contents.
+         *
+         * @param name      The relative path of the XSD
+         * @param content   The raw XSD contents
+         * @return the cached XSD
+         */
+        static Xsd of(String name, byte[] content) {
+            try {
+                final ByteArrayOutputStream gzipped = new ByteArrayOutputStream(content.length / 4 + 64);
+                try(GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipped)) {
+                    gzipOutputStream.write(content);
+                }
+                final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+                return new Xsd(name, content, gzipped.toByteArray(), HexFormat.of().formatHex(digest, 0, 16));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+    }
+
+}
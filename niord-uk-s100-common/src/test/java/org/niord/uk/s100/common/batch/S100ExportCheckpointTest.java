@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.batch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.niord.core.aton.AtonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Export Checkpoint.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExportCheckpointTest {
+
+    // Test Variables
+    private List<AtonNode> atonNodes;
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() {
+        this.atonNodes = new ArrayList<>();
+        for(int i = 1; i <= 3; i++) {
+            final AtonNode atonNode = new AtonNode();
+            atonNode.setId(i);
+            atonNode.setAtonUid("aton-00" + i);
+            atonNode.setChangeset(i);
+            this.atonNodes.add(atonNode);
+        }
+    }
+
+    /**
+     * Test that a job started without a checkpoint starts from the first
+     * fragment of every product.
+     */
+    @Test
+    public void testRestoreWithoutCheckpoint() {
+        assertArrayEquals(new int[]{0, 0}, S100ExportCheckpoint.restore(null, S100ExportCheckpoint.digest(this.atonNodes), 2));
+    }
+
+    /**
+     * Test that a job restarted for the same AtoN nodes resumes from the
+     * checkpointed fragments.
+     */
+    @Test
+    public void testRestore() {
+        final String digest = S100ExportCheckpoint.digest(this.atonNodes);
+        final S100ExportCheckpoint checkpoint = new S100ExportCheckpoint(digest, new int[]{5, 2});
+
+        assertArrayEquals(new int[]{5, 2}, S100ExportCheckpoint.restore(checkpoint, S100ExportCheckpoint.digest(new ArrayList<>(this.atonNodes)), 2));
+    }
+
+    /**
+     * Test that a job is not restarted once an AtoN node has been deleted.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRestoreWithDeletedAtonNode() {
+        final S100ExportCheckpoint checkpoint = new S100ExportCheckpoint(S100ExportCheckpoint.digest(this.atonNodes), new int[]{5});
+        this.atonNodes.remove(1);
+
+        S100ExportCheckpoint.restore(checkpoint, S100ExportCheckpoint.digest(this.atonNodes), 1);
+    }
+
+    /**
+     * Test that a job is not restarted once an AtoN node has been modified.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRestoreWithModifiedAtonNode() {
+        final S100ExportCheckpoint checkpoint = new S100ExportCheckpoint(S100ExportCheckpoint.digest(this.atonNodes), new int[]{5});
+        this.atonNodes.get(0).setChangeset(10);
+
+        S100ExportCheckpoint.restore(checkpoint, S100ExportCheckpoint.digest(this.atonNodes), 1);
+    }
+
+    /**
+     * Test that a job is not restarted from the plain fragment index
+     * checkpoints of the previous releases.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRestoreWithUnknownCheckpoint() {
+        S100ExportCheckpoint.restore(5, S100ExportCheckpoint.digest(this.atonNodes), 1);
+    }
+
+    /**
+     * Test that the digest depends on the order of the AtoN nodes.
+     */
+    @Test
+    public void testDigestOrder() {
+        final String digest = S100ExportCheckpoint.digest(this.atonNodes);
+
+        assertEquals(digest, S100ExportCheckpoint.digest(new ArrayList<>(this.atonNodes)));
+        assertNotEquals(digest, S100ExportCheckpoint.digest(List.of(this.atonNodes.get(1), this.atonNodes.get(0), this.atonNodes.get(2))));
+    }
+
+}
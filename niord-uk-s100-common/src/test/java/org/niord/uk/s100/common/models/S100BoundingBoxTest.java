@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models;
+
+
+import org.junit.Test;
+import org.niord.core.aton.AtonNode;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Bounding Box model.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100BoundingBoxTest {
+
+    /**
+     * Test that the bounding box is only created when all its parameters
+     * have been provided, and within the valid ranges.
+     */
+    @Test
+    public void testOf() {
+        assertNull(S100BoundingBox.of(null, null, null, null));
+        assertEquals(new S100BoundingBox(50.0, -2.0, 51.0, 2.0), S100BoundingBox.of(50.0, -2.0, 51.0, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> S100BoundingBox.of(50.0, -2.0, 51.0, null));
+        assertThrows(IllegalArgumentException.class, () -> S100BoundingBox.of(50.0, -2.0, 91.0, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> S100BoundingBox.of(50.0, -181.0, 51.0, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> S100BoundingBox.of(51.0, -2.0, 50.0, 2.0));
+    }
+
+    /**
+     * Test that only the positions within the bounding box are contained,
+     * including for bounding boxes crossing the antimeridian.
+     */
+    @Test
+    public void testContains() {
+        final S100BoundingBox bbox = new S100BoundingBox(50.0, -2.0, 51.0, 2.0);
+        assertTrue(bbox.contains(50.5, 0.0));
+        assertTrue(bbox.contains(50.0, -2.0));
+        assertFalse(bbox.contains(49.9, 0.0));
+        assertFalse(bbox.contains(50.5, 2.1));
+
+        final S100BoundingBox antimeridian = new S100BoundingBox(-20.0, 170.0, -10.0, -170.0);
+        assertTrue(antimeridian.contains(-15.0, 175.0));
+        assertTrue(antimeridian.contains(-15.0, -175.0));
+        assertFalse(antimeridian.contains(-15.0, 0.0));
+    }
+
+    /**
+     * Test that a bounded request excludes the AtoN nodes outside the
+     * bounding box, along with the ones without a position.
+     */
+    @Test
+    public void testContainsAtonNode() {
+        final S100BoundingBox bbox = S100BoundingBox.of(52.0, 1.0, 53.0, 2.0);
+        final AtonNode inside = this.createAtonNode("aton.inside", 52.98, 1.28);
+        final AtonNode outside = this.createAtonNode("aton.outside", 50.5, 1.28);
+        final AtonNode unpositioned = this.createAtonNode("aton.unpositioned", null, null);
+
+        assertEquals(List.of(inside), List.of(inside, outside, unpositioned).stream()
+                .filter(bbox::contains)
+                .toList());
+    }
+
+    /**
+     * Creates an AtoN node with the provided UID and position.
+     *
+     * @param atonUid   The AtoN UID
+     * @param lat       The latitude
+     * @param lon       The longitude
+     * @return the AtoN node
+     */
+    private AtonNode createAtonNode(String atonUid, Double lat, Double lon) {
+        final AtonNode atonNode = new AtonNode();
+        atonNode.setAtonUid(atonUid);
+        atonNode.setLat(lat);
+        atonNode.setLon(lon);
+        return atonNode;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.models;
+
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Dataset Version model.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100DatasetVersionTest {
+
+    /**
+     * Test that the dataset tags only change along with the AtoN nodes or
+     * the request parameters.
+     */
+    @Test
+    public void testTag() {
+        final S100DatasetVersion version = new S100DatasetVersion(10, new Date(1000L), 100L);
+
+        assertEquals(version.tag("dataset", 4, "en"), new S100DatasetVersion(10, new Date(1000L), 100L).tag("dataset", 4, "en"));
+        assertNotEquals(version.tag("dataset", 4, "en"), version.tag("dataset", 2, "en"));
+        assertNotEquals(version.tag("dataset", 4, "en"), new S100DatasetVersion(11, new Date(1000L), 100L).tag("dataset", 4, "en"));
+        assertNotEquals(version.tag("dataset", 4, "en"), new S100DatasetVersion(10, new Date(2000L), 100L).tag("dataset", 4, "en"));
+        assertNotEquals(version.tag("dataset", 4, "en"), new S100DatasetVersion(10, new Date(1000L), 99L).tag("dataset", 4, "en"));
+    }
+
+    /**
+     * Test that the last modification time is truncated to seconds and
+     * defaults to the epoch when there are no AtoN nodes.
+     */
+    @Test
+    public void testLastModified() {
+        assertEquals(new Date(1000L), new S100DatasetVersion(10, new Date(1999L), 100L).lastModified());
+        assertEquals(new Date(0L), new S100DatasetVersion(0, null, 0L).lastModified());
+    }
+
+}
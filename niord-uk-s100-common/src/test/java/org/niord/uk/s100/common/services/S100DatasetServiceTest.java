@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.Before;
+import org.junit.Test;
+import org.niord.core.aton.AtonNode;
+import org.niord.uk.s100.common.models.S100DatasetInfo;
+import org.niord.uk.s100.common.models.S100DatasetVersion;
+import org.niord.uk.s100.common.utils.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Dataset Service.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100DatasetServiceTest {
+
+    // Test Variables
+    private TestDatasetService datasetService;
+    private List<Collection<?>> queriedNodes;
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() {
+        this.queriedNodes = new ArrayList<>();
+        this.datasetService = new TestDatasetService(2);
+        this.datasetService.em = this.mockEntityManager();
+        this.datasetService.atonLoaderService = new S100AtonLoaderService();
+        this.datasetService.atonLoaderService.em = this.datasetService.em;
+    }
+
+    /**
+     * Test that the links of a selection larger than the search page size
+     * are loaded in pages, with every AtoN node queried exactly once.
+     */
+    @Test
+    public void testFetchLinksPaged() {
+        final List<AtonNode> atonNodes = new ArrayList<>();
+        for(int i = 1; i <= 5; i++) {
+            final AtonNode atonNode = new AtonNode();
+            atonNode.setId(i);
+            atonNodes.add(atonNode);
+        }
+
+        this.datasetService.fetchLinks(atonNodes);
+
+        assertEquals(3, this.queriedNodes.size());
+        assertEquals(List.of(2, 2, 1), this.queriedNodes.stream().map(Collection::size).toList());
+        assertEquals(atonNodes, this.queriedNodes.stream().flatMap(Collection::stream).toList());
+    }
+
+    /**
+     * Test that no query is issued when there are no AtoN nodes to load the
+     * links for.
+     */
+    @Test
+    public void testFetchLinksEmpty() {
+        this.datasetService.fetchLinks(Collections.emptyList());
+
+        assertTrue(this.queriedNodes.isEmpty());
+    }
+
+    /**
+     * Test that the AtoN count of a selection larger than the search page
+     * size is estimated in pages, out of count-only queries.
+     */
+    @Test
+    public void testEstimateAtonCountPaged() {
+        final int count = this.datasetService.estimateAtonCount("aton-001", "aton-002", "aton-003", "aton-004", "aton-005");
+
+        assertEquals(6, count);
+        assertEquals(List.of(2, 2, 2, 2, 1, 1), this.queriedNodes.stream().map(Collection::size).toList());
+    }
+
+    /**
+     * Test that the version of a selection larger than the search page size
+     * is aggregated in pages, combining the latest changeset and timestamp
+     * of all the pages along with their total count.
+     */
+    @Test
+    public void testGetDatasetVersionPaged() {
+        final S100DatasetVersion version = this.datasetService.getDatasetVersion(List.of("aton-001", "aton-002", "aton-003", "aton-004", "aton-005"));
+
+        assertEquals(List.of(2, 2, 1), this.queriedNodes.stream().map(Collection::size).toList());
+        assertEquals(3, version.changeset());
+        assertEquals(new Date(3000L), version.lastModified());
+        assertEquals(3L, version.count());
+    }
+
+    /**
+     * Test that no query is issued for the version of an empty selection.
+     */
+    @Test
+    public void testGetDatasetVersionEmpty() {
+        final S100DatasetVersion version = this.datasetService.getDatasetVersion(Collections.emptyList());
+
+        assertTrue(this.queriedNodes.isEmpty());
+        assertEquals(0, version.changeset());
+        assertEquals(new Date(0L), version.lastModified());
+        assertEquals(0L, version.count());
+    }
+
+    /**
+     * A helper function to mock the entity manager, recording the AtoN nodes
+     * or UIDs each query is issued for, and counting a single AtoN node for
+     * each count query. The aggregate queries report the number of the query
+     * as the latest changeset and as the seconds of the latest timestamp.
+     *
+     * @return the mocked entity manager
+     */
+    private EntityManager mockEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    if(method.getName().equals("createQuery")) {
+                        return this.mockQuery((Class<?>) args[1]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * A helper function to mock a query of the provided result type.
+     *
+     * @param resultClass   The query result type
+     * @return the mocked query
+     */
+    private TypedQuery<?> mockQuery(Class<?> resultClass) {
+        return (TypedQuery<?>) Proxy.newProxyInstance(
+                TypedQuery.class.getClassLoader(),
+                new Class<?>[]{TypedQuery.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setParameter" -> {
+                        this.queriedNodes.add(new ArrayList<>((Collection<?>) args[1]));
+                        yield proxy;
+                    }
+                    case "getResultList" -> Collections.emptyList();
+                    case "getSingleResult" -> resultClass == Object[].class
+                            ? new Object[]{this.queriedNodes.size(), new Date(1000L * this.queriedNodes.size()), 1L}
+                            : 1L;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * A minimal dataset service, only providing the configuration used
+     * while resolving the AtoN nodes.
+     */
+    static class TestDatasetService extends S100DatasetService<S100DatasetInfo, Object, Object, Object> {
+
+        // Class Variables
+        private final int searchPageSize;
+
+        /**
+         * Class Constructor.
+         *
+         * @param searchPageSize    The number of AtoN nodes per query
+         */
+        TestDatasetService(int searchPageSize) {
+            this.searchPageSize = searchPageSize;
+        }
+
+        @Override
+        protected String getProduct() {
+            return "S-100";
+        }
+
+        @Override
+        protected S100DatasetAdapter<S100DatasetInfo, Object, Object> createBuilder(boolean stableIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected S100DatasetInfo createDatasetInfo(String datasetId, String organisation, List<AtonNode> atonNodes) {
+            return new S100DatasetInfo(this.getProduct(), datasetId, organisation, atonNodes);
+        }
+
+        @Override
+        protected S100JaxbPool<Object> getJaxbPool() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected S100SchemaValidator getSchemaValidator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected S100ExchangeSetWriter createExchangeSetWriter() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected S100FragmentCache getFragmentCache() {
+            return null;
+        }
+
+        @Override
+        protected String getExportJob() {
+            return "s100-export";
+        }
+
+        @Override
+        protected String getExportFolder() {
+            return "s100";
+        }
+
+        @Override
+        protected int getMaxLinkDepth() {
+            return 32;
+        }
+
+        @Override
+        protected int getMaxLinkNodes() {
+            return 10000;
+        }
+
+        @Override
+        protected int getSearchPageSize() {
+            return this.searchPageSize;
+        }
+
+        @Override
+        protected int getMaxSearchNodes() {
+            return 100000;
+        }
+
+        @Override
+        protected boolean isStableIds() {
+            return false;
+        }
+
+        @Override
+        protected int getSplitMaxMembers() {
+            return 0;
+        }
+
+        @Override
+        protected long getSplitMaxBytes() {
+            return 0L;
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonTag;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
+
+/**
+ * The shared testing suite for the S-100 Dataset Splitter utility. Each
+ * product provides its own dataset builder to navigate the AtoN nodes with.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class AbstractS100DatasetSplitterTest {
+
+    // Test Variable
+    protected AtonNode beaconNode;
+    protected List<AtonNode> atonNodes;
+
+    /**
+     * Creates the product dataset builder to navigate the AtoN nodes with.
+     *
+     * @return the product dataset builder
+     */
+    protected abstract S100DatasetAdapter<?, ?, ?> createBuilder();
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() {
+        // Initialise a structure with an equipment child and some other AtoNs
+        this.beaconNode = this.generateAtonNode(1, 52.98, 1.28,
+                new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                new AtonTag("seamark:beacon_cardinal:category", "north"));
+        final AtonNode equipmentNode = this.generateAtonNode(2, 52.98, 1.28,
+                new AtonTag(TAG_ATON_TYPE, "ais_station"),
+                new AtonTag("seamark:radio_station:mmsi", "123123123"));
+        this.beaconNode.setChildren(Collections.singleton(equipmentNode));
+
+        this.atonNodes = List.of(
+                this.beaconNode,
+                this.generateAtonNode(3, 52.99, 1.29, new AtonTag(TAG_ATON_TYPE, "beacon_cardinal")),
+                this.generateAtonNode(4, 53.00, 1.30, new AtonTag(TAG_ATON_TYPE, "virtual_aton")),
+                this.generateAtonNode(5, 53.01, 1.31, new AtonTag(TAG_ATON_TYPE, "virtual_aton")));
+    }
+
+    /**
+     * Test that without any caps all the AtoN nodes end up in a single
+     * dataset.
+     */
+    @Test
+    public void testSplitUnlimited() {
+        final List<S100DatasetSplitter.Split> splits = new S100DatasetSplitter(this.createBuilder(), 0, 0).split(this.atonNodes);
+
+        assertEquals(1, splits.size());
+        assertEquals(this.atonNodes, splits.get(0).atonNodes());
+        assertTrue(splits.get(0).externalReferences().isEmpty());
+        assertTrue(splits.get(0).excludedLinks().isEmpty());
+    }
+
+    /**
+     * Test that an empty list of AtoN nodes still produces a single empty
+     * dataset.
+     */
+    @Test
+    public void testSplitEmpty() {
+        final List<S100DatasetSplitter.Split> splits = new S100DatasetSplitter(this.createBuilder(), 1, 0).split(Collections.emptyList());
+
+        assertEquals(1, splits.size());
+        assertTrue(splits.get(0).atonNodes().isEmpty());
+    }
+
+    /**
+     * Test that the datasets are capped by the number of members, while the
+     * structures are kept together with their equipment children.
+     */
+    @Test
+    public void testSplitByMembers() {
+        final List<S100DatasetSplitter.Split> splits = new S100DatasetSplitter(this.createBuilder(), 2, 0).split(this.atonNodes);
+
+        assertEquals(3, splits.size());
+        assertEquals(List.of(this.beaconNode), splits.get(0).atonNodes());
+        assertEquals(this.atonNodes.subList(1, 3), splits.get(1).atonNodes());
+        assertEquals(this.atonNodes.subList(3, 4), splits.get(2).atonNodes());
+        for(int i = 0; i < splits.size(); i++) {
+            assertEquals(i, splits.get(i).index());
+        }
+    }
+
+    /**
+     * Test that structures that do not fit in a dataset along with their
+     * equipment children are placed in a dataset of their own.
+     */
+    @Test
+    public void testSplitOversized() {
+        final List<S100DatasetSplitter.Split> splits = new S100DatasetSplitter(this.createBuilder(), 1, 0).split(this.atonNodes);
+
+        assertEquals(4, splits.size());
+        assertEquals(List.of(this.beaconNode), splits.get(0).atonNodes());
+        for(int i = 1; i < splits.size(); i++) {
+            assertEquals(List.of(this.atonNodes.get(i)), splits.get(i).atonNodes());
+        }
+    }
+
+    /**
+     * Test that the datasets are capped by their estimated size in bytes.
+     */
+    @Test
+    public void testSplitByBytes() {
+        final long maxBytes = 3L * S100DatasetSplitter.MEMBER_SIZE;
+        final S100DatasetAdapter<?, ?, ?> builder = this.createBuilder();
+        final List<S100DatasetSplitter.Split> splits = new S100DatasetSplitter(builder, 0, maxBytes).split(this.atonNodes);
+
+        assertTrue(splits.size() > 1);
+        assertEquals(this.atonNodes, splits.stream().flatMap(split -> split.atonNodes().stream()).toList());
+        for(S100DatasetSplitter.Split split : splits) {
+            final long bytes = split.atonNodes().stream()
+                    .flatMap(atonNode -> Stream.concat(Stream.of(atonNode), builder.getChildren(atonNode).stream()))
+                    .mapToLong(S100DatasetSplitter::estimateSize)
+                    .sum();
+            assertTrue(bytes <= maxBytes);
+        }
+    }
+
+    /**
+     * Test that the member sizes are estimated out of their tags and
+     * coordinates.
+     */
+    @Test
+    public void testEstimateSize() {
+        final AtonNode atonNode = this.generateAtonNode(6, 53.02, 1.32, new AtonTag("a", "bc"));
+
+        assertEquals(S100DatasetSplitter.MEMBER_SIZE + S100DatasetSplitter.TAG_SIZE + 3 + S100DatasetSplitter.COORDINATE_SIZE,
+                S100DatasetSplitter.estimateSize(atonNode));
+    }
+
+    /**
+     * A helper function to generate an AtoN node with the provided tags.
+     *
+     * @param id    The AtoN node ID
+     * @param lat   The AtoN node latitude
+     * @param lon   The AtoN node longitude
+     * @param tags  The AtoN node tags
+     * @return the generated AtoN node
+     */
+    protected AtonNode generateAtonNode(Integer id, double lat, double lon, AtonTag... tags) {
+        final AtonNode atonNode = new AtonNode();
+        atonNode.setId(id);
+        atonNode.setLat(lat);
+        atonNode.setLon(lon);
+        atonNode.setGeometry(new GeometryFactory().createPoint(new Coordinate(lon, lat)));
+        atonNode.setTags(List.of(tags));
+        atonNode.setChildren(Collections.emptySet());
+        return atonNode;
+    }
+
+}
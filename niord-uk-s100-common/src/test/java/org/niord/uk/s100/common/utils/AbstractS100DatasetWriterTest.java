@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import jakarta.xml.bind.JAXBException;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonTag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
+
+/**
+ * The shared testing suite for the S-100 Dataset Writer utility. Each
+ * product provides its own dataset writer and library marshaller, and the
+ * streamed datasets are checked to be byte-identical to the output of the
+ * latter, once both are indented the way the datasets are served.
+ *
+ * @param <I> The dataset information type
+ * @param <D> The dataset type
+ * @param <M> The dataset member type
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class AbstractS100DatasetWriterTest<I, D, M> {
+
+    // Test Variable
+    protected I info;
+    protected List<AtonNode> atonNodes;
+    protected Set<Thread> accessingThreads;
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() {
+        // Initialise the dataset information
+        this.info = this.createDatasetInfo();
+        this.accessingThreads = ConcurrentHashMap.newKeySet();
+
+        // Initialise some AtoN information
+        final AtonNode beaconNode = this.generateAtonNode(1, 52.98, 1.28,
+                new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                new AtonTag("seamark:beacon_cardinal:category", "north"),
+                new AtonTag("seamark:beacon_cardinal:colour", "red"),
+                new AtonTag("seamark:status", "permanent"));
+        final AtonNode equipmentNode = this.generateAtonNode(2, 52.98, 1.28,
+                new AtonTag(TAG_ATON_TYPE, "ais_station"),
+                new AtonTag("seamark:radio_station:mmsi", "123123123"),
+                new AtonTag("seamark:status", "permanent"));
+        beaconNode.setChildren(Collections.singleton(equipmentNode));
+        final AtonNode otherBeaconNode = this.generateAtonNode(3, 52.99, 1.29,
+                new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                new AtonTag("seamark:beacon_cardinal:category", "south"),
+                new AtonTag("seamark:status", "permanent"));
+        final AtonNode virtualAtonNode = this.generateAtonNode(4, 53.00, 1.30,
+                new AtonTag(TAG_ATON_TYPE, "virtual_aton"),
+                new AtonTag("seamark:virtual_aton:mmsi", "992359598"));
+        this.atonNodes = List.of(beaconNode, virtualAtonNode, otherBeaconNode);
+    }
+
+    /**
+     * Test that the streamed S-100 dataset is byte-identical to the one
+     * generated by marshalling the complete dataset.
+     */
+    @Test
+    public void testWriteMatchesMarshalledDataset() throws IOException, JAXBException {
+        final String expected = this.marshalDataset(this.info, this.atonNodes);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.createWriter(S100DatasetWriter.DEFAULT_CHUNK_SIZE, null, null).write(this.info, this.atonNodes, outputStream);
+
+        this.assertDatasetEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test that the streamed S-100 dataset is not affected by the size of
+     * the chunks the members are marshalled in.
+     */
+    @Test
+    public void testWriteWithSingleMemberChunks() throws IOException, JAXBException {
+        final String expected = this.marshalDataset(this.info, this.atonNodes);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.createWriter(1, null, null).write(this.info, this.atonNodes, outputStream);
+
+        this.assertDatasetEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test that the dataset members are marshalled within the namespaces
+     * declared on the dataset element, without declaring any of their own,
+     * so that they can be reused in any other dataset.
+     */
+    @Test
+    public void testWriteMembersWithoutNamespaceDeclarations() throws JAXBException {
+        final List<String> fragments = new ArrayList<>();
+        this.createWriter(1, null, null).fragments(this.info, this.atonNodes, 0).forEachRemaining(fragments::add);
+        assertTrue(fragments.size() > 2);
+
+        assertTrue(fragments.get(0).contains("xmlns"));
+        fragments.subList(1, fragments.size() - 1)
+                .forEach(fragment -> assertFalse(fragment, fragment.contains("xmlns")));
+    }
+
+    /**
+     * Test that the streamed S-100 dataset generated in parallel is
+     * byte-identical to the one generated by marshalling the complete
+     * dataset, whatever the size of the chunks.
+     */
+    @Test
+    public void testWriteInParallel() throws IOException, JAXBException {
+        final String expected = this.marshalDataset(this.info, this.atonNodes);
+
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            for(int chunkSize : new int[]{1, 2, S100DatasetWriter.DEFAULT_CHUNK_SIZE}) {
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                this.createWriter(chunkSize, null, forkJoinPool).write(this.info, this.atonNodes, outputStream);
+
+                this.assertDatasetEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Test that when the streamed S-100 dataset is generated in parallel,
+     * the AtoN nodes are still only accessed by the calling thread, since
+     * only the marshalling of the members is done concurrently.
+     */
+    @Test
+    public void testWriteInParallelAccessesAtonNodesOnCallingThread() throws IOException, JAXBException {
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            this.createWriter(1, new S100FragmentCache(), forkJoinPool).write(this.info, this.atonNodes, new ByteArrayOutputStream());
+
+            assertEquals(Set.of(Thread.currentThread()), this.accessingThreads);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Test that the streamed S-100 dataset reuses the cached member fragments
+     * of AtoN nodes that have already been written, rewriting their GML IDs
+     * to match the new dataset.
+     */
+    @Test
+    public void testWriteWithFragmentCache() throws IOException, JAXBException {
+        final S100FragmentCache fragmentCache = new S100FragmentCache();
+        final List<AtonNode> reorderedAtonNodes = List.of(this.atonNodes.get(2), this.atonNodes.get(0), this.atonNodes.get(1));
+        final String expected = this.marshalDataset(this.info, reorderedAtonNodes);
+
+        // Populate the cache with the original dataset
+        this.createWriter(1, fragmentCache, null).write(this.info, this.atonNodes, new ByteArrayOutputStream());
+        assertTrue(fragmentCache.size() > 0);
+        assertEquals(0, fragmentCache.getHits());
+
+        // And make sure the cached fragments are reused with the new IDs
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.createWriter(2, fragmentCache, null).write(this.info, reorderedAtonNodes, outputStream);
+
+        this.assertDatasetEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+        assertTrue(fragmentCache.getHits() > 0);
+    }
+
+    /**
+     * Test that the cached member fragments of AtoN nodes are not reused
+     * once the AtoN nodes change.
+     */
+    @Test
+    public void testWriteWithFragmentCacheAfterChange() throws IOException, JAXBException {
+        final S100FragmentCache fragmentCache = new S100FragmentCache();
+        this.createWriter(1, fragmentCache, null).write(this.info, this.atonNodes, new ByteArrayOutputStream());
+
+        // Update the other beacon
+        final AtonNode otherBeaconNode = this.atonNodes.get(2);
+        otherBeaconNode.setChangeset(1);
+        otherBeaconNode.setTags(List.of(
+                new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                new AtonTag("seamark:beacon_cardinal:category", "west"),
+                new AtonTag("seamark:status", "permanent")));
+        final String expected = this.marshalDataset(this.info, this.atonNodes);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.createWriter(1, fragmentCache, null).write(this.info, this.atonNodes, outputStream);
+
+        this.assertDatasetEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test that skipping the fragments that have already been written and
+     * writing the rest resumes the S-100 dataset exactly where it was left.
+     */
+    @Test
+    public void testWriteResumedFromFragment() throws JAXBException {
+        final List<String> fragments = new ArrayList<>();
+        this.createWriter(1, null, null).fragments(this.info, this.atonNodes, 0).forEachRemaining(fragments::add);
+        assertTrue(fragments.size() > 2);
+
+        for(int skip = 0; skip <= fragments.size() + 1; skip++) {
+            final StringBuilder resumed = new StringBuilder();
+            fragments.stream().limit(skip).forEach(resumed::append);
+            this.createWriter(1, null, null).fragments(this.info, this.atonNodes, skip).forEachRemaining(resumed::append);
+
+            assertEquals(String.join("", fragments), resumed.toString());
+        }
+    }
+
+    /**
+     * Test that the streamed S-100 dataset does not depend on whether the
+     * members were marshalled or reused from the fragment cache.
+     */
+    @Test
+    public void testWriteWithFragmentCacheMatchesMarshalled() throws IOException, JAXBException {
+        final S100FragmentCache fragmentCache = new S100FragmentCache();
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        this.createWriter(1, fragmentCache, null).write(this.info, this.atonNodes, expected);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.createWriter(1, fragmentCache, null).write(this.info, this.atonNodes, outputStream);
+
+        assertEquals(expected.toString(StandardCharsets.UTF_8), outputStream.toString(StandardCharsets.UTF_8));
+        assertTrue(fragmentCache.getHits() > 0);
+    }
+
+    /**
+     * Test that an empty list of AtoN nodes still generates a valid dataset.
+     */
+    @Test
+    public void testWriteEmpty() throws IOException, JAXBException {
+        final String expected = this.marshalDataset(this.info, Collections.emptyList());
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.createWriter(S100DatasetWriter.DEFAULT_CHUNK_SIZE, null, null).write(this.info, Collections.emptyList(), outputStream);
+
+        this.assertDatasetEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the dataset information to generate the tested datasets with.
+     *
+     * @return the dataset information
+     */
+    protected abstract I createDatasetInfo();
+
+    /**
+     * Creates the product specific dataset writer to be tested.
+     *
+     * @param chunkSize     The number of members to be marshalled per chunk
+     * @param fragmentCache The cache of pre-rendered members, if any
+     * @param forkJoinPool  The pool to marshal the member chunks in parallel, if any
+     * @return the dataset writer to be tested
+     */
+    protected abstract S100DatasetWriter<I, D, M> createWriter(int chunkSize, S100FragmentCache fragmentCache, ForkJoinPool forkJoinPool);
+
+    /**
+     * Marshals the complete dataset of the provided AtoN nodes using the
+     * product library marshaller, i.e. the output the streamed dataset
+     * should be identical to.
+     *
+     * @param info      The dataset information
+     * @param atonNodes The AtoN nodes to be included in the dataset
+     * @return the marshalled dataset
+     */
+    protected abstract String marshalDataset(I info, List<AtonNode> atonNodes) throws JAXBException;
+
+    /**
+     * A helper function to assert that the streamed S-100 dataset is
+     * byte-identical to the marshalled one, once both are indented the same
+     * way the datasets are served. The streamed members are marshalled as
+     * StAX fragments, which the marshaller does not indent.
+     *
+     * @param expected  The marshalled dataset
+     * @param actual    The streamed dataset
+     */
+    protected void assertDatasetEquals(String expected, String actual) {
+        assertEquals(S100XmlUtils.xmlPrettyPrint(expected, 4), S100XmlUtils.xmlPrettyPrint(actual, 4));
+    }
+
+    /**
+     * A helper function to generate AtoN nodes for testing.
+     *
+     * @param id    The ID of the AtoN node
+     * @param lat   The latitude of the AtoN node
+     * @param lon   The longitude of the AtoN node
+     * @param tags  The tags of the AtoN node
+     * @return the generated AtoN node
+     */
+    private AtonNode generateAtonNode(Integer id, double lat, double lon, AtonTag... tags) {
+        final AtonNode atonNode = new AtonNode() {
+            @Override
+            public List<AtonTag> getTags() {
+                accessingThreads.add(Thread.currentThread());
+                return super.getTags();
+            }
+        };
+        atonNode.setId(id);
+        atonNode.setChangeset(0);
+        atonNode.setLat(lat);
+        atonNode.setLon(lon);
+        atonNode.setGeometry(new GeometryFactory().createPoint(new Coordinate(lon, lat)));
+        atonNode.setTimestamp(Date.from(Instant.now()));
+        atonNode.setTags(List.of(tags));
+        atonNode.setChildren(Collections.emptySet());
+        return atonNode;
+    }
+
+}
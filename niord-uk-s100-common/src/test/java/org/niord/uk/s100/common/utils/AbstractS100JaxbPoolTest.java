@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import jakarta.xml.bind.JAXBException;
+import org.junit.Before;
+import org.junit.Test;
+import org.niord.uk.s100.common.models.vo.S100JaxbPoolStatsVo;
+
+import static org.junit.Assert.*;
+
+/**
+ * The shared testing suite for the S-100 JAXB Pool utility. Each product
+ * provides its own pool and an empty dataset to marshal through it.
+ *
+ * @param <D> The dataset type
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public abstract class AbstractS100JaxbPoolTest<D> {
+
+    // Test Variable
+    protected S100JaxbPool<D> pool;
+    protected D dataset;
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() throws JAXBException {
+        // Use a dedicated pool for each test
+        this.pool = this.createPool(2);
+
+        // Initialise an empty dataset
+        this.dataset = this.createDataset();
+    }
+
+    /**
+     * Test that we can marshal and unmarshal datasets through the pool.
+     */
+    @Test
+    public void testMarshalUnmarshal() throws JAXBException {
+        final String xml = this.pool.marshal(this.dataset);
+        assertNotNull(xml);
+
+        final D result = this.pool.unmarshal(xml);
+        assertNotNull(result);
+        assertEquals(xml, this.pool.marshal(result));
+    }
+
+    /**
+     * Test that the pooled instances are reused and that the statistics
+     * reflect that.
+     */
+    @Test
+    public void testStats() throws JAXBException {
+        this.pool.marshal(this.dataset);
+        this.pool.marshal(this.dataset);
+
+        final S100JaxbPoolStatsVo stats = this.pool.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(0, stats.getWaits());
+        assertEquals(1, stats.getIdleMarshallers());
+    }
+
+    /**
+     * Test that warming up the pool creates all the pooled instances up
+     * front.
+     */
+    @Test
+    public void testWarmUp() throws JAXBException {
+        this.pool.warmUp();
+        this.pool.marshal(this.dataset);
+
+        final S100JaxbPoolStatsVo stats = this.pool.getStats();
+        assertEquals(0, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getIdleMarshallers());
+        assertEquals(2, stats.getIdleUnmarshallers());
+    }
+
+    /**
+     * Creates the product specific pool to be tested.
+     *
+     * @param size  The number of pooled instances
+     * @return the pool to be tested
+     */
+    protected abstract S100JaxbPool<D> createPool(int size);
+
+    /**
+     * Creates an empty product specific dataset.
+     *
+     * @return the empty dataset
+     */
+    protected abstract D createDataset() throws JAXBException;
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Bounded Counter utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100BoundedCounterTest {
+
+    /**
+     * Test that the occurrences of each key are counted, and that the keys
+     * beyond the bound are counted together.
+     */
+    @Test
+    public void testIncrement() {
+        final S100BoundedCounter counter = new S100BoundedCounter(2);
+        counter.increment("a");
+        counter.increment("b");
+        counter.increment("a");
+        counter.increment("c");
+        counter.increment("d");
+
+        assertEquals(Map.of("a", 2L, "b", 1L, S100BoundedCounter.OTHER_KEY, 2L), counter.getCounts());
+    }
+
+    /**
+     * Test that concurrent increments never exceed the maximum number of
+     * distinct keys, and that no occurrence is lost.
+     */
+    @Test
+    public void testIncrementConcurrently() throws InterruptedException {
+        final S100BoundedCounter counter = new S100BoundedCounter(10);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for(int i = 0; i < 1000; i++) {
+            final String key = "key" + i;
+            executor.submit(() -> counter.increment(key));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        final Map<String, Long> counts = counter.getCounts();
+        assertTrue(counts.size() <= 11);
+        assertEquals(1000L, counts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+}
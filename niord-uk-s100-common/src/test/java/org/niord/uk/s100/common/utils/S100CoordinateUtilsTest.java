@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Coordinate utilities.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100CoordinateUtilsTest {
+
+    /**
+     * Test that the coordinate sequences are flattened into interleaved
+     * longitude/latitude values.
+     */
+    @Test
+    public void testToArray() {
+        final double[] coords = S100CoordinateUtils.toArray(new GeometryFactory().createLineString(new Coordinate[]{
+                new Coordinate(1.28, 52.98), new Coordinate(1.29, 52.99)}).getCoordinateSequence());
+
+        assertArrayEquals(new double[]{1.28, 52.98, 1.29, 52.99}, coords, 0.0);
+        assertArrayEquals(new Double[]{1.28, 52.98, 1.29, 52.99}, S100CoordinateUtils.box(coords));
+    }
+
+    /**
+     * Test that the coordinates within the tolerance are dropped while the
+     * ones outside it, along with the first and last, are kept.
+     */
+    @Test
+    public void testSimplify() {
+        final double[] coords = {0.0, 0.0, 1.0, 0.001, 2.0, 0.0, 3.0, 1.0, 4.0, 0.0};
+
+        assertArrayEquals(new double[]{0.0, 0.0, 2.0, 0.0, 3.0, 1.0, 4.0, 0.0}, S100CoordinateUtils.simplify(coords, 0.01, false), 0.0);
+        assertArrayEquals(new double[]{0.0, 0.0, 3.0, 1.0, 4.0, 0.0}, S100CoordinateUtils.simplify(coords, 0.8, false), 0.0);
+        assertArrayEquals(new double[]{0.0, 0.0, 4.0, 0.0}, S100CoordinateUtils.simplify(coords, 2.0, false), 0.0);
+        assertSame(coords, S100CoordinateUtils.simplify(coords, 0.0, false));
+    }
+
+    /**
+     * Test that simplified rings remain closed and never collapse.
+     */
+    @Test
+    public void testSimplifyRing() {
+        final double[] ring = {0.0, 0.0, 1.0, 0.0, 1.0, 0.0001, 1.0, 1.0, 0.0, 1.0, 0.0, 0.0};
+
+        final double[] simplified = S100CoordinateUtils.simplify(ring, 0.01, true);
+        assertArrayEquals(new double[]{0.0, 0.0, 1.0, 0.0, 1.0, 1.0, 0.0, 1.0, 0.0, 0.0}, simplified, 0.0);
+
+        assertSame(ring, S100CoordinateUtils.simplify(ring, 10.0, true));
+    }
+
+    /**
+     * Test that the simplification tolerance grows with the minimum scale.
+     */
+    @Test
+    public void testToleranceForScale() {
+        assertEquals(0.0, S100CoordinateUtils.toleranceForScale(0), 0.0);
+        assertTrue(S100CoordinateUtils.toleranceForScale(50000) > 0.0);
+        assertTrue(S100CoordinateUtils.toleranceForScale(100000) > S100CoordinateUtils.toleranceForScale(50000));
+    }
+
+}
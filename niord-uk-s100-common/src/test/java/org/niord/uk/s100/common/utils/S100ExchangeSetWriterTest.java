@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.niord.uk.s100.common.models.S100DatasetInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Exchange Set Writer utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExchangeSetWriterTest {
+
+    // Test Variable
+    private S100DatasetInfo info;
+    private S100ExchangeSetWriter writer;
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() {
+        this.info = new S100DatasetInfo("S-125", "test", "test", Collections.emptyList());
+        this.writer = new S100ExchangeSetWriter("S-125", new S100XsdCache(Map.of(
+                "S125.xsd", S100XsdCache.Xsd.of("S125.xsd", "<xs:schema/>".getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    /**
+     * Test that the exchange set contains the catalogue, the dataset and the
+     * S-125 XSDs in the S-100 exchange set folders.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.writer.write(this.info, os -> os.write("<Dataset/>".getBytes(StandardCharsets.UTF_8)), outputStream);
+
+        final Map<String, String> entries = this.readEntries(outputStream.toByteArray());
+        final String datasetFileName = this.writer.getDatasetFileName(this.info);
+        assertEquals("<Dataset/>", entries.get(this.writer.getDatasetFolder() + datasetFileName));
+        assertTrue(entries.get(S100ExchangeSetWriter.CATALOGUE_FILE).contains("S-125/DATASET_FILES/" + datasetFileName));
+        assertTrue(entries.keySet().stream().anyMatch(name -> name.startsWith(this.writer.getSupportFolder()) && name.endsWith(".xsd")));
+    }
+
+    /**
+     * Test that closing the dataset stream does not close the exchange set,
+     * and that the response stream is left open.
+     */
+    @Test
+    public void testWriteWithClosedDataset() throws IOException {
+        final boolean[] closed = {false};
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        this.writer.write(this.info, os -> {
+            os.write("<Dataset/>".getBytes(StandardCharsets.UTF_8));
+            os.close();
+        }, outputStream);
+
+        assertFalse(closed[0]);
+        assertEquals("<Dataset/>", this.readEntries(outputStream.toByteArray()).get(this.writer.getDatasetFolder() + this.writer.getDatasetFileName(this.info)));
+    }
+
+    /**
+     * Test that the same datasets are always packaged into the same bytes,
+     * so that the exchange sets can be served with strong ETags.
+     */
+    @Test
+    public void testWriteReproducible() throws IOException {
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        this.writer.write(this.info, os -> os.write("<Dataset/>".getBytes(StandardCharsets.UTF_8)), first);
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        this.writer.write(this.info, os -> os.write("<Dataset/>".getBytes(StandardCharsets.UTF_8)), second);
+
+        assertArrayEquals(first.toByteArray(), second.toByteArray());
+    }
+
+    /**
+     * Test that multiple datasets are all written in order and listed in the
+     * catalogue, with every dataset generated by the calling thread.
+     */
+    @Test
+    public void testWriteMultipleDatasets() throws IOException {
+        final Thread callingThread = Thread.currentThread();
+        final List<S100ExchangeSetWriter.DatasetFile> datasetFiles = new ArrayList<>();
+        for(int i = 1; i <= 5; i++) {
+            final byte[] content = ("<Dataset" + i + "/>").getBytes(StandardCharsets.UTF_8);
+            datasetFiles.add(new S100ExchangeSetWriter.DatasetFile(new S100DatasetInfo("S-125", "test-" + i, "test", Collections.emptyList()), os -> {
+                assertSame(callingThread, Thread.currentThread());
+                os.write(content);
+            }));
+        }
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.writer.write(this.info, datasetFiles, outputStream);
+
+        final Map<String, String> entries = this.readEntries(outputStream.toByteArray());
+        final List<String> datasetEntries = entries.keySet().stream()
+                .filter(name -> name.startsWith(this.writer.getDatasetFolder()))
+                .toList();
+        assertEquals(5, datasetEntries.size());
+        for(int i = 0; i < 5; i++) {
+            final String datasetFileName = this.writer.getDatasetFileName(datasetFiles.get(i).datasetInfo());
+            assertEquals(this.writer.getDatasetFolder() + datasetFileName, datasetEntries.get(i));
+            assertEquals("<Dataset" + (i + 1) + "/>", entries.get(datasetEntries.get(i)));
+            assertTrue(entries.get(S100ExchangeSetWriter.CATALOGUE_FILE).contains("S-125/DATASET_FILES/" + datasetFileName));
+        }
+    }
+
+    /**
+     * Test that the errors raised while generating the datasets are
+     * propagated to the caller.
+     */
+    @Test(expected = IOException.class)
+    public void testWriteMultipleDatasetsWithError() throws IOException {
+        final List<S100ExchangeSetWriter.DatasetFile> datasetFiles = List.of(
+                new S100ExchangeSetWriter.DatasetFile(new S100DatasetInfo("S-125", "test-1", "test", Collections.emptyList()), os -> os.write("<Dataset/>".getBytes(StandardCharsets.UTF_8))),
+                new S100ExchangeSetWriter.DatasetFile(new S100DatasetInfo("S-125", "test-2", "test", Collections.emptyList()), os -> { throw new IOException("failed"); }));
+
+        this.writer.write(this.info, datasetFiles, new ByteArrayOutputStream());
+    }
+
+    /**
+     * A helper function to read all the entries of a ZIP archive.
+     *
+     * @param zip   The ZIP archive
+     * @return the ZIP archive entries
+     */
+    private Map<String, String> readEntries(byte[] zip) throws IOException {
+        final Map<String, String> entries = new LinkedHashMap<>();
+        try(ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for(ZipEntry entry = zipInputStream.getNextEntry(); entry != null; entry = zipInputStream.getNextEntry()) {
+                entries.put(entry.getName(), new String(zipInputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+}
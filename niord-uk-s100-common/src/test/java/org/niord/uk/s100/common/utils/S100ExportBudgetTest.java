@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Export Budget utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExportBudgetTest {
+
+    /**
+     * Test that the exports are admitted straight away while the budget
+     * allows, and that closing their permits releases the budget.
+     */
+    @Test
+    public void testAcquire() {
+        final S100ExportBudget budget = new S100ExportBudget(100, 1, 1000);
+
+        final S100ExportBudget.Permit first = budget.acquire(40);
+        final S100ExportBudget.Permit second = budget.acquire(60);
+        assertEquals(100, budget.getStats().getUsed());
+        assertEquals(2, budget.getStats().getActive());
+
+        first.close();
+        first.close();
+        assertEquals(60, budget.getStats().getUsed());
+        second.close();
+        assertEquals(0, budget.getStats().getUsed());
+        assertEquals(0, budget.getStats().getActive());
+        assertEquals(2, budget.getStats().getAdmitted());
+        assertEquals(0, budget.getStats().getDelayed());
+    }
+
+    /**
+     * Test that exports costing more than the whole budget are only admitted
+     * when no other export is running.
+     */
+    @Test
+    public void testAcquireOversized() {
+        final S100ExportBudget budget = new S100ExportBudget(100, 0, 0);
+
+        final S100ExportBudget.Permit permit = budget.acquire(1000);
+        assertEquals(100, permit.getReserved());
+        assertThrowsRejected(() -> budget.acquire(1));
+        permit.close();
+        budget.acquire(1).close();
+    }
+
+    /**
+     * Test that the exports that do not fit in the budget are queued until
+     * enough of the budget is released.
+     */
+    @Test
+    public void testAcquireQueued() throws Exception {
+        final S100ExportBudget budget = new S100ExportBudget(100, 1, 10000);
+        final S100ExportBudget.Permit permit = budget.acquire(80);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<S100ExportBudget.Permit> queued = executor.submit(() -> budget.acquire(50));
+            while(budget.getStats().getQueued() == 0) {
+                Thread.sleep(10);
+            }
+            assertFalse(queued.isDone());
+
+            permit.close();
+            try(S100ExportBudget.Permit admitted = queued.get(10, TimeUnit.SECONDS)) {
+                assertEquals(50, admitted.getReserved());
+                assertEquals(50, budget.getStats().getUsed());
+                assertEquals(0, budget.getStats().getQueued());
+                assertEquals(1, budget.getStats().getDelayed());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test that the exports are rejected when the queue is full, or when
+     * they have waited for the budget for too long.
+     */
+    @Test
+    public void testAcquireRejected() throws Exception {
+        final S100ExportBudget budget = new S100ExportBudget(100, 1, 10000);
+        final S100ExportBudget.Permit permit = budget.acquire(100);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<S100ExportBudget.Permit> queued = executor.submit(() -> budget.acquire(50));
+            while(budget.getStats().getQueued() == 0) {
+                Thread.sleep(10);
+            }
+            assertThrowsRejected(() -> budget.acquire(10));
+            assertEquals(1, budget.getStats().getRejected());
+
+            permit.close();
+            queued.get(10, TimeUnit.SECONDS).close();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final S100ExportBudget timedBudget = new S100ExportBudget(100, 1, 50);
+        try(S100ExportBudget.Permit ignored = timedBudget.acquire(100)) {
+            assertThrowsRejected(() -> timedBudget.acquire(10));
+            assertEquals(0, timedBudget.getStats().getQueued());
+            assertEquals(1, timedBudget.getStats().getRejected());
+        }
+    }
+
+    /**
+     * A helper function to check that the provided acquisition is rejected.
+     *
+     * @param acquisition   The budget acquisition
+     */
+    private static void assertThrowsRejected(Runnable acquisition) {
+        try {
+            acquisition.run();
+            fail("The acquisition should have been rejected");
+        } catch (RejectedExecutionException ex) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Fragment Cache utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100FragmentCacheTest {
+
+    /**
+     * Test that the cached fragments are rendered with the new GML IDs, in
+     * both the ID attributes and the references.
+     */
+    @Test
+    public void testGetRewritesIds() {
+        final S100FragmentCache fragmentCache = new S100FragmentCache();
+        fragmentCache.put("1:0", "<member gml:id=\"ID001\"><child xlink:href=\"#ID002\"/><other id=\"ID0011\"/></member>", List.of("ID001", "ID002"));
+
+        assertEquals("<member gml:id=\"ID007\"><child xlink:href=\"#ID003\"/><other id=\"ID0011\"/></member>",
+                fragmentCache.get("1:0", List.of("ID007", "ID003")));
+        assertEquals(1, fragmentCache.getHits());
+        assertEquals(0, fragmentCache.getMisses());
+    }
+
+    /**
+     * Test that missing fragments, or fragments that cannot be rendered with
+     * the provided GML IDs, are reported as misses.
+     */
+    @Test
+    public void testGetMiss() {
+        final S100FragmentCache fragmentCache = new S100FragmentCache();
+        fragmentCache.put("1:0", "<member gml:id=\"ID001\"><child xlink:href=\"#ID002\"/></member>", List.of("ID001", "ID002"));
+
+        assertNull(fragmentCache.get("1:1", List.of("ID001", "ID002")));
+        assertNull(fragmentCache.get("1:0", List.of("ID001")));
+        assertNull(fragmentCache.get(null, List.of("ID001", "ID002")));
+        assertEquals(0, fragmentCache.getHits());
+        assertEquals(2, fragmentCache.getMisses());
+    }
+
+    /**
+     * Test that the cache never grows beyond its maximum size, evicting the
+     * least recently used fragments first.
+     */
+    @Test
+    public void testEviction() {
+        final S100FragmentCache fragmentCache = new S100FragmentCache(2);
+        fragmentCache.put("1:0", "<a gml:id=\"ID001\"/>", List.of("ID001"));
+        fragmentCache.put("2:0", "<b gml:id=\"ID002\"/>", List.of("ID002"));
+        assertNotNull(fragmentCache.get("1:0", List.of("ID001")));
+        fragmentCache.put("3:0", "<c gml:id=\"ID003\"/>", List.of("ID003"));
+
+        assertEquals(2, fragmentCache.size());
+        assertNotNull(fragmentCache.get("1:0", List.of("ID001")));
+        assertNull(fragmentCache.get("2:0", List.of("ID002")));
+        assertNotNull(fragmentCache.get("3:0", List.of("ID003")));
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Preset Plan utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100PresetPlanTest {
+
+    /**
+     * A small preset covering the supported preset elements.
+     */
+    private static final String PRESET = """
+            <presets>
+                <chunk id="status">
+                    <list_entry value="permanent"/>
+                    <list_entry value="temporary"/>
+                </chunk>
+                <group name="Beacons" type="node">
+                    <item name="Cardinal Beacon">
+                        <text key="seamark:beacon_cardinal:height" type="real"/>
+                        <check key="s100:aidsToNavigation:beacon_cardinal:radar_conspicuous"/>
+                        <combo key="seamark:beacon_cardinal:category" values="north,east,south,west"/>
+                        <multiselect key="seamark:status">
+                            <reference ref="status"/>
+                        </multiselect>
+                        <combo key="seamark:beacon_cardinal:colour">
+                            <reference ref="colours"/>
+                        </combo>
+                    </item>
+                </group>
+                <item name="AIS transmitter" type="node,closedway">
+                    <key key="seamark:type" value="radio_station"/>
+                    <key key="seamark:radio_station:category" value="ais"/>
+                </item>
+                <item name="Supplementary Information"/>
+            </presets>
+            """;
+
+    /**
+     * Test that the preset fields are compiled along with their value
+     * domains, and indexed by their seamark types.
+     */
+    @Test
+    public void testCompile() throws IOException {
+        final S100PresetPlan plan = S100PresetPlan.compile("digest", new ByteArrayInputStream(PRESET.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("digest", plan.getDigest());
+        assertEquals(5, plan.getKeys().size());
+        assertEquals(Set.of("beacon_cardinal"), plan.getTypes());
+        assertEquals(List.of("s100:aidsToNavigation:beacon_cardinal:radar_conspicuous",
+                "seamark:beacon_cardinal:category",
+                "seamark:beacon_cardinal:colour",
+                "seamark:beacon_cardinal:height"), plan.getKeys("beacon_cardinal"));
+        assertTrue(plan.getKeys("beacon_lateral").isEmpty());
+
+        // Text fields accept any values
+        assertEquals("real", plan.getField("seamark:beacon_cardinal:height").orElseThrow().valueType());
+        assertTrue(plan.isAllowed("seamark:beacon_cardinal:height", "12.5"));
+
+        // Check fields accept yes/no
+        assertTrue(plan.isAllowed("s100:aidsToNavigation:beacon_cardinal:radar_conspicuous", "yes"));
+        assertFalse(plan.isAllowed("s100:aidsToNavigation:beacon_cardinal:radar_conspicuous", "maybe"));
+
+        // Combo fields accept their listed values
+        assertTrue(plan.isAllowed("seamark:beacon_cardinal:category", "north"));
+        assertFalse(plan.isAllowed("seamark:beacon_cardinal:category", "up"));
+
+        // Multiselect fields accept their chunk values one by one
+        assertTrue(plan.getField("seamark:status").orElseThrow().multiValued());
+        assertTrue(plan.isAllowed("seamark:status", "permanent;temporary"));
+        assertFalse(plan.isAllowed("seamark:status", "permanent;unknown"));
+
+        // Fields referencing unknown chunks and unknown keys accept anything
+        assertTrue(plan.getField("seamark:beacon_cardinal:colour").orElseThrow().open());
+        assertTrue(plan.isAllowed("seamark:beacon_cardinal:colour", "magenta"));
+        assertTrue(plan.getField("seamark:unknown").isEmpty());
+        assertTrue(plan.isAllowed("seamark:unknown", "anything"));
+    }
+
+    /**
+     * Test that the seamark types are extracted from the tag keys.
+     */
+    @Test
+    public void testGetType() {
+        assertEquals("beacon_cardinal", S100PresetPlan.getType("seamark:beacon_cardinal:system"));
+        assertEquals("generic_beacon", S100PresetPlan.getType("s100:aidsToNavigation:generic_beacon:height"));
+        assertNull(S100PresetPlan.getType("seamark:type"));
+        assertNull(S100PresetPlan.getType("s100:aidsToNavigation:generic_beacon"));
+        assertNull(S100PresetPlan.getType("name"));
+    }
+
+    /**
+     * Test that the preset items are compiled along with the geometries
+     * they apply to, inherited from their groups if needed, and the fixed
+     * tag values that identify them.
+     */
+    @Test
+    public void testCompileItems() throws IOException {
+        final S100PresetPlan plan = S100PresetPlan.compile("digest", new ByteArrayInputStream(PRESET.getBytes(StandardCharsets.UTF_8)));
+
+        final S100PresetPlan.Item beacon = plan.getItem("Cardinal Beacon").orElseThrow();
+        assertEquals(Set.of(S100PresetPlan.GEOMETRY_NODE), beacon.geometries());
+        assertTrue(beacon.fixedKeys().isEmpty());
+        assertTrue(beacon.allowsGeometry(S100PresetPlan.GEOMETRY_NODE));
+        assertFalse(beacon.allowsGeometry(S100PresetPlan.GEOMETRY_CLOSED_WAY));
+
+        final S100PresetPlan.Item ais = plan.getItem("AIS transmitter").orElseThrow();
+        assertEquals(Set.of(S100PresetPlan.GEOMETRY_NODE, S100PresetPlan.GEOMETRY_CLOSED_WAY), ais.geometries());
+        assertEquals(Map.of("seamark:type", "radio_station", "seamark:radio_station:category", "ais"), ais.fixedKeys());
+
+        // Items without any geometries apply to all of them
+        assertTrue(plan.getItem("Supplementary Information").orElseThrow().allowsGeometry(S100PresetPlan.GEOMETRY_WAY));
+        assertTrue(plan.getItem("Unknown").isEmpty());
+    }
+
+    /**
+     * Test that the compiled plans are cached, and that the cached plans
+     * are only used for the same preset.
+     */
+    @Test
+    public void testLoadCached() throws IOException {
+        final Path cacheFolder = Files.createTempDirectory("s100-preset-plan");
+        final byte[] preset = PRESET.getBytes(StandardCharsets.UTF_8);
+
+        final S100PresetPlan compiled = S100PresetPlan.load(preset, cacheFolder);
+        assertFalse(compiled.isCached());
+
+        final S100PresetPlan cached = S100PresetPlan.load(preset, cacheFolder);
+        assertTrue(cached.isCached());
+        assertEquals(compiled.getDigest(), cached.getDigest());
+        assertEquals(compiled.getKeys(), cached.getKeys());
+        assertEquals(compiled.getTypes(), cached.getTypes());
+        assertEquals(compiled.getField("seamark:status"), cached.getField("seamark:status"));
+        assertEquals(compiled.getItem("AIS transmitter"), cached.getItem("AIS transmitter"));
+
+        final S100PresetPlan changed = S100PresetPlan.load(PRESET.replace("north,", "").getBytes(StandardCharsets.UTF_8), cacheFolder);
+        assertFalse(changed.isCached());
+        assertNotEquals(compiled.getDigest(), changed.getDigest());
+        assertFalse(changed.isAllowed("seamark:beacon_cardinal:category", "north"));
+    }
+
+    /**
+     * Test that unreadable cached plans are compiled again out of the
+     * preset.
+     */
+    @Test
+    public void testLoadCorruptedCache() throws IOException {
+        final Path cacheFolder = Files.createTempDirectory("s100-preset-plan");
+        final byte[] preset = PRESET.getBytes(StandardCharsets.UTF_8);
+        final String digest = S100PresetPlan.load(preset, null).getDigest();
+        Files.write(cacheFolder.resolve("s100-preset-plan-" + digest + ".ser"), "corrupted".getBytes(StandardCharsets.UTF_8));
+
+        final S100PresetPlan plan = S100PresetPlan.load(preset, cacheFolder);
+        assertFalse(plan.isCached());
+        assertTrue(plan.isAllowed("seamark:beacon_cardinal:category", "north"));
+        assertTrue(S100PresetPlan.load(preset, cacheFolder).isCached());
+    }
+
+    /**
+     * Test that cached plans holding anything other than the plan classes
+     * are never deserialized, but compiled again out of the preset.
+     */
+    @Test
+    public void testLoadForeignCache() throws IOException {
+        final Path cacheFolder = Files.createTempDirectory("s100-preset-plan");
+        final byte[] preset = PRESET.getBytes(StandardCharsets.UTF_8);
+        final String digest = S100PresetPlan.load(preset, null).getDigest();
+        try(ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(cacheFolder.resolve("s100-preset-plan-" + digest + ".ser")))) {
+            out.writeObject(new java.util.ArrayList<>(List.of(new ForeignObject())));
+        }
+        ForeignObject.deserialized = false;
+
+        final S100PresetPlan plan = S100PresetPlan.load(preset, cacheFolder);
+        assertFalse(ForeignObject.deserialized);
+        assertFalse(plan.isCached());
+        assertTrue(plan.isAllowed("seamark:beacon_cardinal:category", "north"));
+        assertTrue(S100PresetPlan.load(preset, cacheFolder).isCached());
+    }
+
+    /**
+     * A serializable class outside the plan, recording whether it was ever
+     * deserialized.
+     */
+    static class ForeignObject implements Serializable {
+
+        // Class Variables
+        static boolean deserialized;
+
+        /**
+         * Records the deserialization of the object.
+         *
+         * @param in    The object input stream
+         * @throws IOException for any errors while reading the object
+         * @throws ClassNotFoundException for any unknown classes
+         */
+        @Serial
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            deserialized = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.niord.uk.s100.common.models.vo.S100ValidationStatsVo;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Schema Validator utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100SchemaValidatorTest {
+
+    // A minimal schema to validate the test documents against
+    private static final String SCHEMA = """
+            <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema" targetNamespace="urn:test" elementFormDefault="qualified">
+                <xs:element name="dataset">
+                    <xs:complexType>
+                        <xs:sequence>
+                            <xs:element name="member" type="xs:int" maxOccurs="unbounded"/>
+                        </xs:sequence>
+                        <xs:attribute name="id" type="xs:ID" use="required"/>
+                    </xs:complexType>
+                </xs:element>
+            </xs:schema>""";
+
+    // Test Variables
+    private S100SchemaValidator validator;
+
+    /**
+     * A common setup for all tests.
+     */
+    @Before
+    public void setup() throws SAXException {
+        this.validator = new S100SchemaValidator(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                .newSchema(new StreamSource(new StringReader(SCHEMA))));
+    }
+
+    /**
+     * Test that a valid document is validated while being read, without
+     * affecting the events read.
+     */
+    @Test
+    public void testValidateWhileStreaming() throws XMLStreamException {
+        final String xml = "<t:dataset xmlns:t=\"urn:test\" id=\"ds1\"><t:member>1</t:member><t:member>2</t:member></t:dataset>";
+
+        final S100SchemaValidator.Validation validation = this.validator.newValidation("ds1");
+        final XMLStreamReader reader = validation.filter(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+        final StringBuilder members = new StringBuilder();
+        while(reader.hasNext()) {
+            if(reader.next() == XMLStreamReader.CHARACTERS) {
+                members.append(reader.getText());
+            }
+        }
+        validation.complete();
+
+        assertEquals("12", members.toString());
+        assertTrue(validation.isValid());
+        assertEquals(0, validation.getErrorCount());
+
+        final S100ValidationStatsVo stats = this.validator.getStats();
+        assertEquals(1, stats.getValidations());
+        assertEquals(0, stats.getFailures());
+        assertNull(stats.getLastFailure());
+    }
+
+    /**
+     * Test that all the errors of an invalid document are picked up while
+     * it is being read, and that the failure is reported.
+     */
+    @Test
+    public void testValidateWhileStreamingInvalid() throws XMLStreamException {
+        final String xml = "<dataset xmlns=\"urn:test\"><member>one</member><other/></dataset>";
+
+        final S100SchemaValidator.Validation validation = this.validator.newValidation("ds2");
+        final XMLStreamReader reader = validation.filter(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+        while(reader.hasNext()) {
+            reader.next();
+        }
+        validation.complete();
+        validation.complete();
+
+        assertFalse(validation.isValid());
+        assertTrue(validation.getErrorCount() >= 3);
+        assertEquals(validation.getErrorCount(), validation.getErrors().size());
+        assertTrue(validation.getErrors().stream().anyMatch(error -> error.contains("'one'")));
+
+        final S100ValidationStatsVo stats = this.validator.getStats();
+        assertEquals(1, stats.getValidations());
+        assertEquals(1, stats.getFailures());
+        assertEquals(validation.getErrorCount(), stats.getErrors());
+        assertEquals("ds2", stats.getLastFailure());
+        assertEquals(validation.getErrors(), stats.getLastErrors());
+    }
+
+    /**
+     * Test that a written dataset file can be validated as well.
+     */
+    @Test
+    public void testValidateFile() throws IOException {
+        final Path file = Files.createTempFile("dataset", ".gml");
+        try {
+            Files.writeString(file, "<dataset xmlns=\"urn:test\" id=\"ds3\"><member>x</member></dataset>");
+            final S100SchemaValidator.Validation validation = this.validator.newValidation("ds3").validate(file).complete();
+
+            assertFalse(validation.isValid());
+            assertTrue(validation.getErrors().stream().anyMatch(error -> error.contains("'x'")));
+            assertEquals(1, this.validator.getStats().getFailures());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
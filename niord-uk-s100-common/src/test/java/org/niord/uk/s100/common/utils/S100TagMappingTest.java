@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Test;
+import org.niord.core.aton.AtonTag;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 Tag Mapping utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100TagMappingTest {
+
+    /**
+     * The tag mapping under test.
+     */
+    private static final S100TagMapping<TestMember> TEST_TAGS = S100TagMapping.<TestMember>builder()
+            .value("test:name", Function.identity(), TestMember::setName)
+            .value("test:height", S100TagMapping.nonBlank(Double::parseDouble), TestMember::setHeight)
+            .value("test:multiple", S100TagMapping.nonBlank(BigInteger::new), TestMember::setMultiple, BigInteger.ONE)
+            .element("test:category", S100TagMappingTest::parseColour, TestMember::getCategories)
+            .elements("test:colour", S100TagMappingTest::parseColour, TestMember::getColours)
+            .build();
+
+    /**
+     * Test that the AtoN tags are bound to their fields.
+     */
+    @Test
+    public void testApply() {
+        final TestMember member = new TestMember();
+        TEST_TAGS.apply(this.index(
+                new AtonTag("test:name", "North Beacon"),
+                new AtonTag("test:height", "12.5"),
+                new AtonTag("test:multiple", "2"),
+                new AtonTag("test:category", "red"),
+                new AtonTag("test:colour", "red;green;unknown")), member);
+
+        assertEquals("North Beacon", member.getName());
+        assertEquals(Double.valueOf(12.5), member.getHeight());
+        assertEquals(BigInteger.TWO, member.getMultiple());
+        assertEquals(List.of("RED"), member.getCategories());
+        assertEquals(List.of("RED", "GREEN"), member.getColours());
+    }
+
+    /**
+     * Test that the missing, blank and unparsable AtoN tags leave their
+     * fields empty, unless a default value is provided.
+     */
+    @Test
+    public void testApplyMissing() {
+        final TestMember member = new TestMember();
+        TEST_TAGS.apply(this.index(
+                new AtonTag("test:height", " "),
+                new AtonTag("test:category", "unknown")), member);
+
+        assertNull(member.getName());
+        assertNull(member.getHeight());
+        assertEquals(BigInteger.ONE, member.getMultiple());
+        assertTrue(member.getCategories().isEmpty());
+        assertTrue(member.getColours().isEmpty());
+    }
+
+    /**
+     * Test that the AtoN tag values outside the value domains of the preset
+     * plan are still bound, but are also reported along with their keys.
+     */
+    @Test
+    public void testApplyWithPresetPlan() throws IOException {
+        final S100PresetPlan plan = S100PresetPlan.compile("digest", new ByteArrayInputStream("""
+                <presets>
+                    <item name="Test">
+                        <combo key="test:name" values="North Beacon,South Beacon"/>
+                        <combo key="test:multiple" values="1,2"/>
+                        <multiselect key="test:colour" values="red;green"/>
+                    </item>
+                </presets>
+                """.getBytes(StandardCharsets.UTF_8)));
+
+        final TestMember member = new TestMember();
+        final List<String> rejected = new ArrayList<>();
+        TEST_TAGS.apply(this.index(
+                new AtonTag("test:name", "East Beacon"),
+                new AtonTag("test:height", "12.5"),
+                new AtonTag("test:multiple", "3"),
+                new AtonTag("test:colour", "red;green")), member, plan, (key, value) -> rejected.add(key + "=" + value));
+
+        assertEquals("East Beacon", member.getName());
+        assertEquals(Double.valueOf(12.5), member.getHeight());
+        assertEquals(BigInteger.valueOf(3), member.getMultiple());
+        assertEquals(List.of("RED", "GREEN"), member.getColours());
+        assertEquals(List.of("test:name=East Beacon", "test:multiple=3"), rejected);
+    }
+
+    /**
+     * Test that the multi-valued AtoN tags are checked against the preset
+     * plan one value at a time, even when the preset declares them as
+     * single valued combos, so only the values outside the value domain are
+     * reported, while all of them are still bound.
+     */
+    @Test
+    public void testApplyMultiValuedWithComboPresetPlan() throws IOException {
+        final S100PresetPlan plan = S100PresetPlan.compile("digest", new ByteArrayInputStream("""
+                <presets>
+                    <item name="Test">
+                        <combo key="test:colour" values="red"/>
+                    </item>
+                </presets>
+                """.getBytes(StandardCharsets.UTF_8)));
+        assertFalse(plan.isAllowed("test:colour", "red;green"));
+
+        final TestMember member = new TestMember();
+        final List<String> rejected = new ArrayList<>();
+        TEST_TAGS.apply(this.index(new AtonTag("test:colour", "red;green")), member, plan, (key, value) -> rejected.add(key + "=" + value));
+        assertEquals(List.of("RED", "GREEN"), member.getColours());
+        assertEquals(List.of("test:colour=green"), rejected);
+    }
+
+    /**
+     * Test that the tag mapping keeps the AtoN tag keys in order.
+     */
+    @Test
+    public void testGetKeys() {
+        assertEquals(List.of("test:name", "test:height", "test:multiple", "test:category", "test:colour"), TEST_TAGS.getKeys());
+    }
+
+    /**
+     * Indexes the provided AtoN tags by their keys.
+     *
+     * @param atonTags the AtoN tags
+     * @return the AtoN tags indexed by their keys
+     */
+    private Map<String, AtonTag> index(AtonTag... atonTags) {
+        final Map<String, AtonTag> index = new HashMap<>();
+        for(AtonTag atonTag : atonTags) {
+            index.put(atonTag.getK(), atonTag);
+        }
+        return index;
+    }
+
+    /**
+     * A simple colour parser, returning null for the unknown colours.
+     *
+     * @param value the colour value
+     * @return the parsed colour
+     */
+    private static String parseColour(String value) {
+        return List.of("red", "green").contains(value) ? value.toUpperCase() : null;
+    }
+
+    /**
+     * A dataset member for testing the tag mappings.
+     */
+    public static class TestMember {
+
+        private String name;
+        private Double height;
+        private BigInteger multiple;
+        private final List<String> categories = new ArrayList<>();
+        private final List<String> colours = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Double getHeight() {
+            return height;
+        }
+
+        public void setHeight(Double height) {
+            this.height = height;
+        }
+
+        public BigInteger getMultiple() {
+            return multiple;
+        }
+
+        public void setMultiple(BigInteger multiple) {
+            this.multiple = multiple;
+        }
+
+        public List<String> getCategories() {
+            return categories;
+        }
+
+        public List<String> getColours() {
+            return colours;
+        }
+
+    }
+
+}
@@ -14,25 +14,29 @@
  * limitations under the License.
  */
 
-package org.niord.uk.s125.utils;
+package org.niord.uk.s100.common.utils;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.Assert.*;
 
 /**
- * A testing call for the S-125 XML Utility.
+ * A testing call for the S-100 XML Utility.
  *
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
-public class XmlUtilsTest {
+public class S100XmlUtilsTest {
 
     /**
      * Test that the utility will throw errors for null inputs.
      */
     @Test(expected = RuntimeException.class)
     public void testXmlPrettyPrintNull() {
-        XmlUtils.xmlPrettyPrint(null, 0);
+        S100XmlUtils.xmlPrettyPrint(null, 0);
     }
 
     /**
@@ -40,7 +44,7 @@ public class XmlUtilsTest {
      */
     @Test(expected = RuntimeException.class)
     public void testXmlPrettyPrintEmpty() {
-        XmlUtils.xmlPrettyPrint("", 0);
+        S100XmlUtils.xmlPrettyPrint("", 0);
     }
 
     /**
@@ -48,7 +52,7 @@ public class XmlUtilsTest {
      */
     @Test(expected = RuntimeException.class)
     public void testXmlPrettyPrintInvalid() {
-        XmlUtils.xmlPrettyPrint("invalid", 0);
+        S100XmlUtils.xmlPrettyPrint("invalid", 0);
     }
 
     /**
@@ -56,9 +60,9 @@ public class XmlUtilsTest {
      */
     @Test
     public void testXmlPrettyPrint0() {
-        assertEquals("<xml/>", XmlUtils.xmlPrettyPrint("<xml></xml>", 0));
-        assertEquals("<xml><test/></xml>", XmlUtils.xmlPrettyPrint("<xml><test></test></xml>", 0));
-        assertEquals("<xml><test>test</test></xml>", XmlUtils.xmlPrettyPrint("<xml><test>test</test></xml>", 0));
+        assertEquals("<xml/>", S100XmlUtils.xmlPrettyPrint("<xml></xml>", 0));
+        assertEquals("<xml><test/></xml>", S100XmlUtils.xmlPrettyPrint("<xml><test></test></xml>", 0));
+        assertEquals("<xml><test>test</test></xml>", S100XmlUtils.xmlPrettyPrint("<xml><test>test</test></xml>", 0));
     }
 
     /**
@@ -68,14 +72,14 @@ public class XmlUtilsTest {
     public void testXmlPrettyPrint2() {
         assertEquals("<xml/>"
                 +System.lineSeparator(),
-                XmlUtils.xmlPrettyPrint("<xml></xml>", 2)
+                S100XmlUtils.xmlPrettyPrint("<xml></xml>", 2)
         );
         assertEquals("<xml>" + System.lineSeparator() +
                 "  <test/>" + System.lineSeparator() +
-                "</xml>" + System.lineSeparator(), XmlUtils.xmlPrettyPrint("<xml><test></test></xml>", 2));
+                "</xml>" + System.lineSeparator(), S100XmlUtils.xmlPrettyPrint("<xml><test></test></xml>", 2));
         assertEquals("<xml>" + System.lineSeparator() +
                 "  <test>test</test>" + System.lineSeparator() +
-                "</xml>" + System.lineSeparator(), XmlUtils.xmlPrettyPrint("<xml><test>test</test></xml>", 2));
+                "</xml>" + System.lineSeparator(), S100XmlUtils.xmlPrettyPrint("<xml><test>test</test></xml>", 2));
     }
 
     /**
@@ -83,13 +87,28 @@ public class XmlUtilsTest {
      */
     @Test
     public void testXmlPrettyPrint4() {
-        assertEquals("<xml/>"+System.lineSeparator(), XmlUtils.xmlPrettyPrint("<xml></xml>", 4));
+        assertEquals("<xml/>"+System.lineSeparator(), S100XmlUtils.xmlPrettyPrint("<xml></xml>", 4));
         assertEquals("<xml>" + System.lineSeparator() +
                 "    <test/>" + System.lineSeparator() +
-                "</xml>" + System.lineSeparator(), XmlUtils.xmlPrettyPrint("<xml><test></test></xml>", 4));
+                "</xml>" + System.lineSeparator(), S100XmlUtils.xmlPrettyPrint("<xml><test></test></xml>", 4));
         assertEquals("<xml>" + System.lineSeparator() +
                 "    <test>test</test>" + System.lineSeparator() +
-                "</xml>" + System.lineSeparator(), XmlUtils.xmlPrettyPrint("<xml><test>test</test></xml>", 4));
+                "</xml>" + System.lineSeparator(), S100XmlUtils.xmlPrettyPrint("<xml><test>test</test></xml>", 4));
+    }
+
+    /**
+     * Test that we can use the utility to prettify XML streams, dropping the
+     * XML declaration and keeping the namespace declarations.
+     */
+    @Test
+    public void testXmlPrettyPrintStream() {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        S100XmlUtils.xmlPrettyPrint(new ByteArrayInputStream(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<ns:xml xmlns:ns=\"urn:test\">  <ns:test id=\"1\"></ns:test></ns:xml>").getBytes(StandardCharsets.UTF_8)),
+                outputStream, 2);
+        assertEquals("<ns:xml xmlns:ns=\"urn:test\">" + System.lineSeparator() +
+                "  <ns:test id=\"1\"/>" + System.lineSeparator() +
+                "</ns:xml>" + System.lineSeparator(), outputStream.toString(StandardCharsets.UTF_8));
     }
 
-}
\ No newline at end of file
+}
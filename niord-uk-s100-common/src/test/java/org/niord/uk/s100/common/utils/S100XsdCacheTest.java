@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.common.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-100 XSD Cache utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100XsdCacheTest {
+
+    /**
+     * Test that the ETags of the cached XSDs only depend on their contents.
+     */
+    @Test
+    public void testEtag() {
+        final byte[] content = "<xs:schema/>".getBytes(StandardCharsets.UTF_8);
+        final S100XsdCache xsdCache = new S100XsdCache(Map.of(
+                "a.xsd", S100XsdCache.Xsd.of("a.xsd", content),
+                "b.xsd", S100XsdCache.Xsd.of("b.xsd", content.clone()),
+                "c.xsd", S100XsdCache.Xsd.of("c.xsd", "<xs:schema></xs:schema>".getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(xsdCache.get("a.xsd").orElseThrow().etag(), xsdCache.get("b.xsd").orElseThrow().etag());
+        assertNotEquals(xsdCache.get("a.xsd").orElseThrow().etag(), xsdCache.get("c.xsd").orElseThrow().etag());
+    }
+
+    /**
+     * Test that missing XSDs are not found.
+     */
+    @Test
+    public void testGetMissing() {
+        final S100XsdCache xsdCache = new S100XsdCache(Map.of());
+        assertTrue(xsdCache.get("missing.xsd").isEmpty());
+        assertTrue(xsdCache.get(null).isEmpty());
+    }
+
+    /**
+     * Test that libraries that are not packaged as JARs provide no XSDs.
+     */
+    @Test
+    public void testLoadWithoutJar() throws IOException {
+        assertEquals(0, new S100XsdCache(S100XsdCacheTest.class).size());
+    }
+
+}
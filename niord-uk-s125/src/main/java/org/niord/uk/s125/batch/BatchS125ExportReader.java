@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.batch;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.core.aton.AtonNode;
+import org.niord.uk.s100.common.batch.AbstractBatchS100ExportReader;
+import org.niord.uk.s125.models.S125DatasetInfo;
+import org.niord.uk.s125.services.S125FragmentCacheService;
+import org.niord.uk.s125.utils.S125DatasetBuilder;
+import org.niord.uk.s125.utils.S125DatasetWriter;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reads the S-125 dataset of an export batch job as a sequence of marshalled
+ * dataset fragments, i.e. the dataset head, the chunks of dataset members and
+ * the dataset tail.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Dependent
+@Named("batchS125ExportReader")
+public class BatchS125ExportReader extends AbstractBatchS100ExportReader<S125DatasetInfo, S125DatasetBuilder> {
+
+    /**
+     * The name of the S-125 export batch job.
+     */
+    public static final String EXPORT_JOB = "s125-export";
+
+    /**
+     * The S-125 Fragment Cache Service.
+     */
+    @Inject
+    S125FragmentCacheService fragmentCacheService;
+
+    /**
+     * The number of AtoN nodes to be loaded per query.
+     */
+    @ConfigProperty(name = "niord.s125.search.page-size", defaultValue = "1000")
+    int searchPageSize;
+
+    /**
+     * Creates the S-125 dataset builder.
+     *
+     * @param stableIds whether to generate stable dataset IDs
+     * @return the S-125 dataset builder
+     */
+    @Override
+    protected S125DatasetBuilder createBuilder(boolean stableIds) {
+        return new S125DatasetBuilder(stableIds);
+    }
+
+    /**
+     * Creates the S-125 dataset information.
+     *
+     * @param datasetId the GML dataset identifier
+     * @param organisation the producing organisation
+     * @param atonNodes the AtoN nodes to be exported
+     * @return the S-125 dataset information
+     */
+    @Override
+    protected S125DatasetInfo createDatasetInfo(String datasetId, String organisation, List<AtonNode> atonNodes) {
+        return new S125DatasetInfo(datasetId, organisation, atonNodes);
+    }
+
+    /**
+     * Creates the S-125 dataset writer, using the S-125 fragment cache.
+     *
+     * @param builder the S-125 dataset builder
+     * @param forkJoinPool the pool to render the member chunks in parallel, if any
+     * @return the S-125 dataset writer
+     */
+    @Override
+    protected S125DatasetWriter createWriter(S125DatasetBuilder builder, ForkJoinPool forkJoinPool) {
+        return new S125DatasetWriter(builder, S125DatasetWriter.DEFAULT_CHUNK_SIZE, fragmentCacheService.getCache(), forkJoinPool);
+    }
+
+    /**
+     * Returns the number of AtoN nodes to be loaded per query, as configured
+     * for the S-125 data product.
+     *
+     * @return the number of AtoN nodes to be loaded per query
+     */
+    @Override
+    protected int getSearchPageSize() {
+        return searchPageSize;
+    }
+
+}
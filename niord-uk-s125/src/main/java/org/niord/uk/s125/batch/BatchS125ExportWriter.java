@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.batch;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Named;
+import org.niord.uk.s100.common.batch.AbstractBatchS100ExportWriter;
+import org.niord.uk.s100.common.utils.S100SchemaValidator;
+import org.niord.uk.s125.utils.S125SchemaValidator;
+
+import java.nio.file.Path;
+
+/**
+ * Writes the S-125 dataset fragments of an export batch job into the
+ * repository, validating the dataset against the S-125 schema if requested.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Dependent
+@Named("batchS125ExportWriter")
+public class BatchS125ExportWriter extends AbstractBatchS100ExportWriter {
+
+    /**
+     * The repository folder of the exported S-125 datasets.
+     */
+    public static final String EXPORT_FOLDER = "s125-exports";
+
+    /**
+     * Returns the path of the exported S-125 dataset with the provided GML
+     * dataset identifier.
+     *
+     * @param repoRoot the repository root
+     * @param datasetId the GML dataset identifier
+     * @return the path of the exported S-125 dataset
+     */
+    public static Path getExportFile(Path repoRoot, String datasetId) {
+        return AbstractBatchS100ExportWriter.getExportFile(repoRoot, EXPORT_FOLDER, datasetId);
+    }
+
+    /**
+     * Returns the path of the exported S-125 dataset with the provided GML
+     * dataset identifier, while it is still being written.
+     *
+     * @param repoRoot the repository root
+     * @param datasetId the GML dataset identifier
+     * @return the path of the partially exported S-125 dataset
+     */
+    public static Path getPartialExportFile(Path repoRoot, String datasetId) {
+        return AbstractBatchS100ExportWriter.getPartialExportFile(repoRoot, EXPORT_FOLDER, datasetId);
+    }
+
+    /**
+     * Returns the name of the S-125 data product.
+     *
+     * @return the data product name
+     */
+    @Override
+    protected String getProduct() {
+        return "S-125";
+    }
+
+    /**
+     * Returns the repository folder of the exported S-125 datasets.
+     *
+     * @return the export folder
+     */
+    @Override
+    protected String getExportFolder() {
+        return EXPORT_FOLDER;
+    }
+
+    /**
+     * Returns the S-125 schema validator.
+     *
+     * @return the S-125 schema validator
+     */
+    @Override
+    protected S100SchemaValidator getSchemaValidator() {
+        return S125SchemaValidator.getInstance();
+    }
+
+}
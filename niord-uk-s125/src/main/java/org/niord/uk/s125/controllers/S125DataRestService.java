@@ -20,8 +20,18 @@ import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.niord.uk.s100.common.models.vo.S100ExportBudgetStatsVo;
+import org.niord.uk.s100.common.models.vo.S100JaxbPoolStatsVo;
+import org.niord.uk.s100.common.models.vo.S100PresetPlanVo;
+import org.niord.uk.s100.common.models.vo.S100ValidationStatsVo;
+import org.niord.uk.s100.common.services.S100ExportBudgetService;
 import org.niord.uk.s125.models.S125AtonTypes;
 import org.niord.uk.s125.models.vo.S125AtonTypeVo;
+import org.niord.uk.s125.services.S125JaxbPoolService;
+import org.niord.uk.s125.services.S125PresetPlanService;
+import org.niord.uk.s125.services.S125SchemaValidatorService;
+import org.niord.uk.s125.utils.S125DatasetBuilder;
+import org.niord.uk.s125.utils.S125EnumParser;
 import org.slf4j.Logger;
 
 import jakarta.enterprise.context.RequestScoped;
@@ -34,6 +44,7 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +60,18 @@ public class S125DataRestService {
     @Inject
     Logger log;
 
+    @Inject
+    S125JaxbPoolService s125JaxbPoolService;
+
+    @Inject
+    S125SchemaValidatorService s125SchemaValidatorService;
+
+    @Inject
+    S125PresetPlanService s125PresetPlanService;
+
+    @Inject
+    S100ExportBudgetService s100ExportBudgetService;
+
     /**
      * Returns the list of the S-125 supported feature types.
      */
@@ -76,4 +99,143 @@ public class S125DataRestService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the usage statistics of the S-125 JAXB marshaller pool.
+     */
+    @GET
+    @Path("/jaxb-pool")
+    @Operation(
+            description = "The usage statistics of the S-125 JAXB marshaller pool.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100JaxbPoolStatsVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100JaxbPoolStatsVo s125JaxbPoolStats() {
+        log.debug("Request for the S-125 JAXB pool statistics");
+        return this.s125JaxbPoolService.getStats();
+    }
+
+    /**
+     * Returns the number of AtoNs of unknown seamark types encountered so far
+     * while generating S-125 datasets, per seamark type.
+     */
+    @GET
+    @Path("/unknown-types")
+    @Operation(
+            description = "The number of AtoNs of unknown seamark types encountered while generating S-125 datasets.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = Map.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public Map<String, Long> s125UnknownTypes() {
+        log.debug("Request for the S-125 unknown seamark types");
+        return S125DatasetBuilder.getUnknownAtonTypes();
+    }
+
+    /**
+     * Returns the number of times each unknown tag value has been encountered
+     * so far while generating S-125 datasets, per S-125 enum type and value,
+     * or per tag key and value for the values outside the S-125 preset.
+     */
+    @GET
+    @Path("/unknown-values")
+    @Operation(
+            description = "The number of unknown tag values encountered while generating S-125 datasets.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = Map.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public Map<String, Long> s125UnknownValues() {
+        log.debug("Request for the S-125 unknown tag values");
+        return S125EnumParser.getUnknownValues();
+    }
+
+    /**
+     * Returns the statistics of the S-125 schema validations performed so
+     * far, along with the errors of the last failed validation.
+     */
+    @GET
+    @Path("/validation")
+    @Operation(
+            description = "The statistics of the S-125 schema validations.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100ValidationStatsVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100ValidationStatsVo s125ValidationStats() {
+        log.debug("Request for the S-125 schema validation statistics");
+        return this.s125SchemaValidatorService.getStats();
+    }
+
+    /**
+     * Returns a summary of the S-125 preset plan compiled at start-up, along
+     * with the drift between the S-125 preset and the S-125 tag mappings.
+     */
+    @GET
+    @Path("/preset-plan")
+    @Operation(
+            description = "The summary of the S-125 preset plan.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100PresetPlanVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100PresetPlanVo s125PresetPlan() {
+        log.debug("Request for the S-125 preset plan summary");
+        return this.s125PresetPlanService.getStats();
+    }
+
+    /**
+     * Returns the usage statistics of the export memory budget, i.e. the
+     * reserved budget and the number of exports queued waiting for it. Note
+     * that the budget is shared by the S-125 and S-201 AtoN exports.
+     */
+    @GET
+    @Path("/export-budget")
+    @Operation(
+            description = "The usage statistics of the shared S-125/S-201 export memory budget.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100ExportBudgetStatsVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100ExportBudgetStatsVo s125ExportBudgetStats() {
+        log.debug("Request for the S-100 export budget statistics");
+        return this.s100ExportBudgetService.getStats();
+    }
+
 }
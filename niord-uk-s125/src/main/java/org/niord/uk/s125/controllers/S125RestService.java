@@ -16,26 +16,46 @@
 
 package org.niord.uk.s125.controllers;
 
+import jakarta.annotation.security.RolesAllowed;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.*;
-import jakarta.ws.rs.core.MediaType;
-import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.*;
+import jakarta.xml.bind.JAXBException;
 import org.apache.commons.io.FilenameUtils;
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
-import org.grad.eNav.s100.utils.SpecificJarClassLoader;
-import org.grad.eNav.s125.utils.S125Utils;
+import org.jboss.resteasy.annotations.GZIP;
+import org.jboss.resteasy.annotations.cache.NoCache;
+import org.niord.core.aton.AtonSearchParams;
+import org.niord.core.domain.Domain;
+import org.niord.core.domain.DomainService;
+import org.niord.core.user.Roles;
+import org.niord.uk.s100.common.models.S100BoundingBox;
+import org.niord.uk.s100.common.models.S100DatasetVersion;
+import org.niord.uk.s100.common.models.vo.S100DatasetExportJobVo;
+import org.niord.uk.s100.common.models.vo.S100DatasetUpdateVo;
+import org.niord.uk.s100.common.services.S100ExportBudgetService;
+import org.niord.uk.s100.common.utils.S100ExportBudget;
+import org.niord.uk.s100.common.utils.S100XsdCache;
+import org.niord.uk.s125.batch.BatchS125ExportReader;
+import org.niord.uk.s125.models.S125AtonTypes;
+import org.niord.uk.s125.services.S125SchemaValidatorService;
 import org.niord.uk.s125.services.S125Service;
-import org.niord.uk.s125.utils.XmlUtils;
+import org.niord.uk.s125.services.S125XsdCacheService;
 import org.slf4j.Logger;
 
-import java.io.InputStream;
-import java.net.URLClassLoader;
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A public REST API for accessing messages as S-125 GML.
@@ -51,6 +71,11 @@ import java.util.List;
 @Path("/S-125")
 public class S125RestService {
 
+    /**
+     * The header reporting the latest AtoN changeset of an update.
+     */
+    public static final String CHANGESET_HEADER = "X-Niord-Changeset";
+
     /**
      * The System Logger.
      */
@@ -64,7 +89,34 @@ public class S125RestService {
     S125Service s125Service;
 
     /**
-     * Returns the S-125 GML representation for multiple AtoN.
+     * The Domain Service.
+     */
+    @Inject
+    DomainService domainService;
+
+    /**
+     * The S-125 Schema Validator Service.
+     */
+    @Inject
+    S125SchemaValidatorService schemaValidatorService;
+
+    /**
+     * The S-125 XSD Cache Service.
+     */
+    @Inject
+    S125XsdCacheService xsdCacheService;
+
+    /**
+     * The S-100 Export Budget Service.
+     */
+    @Inject
+    S100ExportBudgetService exportBudgetService;
+
+    /**
+     * Returns the S-125 GML representation for multiple AtoN. As for the
+     * datasets, clients that already hold the current representation, as
+     * identified by its ETag header, get a 304 (Not Modified) response
+     * without it being generated again.
      */
     @POST
     @Path("/atons")
@@ -79,10 +131,18 @@ public class S125RestService {
                     schema = @Schema(implementation = String.class)
             )
     )
+    @APIResponse(
+            responseCode = "503",
+            description = "Too many concurrent exports, retry after the time in the Retry-After header"
+    )
     @Produces({"application/gml+xml;charset=UTF-8"})
     public Response s125AtonDetails(
+            @Context HttpServletRequest request,
+            @Context Request jaxrsRequest,
             @Parameter(name="indent", description = "Indentation of the XML output", example = "4")
             @QueryParam("indent") @DefaultValue("4") Integer indent,
+            @Parameter(name="validate", description = "Whether to validate the generated GML against the S-125 schema", example = "false")
+            @QueryParam("validate") Boolean validate,
             @Parameter(name="language", description = "Two-letter ISO 639-1 language code", example = "en")
             @QueryParam("lang") @DefaultValue("en") String language,
             @Parameter(name="atonUIDs", description = "The aton UIDs or aton ID", example = "[aton-001]")
@@ -92,16 +152,51 @@ public class S125RestService {
         long t0 = System.currentTimeMillis();
 
         try {
-            String result = s125Service.generateGML(language, String.format("aton-dataset-export-%d", t0), atonUIDs.toArray(String[]::new));
+            final String[] uids = atonUIDs.toArray(String[]::new);
+            final boolean validating = this.schemaValidatorService.isValidating(validate);
 
-            // Pretty print the result
-            result = XmlUtils.xmlPrettyPrint(result, indent);
+            // Make sure there is enough memory to export the AtoNs before any
+            // of them is loaded, estimating their number out of their UIDs.
+            // The permit is also bound to the request, so that it is released
+            // even if the result is never streamed.
+            final S100ExportBudget.Permit permit = exportBudgetService.admit(s125Service.estimateAtonCount(uids), request);
 
-            log.info("Generated GML for AtoNs " + String.join(",", atonUIDs) + " in " + (System.currentTimeMillis() - t0) + " ms");
-            return Response.ok(result)
+            // Make sure the AtoNs exist and check whether the client already
+            // holds their current representation. The version only covers
+            // the resolved AtoNs and their children, while the ETag is weak,
+            // since it does not cover the reference date of the dataset.
+            final List<String> resolvedUIDs = s125Service.resolveAtonUids(uids);
+            final S100DatasetVersion version = s125Service.getDatasetVersion(resolvedUIDs);
+            final EntityTag etag = new EntityTag(version.tag("atons", indent, language, String.join(",", atonUIDs)), true);
+            final Response.ResponseBuilder notModified = jaxrsRequest.evaluatePreconditions(etag);
+            if(notModified != null) {
+                permit.close();
+                return notModified.tag(etag).lastModified(version.lastModified()).build();
+            }
+            final String gmlDatasetId = String.format("aton-dataset-export-%s", etag.getValue());
+
+            // Stream the result, pretty printing it on the fly
+            final StreamingOutput stream = os -> {
+                try (permit) {
+                    s125Service.generateGML(os, indent, validating, language, gmlDatasetId, resolvedUIDs);
+                } catch (JAXBException ex) {
+                    throw new IOException(ex);
+                }
+                log.info("Generated GML for AtoNs " + String.join(",", atonUIDs) + " in " + (System.currentTimeMillis() - t0) + " ms");
+            };
+            return Response.ok(stream)
                     .type("application/gml+xml;charset=UTF-8")
+                    .tag(etag)
+                    .lastModified(version.lastModified())
                     .build();
 
+        } catch (RejectedExecutionException ex) {
+            log.warn("Rejected the GML generation for AtoNs " + String.join(",", atonUIDs) + ": " + ex.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .header(HttpHeaders.RETRY_AFTER, exportBudgetService.getRetryAfter())
+                    .entity("Too many concurrent GML exports: " + ex.getMessage())
+                    .build();
         } catch (IllegalArgumentException ex) {
             log.error(ex.getMessage());
             return Response
@@ -117,10 +212,506 @@ public class S125RestService {
         }
     }
 
+    /**
+     * Starts a batch job exporting the S-125 GML dataset for multiple AtoN
+     * into the repository. Unlike generating the dataset on the fly, this
+     * cannot be timed out by the HTTP clients or proxies, so it should be
+     * used for very large datasets. The response includes the batch job ID,
+     * whose progress can be followed like any other batch job, and the URL
+     * to download the dataset from once the job has completed.
+     */
+    @POST
+    @Path("/atons/export")
+    @Operation(
+            description = "Starts a batch job exporting the S-125 GML representation for a list of AtoN UIDs."
+    )
+    @APIResponse(
+            responseCode = "202",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100DatasetExportJobVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    @RolesAllowed(Roles.ADMIN)
+    public Response s125AtonExport(
+            @Context UriInfo uriInfo,
+            @Parameter(name="validate", description = "Whether to validate the generated GML against the S-125 schema", example = "false")
+            @QueryParam("validate") Boolean validate,
+            @Parameter(name="atonUIDs", description = "The aton UIDs or aton ID", example = "[aton-001]")
+            List<String> atonUIDs
+    ) {
+
+        long t0 = System.currentTimeMillis();
+
+        try {
+            final String[] uids = atonUIDs.toArray(String[]::new);
+            final String gmlDatasetId = String.format("aton-dataset-export-%d", t0);
+            final boolean validating = this.schemaValidatorService.isValidating(validate);
+
+            // Start the export batch job
+            final S100DatasetExportJobVo exportJob = new S100DatasetExportJobVo();
+            exportJob.setJobId(s125Service.startExportJob(gmlDatasetId, validating, uids));
+            exportJob.setDatasetId(gmlDatasetId);
+            exportJob.setDownloadUrl(uriInfo.getBaseUriBuilder()
+                    .path(S125RestService.class)
+                    .path(S125RestService.class, "s125AtonExportDownload")
+                    .build(gmlDatasetId)
+                    .toString());
+            log.info("Started '%s' batch job %d for AtoNs %s".formatted(BatchS125ExportReader.EXPORT_JOB, exportJob.getJobId(), String.join(",", atonUIDs)));
+            return Response.accepted(exportJob)
+                    .location(URI.create(exportJob.getDownloadUrl()))
+                    .build();
+
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response
+                    .status(Response.Status.NOT_FOUND)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        } catch (Exception ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error starting the GML export: " + ex.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Downloads the S-125 GML dataset exported by a batch job. While the
+     * batch job is still running, a 202 (Accepted) response is returned
+     * instead.
+     */
+    @GET
+    @Path("/atons/export/{datasetId}")
+    @NoCache
+    @Operation(
+            description = "Downloads the S-125 GML dataset exported by a batch job."
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = "application/gml+xml;charset=UTF-8",
+                    schema = @Schema(implementation = String.class)
+            )
+    )
+    @Produces({"application/gml+xml;charset=UTF-8"})
+    public Response s125AtonExportDownload(
+            @Parameter(name="datasetId", description = "The GML identifier of the exported dataset", example = "aton-dataset-export-0")
+            @PathParam("datasetId") String datasetId
+    ) {
+        try {
+            // Check whether the export is complete
+            final Optional<java.nio.file.Path> exportFile = s125Service.getExportFile(datasetId);
+            if(exportFile.isEmpty()) {
+                return s125Service.isExportInProgress(datasetId) ?
+                        Response.accepted()
+                                .type(MediaType.TEXT_HTML_TYPE)
+                                .entity("The GML export is still in progress: " + datasetId)
+                                .build() :
+                        Response.status(Response.Status.NOT_FOUND)
+                                .type(MediaType.TEXT_HTML_TYPE)
+                                .entity("GML export does not exist: " + datasetId)
+                                .build();
+            }
+
+            // And stream the exported dataset
+            final StreamingOutput stream = os -> Files.copy(exportFile.get(), os);
+            return Response.ok(stream)
+                    .type("application/gml+xml;charset=UTF-8")
+                    .header("Content-Disposition", "attachment; filename=\"" + exportFile.get().getFileName() + "\"")
+                    .header(HttpHeaders.CONTENT_LENGTH, Files.size(exportFile.get()))
+                    .build();
+
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        } catch (IOException ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error reading the GML export: " + ex.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the S-125 GML dataset for all the AtoNs matching the provided
+     * bounding box, areas and feature types. The dataset is streamed while
+     * being generated, i.e. in chunks, and compressed if the client accepts
+     * a gzip encoding. Clients that already hold the current dataset, as
+     * identified by its ETag header, get a 304 (Not Modified) response
+     * without the dataset being generated again.
+     */
+    @GET
+    @Path("/dataset")
+    @GZIP
+    @NoCache
+    @Operation(
+            description = "Returns the S-125 GML dataset for all the AtoNs matching the provided bounding box, areas and feature types."
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = "application/gml+xml;charset=UTF-8",
+                    schema = @Schema(implementation = String.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "503",
+            description = "Too many concurrent exports, retry after the time in the Retry-After header"
+    )
+    @Produces({"application/gml+xml;charset=UTF-8"})
+    public Response s125Dataset(
+            @Context HttpServletRequest request,
+            @Context Request jaxrsRequest,
+            @Parameter(name="indent", description = "Indentation of the XML output", example = "4")
+            @QueryParam("indent") @DefaultValue("4") Integer indent,
+            @Parameter(name="validate", description = "Whether to validate the generated GML against the S-125 schema", example = "false")
+            @QueryParam("validate") Boolean validate,
+            @Parameter(name="language", description = "Two-letter ISO 639-1 language code", example = "en")
+            @QueryParam("lang") @DefaultValue("en") String language,
+            @Parameter(name="minLat", description = "The minimum latitude of the bounding box", example = "50.0")
+            @QueryParam("minLat") Double minLat,
+            @Parameter(name="minLon", description = "The minimum longitude of the bounding box", example = "-2.0")
+            @QueryParam("minLon") Double minLon,
+            @Parameter(name="maxLat", description = "The maximum latitude of the bounding box", example = "51.0")
+            @QueryParam("maxLat") Double maxLat,
+            @Parameter(name="maxLon", description = "The maximum longitude of the bounding box", example = "2.0")
+            @QueryParam("maxLon") Double maxLon,
+            @Parameter(name="area", description = "The IDs of the areas to include AtoNs from")
+            @QueryParam("area") List<Integer> areaIds,
+            @Parameter(name="featureType", description = "The S-125 feature types to include, e.g. beacon_cardinal")
+            @QueryParam("featureType") List<String> featureTypes
+    ) {
+
+        long t0 = System.currentTimeMillis();
+
+        try {
+            // Validate the bounding box and feature types
+            final S100BoundingBox bbox = S100BoundingBox.of(minLat, minLon, maxLat, maxLon);
+            final Set<S125AtonTypes> atonTypes = this.parseFeatureTypes(featureTypes);
+
+            // Make sure there is enough memory to export the AtoNs matching
+            // the search parameters before any of them is loaded, estimating
+            // their number out of the total number of matches
+            final Domain domain = domainService.currentDomain();
+            final AtonSearchParams params = this.toSearchParams(domain, request, bbox, areaIds);
+            final S100ExportBudget.Permit permit = exportBudgetService.admit(s125Service.estimateAtonCount(params), request);
+
+            // Resolve the matching AtoNs, passing the bounding box and areas
+            // explicitly
+            final List<String> atonUIDs = s125Service.resolveAtonUids(params, bbox, atonTypes);
+
+            // Check whether the client already holds the current dataset. The
+            // version only covers the resolved AtoNs and their children, and
+            // only the ETag is checked, since unlike the Last-Modified date it
+            // also covers the deleted AtoNs and the request. The ETag is weak,
+            // since the dataset may be served with or without a gzip encoding
+            // and its reference date is not covered.
+            final S100DatasetVersion version = s125Service.getDatasetVersion(atonUIDs);
+            final EntityTag etag = new EntityTag(version.tag("dataset", Optional.ofNullable(domain).map(Domain::getDomainId).orElse(null), request.getQueryString()), true);
+            final Response.ResponseBuilder notModified = jaxrsRequest.evaluatePreconditions(etag);
+            if(notModified != null) {
+                permit.close();
+                return notModified.tag(etag).lastModified(version.lastModified()).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+            }
+            final String gmlDatasetId = String.format("aton-dataset-%s", etag.getValue());
+            final boolean validating = this.schemaValidatorService.isValidating(validate);
+
+            // Stream the result, pretty printing it on the fly
+            final StreamingOutput stream = os -> {
+                try (permit) {
+                    s125Service.generateGML(os, indent, validating, language, gmlDatasetId, atonUIDs);
+                } catch (JAXBException ex) {
+                    throw new IOException(ex);
+                }
+                log.info("Generated GML dataset " + gmlDatasetId + " in " + (System.currentTimeMillis() - t0) + " ms");
+            };
+            return Response.ok(stream)
+                    .type("application/gml+xml;charset=UTF-8")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .tag(etag)
+                    .lastModified(version.lastModified())
+                    .build();
+
+        } catch (RejectedExecutionException ex) {
+            log.warn("Rejected the GML dataset generation: " + ex.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .header(HttpHeaders.RETRY_AFTER, exportBudgetService.getRetryAfter())
+                    .entity("Too many concurrent GML exports: " + ex.getMessage())
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the S-125 dataset for all the AtoNs matching the provided
+     * bounding box, areas and feature types, packaged as an S-100 exchange
+     * set, i.e. a ZIP archive with the exchange catalogue, the dataset and
+     * the S-125 XSDs. The archive is streamed while the dataset is being
+     * generated.
+     */
+    @GET
+    @Path("/exchange-set")
+    @NoCache
+    @Operation(
+            description = "Returns the S-125 dataset for all the AtoNs matching the provided bounding box, areas and feature types as an S-100 exchange set."
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = "application/zip",
+                    schema = @Schema(type = SchemaType.STRING, format = "binary")
+            )
+    )
+    @APIResponse(
+            responseCode = "503",
+            description = "Too many concurrent exports, retry after the time in the Retry-After header"
+    )
+    @Produces({"application/zip"})
+    public Response s125ExchangeSet(
+            @Context HttpServletRequest request,
+            @Context Request jaxrsRequest,
+            @Parameter(name="indent", description = "Indentation of the XML output", example = "4")
+            @QueryParam("indent") @DefaultValue("4") Integer indent,
+            @Parameter(name="validate", description = "Whether to validate the generated GML against the S-125 schema", example = "false")
+            @QueryParam("validate") Boolean validate,
+            @Parameter(name="language", description = "Two-letter ISO 639-1 language code", example = "en")
+            @QueryParam("lang") @DefaultValue("en") String language,
+            @Parameter(name="minLat", description = "The minimum latitude of the bounding box", example = "50.0")
+            @QueryParam("minLat") Double minLat,
+            @Parameter(name="minLon", description = "The minimum longitude of the bounding box", example = "-2.0")
+            @QueryParam("minLon") Double minLon,
+            @Parameter(name="maxLat", description = "The maximum latitude of the bounding box", example = "51.0")
+            @QueryParam("maxLat") Double maxLat,
+            @Parameter(name="maxLon", description = "The maximum longitude of the bounding box", example = "2.0")
+            @QueryParam("maxLon") Double maxLon,
+            @Parameter(name="area", description = "The IDs of the areas to include AtoNs from")
+            @QueryParam("area") List<Integer> areaIds,
+            @Parameter(name="featureType", description = "The S-125 feature types to include, e.g. beacon_cardinal")
+            @QueryParam("featureType") List<String> featureTypes
+    ) {
+
+        long t0 = System.currentTimeMillis();
+
+        try {
+            // Validate the bounding box and feature types
+            final S100BoundingBox bbox = S100BoundingBox.of(minLat, minLon, maxLat, maxLon);
+            final Set<S125AtonTypes> atonTypes = this.parseFeatureTypes(featureTypes);
+
+            // Make sure there is enough memory to export the AtoNs matching
+            // the search parameters before any of them is loaded, estimating
+            // their number out of the total number of matches
+            final Domain domain = domainService.currentDomain();
+            final AtonSearchParams params = this.toSearchParams(domain, request, bbox, areaIds);
+            final S100ExportBudget.Permit permit = exportBudgetService.admit(s125Service.estimateAtonCount(params), request);
+
+            // Resolve the matching AtoNs, passing the bounding box and areas
+            // explicitly
+            final List<String> atonUIDs = s125Service.resolveAtonUids(params, bbox, atonTypes);
+
+            // Check whether the client already holds the current exchange set,
+            // again only based on the ETag. Unlike the one of the dataset, the
+            // ETag is strong, since the exchange set is never compressed on the
+            // fly and is packaged into the same bytes on the same day, so it
+            // also covers the issue date.
+            final S100DatasetVersion version = s125Service.getDatasetVersion(atonUIDs);
+            final EntityTag etag = new EntityTag(version.tag("exchange-set", Optional.ofNullable(domain).map(Domain::getDomainId).orElse(null), request.getQueryString(), LocalDate.now()));
+            final Response.ResponseBuilder notModified = jaxrsRequest.evaluatePreconditions(etag);
+            if(notModified != null) {
+                permit.close();
+                return notModified.tag(etag).lastModified(version.lastModified()).build();
+            }
+            final String gmlDatasetId = String.format("aton-dataset-%s", etag.getValue());
+            final boolean validating = this.schemaValidatorService.isValidating(validate);
+
+            // Stream the exchange set, generating the dataset on the fly
+            final StreamingOutput stream = os -> {
+                try (permit) {
+                    s125Service.generateExchangeSet(os, indent, validating, language, gmlDatasetId, atonUIDs);
+                }
+                log.info("Generated exchange set for GML dataset " + gmlDatasetId + " in " + (System.currentTimeMillis() - t0) + " ms");
+            };
+            return Response.ok(stream)
+                    .type("application/zip")
+                    .header("Content-Disposition", "attachment; filename=\"" + gmlDatasetId + ".zip\"")
+                    .tag(etag)
+                    .lastModified(version.lastModified())
+                    .build();
+
+        } catch (RejectedExecutionException ex) {
+            log.warn("Rejected the exchange set generation: " + ex.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .header(HttpHeaders.RETRY_AFTER, exportBudgetService.getRetryAfter())
+                    .entity("Too many concurrent GML exports: " + ex.getMessage())
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the S-125 GML update dataset, containing only the AtoNs created
+     * or modified after the provided changeset. The latest changeset, to be
+     * used as the base of the next update, is returned in the
+     * {@value #CHANGESET_HEADER} header, while the AtoNs deleted in the
+     * meantime are reported by the deletions endpoint. As for the complete
+     * datasets, unchanged update datasets get a 304 (Not Modified) response.
+     */
+    @GET
+    @Path("/dataset/update")
+    @GZIP
+    @NoCache
+    @Operation(
+            description = "Returns the S-125 GML update dataset with the AtoNs created or modified after the provided changeset."
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = "application/gml+xml;charset=UTF-8",
+                    schema = @Schema(implementation = String.class)
+            )
+    )
+    @APIResponse(
+            responseCode = "503",
+            description = "Too many concurrent exports, retry after the time in the Retry-After header"
+    )
+    @Produces({"application/gml+xml;charset=UTF-8"})
+    public Response s125DatasetUpdate(
+            @Context HttpServletRequest request,
+            @Context Request jaxrsRequest,
+            @Parameter(name="indent", description = "Indentation of the XML output", example = "4")
+            @QueryParam("indent") @DefaultValue("4") Integer indent,
+            @Parameter(name="validate", description = "Whether to validate the generated GML against the S-125 schema", example = "false")
+            @QueryParam("validate") Boolean validate,
+            @Parameter(name="language", description = "Two-letter ISO 639-1 language code", example = "en")
+            @QueryParam("lang") @DefaultValue("en") String language,
+            @Parameter(name="since", description = "The base changeset to include the changes after", example = "0")
+            @QueryParam("since") Integer since
+    ) {
+
+        long t0 = System.currentTimeMillis();
+
+        try {
+            // Validate the base changeset
+            this.validateChangeset(since);
+
+            // Check whether the client already holds the current update,
+            // again only based on a weak ETag
+            final S100DatasetVersion version = s125Service.getDatasetVersion();
+            final EntityTag etag = new EntityTag(version.tag("update", indent, language, since), true);
+            final Response.ResponseBuilder notModified = jaxrsRequest.evaluatePreconditions(etag);
+            if(notModified != null) {
+                return notModified.tag(etag).lastModified(version.lastModified()).header(CHANGESET_HEADER, version.changeset()).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+            }
+            final String gmlDatasetId = String.format("aton-dataset-update-%s", etag.getValue());
+            final boolean validating = this.schemaValidatorService.isValidating(validate);
+
+            // Make sure there is enough memory to export the changed AtoNs,
+            // counting them before any of them is loaded, and resolve them
+            final S100ExportBudget.Permit permit = exportBudgetService.admit(s125Service.estimateChangedAtonCount(since), request);
+            final List<String> atonUIDs = s125Service.resolveChangedAtonUids(since);
+
+            // Stream the result, pretty printing it on the fly
+            final StreamingOutput stream = os -> {
+                try (permit) {
+                    s125Service.generateUpdateGML(os, indent, validating, language, gmlDatasetId, since, atonUIDs);
+                } catch (JAXBException ex) {
+                    throw new IOException(ex);
+                }
+                log.info("Generated GML update dataset " + gmlDatasetId + " in " + (System.currentTimeMillis() - t0) + " ms");
+            };
+            return Response.ok(stream)
+                    .type("application/gml+xml;charset=UTF-8")
+                    .header(CHANGESET_HEADER, version.changeset())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .tag(etag)
+                    .lastModified(version.lastModified())
+                    .build();
+
+        } catch (RejectedExecutionException ex) {
+            log.warn("Rejected the GML update dataset generation: " + ex.getMessage());
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .header(HttpHeaders.RETRY_AFTER, exportBudgetService.getRetryAfter())
+                    .entity("Too many concurrent GML exports: " + ex.getMessage())
+                    .build();
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the UIDs of the AtoNs deleted since the provided changeset,
+     * along with the latest changeset to be used as the base of the next
+     * update. Deletions are detected periodically, and reported from the
+     * changeset they were detected in onwards, so consumers may receive the
+     * same deletion more than once and should apply them idempotently.
+     */
+    @GET
+    @Path("/dataset/deletions")
+    @NoCache
+    @Operation(
+            description = "Returns the UIDs of the AtoNs deleted since the provided changeset."
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100DatasetUpdateVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public Response s125DatasetDeletions(
+            @Parameter(name="since", description = "The base changeset to report the deletions since", example = "0")
+            @QueryParam("since") Integer since
+    ) {
+        try {
+            // Validate the base changeset
+            this.validateChangeset(since);
+
+            // And report the deletions
+            final S100DatasetUpdateVo datasetUpdate = s125Service.getDatasetUpdate(since);
+            return Response.ok(datasetUpdate)
+                    .header(CHANGESET_HEADER, datasetUpdate.getChangeset())
+                    .build();
+
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        }
+    }
+
     /**
      * Allows users to have access to the S-125 product XSD definition files.
      * These include the S-100 product definition, as well as the GRAD version
-     * of S-125.
+     * of S-125. The XSDs are served out of memory, compressed if the client
+     * accepts a gzip encoding, and can be cached by the clients. Clients
+     * that already hold the requested XSD, as identified by its ETag, get a
+     * 304 (Not Modified) response.
      *
      * @param file The name of the file to be retrieved
      * @return The requested XSD file
@@ -129,27 +720,111 @@ public class S125RestService {
     @Path("/xsds/{file}")
     @Produces({"text/xml;charset=UTF-8"})
     public Response xsdFile(
+            @Context Request jaxrsRequest,
+            @Context HttpHeaders headers,
             @PathParam("file") String file
     ) {
         final String xsdFile = FilenameUtils.removeExtension(file) + ".xsd";
-        try (URLClassLoader classLoader = new SpecificJarClassLoader(S125Utils.class)) {
-            try(InputStream is = classLoader.getResourceAsStream("xsd/" + xsdFile)) {
-                // Sanity check if the resource was found
-                if(is == null) { throw new NotFoundException(); }
-                // Otherwise return the resource and a GML/XML
-                log.info("Returning XSD " + xsdFile);
-                final String xsd = new String(is.readAllBytes());
-                return Response.ok(xsd)
-                        .type("application/gml+xml;charset=UTF-8")
-                        .build();
-            }
-        } catch (Exception ex) {
+        final Optional<S100XsdCache.Xsd> xsd = xsdCacheService.getXsd(xsdFile);
+
+        // Sanity check if the XSD was found
+        if(xsd.isEmpty()) {
             log.error("XSD does not exist: " + xsdFile);
             return Response
                     .status(Response.Status.NOT_FOUND)
                     .entity("XSD does not exist: " + xsdFile)
                     .build();
         }
+
+        // Check whether the client already holds the XSD, using a weak ETag
+        // since the XSD may be served with or without a gzip encoding
+        final EntityTag etag = new EntityTag(xsd.get().etag(), true);
+        final CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(xsdCacheService.getMaxAge());
+        final Response.ResponseBuilder notModified = jaxrsRequest.evaluatePreconditions(etag);
+        if(notModified != null) {
+            return notModified.tag(etag).cacheControl(cacheControl).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        // Otherwise return the XSD as a GML/XML, compressed if possible
+        log.debug("Returning XSD " + xsdFile);
+        final boolean gzip = this.acceptsGzip(headers);
+        return Response.ok(gzip ? xsd.get().gzipped() : xsd.get().content())
+                .type("application/gml+xml;charset=UTF-8")
+                .encoding(gzip ? "gzip" : null)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    /**
+     * Creates the AtoN search parameters of a dataset request, setting the
+     * bounding box and areas explicitly, so that they are applied no matter
+     * which request parameters the generic search parameters pick up.
+     *
+     * @param domain the current domain
+     * @param request the dataset request
+     * @param bbox the requested bounding box, if any
+     * @param areaIds the IDs of the requested areas
+     * @return the AtoN search parameters
+     */
+    private AtonSearchParams toSearchParams(Domain domain, HttpServletRequest request, S100BoundingBox bbox, List<Integer> areaIds) {
+        final AtonSearchParams params = AtonSearchParams.instantiate(domain, request);
+        if(bbox != null) {
+            params.extent(bbox.minLat(), bbox.minLon(), bbox.maxLat(), bbox.maxLon());
+        }
+        params.areaIds(new HashSet<>(areaIds));
+        return params;
+    }
+
+    /**
+     * Parses the requested S-125 feature types.
+     *
+     * @param featureTypes the requested feature types
+     * @return the parsed S-125 AtoN types
+     */
+    private Set<S125AtonTypes> parseFeatureTypes(List<String> featureTypes) {
+        final Set<S125AtonTypes> atonTypes = new HashSet<>();
+        for(String featureType : featureTypes) {
+            atonTypes.add(Optional.ofNullable(S125AtonTypes.fromSeamarkType(featureType))
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown S-125 feature type: " + featureType)));
+        }
+        return atonTypes;
+    }
+
+    /**
+     * Validates the base changeset of an update request.
+     *
+     * @param since the base changeset
+     */
+    private void validateChangeset(Integer since) {
+        if(since == null || since < 0) {
+            throw new IllegalArgumentException("The since parameter requires a non-negative base changeset");
+        }
+    }
+
+    /**
+     * Checks whether the client accepts a gzip content encoding, i.e. it
+     * lists gzip (or any encoding) in its Accept-Encoding header without
+     * explicitly refusing it with a zero quality value.
+     *
+     * @param headers the HTTP headers of the request
+     * @return whether the client accepts a gzip content encoding
+     */
+    private boolean acceptsGzip(HttpHeaders headers) {
+        final String acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if(acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.split(","))
+                .map(encoding -> encoding.trim().toLowerCase(Locale.ROOT).split(";"))
+                .filter(encoding -> encoding[0].trim().equals("gzip") || encoding[0].trim().equals("*"))
+                .anyMatch(encoding -> Arrays.stream(encoding)
+                        .skip(1)
+                        .map(String::trim)
+                        .filter(param -> param.startsWith("q="))
+                        .noneMatch(param -> param.matches("q=0(\\.0*)?")));
     }
 
 }
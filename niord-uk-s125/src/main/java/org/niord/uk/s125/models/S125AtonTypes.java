@@ -15,8 +15,7 @@
  */
 package org.niord.uk.s125.models;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * The S-125 AtoN Types Enum.
@@ -135,6 +134,17 @@ public enum S125AtonTypes {
             "AIS transmitter (S17.1-S17.2)"
     });
 
+    /*
+     * The case-insensitive lookup table of the seamark types.
+     */
+    private static final Map<String, S125AtonTypes> SEAMARK_TYPES = new HashMap<>();
+
+    static {
+        for(S125AtonTypes atonType : S125AtonTypes.values()) {
+            SEAMARK_TYPES.putIfAbsent(atonType.getName().toLowerCase(Locale.ROOT), atonType);
+        }
+    }
+
     // Enum Variables
     final String name;
     final String description;
@@ -192,9 +202,13 @@ public enum S125AtonTypes {
      * @return The respective S125 AtoN Type enum entry
      */
     public static S125AtonTypes fromSeamarkType(String type) {
-        return Arrays.stream(S125AtonTypes.values())
-                .filter(t -> t.getName().equalsIgnoreCase(type))
-                .findFirst()
-                .orElse(null);
+        // Sanity Check
+        if(type == null) {
+            return null;
+        }
+
+        // Most types are already in lower case, so try that first
+        final S125AtonTypes atonType = SEAMARK_TYPES.get(type);
+        return atonType != null ? atonType : SEAMARK_TYPES.get(type.toLowerCase(Locale.ROOT));
     }
 }
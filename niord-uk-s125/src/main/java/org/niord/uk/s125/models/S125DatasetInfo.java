@@ -18,11 +18,9 @@ package org.niord.uk.s125.models;
 
 import org.grad.eNav.s125.utils.GIRegistryInfo;
 import org.niord.core.aton.AtonNode;
+import org.niord.uk.s100.common.models.S100DatasetInfo;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * The S-125 Dataset Info Class.
@@ -32,19 +30,7 @@ import java.util.stream.Collectors;
  *
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
-public class S125DatasetInfo {
-
-    //Class Variables
-    private String datasetId;
-    private String agency;
-    private String encodingSpecification;
-    private String encodingSpecificationEdition;
-    private String productionIdentifier;
-    private String productionEdition;
-    private String fileIdentifier;
-    private String title;
-    private String language;
-    private String abstractText;
+public class S125DatasetInfo extends S100DatasetInfo {
 
     /**
      * Constructor with the default values.
@@ -53,202 +39,9 @@ public class S125DatasetInfo {
      * @param atonNodes The S-125 Dataset AtoN nodes
      */
     public S125DatasetInfo(String datasetId, String agency, List<AtonNode> atonNodes) {
-        this.datasetId = datasetId;
-        this.agency = agency;
-        this.encodingSpecification = "S100 Part 10b";
-        this.encodingSpecificationEdition = "1.0";
-        this.productionIdentifier = GIRegistryInfo.getProductSpecification().getProductIdentifier();
-        this.productionEdition = GIRegistryInfo.getProductSpecification().getVersion();
-        this.fileIdentifier = String.format("S-125_%s_%s", this.agency, this.datasetId);
-        this.title = "Niord S-125 Dataset";
-        this.language = "en";
-        this.abstractText = "Autogenerated S-125 Dataset for" + Optional.ofNullable(atonNodes)
-                .orElse(Collections.emptyList())
-                .stream()
-                .map(AtonNode::getAtonUid)
-                .map(uid -> String.format(" %s", uid))
-                .collect(Collectors.joining());
-
-    }
-
-    /**
-     * Gets dataset id.
-     *
-     * @return the dataset id
-     */
-    public String getDatasetId() {
-        return datasetId;
-    }
-
-    /**
-     * Sets dataset id.
-     *
-     * @param datasetId the dataset id
-     */
-    public void setDatasetId(String datasetId) {
-        this.datasetId = datasetId;
-    }
-
-    /**
-     * Gets agency.
-     *
-     * @return the agency
-     */
-    public String getAgency() {
-        return agency;
-    }
-
-    /**
-     * Sets agency.
-     *
-     * @param agency the agency
-     */
-    public void setAgency(String agency) {
-        this.agency = agency;
-    }
-
-    /**
-     * Gets encoding specification.
-     *
-     * @return the encoding specification
-     */
-    public String getEncodingSpecification() {
-        return encodingSpecification;
-    }
-
-    /**
-     * Sets encoding specification.
-     *
-     * @param encodingSpecification the encoding specification
-     */
-    public void setEncodingSpecification(String encodingSpecification) {
-        this.encodingSpecification = encodingSpecification;
-    }
-
-    /**
-     * Gets encoding specification edition.
-     *
-     * @return the encoding specification edition
-     */
-    public String getEncodingSpecificationEdition() {
-        return encodingSpecificationEdition;
-    }
-
-    /**
-     * Sets encoding specification edition.
-     *
-     * @param encodingSpecificationEdition the encoding specification edition
-     */
-    public void setEncodingSpecificationEdition(String encodingSpecificationEdition) {
-        this.encodingSpecificationEdition = encodingSpecificationEdition;
-    }
-
-    /**
-     * Gets production identifier.
-     *
-     * @return the production identifier
-     */
-    public String getProductionIdentifier() {
-        return productionIdentifier;
-    }
-
-    /**
-     * Sets production identifier.
-     *
-     * @param productionIdentifier the production identifier
-     */
-    public void setProductionIdentifier(String productionIdentifier) {
-        this.productionIdentifier = productionIdentifier;
-    }
-
-    /**
-     * Gets production edition.
-     *
-     * @return the production edition
-     */
-    public String getProductionEdition() {
-        return productionEdition;
-    }
-
-    /**
-     * Sets production edition.
-     *
-     * @param productionEdition the production edition
-     */
-    public void setProductionEdition(String productionEdition) {
-        this.productionEdition = productionEdition;
-    }
-
-    /**
-     * Gets file identifier.
-     *
-     * @return the file identifier
-     */
-    public String getFileIdentifier() {
-        return fileIdentifier;
-    }
-
-    /**
-     * Sets file identifier.
-     *
-     * @param fileIdentifier the file identifier
-     */
-    public void setFileIdentifier(String fileIdentifier) {
-        this.fileIdentifier = fileIdentifier;
-    }
-
-    /**
-     * Gets title.
-     *
-     * @return the title
-     */
-    public String getTitle() {
-        return title;
-    }
-
-    /**
-     * Sets title.
-     *
-     * @param title the title
-     */
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
-    /**
-     * Gets language.
-     *
-     * @return the language
-     */
-    public String getLanguage() {
-        return language;
-    }
-
-    /**
-     * Sets language.
-     *
-     * @param language the language
-     */
-    public void setLanguage(String language) {
-        this.language = language;
-    }
-
-    /**
-     * Gets abstract text.
-     *
-     * @return the abstract text
-     */
-    public String getAbstractText() {
-        return abstractText;
-    }
-
-    /**
-     * Sets abstract text.
-     *
-     * @param abstractText the abstract text
-     */
-    public void setAbstractText(String abstractText) {
-        this.abstractText = abstractText;
+        super("S-125", datasetId, agency, atonNodes);
+        this.setProductionIdentifier(GIRegistryInfo.getProductSpecification().getProductIdentifier());
+        this.setProductionEdition(GIRegistryInfo.getProductSpecification().getVersion());
     }
 
 }
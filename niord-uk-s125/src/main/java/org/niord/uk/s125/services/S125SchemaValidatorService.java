@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.uk.s100.common.models.vo.S100ValidationStatsVo;
+import org.niord.uk.s125.utils.S125SchemaValidator;
+import org.slf4j.Logger;
+
+/**
+ * The S-125 Schema Validator Service
+ * <p/>
+ * Compiles the S-125 schema when the application starts up, so that the
+ * first validated S-125 exports do not have to pay for it, and provides the
+ * default S-125 validation mode, i.e. whether the generated datasets should
+ * be validated when not requested otherwise.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S125SchemaValidatorService {
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "niord.s125.validation.enabled", defaultValue = "false")
+    boolean enabled;
+
+    /**
+     * Compiles the S-125 schema on start-up.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        final long t0 = System.currentTimeMillis();
+        try {
+            S125SchemaValidator.initialise();
+            log.info("Compiled the S-125 schema in " + (System.currentTimeMillis() - t0) + " ms");
+        } catch (RuntimeException ex) {
+            log.error("Failed to compile the S-125 schema: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the generated S-125 datasets should be validated,
+     * either as requested or otherwise by default.
+     *
+     * @param validate whether validation was requested, null for the default
+     * @return whether the generated S-125 datasets should be validated
+     */
+    public boolean isValidating(Boolean validate) {
+        return validate != null ? validate : this.enabled;
+    }
+
+    /**
+     * Returns the current statistics of the S-125 schema validation.
+     *
+     * @return the validation statistics
+     */
+    public S100ValidationStatsVo getStats() {
+        return S125SchemaValidator.getInstance().getStats();
+    }
+
+}
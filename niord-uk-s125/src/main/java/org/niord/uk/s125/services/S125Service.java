@@ -16,98 +16,233 @@
 
 package org.niord.uk.s125.services;
 
-import org.grad.eNav.s125.utils.S125Utils;
-import org.niord.core.NiordApp;
-import org.niord.core.aton.AtonLink;
+import _int.iho.s125.gml.cs0._1.Dataset;
+import _int.iho.s125.s100.gml.base._5_0.AbstractGMLType;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.niord.core.aton.AtonNode;
-import org.niord.core.aton.AtonService;
+import org.niord.uk.s100.common.services.S100DatasetService;
+import org.niord.uk.s100.common.utils.S100ExchangeSetWriter;
+import org.niord.uk.s100.common.utils.S100FragmentCache;
+import org.niord.uk.s100.common.utils.S100JaxbPool;
+import org.niord.uk.s100.common.utils.S100SchemaValidator;
+import org.niord.uk.s125.batch.BatchS125ExportReader;
+import org.niord.uk.s125.batch.BatchS125ExportWriter;
+import org.niord.uk.s125.models.S125AtonTypes;
 import org.niord.uk.s125.models.S125DatasetInfo;
 import org.niord.uk.s125.utils.S125DatasetBuilder;
+import org.niord.uk.s125.utils.S125ExchangeSetWriter;
+import org.niord.uk.s125.utils.S125JaxbPool;
+import org.niord.uk.s125.utils.S125SchemaValidator;
 
-import jakarta.enterprise.context.RequestScoped;
-import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
-import jakarta.xml.bind.JAXBException;
-
-import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import static java.util.function.Predicate.not;
 
 /**
  * The S-125 Service
  * <p/>
  * This is the basic implementation of the S-125 (GRAD Version of course)
- * service. It basically just calls the associated ftl freemarker scripts
- * from the module's resources and returns the populated output.
+ * service. It generates the S-125 datasets through the product agnostic
+ * {@link S100DatasetService}, supplying the S-125 dataset builder, JAXB
+ * pool and schema validator, along with the S-125 configuration.
  * <p/>
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
 @RequestScoped
-public class S125Service {
+public class S125Service extends S100DatasetService<S125DatasetInfo, Dataset, AbstractGMLType, S125AtonTypes> {
 
     @Inject
-    AtonService atonService;
+    S125FragmentCacheService fragmentCacheService;
 
-    @Inject
-    NiordApp app;
+    @ConfigProperty(name = "niord.s125.link-retrieval.max-depth", defaultValue = "32")
+    int maxLinkDepth;
+
+    @ConfigProperty(name = "niord.s125.link-retrieval.max-size", defaultValue = "10000")
+    int maxLinkNodes;
+
+    @ConfigProperty(name = "niord.s125.search.page-size", defaultValue = "1000")
+    int searchPageSize;
+
+    @ConfigProperty(name = "niord.s125.search.max-size", defaultValue = "100000")
+    int maxSearchNodes;
+
+    @ConfigProperty(name = "niord.s125.stable-ids.enabled", defaultValue = "false")
+    boolean stableIds;
+
+    @ConfigProperty(name = "niord.s125.split.max-members", defaultValue = "0")
+    int splitMaxMembers;
+
+    @ConfigProperty(name = "niord.s125.split.max-bytes", defaultValue = "0")
+    long splitMaxBytes;
+
+    /**
+     * Returns the name of the S-125 data product.
+     *
+     * @return the data product name
+     */
+    @Override
+    protected String getProduct() {
+        return "S-125";
+    }
 
     /**
-     * Generates S-125 compliant GML for the message
-     * @param gmlDatasetId the GML dataset identifier string
-     * @param language the language
-     * @param atonUIDs the aton UID
-     * @return the generated GML
+     * Creates the S-125 dataset builder.
+     *
+     * @param stableIds whether to generate stable dataset IDs
+     * @return the S-125 dataset builder
      */
-    @Transactional
-    public String generateGML(String language, String gmlDatasetId, String... atonUIDs) {
-        // Try to access the AtoN
-        final List<AtonNode> atonNodes = this.atonService.findByAtonUids(atonUIDs);
+    @Override
+    protected S125DatasetBuilder createBuilder(boolean stableIds) {
+        return new S125DatasetBuilder(stableIds);
+    }
 
-        // Iterate through the AtoN links and pick up all references
-        this.iterativeLinkRetrieval(atonNodes);
+    /**
+     * Creates the S-125 dataset information.
+     *
+     * @param datasetId the GML dataset identifier
+     * @param organisation the producing organisation
+     * @param atonNodes the AtoN nodes to be included in the dataset
+     * @return the S-125 dataset information
+     */
+    @Override
+    protected S125DatasetInfo createDatasetInfo(String datasetId, String organisation, List<AtonNode> atonNodes) {
+        return new S125DatasetInfo(datasetId, organisation, atonNodes);
+    }
 
-        // Validate the AtoN
-        if (atonNodes.isEmpty()) {
-            throw new IllegalArgumentException("No AtoN not found for UIDs: " + Arrays.toString(atonUIDs));
-        }
+    /**
+     * Returns the shared S-125 JAXB pool.
+     *
+     * @return the S-125 JAXB pool
+     */
+    @Override
+    protected S100JaxbPool<Dataset> getJaxbPool() {
+        return S125JaxbPool.getInstance();
+    }
 
-        // Use the utilities to translate the AtoN node to an S-125 dataset
-        return Optional.of(atonNodes)
-                .map(l -> new S125DatasetBuilder().packageToDataset(new S125DatasetInfo(gmlDatasetId, app.getOrganisation(), l), l))
-                .map(d -> {try {return S125Utils.marshalS125(d);} catch (JAXBException e) {return null;}} )
-                .orElse(null);
+    /**
+     * Returns the shared S-125 schema validator.
+     *
+     * @return the S-125 schema validator
+     */
+    @Override
+    protected S100SchemaValidator getSchemaValidator() {
+        return S125SchemaValidator.getInstance();
     }
 
     /**
-     * This is a small helper function that iterates over the provided list
-     * of AtoN nodes and will pick up the included links in order to append
-     * them to the provided list. This way we can construct a dataset with
-     * all the AtoN nodes that are applicable.
+     * Creates the S-125 exchange set writer.
      *
-     * @param atonNodes the AtoN nodes list to be iterated through
+     * @return the S-125 exchange set writer
      */
-    protected void iterativeLinkRetrieval(List<AtonNode> atonNodes) {
-        // Get the linked AtoN nodes to be appended
-        final Set<AtonNode> appended = atonNodes.stream()
-                .map(AtonNode::getLinks)
-                .flatMap(Set::stream)
-                .map(AtonLink::getPeers)
-                .flatMap(Set::stream)
-                .filter(not(atonNodes::contains))
-                .collect(Collectors.toSet());
+    @Override
+    protected S100ExchangeSetWriter createExchangeSetWriter() {
+        return new S125ExchangeSetWriter();
+    }
 
-        // If there are appended node, iterate through those as well
-        if(appended.size() > 0) {
-            // Append the results to the original list
-            atonNodes.addAll(appended);
+    /**
+     * Returns the S-125 fragment cache.
+     *
+     * @return the S-125 fragment cache
+     */
+    @Override
+    protected S100FragmentCache getFragmentCache() {
+        return this.fragmentCacheService.getCache();
+    }
 
-            // And iterate again
-            iterativeLinkRetrieval(atonNodes);
-        }
+    /**
+     * Returns the name of the S-125 export batch job.
+     *
+     * @return the export batch job name
+     */
+    @Override
+    protected String getExportJob() {
+        return BatchS125ExportReader.EXPORT_JOB;
+    }
+
+    /**
+     * Returns the repository folder of the exported S-125 datasets.
+     *
+     * @return the export folder
+     */
+    @Override
+    protected String getExportFolder() {
+        return BatchS125ExportWriter.EXPORT_FOLDER;
+    }
+
+    /**
+     * Returns the maximum depth of the S-125 AtoN links to follow.
+     *
+     * @return the maximum link depth
+     */
+    @Override
+    protected int getMaxLinkDepth() {
+        return this.maxLinkDepth;
+    }
+
+    /**
+     * Returns the maximum number of linked AtoN nodes to pick up for an
+     * S-125 dataset.
+     *
+     * @return the maximum number of linked AtoN nodes
+     */
+    @Override
+    protected int getMaxLinkNodes() {
+        return this.maxLinkNodes;
+    }
+
+    /**
+     * Returns the number of AtoN nodes to search for or load per query for
+     * an S-125 dataset.
+     *
+     * @return the search page size
+     */
+    @Override
+    protected int getSearchPageSize() {
+        return this.searchPageSize;
+    }
+
+    /**
+     * Returns the maximum number of AtoN nodes to include in an S-125
+     * dataset.
+     *
+     * @return the maximum number of AtoN nodes
+     */
+    @Override
+    protected int getMaxSearchNodes() {
+        return this.maxSearchNodes;
+    }
+
+    /**
+     * Returns whether the S-125 datasets are generated with stable dataset
+     * IDs.
+     *
+     * @return whether stable dataset IDs are enabled
+     */
+    @Override
+    protected boolean isStableIds() {
+        return this.stableIds;
+    }
+
+    /**
+     * Returns the maximum number of members of each S-125 dataset of an
+     * exchange set, 0 for no limit.
+     *
+     * @return the maximum number of members per dataset
+     */
+    @Override
+    protected int getSplitMaxMembers() {
+        return this.splitMaxMembers;
+    }
+
+    /**
+     * Returns the maximum size in bytes of each S-125 dataset of an exchange
+     * set, 0 for no limit.
+     *
+     * @return the maximum size per dataset
+     */
+    @Override
+    protected long getSplitMaxBytes() {
+        return this.splitMaxBytes;
     }
 
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.uk.s100.common.utils.S100XsdCache;
+import org.niord.uk.s125.utils.S125XsdCache;
+import org.slf4j.Logger;
+
+import java.util.Optional;
+
+/**
+ * The S-125 XSD Cache Service
+ * <p/>
+ * Loads all the XSDs of the S-125 library into memory when the application
+ * starts up, so that they can be served to the clients without reading the
+ * library for every single request, and provides the time the clients are
+ * allowed to cache them for.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S125XsdCacheService {
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "niord.s125.xsd-cache.max-age", defaultValue = "86400")
+    int maxAge;
+
+    /**
+     * Loads the S-125 XSDs on start-up.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        final long t0 = System.currentTimeMillis();
+        try {
+            final S125XsdCache xsdCache = S125XsdCache.initialise();
+            log.info("Loaded " + xsdCache.size() + " S-125 XSDs in " + (System.currentTimeMillis() - t0) + " ms");
+        } catch (RuntimeException ex) {
+            log.error("Failed to load the S-125 XSDs: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Looks up the cached S-125 XSD with the provided relative path.
+     *
+     * @param name the relative path of the XSD, e.g. "S125.xsd"
+     * @return the cached XSD, if found
+     */
+    public Optional<S100XsdCache.Xsd> getXsd(String name) {
+        return S125XsdCache.getInstance().get(name);
+    }
+
+    /**
+     * Returns the time in seconds the clients are allowed to cache the
+     * S-125 XSDs for.
+     *
+     * @return the XSD cache max-age in seconds
+     */
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+}
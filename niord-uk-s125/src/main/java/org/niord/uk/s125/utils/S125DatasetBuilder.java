@@ -30,26 +30,36 @@ import _int.iho.s125.gml.cs0._1.S100TruncatedDate;
 import _int.iho.s125.gml.cs0._1.*;
 import _int.iho.s125.gml.cs0._1.impl.*;
 import _int.iho.s125.gml.cs0._1.impl.S100TruncatedDateImpl;
-import org.apache.commons.lang3.StringUtils;
 import org.grad.eNav.s125.utils.S125Utils;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
 import org.niord.core.aton.AtonLink;
 import org.niord.core.aton.AtonLinkType;
 import org.niord.core.aton.AtonNode;
 import org.niord.core.aton.AtonTag;
+import org.niord.uk.s100.common.utils.S100BoundedCounter;
+import org.niord.uk.s100.common.utils.S100CoordinateUtils;
+import org.niord.uk.s100.common.utils.S100DatasetAdapter;
+import org.niord.uk.s100.common.utils.S100TagMapping;
 import org.niord.uk.s125.models.S125AtonTypes;
 import org.niord.uk.s125.models.S125DatasetInfo;
 
 import java.lang.Boolean;
+import java.lang.reflect.Method;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -68,7 +78,7 @@ import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
  *
  * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
  */
-public class S125DatasetBuilder {
+public class S125DatasetBuilder implements S100DatasetAdapter<S125DatasetInfo, Dataset, AbstractGMLType> {
 
     /*
      * The standard parent reference archole.
@@ -80,7 +90,6 @@ public class S125DatasetBuilder {
      */
     protected static final String CHILD_REF_ARCHOLE = "urn:IALA:S125:roles:child";
 
-    /*
     /*
      * The standard aggregation reference archole.
      */
@@ -96,21 +105,104 @@ public class S125DatasetBuilder {
      */
     protected static final String ATON_STATUS_REF_ARCHOLE = "urn:IALA:S125:roles:atonStatus";
 
+    /*
+     * The tag holding the minimum scale the AtoN should be displayed at.
+     */
+    protected static final String SCALE_MINIMUM_TAG = "s100:aidsToNavigation:scale_minimum";
+
+    /*
+     * The tag holding the MRN of the AtoN.
+     */
+    protected static final String MRN_TAG = "mrn";
+
+    /*
+     * The maximum number of distinct unknown seamark types to be counted.
+     */
+    protected static final int MAX_UNKNOWN_ATON_TYPES = 1000;
+
+    /*
+     * The number of digest bytes the stable dataset IDs are made of.
+     */
+    protected static final int STABLE_ID_BYTES = 8;
+
+    // The unknown seamark types encountered by all the builders
+    private static final S100BoundedCounter unknownAtonTypes = new S100BoundedCounter(MAX_UNKNOWN_ATON_TYPES);
+
+    // The geometry property setters of the geometry type of each S-125
+    // feature, looked up once when the class is loaded
+    private static final Map<Class<?>, Set<String>> geometrySetters = Stream.of(
+                    BeaconCardinalImpl.Geometry.class,
+                    BeaconLateralImpl.Geometry.class,
+                    BeaconIsolatedDangerImpl.Geometry.class,
+                    BeaconSafeWaterImpl.Geometry.class,
+                    BeaconSpecialPurposeGeneralImpl.Geometry.class,
+                    BuoyCardinalImpl.Geometry.class,
+                    BuoyLateralImpl.Geometry.class,
+                    BuoyInstallationImpl.Geometry.class,
+                    BuoyIsolatedDangerImpl.Geometry.class,
+                    BuoySafeWaterImpl.Geometry.class,
+                    BuoySpecialPurposeGeneralImpl.Geometry.class,
+                    LandmarkType.Geometry.class,
+                    LighthouseImpl.Geometry.class,
+                    LightVesselImpl.Geometry.class,
+                    VirtualAISAidToNavigationImpl.Geometry.class,
+                    DaymarkImpl.Geometry.class,
+                    FogSignalImpl.Geometry.class,
+                    LightImpl.Geometry.class,
+                    RadarReflectorImpl.Geometry.class,
+                    RetroReflectorImpl.Geometry.class,
+                    SiloTankImpl.Geometry.class,
+                    TopmarkImpl.Geometry.class,
+                    RadioStationImpl.Geometry.class,
+                    RadarTransponderBeaconImpl.Geometry.class,
+                    PhysicalAISAidToNavigationImpl.Geometry.class)
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), S125DatasetBuilder::findGeometrySetters));
+
     // Class Variables
+    private final boolean stableIds;
+    private final S125PresetPlan presetPlan;
     private String idFormat;
     private AtomicInteger idIndex;
     private Map<Integer, String> idMap;
+    private Map<Integer, String> geometryIdMap;
+    private Map<Integer, String> linkIdMap;
+    private Map<AtonNode, Envelope> envelopeMap;
     private HashSet<Integer> linksSet;
+    private Map<String, String> externalDatasets;
+    private Set<Integer> excludedLinks;
+    private Set<Integer> encodedNodes;
     private _int.iho.s125.s100.gml.profiles._5_0.ObjectFactory opengisGMLFactory;
 
     /**
      * Class Constructor.
      */
     public S125DatasetBuilder() {
+        this(false);
+    }
+
+    /**
+     * Class Constructor.
+     * <p/>
+     * By default, the dataset IDs are assigned sequentially, e.g. "ID001",
+     * so the same AtoN gets a different ID in every dataset. With stable IDs
+     * enabled, the IDs are derived from the MRN or the UID of each AtoN
+     * instead, so identical features always serialize identically and the
+     * generated datasets can be cached and compared byte for byte.
+     *
+     * @param stableIds     Whether to derive the dataset IDs from the AtoN identities
+     */
+    public S125DatasetBuilder(boolean stableIds) {
+        this.stableIds = stableIds;
+        this.presetPlan = S125PresetPlan.getInstance();
         this.idFormat = String.format("ID%%0%dd", 3);
         this.idIndex = new AtomicInteger(1);
         this.idMap = new HashMap<>();
+        this.geometryIdMap = new HashMap<>();
+        this.linkIdMap = new HashMap<>();
+        this.envelopeMap = new IdentityHashMap<>();
         this.linksSet = new HashSet<>();
+        this.externalDatasets = Collections.emptyMap();
+        this.excludedLinks = Collections.emptySet();
         this.opengisGMLFactory = new _int.iho.s125.s100.gml.profiles._5_0.ObjectFactory();
     }
     
@@ -122,13 +214,54 @@ public class S125DatasetBuilder {
      * @param DatasetInfo   The Dataset information
      * @param atonNodes     The list of S-125 AtoN nodes
      */
+    @Override
     public Dataset packageToDataset(S125DatasetInfo DatasetInfo,
                                     List<AtonNode> atonNodes) {
+        // Initialise the Dataset
+        Dataset s125Dataset = this.initialiseDataset(DatasetInfo, atonNodes);
+
+        //====================================================================//
+        //                      Dataset MEMBERS SECTION                       //
+        //====================================================================//
+        S125Utils.addDatasetMembers(s125Dataset, Optional.ofNullable(atonNodes)
+                .orElse(Collections.emptyList())
+                .stream()
+                .flatMap(aton ->
+                    Stream.of(
+                            Stream.of(this.generateAidsToNavigation(aton)),
+                            this.getChildren(aton).stream().map(this::generateAidsToNavigation),
+                            this.generateAidsToNavigationLinks(aton).stream()
+                    ).flatMap(i -> i)
+                )
+                .toList());
+
+        // Return the Dataset
+        return s125Dataset;
+    }
+
+    /**
+     * Initialises the S-125 Dataset for the provided list of AtoN nodes,
+     * populating everything apart from the dataset members. As part of the
+     * initialisation, all the IDs of the dataset members, their geometries
+     * and their links are pre-assigned, so that the members can afterwards
+     * be generated in any order (e.g. by the {@link S125DatasetWriter})
+     * without affecting the output.
+     *
+     * @param DatasetInfo   The Dataset information
+     * @param atonNodes     The list of S-125 AtoN nodes
+     * @return the initialised S-125 Dataset without any members
+     */
+    @Override
+    public Dataset initialiseDataset(S125DatasetInfo DatasetInfo,
+                                     List<AtonNode> atonNodes) {
         // Update the ID format based on the number of inputs. The general
         // guideline is that it should look like "ID001" with the number of
         // digits being enough to enumerate all the AtoN node entries available.
         this.idFormat = String.format("ID%%0%dd", Math.max(1, String.format("%d", atonNodes.size()).length() + 2));
 
+        // Pre-assign all the dataset IDs
+        this.assignIds(atonNodes);
+
         // Initialise the Dataset
         Dataset s125Dataset = new DatasetImpl();
         s125Dataset.setId(DatasetInfo.getDatasetId());
@@ -136,7 +269,7 @@ public class S125DatasetBuilder {
         //====================================================================//
         //                       BOUNDED BY SECTION                           //
         //====================================================================//
-        s125Dataset.setBoundedBy(this.generateBoundingShape(atonNodes));
+        s125Dataset.setBoundedBy(this.generateBoundingShape(this.assignEnvelopes(atonNodes)));
 
         //====================================================================//
         //                  Dataset IDENTIFICATION SECTION                    //
@@ -153,25 +286,42 @@ public class S125DatasetBuilder {
         datasetIdentificationType.setDatasetAbstract(DatasetInfo.getAbstractText());
         s125Dataset.setDatasetIdentificationInformation(datasetIdentificationType);
 
-        //====================================================================//
-        //                      Dataset MEMBERS SECTION                       //
-        //====================================================================//
-        S125Utils.addDatasetMembers(s125Dataset, Optional.ofNullable(atonNodes)
-                .orElse(Collections.emptyList())
-                .stream()
-                .flatMap(aton ->
-                    Stream.of(
-                            Stream.of(this.generateAidsToNavigation(aton)),
-                            aton.getChildren().stream().map(this::generateAidsToNavigation),
-                            this.generateAidsToNavigationLinks(aton).stream()
-                    ).flatMap(i -> i)
-                )
-                .toList());
-
         // Return the Dataset
         return s125Dataset;
     }
 
+    /**
+     * Creates a new empty S-125 Dataset.
+     *
+     * @return the new empty S-125 Dataset
+     */
+    @Override
+    public Dataset createDataset() {
+        return new DatasetImpl();
+    }
+
+    /**
+     * Adds the provided members to the provided S-125 Dataset.
+     *
+     * @param dataset       The S-125 Dataset
+     * @param members       The members to be added
+     */
+    @Override
+    public void addDatasetMembers(Dataset dataset, List<AbstractGMLType> members) {
+        S125Utils.addDatasetMembers(dataset, members);
+    }
+
+    /**
+     * Returns the dataset ID of the provided S-125 Dataset member.
+     *
+     * @param member        The S-125 Dataset member
+     * @return the dataset ID of the member
+     */
+    @Override
+    public String getMemberId(AbstractGMLType member) {
+        return member.getId();
+    }
+
     /**
      * This is another entry method static function of the utility. It will
      * examine the provided AtoN Node from Niord and generate a standardised
@@ -181,12 +331,15 @@ public class S125DatasetBuilder {
      * @param atonNode      The Niord AtoN node object
      * @return The generated S-125 data message
      */
+    @Override
     public AbstractGMLType generateAidsToNavigation(AtonNode atonNode) {
-        // First read the AtoN type information from the input
-        S125AtonTypes atonType = S125AtonTypes.fromSeamarkType(atonNode.getTagValue(TAG_ATON_TYPE));
-        // Fix for AIS stations
-        if(S125AtonTypes.RADIO_STATION == atonType && "ais".equals(atonNode.getTagValue("seamark:radio_station:category"))) {
-            atonType = S125AtonTypes.PHYSICAL_AIS_ATON;
+        // First index the AtoN tags and read the AtoN type information from them
+        final Map<String, AtonTag> atonTags = this.indexTags(atonNode);
+        final S125AtonTypes atonType = this.resolveAtonType(atonTags);
+        // Unknown types cannot be encoded, so just count them
+        if(atonType == null) {
+            this.countUnknownAtonType(atonNode);
+            return null;
         }
         // Now initialise the JAXB object factory to generate the member
         return switch (atonType) {
@@ -194,62 +347,171 @@ public class S125DatasetBuilder {
             //    STRUCTURE OBJECTS    //
             //=========================//
             case CARDINAL_BEACON ->
-                    this.generateBeaconCardinal(atonNode);
+                    this.generateBeaconCardinal(atonNode, atonTags);
             case LATERAL_BEACON ->
-                    this.generateBeaconLateral(atonNode);
+                    this.generateBeaconLateral(atonNode, atonTags);
             case ISOLATED_DANGER_BEACON ->
-                    this.generateBeaconIsolatedDanger(atonNode);
+                    this.generateBeaconIsolatedDanger(atonNode, atonTags);
             case SAFE_WATER_BEACON ->
-                    this.generateBeaconSafeWater(atonNode);
+                    this.generateBeaconSafeWater(atonNode, atonTags);
             case SPECIAL_PURPOSE_BEACON ->
-                    this.generateBeaconSpecialPurpose(atonNode);
+                    this.generateBeaconSpecialPurpose(atonNode, atonTags);
             case CARDINAL_BUOY ->
-                    this.generateBuoyCardinal(atonNode);
+                    this.generateBuoyCardinal(atonNode, atonTags);
             case LATERAL_BUOY ->
-                    this.generateBuoyLateral(atonNode);
+                    this.generateBuoyLateral(atonNode, atonTags);
             case INSTALLATION_BUOY ->
-                    this.generateBuoyInstallation(atonNode);
+                    this.generateBuoyInstallation(atonNode, atonTags);
             case ISOLATED_DANGER_BUOY ->
-                    this.generateBuoyIsolatedDanger(atonNode);
+                    this.generateBuoyIsolatedDanger(atonNode, atonTags);
             case SAFE_WATER_BUOY ->
-                    this.generateBuoySafeWater(atonNode);
+                    this.generateBuoySafeWater(atonNode, atonTags);
             case SPECIAL_PURPOSE_BUOY ->
-                    this.generateBuoySpecialPurpose(atonNode);
+                    this.generateBuoySpecialPurpose(atonNode, atonTags);
             case LANDMARK ->
-                    this.generateLandmark(atonNode);
+                    this.generateLandmark(atonNode, atonTags);
             case LIGHTHOUSE ->
-                    this.generateLighthouse(atonNode);
+                    this.generateLighthouse(atonNode, atonTags);
             case LIGHT_VESSEL ->
-                    this.generateLightVessel(atonNode);
+                    this.generateLightVessel(atonNode, atonTags);
             case VIRTUAL_ATON ->
-                    this.generateVirtualAtoN(atonNode);
+                    this.generateVirtualAtoN(atonNode, atonTags);
             //=========================//
             //    EQUIPMENT OBJECTS    //
             //=========================//
             case DAYMARK ->
-                    this.generateDaymark(atonNode);
+                    this.generateDaymark(atonNode, atonTags);
             case FOG_SIGNAL ->
-                    this.generateFogSignal(atonNode);
+                    this.generateFogSignal(atonNode, atonTags);
             case LIGHT ->
-                    this.generateLight(atonNode);
+                    this.generateLight(atonNode, atonTags);
             case RADAR_REFLECTOR ->
-                    this.generateRadarReflector(atonNode);
+                    this.generateRadarReflector(atonNode, atonTags);
             case RETRO_REFLECTOR ->
-                    this.generateRetroReflector(atonNode);
+                    this.generateRetroReflector(atonNode, atonTags);
             case SILOS_AND_TANKS ->
-                    this.generateSiloTank(atonNode);
+                    this.generateSiloTank(atonNode, atonTags);
             case TOPMARK ->
-                    this.generateTopmark(atonNode);
+                    this.generateTopmark(atonNode, atonTags);
             case RADIO_STATION ->
-                    this.generateRadioStation(atonNode);
+                    this.generateRadioStation(atonNode, atonTags);
             case RADAR_TRANSPONDER ->
-                    this.generateRadarTransponderBeacon(atonNode);
+                    this.generateRadarTransponderBeacon(atonNode, atonTags);
             case PHYSICAL_AIS_ATON ->
-                    this.generatePhysicalAISAtoN(atonNode);
+                    this.generatePhysicalAISAtoN(atonNode, atonTags);
             default -> null;
         };
     }
 
+    /**
+     * Resolves the S-125 AtoN type of the provided AtoN node based on its
+     * seamark type tag, as dictated by the S-125 preset plan.
+     *
+     * @param atonNode      The Niord AtoN node object
+     * @return The S-125 AtoN type of the node
+     */
+    @Override
+    public S125AtonTypes resolveAtonType(AtonNode atonNode) {
+        return this.presetPlan.resolveAtonType(atonNode.getTagValue(TAG_ATON_TYPE), atonNode::getTagValue);
+    }
+
+    /**
+     * Resolves the S-125 AtoN type of an AtoN node based on its seamark type
+     * tag, as dictated by the S-125 preset plan, using the already indexed tags
+     * of the node.
+     *
+     * @param atonTags      The tags of the AtoN node, indexed by their key
+     * @return The S-125 AtoN type of the node
+     */
+    protected S125AtonTypes resolveAtonType(Map<String, AtonTag> atonTags) {
+        final UnaryOperator<String> tagValues = key -> Optional.ofNullable(atonTags.get(key)).map(AtonTag::getV).orElse(null);
+        return this.presetPlan.resolveAtonType(tagValues.apply(TAG_ATON_TYPE), tagValues);
+    }
+
+    /**
+     * Counts the AtoN node as one of an unknown seamark type, since it cannot
+     * be encoded as a dataset member.
+     *
+     * @param atonNode      The Niord AtoN node object
+     */
+    @Override
+    public void countUnknownAtonType(AtonNode atonNode) {
+        unknownAtonTypes.increment(Optional.ofNullable(atonNode.getTagValue(TAG_ATON_TYPE)).orElse(""));
+    }
+
+    /**
+     * Returns the number of AtoN nodes encountered so far for each unknown
+     * seamark type. Once too many distinct unknown types have been seen, the
+     * rest are counted under "*".
+     *
+     * @return the AtoN node counts per unknown seamark type
+     */
+    public static Map<String, Long> getUnknownAtonTypes() {
+        return unknownAtonTypes.getCounts();
+    }
+
+    /**
+     * Returns all the AtoN tag keys the S-125 dataset members are populated
+     * from, through the tag mappings of the feature types.
+     *
+     * @return the mapped AtoN tag keys, sorted
+     */
+    public static Set<String> getMappedTagKeys() {
+        return Stream.of(BEACON_CARDINAL_TAGS, BEACON_LATERAL_TAGS, BEACON_ISOLATED_DANGER_TAGS, BEACON_SAFE_WATER_TAGS,
+                BEACON_SPECIAL_PURPOSE_TAGS, BUOY_CARDINAL_TAGS, BUOY_LATERAL_TAGS, BUOY_INSTALLATION_TAGS,
+                BUOY_ISOLATED_DANGER_TAGS, BUOY_SAFE_WATER_TAGS, BUOY_SPECIAL_PURPOSE_TAGS, LANDMARK_TAGS,
+                LIGHTHOUSE_TAGS, LIGHT_VESSEL_TAGS, VIRTUAL_ATON_TAGS, DAYMARK_TAGS, FOG_SIGNAL_TAGS, LIGHT_TAGS,
+                RADAR_REFLECTOR_TAGS, RETRO_REFLECTOR_TAGS, SILO_TANK_TAGS, TOPMARK_TAGS, RADIO_STATION_TAGS,
+                RADAR_TRANSPONDER_BEACON_TAGS, PHYSICAL_AIS_ATON_TAGS, AIDS_TO_NAVIGATION_TAGS)
+                .map(S100TagMapping::getKeys)
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Collects the aggregation and association links of the provided AtoN
+     * nodes that will be encoded in the dataset, in the same order as they
+     * are generated by the {@link #generateAidsToNavigationLinks(AtonNode)}
+     * function, and without any duplicates.
+     *
+     * @param atonNodes     The AtoN nodes to collect the links from
+     * @return the ordered list of aggregation/association links
+     */
+    @Override
+    public List<AtonLink> collectAidsToNavigationLinks(List<AtonNode> atonNodes) {
+        final Set<Integer> collected = new HashSet<>();
+        return atonNodes.stream()
+                .map(atonNode -> this.collectAidsToNavigationLinks(atonNode, collected))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Collects the aggregation and association links of the provided AtoN
+     * node that will be encoded in the dataset, skipping the ones already
+     * collected for other AtoN nodes and the ones that cannot be encoded.
+     *
+     * @param atonNode      The AtoN node to collect the links from
+     * @param collected     The IDs of the links already collected
+     * @return the ordered list of aggregation/association links
+     */
+    private List<AtonLink> collectAidsToNavigationLinks(AtonNode atonNode, Set<Integer> collected) {
+        if(atonNode.getLinks() == null || atonNode.getLinks().isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<AtonLink> links = Stream.of(AtonLinkType.AGGREGATION, AtonLinkType.ASSOCIATION)
+                .flatMap(type -> this.getLinks(atonNode).stream()
+                        .filter(link -> link.getLinkCategory().getAtonLinkType() == type))
+                .filter(not(link -> collected.contains(link.getId())))
+                .filter(not(link -> this.excludedLinks.contains(link.getId())))
+                .filter(this::isEncodable)
+                .toList();
+        atonNode.getLinks().stream()
+                .map(AtonLink::getId)
+                .forEach(collected::add);
+        return links;
+    }
+
     /**
      * This is another entry method static function of the utility. It will
      * examine the provided AtoN Node links from Niord and generate a standardised
@@ -268,17 +530,21 @@ public class S125DatasetBuilder {
         final List<AbstractGMLType> linkCollection = new ArrayList<>();
 
         // Add the aggregation links
-        atonNode.getLinks().stream()
+        this.getLinks(atonNode).stream()
                 .filter(link -> link.getLinkCategory().getAtonLinkType() == AtonLinkType.AGGREGATION)
                 .filter(not(link -> this.linksSet.contains(link.getId())))
+                .filter(not(link -> this.excludedLinks.contains(link.getId())))
+                .filter(this::isEncodable)
                 .map(this::generateAggregation)
                 .filter(Objects::nonNull)
                 .forEach(linkCollection::add);
 
         // Add the association links
-        atonNode.getLinks().stream()
+        this.getLinks(atonNode).stream()
                 .filter(link -> link.getLinkCategory().getAtonLinkType() == AtonLinkType.ASSOCIATION)
                 .filter(not(link -> this.linksSet.contains(link.getId())))
+                .filter(not(link -> this.excludedLinks.contains(link.getId())))
+                .filter(this::isEncodable)
                 .map(this::generateAssociation)
                 .filter(Objects::nonNull)
                 .forEach(linkCollection::add);
@@ -293,73 +559,38 @@ public class S125DatasetBuilder {
         return linkCollection;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Beacon Cardinal members.
+     */
+    private static final S100TagMapping<BeaconCardinal> BEACON_CARDINAL_TAGS = S100TagMapping.<BeaconCardinal>builder()
+            .value("seamark:beacon_cardinal:shape", S125EnumParser::parseBeaconShape, BeaconCardinal::setBeaconShape)
+            .elements("seamark:beacon_cardinal:colour", S125EnumParser::parseColour, BeaconCardinal::getColours)
+            .elements("seamark:beacon_cardinal:colour_pattern", S125EnumParser::parseColourPattern, BeaconCardinal::getColourPatterns)
+            .value("s100:aidsToNavigation:generic_beacon:height", S100TagMapping.nonBlank(Double::parseDouble), BeaconCardinal::setHeight)
+            .value("seamark:beacon_cardinal:system", S125EnumParser::parseMarksNavigationalSystemOf, BeaconCardinal::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_beacon:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BeaconCardinal::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_beacon:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BeaconCardinal::setRadarConspicuous)
+            .value("s100:aidsToNavigation:generic_beacon:visually_conspicuous", S125EnumParser::parseVisualProminence, BeaconCardinal::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, BeaconCardinal::getStatuses)
+            .value("seamark:beacon_cardinal:category", S125EnumParser::parseCategoryOfCardinalMark, BeaconCardinal::setCategoryOfCardinalMark)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Beacon Cardinal AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BeaconCardinal generateBeaconCardinal(AtonNode atonNode) {
+    protected BeaconCardinal generateBeaconCardinal(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BeaconCardinal member = new BeaconCardinalImpl();
-        final String tagKeyPrefix = "seamark:beacon_cardinal:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_beacon:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBeaconShape(Optional.of(tagKeyPrefix+"shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBeaconShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"visually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setCategoryOfCardinalMark(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfCardinalMark)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BEACON_CARDINAL_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BeaconCardinalImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BeaconCardinalImpl.Geometry.class::isInstance)
@@ -370,73 +601,38 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Beacon Lateral members.
+     */
+    private static final S100TagMapping<BeaconLateral> BEACON_LATERAL_TAGS = S100TagMapping.<BeaconLateral>builder()
+            .value("seamark:beacon_lateral:shape", S125EnumParser::parseBeaconShape, BeaconLateral::setBeaconShape)
+            .elements("seamark:beacon_lateral:colour", S125EnumParser::parseColour, BeaconLateral::getColours)
+            .elements("seamark:beacon_lateral:colour_pattern", S125EnumParser::parseColourPattern, BeaconLateral::getColourPatterns)
+            .value("s100:aidsToNavigation:generic_beacon:height", S100TagMapping.nonBlank(Double::parseDouble), BeaconLateral::setHeight)
+            .value("seamark:beacon_lateral:system", S125EnumParser::parseMarksNavigationalSystemOf, BeaconLateral::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_beacon:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BeaconLateral::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_beacon:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BeaconLateral::setRadarConspicuous)
+            .value("s100:aidsToNavigation:generic_beacon:visually_conspicuous", S125EnumParser::parseVisualProminence, BeaconLateral::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, BeaconLateral::getStatuses)
+            .value("seamark:beacon_lateral:category", S125EnumParser::parseCategoryOfLateralMark, BeaconLateral::setCategoryOfLateralMark)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Beacon Lateral AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BeaconLateral generateBeaconLateral(AtonNode atonNode) {
+    protected BeaconLateral generateBeaconLateral(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BeaconLateral member = new BeaconLateralImpl();
-        final String tagKeyPrefix = "seamark:beacon_lateral:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_beacon:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBeaconShape(Optional.of(tagKeyPrefix+"shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBeaconShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix + "colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"visually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setCategoryOfLateralMark(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfLateralMark)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BEACON_LATERAL_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BeaconLateralImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BeaconLateralImpl.Geometry.class::isInstance)
@@ -447,69 +643,38 @@ public class S125DatasetBuilder {
         return  member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Beacon Isolated Danger members.
+     */
+    private static final S100TagMapping<BeaconIsolatedDanger> BEACON_ISOLATED_DANGER_TAGS = S100TagMapping.<BeaconIsolatedDanger>builder()
+            .value("seamark:beacon_isolated_danger:shape", S125EnumParser::parseBeaconShape, BeaconIsolatedDanger::setBeaconShape)
+            .elements("seamark:beacon_isolated_danger:colour", S125EnumParser::parseColour, BeaconIsolatedDanger::getColours)
+            .elements("seamark:beacon_isolated_danger:colour_pattern", S125EnumParser::parseColourPattern, BeaconIsolatedDanger::getColourPatterns)
+            .value("s100:aidsToNavigation:generic_beacon:height", S100TagMapping.nonBlank(Double::parseDouble), BeaconIsolatedDanger::setHeight)
+            .value("seamark:beacon_isolated_danger:system", S125EnumParser::parseMarksNavigationalSystemOf, BeaconIsolatedDanger::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_beacon:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BeaconIsolatedDanger::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_beacon:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BeaconIsolatedDanger::setRadarConspicuous)
+            .value("s100:aidsToNavigation:generic_beacon:visually_conspicuous", S125EnumParser::parseVisualProminence, BeaconIsolatedDanger::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, BeaconIsolatedDanger::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Beacon Isolated Danger
      * AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BeaconIsolatedDanger generateBeaconIsolatedDanger(AtonNode atonNode) {
+    protected BeaconIsolatedDanger generateBeaconIsolatedDanger(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BeaconIsolatedDanger member = new BeaconIsolatedDangerImpl();
-        final String tagKeyPrefix = "seamark:beacon_isolated_danger:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_beacon:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBeaconShape(Optional.of(tagKeyPrefix+"shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBeaconShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"visually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BEACON_ISOLATED_DANGER_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BeaconIsolatedDangerImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BeaconIsolatedDangerImpl.Geometry.class::isInstance)
@@ -520,68 +685,37 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Beacon Safe Water members.
+     */
+    private static final S100TagMapping<BeaconSafeWater> BEACON_SAFE_WATER_TAGS = S100TagMapping.<BeaconSafeWater>builder()
+            .value("seamark:beacon_safe_water:shape", S125EnumParser::parseBeaconShape, BeaconSafeWater::setBeaconShape)
+            .elements("seamark:beacon_safe_water:colour", S125EnumParser::parseColour, BeaconSafeWater::getColours)
+            .elements("seamark:beacon_safe_water:colour_pattern", S125EnumParser::parseColourPattern, BeaconSafeWater::getColourPatterns)
+            .value("s100:aidsToNavigation:generic_beacon:height", S100TagMapping.nonBlank(Double::parseDouble), BeaconSafeWater::setHeight)
+            .value("seamark:beacon_safe_water:system", S125EnumParser::parseMarksNavigationalSystemOf, BeaconSafeWater::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_beacon:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BeaconSafeWater::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_beacon:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BeaconSafeWater::setRadarConspicuous)
+            .value("s100:aidsToNavigation:generic_beacon:visually_conspicuous", S125EnumParser::parseVisualProminence, BeaconSafeWater::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, BeaconSafeWater::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Beacon Safe Water AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BeaconSafeWater generateBeaconSafeWater(AtonNode atonNode) {
+    protected BeaconSafeWater generateBeaconSafeWater(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BeaconSafeWater member = new BeaconSafeWaterImpl();
-        final String tagKeyPrefix = "seamark:beacon_safe_water:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_beacon:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBeaconShape(Optional.of("seamark:beacon_safe_water:shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBeaconShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"visually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BEACON_SAFE_WATER_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BeaconSafeWaterImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BeaconSafeWaterImpl.Geometry.class::isInstance)
@@ -592,74 +726,39 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Beacon Special Purpose General members.
+     */
+    private static final S100TagMapping<BeaconSpecialPurposeGeneral> BEACON_SPECIAL_PURPOSE_TAGS = S100TagMapping.<BeaconSpecialPurposeGeneral>builder()
+            .value("seamark:beacon_special_purpose:shape", S125EnumParser::parseBeaconShape, BeaconSpecialPurposeGeneral::setBeaconShape)
+            .elements("seamark:beacon_special_purpose:colour", S125EnumParser::parseColour, BeaconSpecialPurposeGeneral::getColours)
+            .elements("seamark:beacon_special_purpose:colour_pattern", S125EnumParser::parseColourPattern, BeaconSpecialPurposeGeneral::getColourPatterns)
+            .value("s100:aidsToNavigation:generic_beacon:height", S100TagMapping.nonBlank(Double::parseDouble), BeaconSpecialPurposeGeneral::setHeight)
+            .value("seamark:beacon_special_purpose:system", S125EnumParser::parseMarksNavigationalSystemOf, BeaconSpecialPurposeGeneral::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_beacon:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BeaconSpecialPurposeGeneral::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_beacon:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BeaconSpecialPurposeGeneral::setRadarConspicuous)
+            .value("s100:aidsToNavigation:generic_beacon:isually_conspicuous", S125EnumParser::parseVisualProminence, BeaconSpecialPurposeGeneral::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, BeaconSpecialPurposeGeneral::getStatuses)
+            .element("seamark:beacon_special_purpose:category", S125EnumParser::parseCategoryOfSpecialPurposeMark, BeaconSpecialPurposeGeneral::getCategoryOfSpecialPurposeMarks)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Beacon Special Purpose
      * AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BeaconSpecialPurposeGeneral generateBeaconSpecialPurpose(AtonNode atonNode) {
+    protected BeaconSpecialPurposeGeneral generateBeaconSpecialPurpose(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BeaconSpecialPurposeGeneral member = new BeaconSpecialPurposeGeneralImpl();
-        final String tagKeyPrefix = "seamark:beacon_special_purpose:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_beacon:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBeaconShape(Optional.of(tagKeyPrefix+"shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBeaconShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"isually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.getCategoryOfSpecialPurposeMarks().add(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfSpecialPurposeMark)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BEACON_SPECIAL_PURPOSE_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BeaconSpecialPurposeGeneralImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BeaconSpecialPurposeGeneralImpl.Geometry.class::isInstance)
@@ -670,62 +769,36 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Buoy Cardinal members.
+     */
+    private static final S100TagMapping<BuoyCardinal> BUOY_CARDINAL_TAGS = S100TagMapping.<BuoyCardinal>builder()
+            .value("seamark:buoy_cardinal:shape", S125EnumParser::parseBuoyShape, BuoyCardinal::setBuoyShape)
+            .elements("seamark:buoy_cardinal:colour", S125EnumParser::parseColour, BuoyCardinal::getColours)
+            .elements("seamark:buoy_cardinal:colour_pattern", S125EnumParser::parseColourPattern, BuoyCardinal::getColourPatterns)
+            .value("seamark:buoy_cardinal:system", S125EnumParser::parseMarksNavigationalSystemOf, BuoyCardinal::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_buoy:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BuoyCardinal::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_buoy:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BuoyCardinal::setRadarConspicuous)
+            .elements("seamark:status", S125EnumParser::parseStatus, BuoyCardinal::getStatuses)
+            .value("seamark:buoy_cardinal:category", S125EnumParser::parseCategoryOfCardinalMark, BuoyCardinal::setCategoryOfCardinalMark)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Buoy Cardinal AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BuoyCardinal generateBuoyCardinal(AtonNode atonNode) {
+    protected BuoyCardinal generateBuoyCardinal(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BuoyCardinal member = new BuoyCardinalImpl();
-        final String tagKeyPrefix = "seamark:buoy_cardinal:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_buoy:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuoyShape(Optional.of("seamark:buoy_cardinal:shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuoyShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setCategoryOfCardinalMark(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfCardinalMark)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BUOY_CARDINAL_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BuoyCardinalImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BuoyCardinalImpl.Geometry.class::isInstance)
@@ -736,62 +809,36 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Buoy Lateral members.
+     */
+    private static final S100TagMapping<BuoyLateral> BUOY_LATERAL_TAGS = S100TagMapping.<BuoyLateral>builder()
+            .value("seamark:buoy_lateral:shape", S125EnumParser::parseBuoyShape, BuoyLateral::setBuoyShape)
+            .elements("seamark:buoy_lateral:colour", S125EnumParser::parseColour, BuoyLateral::getColours)
+            .elements("seamark:buoy_lateral:colour_pattern", S125EnumParser::parseColourPattern, BuoyLateral::getColourPatterns)
+            .value("seamark:buoy_lateral:system", S125EnumParser::parseMarksNavigationalSystemOf, BuoyLateral::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_buoy:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BuoyLateral::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_buoy:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BuoyLateral::setRadarConspicuous)
+            .elements("seamark:status", S125EnumParser::parseStatus, BuoyLateral::getStatuses)
+            .value("seamark:buoy_lateral:category", S125EnumParser::parseCategoryOfLateralMark, BuoyLateral::setCategoryOfLateralMark)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Buoy Lateral AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BuoyLateral generateBuoyLateral(AtonNode atonNode) {
+    protected BuoyLateral generateBuoyLateral(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BuoyLateral member = new BuoyLateralImpl();
-        final String tagKeyPrefix = "seamark:buoy_lateral:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_buoy:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuoyShape(Optional.of("seamark:buoy_lateral:shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuoyShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setCategoryOfLateralMark(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfLateralMark)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BUOY_LATERAL_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BuoyLateralImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BuoyLateralImpl.Geometry.class::isInstance)
@@ -802,62 +849,36 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Buoy Installation members.
+     */
+    private static final S100TagMapping<BuoyInstallation> BUOY_INSTALLATION_TAGS = S100TagMapping.<BuoyInstallation>builder()
+            .value("seamark:buoy_installation:shape", S125EnumParser::parseBuoyShape, BuoyInstallation::setBuoyShape)
+            .elements("seamark:buoy_installation:colour", S125EnumParser::parseColour, BuoyInstallation::getColours)
+            .elements("seamark:buoy_installation:colour_pattern", S125EnumParser::parseColourPattern, BuoyInstallation::getColourPatterns)
+            .value("seamark:buoy_installation:system", S125EnumParser::parseMarksNavigationalSystemOf, BuoyInstallation::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_buoy:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BuoyInstallation::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_buoy:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BuoyInstallation::setRadarConspicuous)
+            .elements("seamark:status", S125EnumParser::parseStatus, BuoyInstallation::getStatuses)
+            .value("seamark:buoy_installation:category", S125EnumParser::parseCategoryOfInstallationBuoy, BuoyInstallation::setCategoryOfInstallationBuoy)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Buoy Installation AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BuoyInstallation generateBuoyInstallation(AtonNode atonNode) {
+    protected BuoyInstallation generateBuoyInstallation(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BuoyInstallation member = new BuoyInstallationImpl();
-        final String tagKeyPrefix = "seamark:buoy_installation:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_buoy:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuoyShape(Optional.of(tagKeyPrefix+"shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuoyShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setCategoryOfInstallationBuoy(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfInstallationBuoy)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BUOY_INSTALLATION_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BuoyInstallationImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BuoyInstallationImpl.Geometry.class::isInstance)
@@ -868,57 +889,35 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Buoy Isolated Danger members.
+     */
+    private static final S100TagMapping<BuoyIsolatedDanger> BUOY_ISOLATED_DANGER_TAGS = S100TagMapping.<BuoyIsolatedDanger>builder()
+            .value("seamark:buoy_isolated_danger:shape", S125EnumParser::parseBuoyShape, BuoyIsolatedDanger::setBuoyShape)
+            .elements("seamark:buoy_isolated_danger:colour", S125EnumParser::parseColour, BuoyIsolatedDanger::getColours)
+            .elements("seamark:buoy_isolated_danger:colour_pattern", S125EnumParser::parseColourPattern, BuoyIsolatedDanger::getColourPatterns)
+            .value("seamark:buoy_isolated_danger:system", S125EnumParser::parseMarksNavigationalSystemOf, BuoyIsolatedDanger::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_buoy:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BuoyIsolatedDanger::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_buoy:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BuoyIsolatedDanger::setRadarConspicuous)
+            .elements("seamark:status", S125EnumParser::parseStatus, BuoyIsolatedDanger::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Buoy Isolated Dander AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BuoyIsolatedDanger generateBuoyIsolatedDanger(AtonNode atonNode) {
+    protected BuoyIsolatedDanger generateBuoyIsolatedDanger(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BuoyIsolatedDanger member = new BuoyIsolatedDangerImpl();
-        final String tagKeyPrefix = "seamark:buoy_isolated_danger:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_buoy:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuoyShape(Optional.of("seamark:buoy_isolated_danger:shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuoyShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BUOY_ISOLATED_DANGER_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BuoyIsolatedDangerImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BuoyIsolatedDangerImpl.Geometry.class::isInstance)
@@ -929,57 +928,35 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Buoy Safe Water members.
+     */
+    private static final S100TagMapping<BuoySafeWater> BUOY_SAFE_WATER_TAGS = S100TagMapping.<BuoySafeWater>builder()
+            .value("seamark:buoy_safe_water:shape", S125EnumParser::parseBuoyShape, BuoySafeWater::setBuoyShape)
+            .elements("seamark:buoy_safe_water:colour", S125EnumParser::parseColour, BuoySafeWater::getColours)
+            .elements("seamark:buoy_safe_water:colour_pattern", S125EnumParser::parseColourPattern, BuoySafeWater::getColourPatterns)
+            .value("seamark:buoy_safe_water:system", S125EnumParser::parseMarksNavigationalSystemOf, BuoySafeWater::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_buoy:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BuoySafeWater::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_buoy:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BuoySafeWater::setRadarConspicuous)
+            .elements("seamark:status", S125EnumParser::parseStatus, BuoySafeWater::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Buoy Safe Water AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BuoySafeWater generateBuoySafeWater(AtonNode atonNode) {
+    protected BuoySafeWater generateBuoySafeWater(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BuoySafeWater member = new BuoySafeWaterImpl();
-        final String tagKeyPrefix = "seamark:buoy_safe_water:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_buoy:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuoyShape(Optional.of("seamark:buoy_safe_water:shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuoyShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BUOY_SAFE_WATER_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BuoySafeWaterImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BuoySafeWaterImpl.Geometry.class::isInstance)
@@ -990,62 +967,36 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Buoy Special Purpose General members.
+     */
+    private static final S100TagMapping<BuoySpecialPurposeGeneral> BUOY_SPECIAL_PURPOSE_TAGS = S100TagMapping.<BuoySpecialPurposeGeneral>builder()
+            .value("seamark:buoy_special_purpose:shape", S125EnumParser::parseBuoyShape, BuoySpecialPurposeGeneral::setBuoyShape)
+            .elements("seamark:buoy_special_purpose:colour", S125EnumParser::parseColour, BuoySpecialPurposeGeneral::getColours)
+            .elements("seamark:buoy_special_purpose:colour_pattern", S125EnumParser::parseColourPattern, BuoySpecialPurposeGeneral::getColourPatterns)
+            .value("seamark:buoy_special_purpose:system", S125EnumParser::parseMarksNavigationalSystemOf, BuoySpecialPurposeGeneral::setMarksNavigationalSystemOf)
+            .element("s100:aidsToNavigation:generic_buoy:nature_of_construction", S125EnumParser::parseNatureOfConstruction, BuoySpecialPurposeGeneral::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:generic_buoy:radar_conspicuous", S125EnumParser::parseRadarConspicuous, BuoySpecialPurposeGeneral::setRadarConspicuous)
+            .elements("seamark:status", S125EnumParser::parseStatus, BuoySpecialPurposeGeneral::getStatuses)
+            .element("seamark:buoy_special_purpose:category", S125EnumParser::parseCategoryOfSpecialPurposeMark, BuoySpecialPurposeGeneral::getCategoryOfSpecialPurposeMarks)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Buoy Special Purpose AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected BuoySpecialPurposeGeneral generateBuoySpecialPurpose(AtonNode atonNode) {
+    protected BuoySpecialPurposeGeneral generateBuoySpecialPurpose(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final BuoySpecialPurposeGeneral member = new BuoySpecialPurposeGeneralImpl();
-        final String tagKeyPrefix = "seamark:buoy_special_purpose:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:generic_buoy:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuoyShape(Optional.of("seamark:buoy_special_purpose:shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuoyShape)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getNatureOfConstructions().add(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseNatureOfConstruction)
-                .orElse(null));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.getCategoryOfSpecialPurposeMarks().add(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfSpecialPurposeMark)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        BUOY_SPECIAL_PURPOSE_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, BuoySpecialPurposeGeneralImpl.Geometry.class))
                 )
                 .stream()
                 .filter(BuoySpecialPurposeGeneralImpl.Geometry.class::isInstance)
@@ -1056,68 +1007,37 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Landmark Type members.
+     */
+    private static final S100TagMapping<LandmarkType> LANDMARK_TAGS = S100TagMapping.<LandmarkType>builder()
+            .elements("seamark:landmark:category", S125EnumParser::parseCategoryOfLandmark, LandmarkType::getCategoryOfLandmarks)
+            .elements("seamark:landmark:colour", S125EnumParser::parseColour, LandmarkType::getColours)
+            .value("seamark:landmark:colour_pattern", S125EnumParser::parseColourPattern, LandmarkType::setColourPattern)
+            .elements("seamark:landmark:function", S125EnumParser::parseFunction, LandmarkType::getFunctions)
+            .element("s100:aidsToNavigation:landmark:height", S100TagMapping.nonBlank(Double::parseDouble), LandmarkType::getHeights)
+            .elements("seamark:landmark:construction", S125EnumParser::parseNatureOfConstruction, LandmarkType::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:landmark:radar_conspicuous", S125EnumParser::parseRadarConspicuous, LandmarkType::setRadarConspicuous)
+            .value("seamark:landmark:conspicuity", S125EnumParser::parseVisualProminence, LandmarkType::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, LandmarkType::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Landmark AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected LandmarkType generateLandmark(AtonNode atonNode) {
+    protected LandmarkType generateLandmark(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final LandmarkType member = new LandmarkTypeImpl();
-        final String tagKeyPrefix = "seamark:landmark:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:landmark:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getCategoryOfLandmarks().addAll(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseCategoryOfLandmark))
-                .orElse(Collections.emptyList()));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.setColourPattern(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseColourPattern)
-                .orElse(null));
-        member.getFunctions().addAll(Optional.of(tagKeyPrefix+"function")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseFunction))
-                .orElse(Collections.emptyList()));
-        member.getHeights().add(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.getNatureOfConstructions().addAll(Optional.of(tagKeyPrefix+"construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseNatureOfConstruction))
-                .orElse(Collections.emptyList()));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(tagKeyPrefix+"conspicuity")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        LANDMARK_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, LandmarkType.Geometry.class))
                 )
                 .stream()
                 .filter(LandmarkType.Geometry.class::isInstance)
@@ -1128,68 +1048,37 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Lighthouse members.
+     */
+    private static final S100TagMapping<Lighthouse> LIGHTHOUSE_TAGS = S100TagMapping.<Lighthouse>builder()
+            .elements("seamark:landmark:category", S125EnumParser::parseCategoryOfLandmark, Lighthouse::getCategoryOfLandmarks)
+            .elements("seamark:landmark:colour", S125EnumParser::parseColour, Lighthouse::getColours)
+            .value("seamark:landmark:colour_pattern", S125EnumParser::parseColourPattern, Lighthouse::setColourPattern)
+            .elements("seamark:landmark:function", S125EnumParser::parseFunction, Lighthouse::getFunctions)
+            .element("s100:aidsToNavigation:lighthouse:height", S100TagMapping.nonBlank(Double::parseDouble), Lighthouse::getHeights)
+            .elements("seamark:landmark:construction", S125EnumParser::parseNatureOfConstruction, Lighthouse::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:lighthouse:radar_conspicuous", S125EnumParser::parseRadarConspicuous, Lighthouse::setRadarConspicuous)
+            .value("seamark:landmark:conspicuity", S125EnumParser::parseVisualProminence, Lighthouse::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, Lighthouse::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Lighthouse AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected Lighthouse generateLighthouse(AtonNode atonNode) {
+    protected Lighthouse generateLighthouse(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final Lighthouse member = new LighthouseImpl();
-        final String tagKeyPrefix = "seamark:landmark:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:lighthouse:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getCategoryOfLandmarks().addAll(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseCategoryOfLandmark))
-                .orElse(Collections.emptyList()));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.setColourPattern(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseColourPattern)
-                .orElse(null));
-        member.getFunctions().addAll(Optional.of(tagKeyPrefix+"function")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseFunction))
-                .orElse(Collections.emptyList()));
-        member.getHeights().add(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.getNatureOfConstructions().addAll(Optional.of(tagKeyPrefix+"construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseNatureOfConstruction))
-                .orElse(Collections.emptyList()));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(tagKeyPrefix+"conspicuity")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        LIGHTHOUSE_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, LighthouseImpl.Geometry.class))
                 )
                 .stream()
                 .filter(LighthouseImpl.Geometry.class::isInstance)
@@ -1200,47 +1089,33 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Light Vessel members.
+     */
+    private static final S100TagMapping<LightVessel> LIGHT_VESSEL_TAGS = S100TagMapping.<LightVessel>builder()
+            .elements("seamark:light_vessel:colours", S125EnumParser::parseColour, LightVessel::getColours)
+            .value("seamark:light_vessel:colour_pattern", S125EnumParser::parseColourPattern, LightVessel::setColourPattern)
+            .elements("s100:aidsToNavigation:light_vessel:nature_of_construction", S125EnumParser::parseNatureOfConstruction, LightVessel::getNatureOfConstructions)
+            .value("s100:aidsToNavigation:light_vessel:visually_conspicuous", S125EnumParser::parseVisualProminence, LightVessel::setVisualProminence)
+            .elements("seamark:status", S125EnumParser::parseStatus, LightVessel::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Light Vessel AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected LightVessel generateLightVessel(AtonNode atonNode) {
+    protected LightVessel generateLightVessel(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final LightVessel member = new LightVesselImpl();
-        final String tagKeyPrefix = "seamark:light_vessel:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:light_vessel:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colours")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.setColourPattern(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseColourPattern)
-                .orElse(null));
-        member.getNatureOfConstructions().addAll(Optional.of(s100TagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseNatureOfConstruction))
-                .orElse(Collections.emptyList()));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"visually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        LIGHT_VESSEL_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, LightVesselImpl.Geometry.class))
                 )
                 .stream()
                 .filter(LightVesselImpl.Geometry.class::isInstance)
@@ -1251,45 +1126,32 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Virtual AIS Aid To Navigation members.
+     */
+    private static final S100TagMapping<VirtualAISAidToNavigation> VIRTUAL_ATON_TAGS = S100TagMapping.<VirtualAISAidToNavigation>builder()
+            .value("s100:aidsToNavigation:virtual_ais_aid_to_navigation:estimated_range_of_transmission", S100TagMapping.nonBlank(BigInteger::new), VirtualAISAidToNavigation::setEstimatedRangeOfTransmission)
+            .value("seamark:radio_station:mmsi", S100TagMapping.nonBlank(BigInteger::new), VirtualAISAidToNavigation::setMMSICode)
+            .element("seamark:status", S125EnumParser::parseStatus, VirtualAISAidToNavigation::getStatuses)
+            .value("seamark:virtual_aton:category", v -> S125EnumParser.parseVirtualAisAidToNavigationType(v.replace(" ", "_")), VirtualAISAidToNavigation::setVirtualAISAidToNavigationType, VirtualAISAidToNavigationTypeType.SPECIAL_PURPOSE)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Virtual AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected VirtualAISAidToNavigation generateVirtualAtoN(AtonNode atonNode) {
+    protected VirtualAISAidToNavigation generateVirtualAtoN(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final VirtualAISAidToNavigation member = new VirtualAISAidToNavigationImpl();
-        final String tagKeyPrefix = "seamark:radio_station:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:virtual_ais_aid_to_navigation:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setEstimatedRangeOfTransmission(Optional.of(s100TagKeyPrefix+"estimated_range_of_transmission")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(BigInteger::new)
-                .orElse(null));
-        member.setMMSICode(Optional.of(tagKeyPrefix+"mmsi")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(BigInteger::new)
-                .orElse(null));
-        member.getStatuses().add(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseStatus)
-                .orElse(null));
-        member.setVirtualAISAidToNavigationType(Optional.of("seamark:virtual_aton:category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(v -> v.replace(" ", "_"))
-                .map(S125EnumParser::parseVirtualAisAidToNavigationType)
-                .orElse(VirtualAISAidToNavigationTypeType.SPECIAL_PURPOSE));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        VIRTUAL_ATON_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, VirtualAISAidToNavigationImpl.Geometry.class))
                 )
                 .stream()
                 .filter(VirtualAISAidToNavigationImpl.Geometry.class::isInstance)
@@ -1300,57 +1162,35 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Daymark members.
+     */
+    private static final S100TagMapping<Daymark> DAYMARK_TAGS = S100TagMapping.<Daymark>builder()
+            .element("seamark:daymark:category", S125EnumParser::parseCategoryOfSpecialPurposeMark, Daymark::getCategoryOfSpecialPurposeMarks)
+            .elements("seamark:daymark:colours", S125EnumParser::parseColour, Daymark::getColours)
+            .value("seamark:daymark:colour_pattern", S125EnumParser::parseColourPattern, Daymark::setColourPattern)
+            .value("s100:aidsToNavigation:daymark:height", S100TagMapping.nonBlank(Double::parseDouble), Daymark::setHeight)
+            .elements("seamark:daymark:nature_of_construction", S125EnumParser::parseNatureOfConstruction, Daymark::getNatureOfConstructions)
+            .elements("seamark:status", S125EnumParser::parseStatus, Daymark::getStatuses)
+            .value("seamark:daymark:shape", Function.identity(), Daymark::setTopmarkDaymarkShape)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Daymark AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected Daymark generateDaymark(AtonNode atonNode) {
+    protected Daymark generateDaymark(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final Daymark member = new DaymarkImpl();
-        final String tagKeyPrefix = "seamark:daymark:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:daymark:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getCategoryOfSpecialPurposeMarks().add(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseCategoryOfSpecialPurposeMark)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colours")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.setColourPattern(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseColourPattern)
-                .orElse(null));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.getNatureOfConstructions().addAll(Optional.of(tagKeyPrefix+"nature_of_construction")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseNatureOfConstruction))
-                .orElse(Collections.emptyList()));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setTopmarkDaymarkShape(Optional.of(tagKeyPrefix + "shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        DAYMARK_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, DaymarkImpl.Geometry.class))
                 )
                 .stream()
                 .filter(DaymarkImpl.Geometry.class::isInstance)
@@ -1361,36 +1201,31 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Fog Signal members.
+     */
+    private static final S100TagMapping<FogSignal> FOG_SIGNAL_TAGS = S100TagMapping.<FogSignal>builder()
+            .elements("seamark:status", S125EnumParser::parseStatus, FogSignal::getStatuses)
+            .value("seamark:fog_signal:category", S125EnumParser::parseFogSignalCategory, FogSignal::setCategoryOfFogSignal)
+            .value("s100:aidsToNavigation:fog_signal:signal_sequence", Function.identity(), FogSignal::setSignalSequence)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Fog Signal Type AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected FogSignal generateFogSignal(AtonNode atonNode) {
+    protected FogSignal generateFogSignal(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final FogSignal member = new FogSignalImpl();
-        final String tagKeyPrefix = "seamark:fog_signal:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:fog_signal:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setCategoryOfFogSignal(Optional.of(tagKeyPrefix + "category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseFogSignalCategory)
-                .orElse(null));
-        member.setSignalSequence(Optional.of(s100TagKeyPrefix+"signal_sequence")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        FOG_SIGNAL_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, FogSignalImpl.Geometry.class))
                 )
                 .stream()
                 .filter(FogSignalImpl.Geometry.class::isInstance)
@@ -1401,79 +1236,39 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Light members.
+     */
+    private static final S100TagMapping<Light> LIGHT_TAGS = S100TagMapping.<Light>builder()
+            .element("seamark:light:colour", S125EnumParser::parseColour, Light::getColours)
+            .element("seamark:light:category", S125EnumParser::parseLightCategory, Light::getCategoryOfLights)
+            .value("seamark:light:exhibition", v -> S125EnumParser.fromValue(ExhibitionConditionOfLightType.class, v + " light"), Light::setExhibitionConditionOfLight)
+            .value("seamark:light:height", S100TagMapping.nonBlank(Double::parseDouble), Light::setHeight)
+            .value("seamark:light:character", S125EnumParser::parseLightCharacter, Light::setLightCharacteristic)
+            .element("seamark:light:visibility", v -> S125EnumParser.fromValue(LightVisibilityType.class, v), Light::getLightVisibilities)
+            .value("seamark:light:group", Function.identity(), Light::setSignalGroup)
+            .value("seamark:light:period", Double::parseDouble, Light::setSignalPeriod)
+            .elements("seamark:status", S125EnumParser::parseStatus, Light::getStatuses)
+            .value("seamark:light:range", S100TagMapping.nonBlank(Double::parseDouble), Light::setValueOfNominalRange)
+            .value("seamark:light:multiple", S100TagMapping.nonBlank(BigInteger::new), Light::setMultiplicityOfLights, BigInteger.ONE)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Light AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected Light generateLight(AtonNode atonNode) {
+    protected Light generateLight(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final Light member = new LightImpl();
-        final String tagKeyPrefix = "seamark:light:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:light:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getColours().add(Optional.of(tagKeyPrefix+"colour")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseColour)
-                .orElse(null));
-        member.getCategoryOfLights().add(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseLightCategory)
-                .orElse(null));
-        member.setExhibitionConditionOfLight(Optional.of(tagKeyPrefix+"exhibition")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(v -> {try {return ExhibitionConditionOfLightType.fromValue(v + " light");} catch (Exception ex) {return null;}})
-                .orElse(null));
-        member.setHeight(Optional.of(tagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setLightCharacteristic(Optional.of(tagKeyPrefix+"character")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseLightCharacter)
-                .orElse(null));
-        member.getLightVisibilities().add(Optional.of(tagKeyPrefix+"visibility")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(v -> {try {return LightVisibilityType.fromValue(v);} catch (Exception ex) {return null;}})
-                .orElse(null));
-        member.setMultiplicityOfLights(Optional.of(tagKeyPrefix+"multiple")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(BigInteger::new)
-                .orElse(BigInteger.ONE));
-        member.setSignalGroup(Optional.of(tagKeyPrefix+"group")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
-        member.setSignalPeriod(Optional.of(tagKeyPrefix+"period")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setValueOfNominalRange(Optional.of(tagKeyPrefix+"range")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        LIGHT_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, LightImpl.Geometry.class))
                 )
                 .stream()
                 .filter(LightImpl.Geometry.class::isInstance)
@@ -1484,33 +1279,30 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Radar Reflector members.
+     */
+    private static final S100TagMapping<RadarReflector> RADAR_REFLECTOR_TAGS = S100TagMapping.<RadarReflector>builder()
+            .elements("seamark:status", S125EnumParser::parseStatus, RadarReflector::getStatuses)
+            .value("seamark:radar_reflector:height", S100TagMapping.nonBlank(Double::parseDouble), RadarReflector::setHeight)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Radar Reflector AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected RadarReflector generateRadarReflector(AtonNode atonNode) {
+    protected RadarReflector generateRadarReflector(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final RadarReflector member = new RadarReflectorImpl();
-        final String tagKeyPrefix = "seamark:radar_reflector:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:radar_reflector:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setHeight(Optional.of(tagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        RADAR_REFLECTOR_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, RadarReflectorImpl.Geometry.class))
                 )
                 .stream()
                 .filter(RadarReflectorImpl.Geometry.class::isInstance)
@@ -1521,42 +1313,32 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Retro Reflector members.
+     */
+    private static final S100TagMapping<RetroReflector> RETRO_REFLECTOR_TAGS = S100TagMapping.<RetroReflector>builder()
+            .elements("s100:aidsToNavigation:retro_reflector:colours", S125EnumParser::parseColour, RetroReflector::getColours)
+            .elements("s100:aidsToNavigation:retro_reflector:colour_pattern", S125EnumParser::parseColourPattern, RetroReflector::getColourPatterns)
+            .value("seamark:retro_reflector:system", S125EnumParser::parseMarksNavigationalSystemOf, RetroReflector::setMarksNavigationalSystemOf)
+            .elements("seamark:status", S125EnumParser::parseStatus, RetroReflector::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Retro Reflector AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected RetroReflector generateRetroReflector(AtonNode atonNode) {
+    protected RetroReflector generateRetroReflector(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final RetroReflector member = new RetroReflectorImpl();
-        final String tagKeyPrefix = "seamark:retro_reflector:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:retro_reflector:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getColours().addAll(Optional.of(s100TagKeyPrefix+"colours")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(s100TagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setMarksNavigationalSystemOf(Optional.of(tagKeyPrefix+"system")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseMarksNavigationalSystemOf)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        RETRO_REFLECTOR_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, RetroReflectorImpl.Geometry.class))
                 )
                 .stream()
                 .filter(RetroReflectorImpl.Geometry.class::isInstance)
@@ -1567,63 +1349,36 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Silo Tank members.
+     */
+    private static final S100TagMapping<SiloTank> SILO_TANK_TAGS = S100TagMapping.<SiloTank>builder()
+            .value("seamark:tank:shape", S125EnumParser::parseBuildingShape, SiloTank::setBuildingShape)
+            .value("seamark:tank:category", S125EnumParser::parseSiloTankCategory, SiloTank::setCategoryOfSiloTank)
+            .elements("seamark:tank:colours", S125EnumParser::parseColour, SiloTank::getColours)
+            .elements("seamark:tank:colour_pattern", S125EnumParser::parseColourPattern, SiloTank::getColourPatterns)
+            .value("s100:aidsToNavigation:silo_tank:radar_conspicuous", S125EnumParser::parseRadarConspicuous, SiloTank::setRadarConspicuous)
+            .value("s100:aidsToNavigation:silo_tank:visually_conspicuous", S125EnumParser::parseVisualProminence, SiloTank::setVisualProminence)
+            .value("s100:aidsToNavigation:silo_tank:height", S100TagMapping.nonBlank(Double::parseDouble), SiloTank::setHeight)
+            .elements("seamark:status", S125EnumParser::parseStatus, SiloTank::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Silo and Tank AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected SiloTank generateSiloTank(AtonNode atonNode) {
+    protected SiloTank generateSiloTank(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final SiloTank member = new SiloTankImpl();
-        final String tagKeyPrefix = "seamark:tank:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:silo_tank:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setBuildingShape(Optional.of(tagKeyPrefix+"shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseBuildingShape)
-                .orElse(null));
-        member.setCategoryOfSiloTank(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseSiloTankCategory)
-                .orElse(null));
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colours")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.getColourPatterns().addAll(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColourPattern))
-                .orElse(Collections.emptyList()));
-        member.setRadarConspicuous(Optional.of(s100TagKeyPrefix+"radar_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadarConspicuous)
-                .orElse(null));
-        member.setVisualProminence(Optional.of(s100TagKeyPrefix+"visually_conspicuous")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseVisualProminence)
-                .orElse(null));
-        member.setHeight(Optional.of(s100TagKeyPrefix+"height")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        SILO_TANK_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, SiloTankImpl.Geometry.class))
                 )
                 .stream()
                 .filter(SiloTankImpl.Geometry.class::isInstance)
@@ -1634,41 +1389,32 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Topmark members.
+     */
+    private static final S100TagMapping<Topmark> TOPMARK_TAGS = S100TagMapping.<Topmark>builder()
+            .elements("seamark:topmark:colours", S125EnumParser::parseColour, Topmark::getColours)
+            .value("seamark:topmark:colour_pattern", S125EnumParser::parseColourPattern, Topmark::setColourPattern)
+            .elements("seamark:status", S125EnumParser::parseStatus, Topmark::getStatuses)
+            .value("seamark:topmark:shape", Function.identity(), Topmark::setTopmarkDaymarkShape)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Topmark AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected Topmark generateTopmark(AtonNode atonNode) {
+    protected Topmark generateTopmark(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final Topmark member = new TopmarkImpl();
-        final String tagKeyPrefix = "seamark:topmark:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:topmark:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.getColours().addAll(Optional.of(tagKeyPrefix+"colours")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseColour))
-                .orElse(Collections.emptyList()));
-        member.setColourPattern(Optional.of(tagKeyPrefix+"colour_pattern")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseColourPattern)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setTopmarkDaymarkShape(Optional.of(tagKeyPrefix + "shape")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        TOPMARK_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, TopmarkImpl.Geometry.class))
                 )
                 .stream()
                 .filter(TopmarkImpl.Geometry.class::isInstance)
@@ -1679,32 +1425,30 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Radio Station members.
+     */
+    private static final S100TagMapping<RadioStation> RADIO_STATION_TAGS = S100TagMapping.<RadioStation>builder()
+            .value("seamark:radio_station:category", S125EnumParser::parseRadioStationCategory, RadioStation::setCategoryOfRadioStation)
+            .value("seamark:status", S125EnumParser::parseStatus, RadioStation::setStatus)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Radio Station AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected RadioStation generateRadioStation(AtonNode atonNode) {
+    protected RadioStation generateRadioStation(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final RadioStation member = new RadioStationImpl();
-        final String tagKeyPrefix = "seamark:radio_station:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:radio_station:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setCategoryOfRadioStation(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadioStationCategory)
-                .orElse(null));
-        member.setStatus(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseStatus)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        RADIO_STATION_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, RadioStationImpl.Geometry.class))
                 )
                 .stream()
                 .filter(RadioStationImpl.Geometry.class::isInstance)
@@ -1715,62 +1459,36 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Radar Transponder Beacon members.
+     */
+    private static final S100TagMapping<RadarTransponderBeacon> RADAR_TRANSPONDER_BEACON_TAGS = S100TagMapping.<RadarTransponderBeacon>builder()
+            .value("seamark:radar_transponder:category", S125EnumParser::parseRadioTransponderBeaconCategory, RadarTransponderBeacon::setCategoryOfRadarTransponderBeacon)
+            .value("seamark:radar_transponder:wavelength", Function.identity(), RadarTransponderBeacon::setRadarWaveLength)
+            .value("seamark:radar_transponder:sector_start", S100TagMapping.nonBlank(Double::parseDouble), RadarTransponderBeacon::setSectorLimitOne)
+            .value("seamark:radar_transponder:sector_end", S100TagMapping.nonBlank(Double::parseDouble), RadarTransponderBeacon::setSectorLimitTwo)
+            .value("seamark:radar_transponder:group", Function.identity(), RadarTransponderBeacon::setSignalGroup)
+            .value("seamark:radar_transponder:period", Function.identity(), RadarTransponderBeacon::setSignalSequence)
+            .elements("seamark:status", S125EnumParser::parseStatus, RadarTransponderBeacon::getStatuses)
+            .value("seamark:radar_transponder:range", S100TagMapping.nonBlank(Double::parseDouble), RadarTransponderBeacon::setValueOfNominalRange)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for Radio Station AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected RadarTransponderBeacon generateRadarTransponderBeacon(AtonNode atonNode) {
+    protected RadarTransponderBeacon generateRadarTransponderBeacon(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final RadarTransponderBeacon member = new RadarTransponderBeaconImpl();
-        final String tagKeyPrefix = "seamark:radar_transponder:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:radar_transponder:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setCategoryOfRadarTransponderBeacon(Optional.of(tagKeyPrefix+"category")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseRadioTransponderBeaconCategory)
-                .orElse(null));
-        member.setRadarWaveLength(Optional.of(tagKeyPrefix+"wavelength")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
-        member.setSectorLimitOne(Optional.of(tagKeyPrefix+"sector_start")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                 .map(Double::parseDouble)
-                .orElse(null));
-        member.setSectorLimitTwo(Optional.of(tagKeyPrefix+"sector_end")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
-        member.setSignalGroup(Optional.of(tagKeyPrefix+"group")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
-        member.setSignalSequence(Optional.of(tagKeyPrefix+"period")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse(null));
-        member.getStatuses().addAll(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(t -> S125EnumParser.splitAndParse(t, S125EnumParser::parseStatus))
-                .orElse(Collections.emptyList()));
-        member.setValueOfNominalRange(Optional.of(tagKeyPrefix+"range")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(Double::parseDouble)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        RADAR_TRANSPONDER_BEACON_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, RadarTransponderBeaconImpl.Geometry.class))
                 )
                 .stream()
                 .filter(RadarTransponderBeaconImpl.Geometry.class::isInstance)
@@ -1781,39 +1499,31 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Physical AIS Aid To Navigation members.
+     */
+    private static final S100TagMapping<PhysicalAISAidToNavigation> PHYSICAL_AIS_ATON_TAGS = S100TagMapping.<PhysicalAISAidToNavigation>builder()
+            .value("s100:aidsToNavigation:ais_aid_to_navigation:estimated_range_of_transmission", S100TagMapping.nonBlank(BigInteger::new), PhysicalAISAidToNavigation::setEstimatedRangeOfTransmission)
+            .value("seamark:radio_station:mmsi", S100TagMapping.nonBlank(BigInteger::new), PhysicalAISAidToNavigation::setMMSICode)
+            .element("seamark:status", S125EnumParser::parseStatus, PhysicalAISAidToNavigation::getStatuses)
+            .build();
+
     /**
      * Generate the S-125 Dataset member section for physical AtoNs.
      *
      * @param atonNode      The AtoN node to be used for the member
+     * @param atonTags      The tags of the AtoN node, indexed by their key
      * @return The S-125 Dataset member section generated
      */
-    protected PhysicalAISAidToNavigation generatePhysicalAISAtoN(AtonNode atonNode) {
+    protected PhysicalAISAidToNavigation generatePhysicalAISAtoN(AtonNode atonNode, Map<String, AtonTag> atonTags) {
         final PhysicalAISAidToNavigation member = new PhysicalAISAidToNavigationImpl();
-        final String tagKeyPrefix = "seamark:radio_station:";
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:ais_aid_to_navigation:";
-        this.populateS125AidsToNavigationFields(member, atonNode);
-        member.setEstimatedRangeOfTransmission(Optional.of(s100TagKeyPrefix+"estimated_range_of_transmission")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(BigInteger::new)
-                .orElse(null));
-        member.setMMSICode(Optional.of(tagKeyPrefix+"mmsi")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(BigInteger::new)
-                .orElse(null));
-        member.getStatuses().add(Optional.of("seamark:status")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(S125EnumParser::parseStatus)
-                .orElse(null));
+        this.populateS125AidsToNavigationFields(member, atonNode, atonTags);
+        PHYSICAL_AIS_ATON_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Now fix the geometry...
         S125Utils.generateS125AidsToNavigationTypeGeometriesList(
                         member.getClass(),
-                        Collections.singletonList(this.generatePointProperty(Arrays.asList(atonNode.getLon(), atonNode.getLat())))
+                        Collections.singletonList(this.generateGeometryProperty(atonNode, atonTags, PhysicalAISAidToNavigationImpl.Geometry.class))
                 )
                 .stream()
                 .filter(PhysicalAISAidToNavigationImpl.Geometry.class::isInstance)
@@ -1824,6 +1534,20 @@ public class S125DatasetBuilder {
         return member;
     }
 
+    /**
+     * The tag mapping of the S-125 Dataset Aids To Navigation Type members.
+     */
+    private static final S100TagMapping<AidsToNavigationType> AIDS_TO_NAVIGATION_TAGS = S100TagMapping.<AidsToNavigationType>builder()
+            .value("s100:aidsToNavigation:date_start", S125DatasetBuilder::getS100TruncatedDate, AidsToNavigationType::setDateStart)
+            .value("s100:aidsToNavigation:date_end", S125DatasetBuilder::getS100TruncatedDate, AidsToNavigationType::setDateEnd)
+            .value("s100:aidsToNavigation:period_start", S125DatasetBuilder::getS100TruncatedDate, AidsToNavigationType::setPeriodStart)
+            .value("s100:aidsToNavigation:period_end", S125DatasetBuilder::getS100TruncatedDate, AidsToNavigationType::setPeriodEnd)
+            .value("s100:aidsToNavigation:pictorial_representation", S100TagMapping.nonBlank(Function.identity()), AidsToNavigationType::setPictorialRepresentation)
+            .value("s100:aidsToNavigation:scale_minimum", S100TagMapping.nonBlank(BigInteger::new), AidsToNavigationType::setScaleMinimum)
+            .element("seamark:name", S125DatasetBuilder::generateFeatureName, AidsToNavigationType::getFeatureNames)
+            .element("seamark:information", S125DatasetBuilder::generateInformation, AidsToNavigationType::getInformations)
+            .build();
+
     /**
      * Many of the fields in the S125 Dataset features are common, i.e. they
      * are shared between all structure and equipment types. Therefore, this
@@ -1831,75 +1555,15 @@ public class S125DatasetBuilder {
      *
      * @param member            The S-125 databaset member
      * @param atonNode          The AtoN node to populate the information from
+     * @param atonTags          The tags of the AtoN node, indexed by their key
      * @param <R> the type of class of the AtoN feature to be populated
      */
-    public <R extends AidsToNavigationType> void populateS125AidsToNavigationFields(R member, AtonNode atonNode) {
-        // First read the AtoN type information from the input
-        final String s100TagKeyPrefix = "s100:aidsToNavigation:";
-
-        // Now populate the fields
-        member.setId(this.generateId(atonNode.getId()));
-        member.setBoundedBy(this.generateBoundingShape(Collections.singletonList(atonNode)));
-        member.setIdCode(Optional.of("mrn")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .orElse("aton.uk." + atonNode.getAtonUid()));
-        member.setDateStart(Optional.of(s100TagKeyPrefix+"date_start")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(this::getS100TruncatedDate)
-                .orElse(null));
-        member.setDateEnd(Optional.of(s100TagKeyPrefix+"date_end")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(this::getS100TruncatedDate)
-                .orElse(null));
-        member.setPeriodStart(Optional.of(s100TagKeyPrefix+"period_start")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(this::getS100TruncatedDate)
-                .orElse(null));
-        member.setPeriodEnd(Optional.of(s100TagKeyPrefix+"period_end" )
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(this::getS100TruncatedDate)
-                .orElse(null));
-        member.setPictorialRepresentation(Optional.of(s100TagKeyPrefix+"pictorial_representation")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .orElse(null));
-        member.setScaleMinimum(Optional.of(s100TagKeyPrefix+"scale_minimum")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .filter(StringUtils::isNotBlank)
-                .map(BigInteger::new)
-                .orElse(null));
-
-        // Add the feature names
-        member.getFeatureNames().add(Optional.of("seamark:name")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(value -> {
-                    final FeatureNameType featureNameType = new FeatureNameTypeImpl();
-                    featureNameType.setName(value);
-                    featureNameType.setLanguage(Locale.UK.getISO3Language());
-                    featureNameType.setDisplayName(Boolean.TRUE);
-                    return featureNameType;
-                })
-                .orElse(null));
-
-        // Add the information
-        member.getInformations().add(Optional.of("seamark:information")
-                .map(atonNode::getTag)
-                .map(AtonTag::getV)
-                .map(value -> {
-                    final InformationType informationType = new InformationTypeImpl();
-                    informationType.setText(value);
-                    informationType.setLanguage(Locale.UK.getISO3Language());
-                    return informationType;
-                })
-                .orElse(null));
+    public <R extends AidsToNavigationType> void populateS125AidsToNavigationFields(R member, AtonNode atonNode, Map<String, AtonTag> atonTags) {
+        // Populate the fields
+        member.setId(this.generateId(atonNode, atonTags.get(MRN_TAG)));
+        member.setBoundedBy(this.generateBoundingShape(this.generateEnvelope(atonNode)));
+        member.setIdCode(this.generateIdCode(atonNode, atonTags.get(MRN_TAG)));
+        AIDS_TO_NAVIGATION_TAGS.apply(atonTags, member, this.presetPlan, S125EnumParser::unknownTagValue);
 
         // Also process the child and parent links
         processAidsToNavigationTypeRelationships(member, atonNode);
@@ -1919,13 +1583,12 @@ public class S125DatasetBuilder {
     protected void processAidsToNavigationTypeRelationships(AidsToNavigationType member, AtonNode atonNode) {
         // If this is a structure try to populate its child references
         if(member instanceof StructureObjectType) {
-            ((StructureObjectType)member).getchildren().addAll(atonNode
-                    .getChildren()
+            ((StructureObjectType)member).getchildren().addAll(this.getChildren(atonNode)
                     .stream()
                     .map(child -> {
                         ReferenceType referenceType = new ReferenceTypeImpl();
                         referenceType.setTitle(child.getAtonUid());
-                        referenceType.setHref("#" + generateId(child.getId()));
+                        referenceType.setHref(this.generateHref(child));
                         referenceType.setRole("child");
                         referenceType.setArcrole(CHILD_REF_ARCHOLE);
                         return referenceType;
@@ -1940,7 +1603,7 @@ public class S125DatasetBuilder {
                     .map(parent -> {
                         ReferenceType referenceType = new ReferenceTypeImpl();
                         referenceType.setTitle(parent.getAtonUid());
-                        referenceType.setHref("#" + generateId(parent.getId()));
+                        referenceType.setHref(this.generateHref(parent));
                         referenceType.setRole("parent");
                         referenceType.setArcrole(PARENT_REF_ARCHOLE);
                         return  referenceType;
@@ -1956,7 +1619,8 @@ public class S125DatasetBuilder {
      * @param atonLink      The AtoN link to generate the aggregation for
      * @return the generate aggregation link entry
      */
-    protected Aggregation generateAggregation(AtonLink atonLink) {
+    @Override
+    public Aggregation generateAggregation(AtonLink atonLink) {
         // Sanity Check
         if(atonLink.getLinkCategory().getAtonLinkType() != AtonLinkType.AGGREGATION) {
             return null;
@@ -1964,13 +1628,13 @@ public class S125DatasetBuilder {
 
         // Otherwise create the aggregation
         Aggregation aggregationType = new AggregationImpl();
-        aggregationType.setId(this.generateId(null));
-        aggregationType.setCategoryOfAggregation(CategoryOfAggregationType.fromValue(atonLink.getLinkCategory().getValue()));
-        aggregationType.getPeers().addAll(atonLink.getPeers().stream()
+        aggregationType.setId(this.generateLinkId(atonLink));
+        aggregationType.setCategoryOfAggregation(S125EnumParser.fromValue(CategoryOfAggregationType.class, atonLink.getLinkCategory().getValue()));
+        aggregationType.getPeers().addAll(this.getPeers(atonLink).stream()
                 .map(peer -> {
                     ReferenceType referenceType = new ReferenceTypeImpl();
                     referenceType.setTitle(peer.getAtonUid());
-                    referenceType.setHref("#" + generateId(peer.getId()));
+                    referenceType.setHref(this.generateHref(peer));
                     referenceType.setRole("aggregation");
                     referenceType.setArcrole(AGGREGATION_REF_ARCHOLE);
                     return referenceType;
@@ -1988,7 +1652,8 @@ public class S125DatasetBuilder {
      * @param atonLink      The AtoN link to generate the association for
      * @return the generate association link entry
      */
-    protected Association generateAssociation(AtonLink atonLink) {
+    @Override
+    public Association generateAssociation(AtonLink atonLink) {
         // Sanity Check
         if(atonLink.getLinkCategory().getAtonLinkType() != AtonLinkType.ASSOCIATION) {
             return null;
@@ -1996,13 +1661,13 @@ public class S125DatasetBuilder {
 
         // Otherwise create the association
         Association associationType = new AssociationImpl();
-        associationType.setId(this.generateId(null));
-        associationType.setCategoryOfAssociation(CategoryOfAssociationType.fromValue(atonLink.getLinkCategory().getValue()));
-        associationType.getPeers().addAll(atonLink.getPeers().stream()
+        associationType.setId(this.generateLinkId(atonLink));
+        associationType.setCategoryOfAssociation(S125EnumParser.fromValue(CategoryOfAssociationType.class, atonLink.getLinkCategory().getValue()));
+        associationType.getPeers().addAll(this.getPeers(atonLink).stream()
                 .map(peer -> {
                     ReferenceType referenceType = new ReferenceTypeImpl();
                     referenceType.setTitle(peer.getAtonUid());
-                    referenceType.setHref("#" + generateId(peer.getId()));
+                    referenceType.setHref(this.generateHref(peer));
                     referenceType.setRole("association");
                     referenceType.setArcrole(ASSOCIATION_REF_ARCHOLE);
                     return referenceType;
@@ -2020,7 +1685,7 @@ public class S125DatasetBuilder {
      * @param isoDateTimeString The ISO Date-Time String
      * @return the S100 Truncated Date object
      */
-    private S100TruncatedDate getS100TruncatedDate(String isoDateTimeString) {
+    private static S100TruncatedDate getS100TruncatedDate(String isoDateTimeString) {
         S100TruncatedDate s100TruncatedDate = new S100TruncatedDateImpl();
         try {
             Optional.ofNullable(isoDateTimeString)
@@ -2034,14 +1699,72 @@ public class S125DatasetBuilder {
         return s100TruncatedDate;
     }
 
+    /**
+     * Generates the S-125 feature name of the provided AtoN name.
+     *
+     * @param name The AtoN name
+     * @return the S-125 feature name
+     */
+    private static FeatureNameType generateFeatureName(String name) {
+        final FeatureNameType featureNameType = new FeatureNameTypeImpl();
+        featureNameType.setName(name);
+        featureNameType.setLanguage(Locale.UK.getISO3Language());
+        featureNameType.setDisplayName(Boolean.TRUE);
+        return featureNameType;
+    }
+
+    /**
+     * Generates the S-125 information of the provided AtoN information text.
+     *
+     * @param text The AtoN information text
+     * @return the S-125 information
+     */
+    private static InformationType generateInformation(String text) {
+        final InformationType informationType = new InformationTypeImpl();
+        informationType.setText(text);
+        informationType.setLanguage(Locale.UK.getISO3Language());
+        return informationType;
+    }
+
+    /**
+     * Populates and returns the S-125 geometry property of the provided AtoN
+     * node. Line and polygon geometries are encoded as curves and surfaces
+     * respectively, as long as the geometry type of the dataset member
+     * supports them and the S-125 preset allows them for the AtoN type, and
+     * are simplified for the minimum scale of the AtoN node, if any.
+     * Everything else is encoded as a point at the location of the AtoN node.
+     *
+     * @param atonNode      The AtoN node to generate the geometry property for
+     * @param atonTags      The tags of the AtoN node, indexed by their key
+     * @param geometryClass The geometry type of the dataset member
+     * @return The populated geometry property
+     */
+    protected Object generateGeometryProperty(AtonNode atonNode, Map<String, AtonTag> atonTags, Class<?> geometryClass) {
+        final Geometry geometry = atonNode.getGeometry();
+        if(geometry instanceof Polygon polygon && !polygon.isEmpty()
+                && this.supportsGeometry(geometryClass, "setSurfaceProperty")
+                && this.allowsGeometry(atonTags, S125PresetPlan.GEOMETRY_CLOSED_WAY)) {
+            final double[] coords = S100CoordinateUtils.toArray(polygon.getExteriorRing().getCoordinateSequence());
+            return this.generateSurfaceProperty(atonNode, S100CoordinateUtils.simplify(coords, this.getSimplificationTolerance(atonTags), true));
+        }
+        if(geometry instanceof LineString lineString && !lineString.isEmpty()
+                && this.supportsGeometry(geometryClass, "setCurveProperty")
+                && this.allowsGeometry(atonTags, lineString.isClosed() ? S125PresetPlan.GEOMETRY_CLOSED_WAY : S125PresetPlan.GEOMETRY_WAY)) {
+            final double[] coords = S100CoordinateUtils.toArray(lineString.getCoordinateSequence());
+            return this.generateCurveProperty(atonNode, S100CoordinateUtils.simplify(coords, this.getSimplificationTolerance(atonTags), lineString.isClosed()));
+        }
+        return this.generatePointProperty(atonNode);
+    }
+
     /**
      * Populates and return an S-125 surface property based on the provided
-     * surface geometry coordinates.
+     * surface geometry coordinates, i.e. the exterior ring of the surface.
      *
-     * @param coords    The coordinates of the element to be generated
-     * @return The populated point property
+     * @param atonNode  The AtoN node to generate the surface property for
+     * @param coords    The flat longitude/latitude coordinates of the ring
+     * @return The populated surface property
      */
-    private SurfaceProperty generateSurfaceProperty(Collection<Double> coords) {
+    protected SurfaceProperty generateSurfaceProperty(AtonNode atonNode, double[] coords) {
         // Generate the elements
         SurfaceProperty surfaceProperty = new SurfacePropertyImpl();
         SurfaceType surfaceType = new SurfaceTypeImpl();
@@ -2052,7 +1775,7 @@ public class S125DatasetBuilder {
         PosList posList = new PosListImpl();
 
         // Populate with the geometry data
-        posList.setValue(coords.toArray(new Double[0]));
+        posList.setValue(S100CoordinateUtils.box(coords));
 
         // Populate the elements
         linearRingType.setPosList(posList);
@@ -2060,7 +1783,7 @@ public class S125DatasetBuilder {
         polygonPatchType.setExterior(abstractRingPropertyType);
         patches.getAbstractSurfacePatches().add(this.opengisGMLFactory.createPolygonPatch(polygonPatchType));
         surfaceType.setPatches(patches);
-        surfaceType.setId(this.generateId(null));
+        surfaceType.setId(this.generateGeometryId(atonNode));
         surfaceProperty.setSurface(surfaceType);
 
         // And return the output
@@ -2071,25 +1794,26 @@ public class S125DatasetBuilder {
      * Populates and return an S-125 curve property based on the provided line
      * segment geometry coordinates.
      *
-     * @param coords    The coordinates of the element to be generated
-     * @return The populated point property
+     * @param atonNode  The AtoN node to generate the curve property for
+     * @param coords    The flat longitude/latitude coordinates of the line
+     * @return The populated curve property
      */
-    private CurveProperty generateCurveProperty(Collection<Double> coords) {
+    protected CurveProperty generateCurveProperty(AtonNode atonNode, double[] coords) {
         // Generate the elements
         CurveProperty curveProperty = new CurvePropertyImpl();
         CurveType curveType = new CurveTypeImpl();
         Segments segments = new SegmentsImpl();
         LineStringSegmentType lineStringSegmentType = new LineStringSegmentTypeImpl();
         PosList posList = new PosListImpl();
-        
+
         // Populate with the geometry data
-        posList.setValue(coords.toArray(new Double[0]));
-        
+        posList.setValue(S100CoordinateUtils.box(coords));
+
         // Populate the elements
         lineStringSegmentType.setPosList(posList);
         segments.getAbstractCurveSegments().add(this.opengisGMLFactory.createLineStringSegment(lineStringSegmentType));
         curveType.setSegments(segments);
-        curveType.setId(this.generateId(null));
+        curveType.setId(this.generateGeometryId(atonNode));
         curveProperty.setCurve(curveType);
 
         // And return the output
@@ -2097,24 +1821,24 @@ public class S125DatasetBuilder {
     }
 
     /**
-     * Populates and return an S-125 point property based on the provided point
-     * geometry coordinates.
+     * Populates and return an S-125 point property based on the location of
+     * the provided AtoN node.
      *
-     * @param coords    The coordinates of the element to be generated
+     * @param atonNode  The AtoN node to generate the point property for
      * @return The populated point property
      */
-    protected PointProperty generatePointProperty(Collection<Double> coords) {
+    protected PointProperty generatePointProperty(AtonNode atonNode) {
         // Generate the elements
         PointProperty pointProperty = new PointPropertyImpl();
         PointType pointType = new PointTypeImpl();
         Pos pos = new PosImpl();
 
         // Populate with the geometry data
-        pos.setValue(coords.toArray(new Double[0]));
+        pos.setValue(new Double[]{atonNode.getLon(), atonNode.getLat()});
 
         // Populate the elements
         pointType.setPos(pos);
-        pointType.setId(this.generateId(null));
+        pointType.setId(this.generateGeometryId(atonNode));
         pointProperty.setPoint(pointType);
 
         // And return the output
@@ -2132,11 +1856,22 @@ public class S125DatasetBuilder {
         // Calculate the bounding by envelope
         final Envelope envelope = new Envelope();
         atonNodes.stream()
-                .map(AtonNode::getGeometry)
-                .forEach(g -> this.enclosingEnvelopFromGeometry(envelope, g));
+                .map(this::generateEnvelope)
+                .forEach(envelope::expandToInclude);
+
+        // And create the bounding by envelope
+        return this.generateBoundingShape(envelope);
+    }
 
+    /**
+     * Generates the bounding shape for the provided envelope.
+     *
+     * @param envelope      The envelope to generate the bounding shape for
+     * @return the bounding shape
+     */
+    protected BoundingShapeType generateBoundingShape(Envelope envelope) {
         Pos lowerCorner = new PosImpl();
-        lowerCorner.setValue(new Double[]{envelope.getMinX(), envelope.getMaxY()});
+        lowerCorner.setValue(new Double[]{envelope.getMinX(), envelope.getMinY()});
         Pos upperCorner = new PosImpl();
         upperCorner.setValue(new Double[]{envelope.getMaxX(), envelope.getMaxY()});
 
@@ -2153,17 +1888,112 @@ public class S125DatasetBuilder {
     }
 
     /**
-     * Adds the enclosing geometry boundaries to the provided envelop.
+     * Returns the envelope of the provided AtoN node geometry. If the
+     * envelope has already been computed for the dataset, the cached one is
+     * returned.
+     *
+     * @param atonNode      The AtoN node
+     * @return the envelope of the AtoN node geometry
+     */
+    protected Envelope generateEnvelope(AtonNode atonNode) {
+        final Envelope envelope = this.envelopeMap.get(atonNode);
+        return envelope != null ? envelope : this.computeEnvelope(atonNode);
+    }
+
+    /**
+     * Computes the envelopes of the provided AtoN nodes and their children
+     * once, caching them for the generation of the dataset members, while
+     * folding the envelopes of the provided AtoN nodes into the envelope of
+     * the whole dataset in the same pass.
      *
-     * @param envelope      The envelope to be updated
-     * @param geometry      The geometry to update the envelope boundaries with
+     * @param atonNodes     The AtoN nodes to compute the envelopes for
+     * @return the envelope of the whole dataset
      */
-    protected void enclosingEnvelopFromGeometry(Envelope envelope, Geometry geometry) {
-        final Geometry enclosingGeometry = geometry.getEnvelope();
-        final Coordinate[] enclosingCoordinates = enclosingGeometry.getCoordinates();
-        for (Coordinate c : enclosingCoordinates) {
-            envelope.expandToInclude(c);
+    protected Envelope assignEnvelopes(List<AtonNode> atonNodes) {
+        final Envelope datasetEnvelope = new Envelope();
+        for(AtonNode atonNode : Optional.ofNullable(atonNodes).orElse(Collections.emptyList())) {
+            datasetEnvelope.expandToInclude(this.envelopeMap.computeIfAbsent(atonNode, this::computeEnvelope));
+            Optional.ofNullable(atonNode.getChildren())
+                    .orElse(Collections.emptySet())
+                    .forEach(child -> this.envelopeMap.computeIfAbsent(child, this::computeEnvelope));
         }
+        return datasetEnvelope;
+    }
+
+    /**
+     * Computes the envelope of the provided AtoN node geometry, without
+     * generating the envelope geometry itself.
+     *
+     * @param atonNode      The AtoN node
+     * @return the envelope of the AtoN node geometry
+     */
+    private Envelope computeEnvelope(AtonNode atonNode) {
+        return Optional.ofNullable(atonNode.getGeometry())
+                .map(Geometry::getEnvelopeInternal)
+                .map(Envelope::new)
+                .orElseGet(Envelope::new);
+    }
+
+    /**
+     * Returns the tolerance the line and area geometries of the provided AtoN
+     * node should be simplified with, based on its minimum scale. AtoN nodes
+     * without a minimum scale are not simplified at all.
+     *
+     * @param atonTags      The tags of the AtoN node, indexed by their key
+     * @return the simplification tolerance in degrees
+     */
+    protected double getSimplificationTolerance(Map<String, AtonTag> atonTags) {
+        return Optional.ofNullable(atonTags.get(SCALE_MINIMUM_TAG))
+                .map(AtonTag::getV)
+                .map(String::trim)
+                .filter(v -> v.matches("\\d{1,12}"))
+                .map(Long::parseLong)
+                .map(S100CoordinateUtils::toleranceForScale)
+                .orElse(0.0);
+    }
+
+    /**
+     * Checks whether the provided geometry type of a dataset member supports
+     * the geometry property set by the provided setter, e.g. whether it can
+     * hold curves. The geometry types of all the S-125 features have been
+     * looked up in advance, while any other geometry type only holds points.
+     *
+     * @param geometryClass The geometry type of the dataset member
+     * @param setter        The name of the geometry property setter
+     * @return whether the geometry type supports the geometry property
+     */
+    protected boolean supportsGeometry(Class<?> geometryClass, String setter) {
+        return geometrySetters.getOrDefault(geometryClass, Collections.emptySet()).contains(setter);
+    }
+
+    /**
+     * Looks up the geometry property setters of the provided geometry type
+     * of a dataset member, i.e. which of the point, curve and surface
+     * properties it can hold.
+     *
+     * @param geometryClass The geometry type of the dataset member
+     * @return the names of the geometry property setters
+     */
+    private static Set<String> findGeometrySetters(Class<?> geometryClass) {
+        return Arrays.stream(geometryClass.getMethods())
+                .map(Method::getName)
+                .filter(name -> name.startsWith("set") && name.endsWith("Property"))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Checks whether the S-125 preset allows the AtoN type of the provided
+     * AtoN tags to be encoded with the provided preset geometry, e.g. whether
+     * it can be drawn as a closed way. AtoN nodes of unknown types are not
+     * restricted.
+     *
+     * @param atonTags      The tags of the AtoN node, indexed by their key
+     * @param geometry      The preset geometry, e.g. "closedway"
+     * @return whether the preset allows the geometry for the AtoN type
+     */
+    protected boolean allowsGeometry(Map<String, AtonTag> atonTags, String geometry) {
+        final S125AtonTypes atonType = this.resolveAtonType(atonTags);
+        return atonType == null || this.presetPlan.allowsGeometry(atonType, geometry);
     }
 
     /**
@@ -2191,4 +2021,404 @@ public class S125DatasetBuilder {
         return datasetId;
     }
 
+    /**
+     * A helper function that returns the dataset ID of the provided AtoN
+     * node. If stable IDs are enabled, or the AtoN node has not been
+     * persisted and cannot be looked up by its ID, the ID is derived from
+     * the identity of the AtoN node, otherwise a sequential one is assigned.
+     *
+     * @param atonNode  The AtoN node
+     * @return the dataset ID string
+     */
+    protected String generateId(AtonNode atonNode) {
+        return this.generateId(atonNode, this.isStable(atonNode) ? this.getMrnTag(atonNode) : null);
+    }
+
+    /**
+     * A helper function that returns the dataset ID of the provided AtoN
+     * node, using its already looked up MRN tag for the stable IDs.
+     *
+     * @param atonNode  The AtoN node
+     * @param mrnTag    The MRN tag of the AtoN node, if any
+     * @return the dataset ID string
+     */
+    protected String generateId(AtonNode atonNode, AtonTag mrnTag) {
+        final String identity = this.isStable(atonNode) ? this.getStableIdentity(atonNode, mrnTag) : null;
+        if(identity == null) {
+            return this.generateId(atonNode.getId());
+        }
+        return Optional.ofNullable(atonNode.getId())
+                .map(this.idMap::get)
+                .orElseGet(() -> generateStableId(identity));
+    }
+
+    /**
+     * A helper function that returns the reference to the dataset member of
+     * the provided AtoN node. AtoN nodes encoded in other datasets of the
+     * same exchange set are referenced through their dataset file.
+     *
+     * @param atonNode  The AtoN node
+     * @return the reference to the dataset member
+     */
+    protected String generateHref(AtonNode atonNode) {
+        return Optional.ofNullable(atonNode.getAtonUid())
+                .map(this.externalDatasets::get)
+                .orElse("") + "#" + this.generateId(atonNode);
+    }
+
+    /**
+     * Sets the dataset files of the AtoN nodes encoded in other datasets of
+     * the same exchange set, e.g. when splitting a large dataset, so that
+     * they can be referenced across the datasets. Since the references need
+     * to know the IDs assigned in the other datasets, this should only be
+     * used along with stable IDs.
+     *
+     * @param externalDatasets  The dataset file names, indexed by the AtoN UIDs
+     */
+    @Override
+    public void setExternalDatasets(Map<String, String> externalDatasets) {
+        this.externalDatasets = Optional.ofNullable(externalDatasets).orElse(Collections.emptyMap());
+    }
+
+    /**
+     * Sets the IDs of the AtoN links that should not be encoded in this
+     * dataset, e.g. because they are encoded in another dataset of the same
+     * exchange set.
+     *
+     * @param excludedLinks     The IDs of the excluded AtoN links
+     */
+    @Override
+    public void setExcludedLinks(Set<Integer> excludedLinks) {
+        this.excludedLinks = Optional.ofNullable(excludedLinks).orElse(Collections.emptySet());
+    }
+
+    /**
+     * A helper function that returns the dataset ID of the geometry of the
+     * provided AtoN node. If no ID has been pre-assigned, e.g. since the
+     * AtoN node has not been persisted, the ID is derived from the identity
+     * of the AtoN node, so that identical exports always get the same IDs.
+     * Only AtoN nodes without any identity get a new sequential one.
+     *
+     * @param atonNode  The AtoN node of the geometry
+     * @return the geometry ID string
+     */
+    protected String generateGeometryId(AtonNode atonNode) {
+        return Optional.ofNullable(atonNode.getId())
+                .map(this.geometryIdMap::get)
+                .orElseGet(() -> Optional.ofNullable(this.isStable(atonNode) ? this.getStableIdentity(atonNode) : null)
+                        .map(identity -> generateStableId(identity + "#geometry"))
+                        .orElseGet(() -> this.generateId((Integer) null)));
+    }
+
+    /**
+     * A helper function that returns the identity the stable dataset IDs of
+     * the provided AtoN node are derived from, i.e. its ID code. AtoN nodes
+     * with neither an MRN nor a UID have no stable identity.
+     *
+     * @param atonNode  The AtoN node
+     * @return the stable identity of the AtoN node, or null if not available
+     */
+    protected String getStableIdentity(AtonNode atonNode) {
+        return this.getStableIdentity(atonNode, this.getMrnTag(atonNode));
+    }
+
+    /**
+     * A helper function that returns the identity the stable dataset IDs of
+     * the provided AtoN node are derived from, using its already looked up
+     * MRN tag.
+     *
+     * @param atonNode  The AtoN node
+     * @param mrnTag    The MRN tag of the AtoN node, if any
+     * @return the stable identity of the AtoN node, or null if not available
+     */
+    protected String getStableIdentity(AtonNode atonNode, AtonTag mrnTag) {
+        return mrnTag != null || atonNode.getAtonUid() != null ? this.generateIdCode(atonNode, mrnTag) : null;
+    }
+
+    /**
+     * A helper function that checks whether the dataset IDs of the provided
+     * AtoN node should be derived from its identity, i.e. when stable IDs
+     * are enabled or the AtoN node has not been persisted. Unpersisted AtoN
+     * nodes cannot be looked up by their ID, so numbering them sequentially
+     * would give them a new ID every time.
+     *
+     * @param atonNode  The AtoN node
+     * @return whether to derive the dataset IDs from the AtoN node identity
+     */
+    protected boolean isStable(AtonNode atonNode) {
+        return this.stableIds || atonNode.getId() == null;
+    }
+
+    /**
+     * A helper function that looks up the MRN tag of the provided AtoN node.
+     *
+     * @param atonNode  The AtoN node
+     * @return the MRN tag of the AtoN node, or null if not available
+     */
+    private AtonTag getMrnTag(AtonNode atonNode) {
+        return Optional.ofNullable(atonNode.getTags())
+                .orElse(Collections.emptyList())
+                .stream()
+                .filter(atonTag -> MRN_TAG.equals(atonTag.getK()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * A helper function that returns the ID code of the provided AtoN node,
+     * using the provided MRN tag if available.
+     *
+     * @param atonNode  The AtoN node
+     * @param mrnTag    The MRN tag of the AtoN node, if any
+     * @return the ID code of the AtoN node
+     */
+    private String generateIdCode(AtonNode atonNode, AtonTag mrnTag) {
+        return Optional.ofNullable(mrnTag)
+                .map(AtonTag::getV)
+                .orElse("aton.uk." + atonNode.getAtonUid());
+    }
+
+    /**
+     * Generates the stable dataset ID of the provided identity, i.e. an
+     * "ID" prefixed hex digest of it, so that it is always a valid GML ID
+     * no matter which characters the identity contains.
+     *
+     * @param identity  The identity to generate the dataset ID for
+     * @return the stable dataset ID string
+     */
+    protected static String generateStableId(String identity) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            return "ID" + HexFormat.of().formatHex(digest, 0, STABLE_ID_BYTES);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A helper function that returns all the dataset IDs used by the dataset
+     * member of the provided AtoN node, i.e. the ID of the member itself and
+     * its geometry, followed by the references to its children and parent.
+     *
+     * @param atonNode  The AtoN node of the dataset member
+     * @return the list of dataset IDs used by the member
+     */
+    @Override
+    public List<String> generateMemberIds(AtonNode atonNode) {
+        final List<String> ids = new ArrayList<>();
+        ids.add(this.generateId(atonNode));
+        ids.add(this.generateGeometryId(atonNode));
+        this.getChildren(atonNode)
+                .forEach(child -> ids.add(this.generateId(child)));
+        Optional.ofNullable(atonNode.getParent())
+                .ifPresent(parent -> ids.add(this.generateId(parent)));
+        return ids;
+    }
+
+    /**
+     * A helper function that returns the children of the provided AtoN node
+     * sorted by their ID. The children are loaded as an unordered set, so
+     * sorting them makes sure the dataset members, their IDs and their
+     * references are always generated in the same order, i.e. the same AtoN
+     * nodes always produce exactly the same dataset.
+     *
+     * @param atonNode  The AtoN node
+     * @return the children of the AtoN node sorted by their ID
+     */
+    @Override
+    public List<AtonNode> getChildren(AtonNode atonNode) {
+        return this.sortById(atonNode.getChildren(), AtonNode::getId);
+    }
+
+    /**
+     * A helper function that returns the links of the provided AtoN node
+     * sorted by their ID, for the same reason as {@link #getChildren(AtonNode)}.
+     *
+     * @param atonNode  The AtoN node
+     * @return the links of the AtoN node sorted by their ID
+     */
+    public List<AtonLink> getLinks(AtonNode atonNode) {
+        return this.sortById(atonNode.getLinks(), AtonLink::getId);
+    }
+
+    /**
+     * A helper function that returns the peers of the provided AtoN link
+     * sorted by their ID, for the same reason as {@link #getChildren(AtonNode)}.
+     *
+     * @param atonLink  The AtoN link
+     * @return the peers of the AtoN link sorted by their ID
+     */
+    @Override
+    public List<AtonNode> getPeers(AtonLink atonLink) {
+        return this.sortById(atonLink.getPeers(), AtonNode::getId);
+    }
+
+    /**
+     * Checks whether the provided AtoN link can be encoded in the dataset,
+     * i.e. whether all its peers are encoded either in this dataset or in
+     * another dataset of the same exchange set, so that none of the peer
+     * references is left dangling. Until the dataset IDs have been assigned
+     * the encoded AtoN nodes are not known, so all links are accepted.
+     *
+     * @param atonLink  The AtoN link
+     * @return whether the AtoN link can be encoded
+     */
+    protected boolean isEncodable(AtonLink atonLink) {
+        return this.encodedNodes == null || this.getPeers(atonLink).stream()
+                .allMatch(peer -> this.encodedNodes.contains(peer.getId())
+                        || (peer.getAtonUid() != null && this.externalDatasets.containsKey(peer.getAtonUid())));
+    }
+
+    /**
+     * Sorts the provided collection of entities by their ID. Any entities
+     * without an ID are placed last, in their original order.
+     *
+     * @param entities  The entities to be sorted
+     * @param idMapper  The function returning the ID of each entity
+     * @return the entities sorted by their ID
+     */
+    private <T> List<T> sortById(Collection<T> entities, Function<T, Integer> idMapper) {
+        if(entities == null || entities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<T> sorted = new ArrayList<>(entities);
+        sorted.sort(Comparator.comparing(idMapper, Comparator.nullsLast(Comparator.naturalOrder())));
+        return sorted;
+    }
+
+    /**
+     * A helper function that indexes the tags of the provided AtoN node by
+     * their key, so that each field can be looked up in constant time instead
+     * of searching through all the tags of the node. Like the AtoN node, the
+     * first tag found for each key is the one used.
+     *
+     * @param atonNode  The AtoN node
+     * @return the AtoN node tags indexed by their key
+     */
+    protected Map<String, AtonTag> indexTags(AtonNode atonNode) {
+        final List<AtonTag> atonTags = Optional.ofNullable(atonNode.getTags()).orElse(Collections.emptyList());
+        final Map<String, AtonTag> index = new HashMap<>(Math.max(16, atonTags.size() * 2));
+        for(AtonTag atonTag : atonTags) {
+            index.putIfAbsent(atonTag.getK(), atonTag);
+        }
+        return index;
+    }
+
+    /**
+     * A helper function that returns the dataset ID of the provided AtoN link.
+     * If no ID has been pre-assigned, a new one will be generated, derived
+     * from the link peers if stable IDs are enabled or the link has not been
+     * persisted.
+     *
+     * @param atonLink  The AtoN link
+     * @return the link ID string
+     */
+    protected String generateLinkId(AtonLink atonLink) {
+        return Optional.ofNullable(atonLink.getId())
+                .map(this.linkIdMap::get)
+                .orElseGet(() -> this.stableIds || atonLink.getId() == null ? this.generateStableLinkId(atonLink) : this.generateId((Integer) null));
+    }
+
+    /**
+     * A helper function that derives the stable dataset ID of the provided
+     * AtoN link from its category and the stable identities of its peers.
+     * If any of the peers has no stable identity, a sequential ID is
+     * generated instead.
+     *
+     * @param atonLink  The AtoN link
+     * @return the stable link ID string
+     */
+    protected String generateStableLinkId(AtonLink atonLink) {
+        final List<String> identities = this.getPeers(atonLink).stream()
+                .map(this::getStableIdentity)
+                .toList();
+        if(identities.contains(null)) {
+            return this.generateId((Integer) null);
+        }
+        return generateStableId(Optional.ofNullable(atonLink.getLinkCategory())
+                .map(category -> category.getAtonLinkType() + ":" + category.getValue())
+                .orElse("") + identities);
+    }
+
+    /**
+     * Pre-assigns the dataset IDs of the provided AtoN nodes in exactly the
+     * same order as the {@link #packageToDataset(S125DatasetInfo, List)}
+     * function would generate them, i.e. for every AtoN node the IDs of its
+     * member, followed by the ones of its children members and finally the
+     * ones of its aggregation/association links. This way the sequential IDs
+     * are the same as if the members were generated one by one, but they do
+     * not depend on the order in which the dataset members are actually
+     * generated. Once assigned, generating the members of these AtoN nodes
+     * only reads the ID lookup maps, so they can be generated in chunks
+     * ahead of the ones being written.
+     *
+     * @param atonNodes     The AtoN nodes to assign the IDs for
+     */
+    protected void assignIds(List<AtonNode> atonNodes) {
+        // Keep track of the AtoN nodes encoded in the dataset, so that the
+        // links to any AtoN nodes outside it can be skipped
+        this.encodedNodes = new HashSet<>();
+        for(AtonNode atonNode : Optional.ofNullable(atonNodes).orElse(Collections.emptyList())) {
+            Stream.concat(Stream.of(atonNode), this.getChildren(atonNode).stream())
+                    .filter(node -> this.resolveAtonType(node) != null)
+                    .map(AtonNode::getId)
+                    .filter(Objects::nonNull)
+                    .forEach(this.encodedNodes::add);
+        }
+
+        final Set<Integer> collected = new HashSet<>();
+        for(AtonNode atonNode : Optional.ofNullable(atonNodes).orElse(Collections.emptyList())) {
+            // First the member of the AtoN node and its children
+            this.assignMemberIds(atonNode);
+            this.getChildren(atonNode).forEach(this::assignMemberIds);
+
+            // And then its links, along with their peer references
+            this.collectAidsToNavigationLinks(atonNode, collected).stream()
+                    .filter(atonLink -> atonLink.getId() != null)
+                    .forEach(atonLink -> {
+                        this.linkIdMap.computeIfAbsent(atonLink.getId(), k -> this.generateLinkId(atonLink));
+                        this.getPeers(atonLink).forEach(this::assignId);
+                    });
+        }
+    }
+
+    /**
+     * Pre-assigns the dataset IDs used by the member of the provided AtoN
+     * node in the order they are generated, i.e. the ID of the member
+     * itself, its child or parent references and finally its geometry. AtoN
+     * nodes of unknown types are not encoded, so no IDs are assigned to them.
+     *
+     * @param atonNode      The AtoN node of the dataset member
+     */
+    private void assignMemberIds(AtonNode atonNode) {
+        final S125AtonTypes atonType = this.resolveAtonType(atonNode);
+        if(atonType == null) {
+            return;
+        }
+        this.assignId(atonNode);
+        if(atonType.isEquipment()) {
+            Optional.ofNullable(atonNode.getParent())
+                    .ifPresent(this::assignId);
+        } else {
+            this.getChildren(atonNode)
+                    .forEach(this::assignId);
+        }
+        if(atonNode.getId() != null) {
+            this.geometryIdMap.computeIfAbsent(atonNode.getId(), k -> this.generateGeometryId(atonNode));
+        }
+    }
+
+    /**
+     * Pre-assigns the dataset ID of the provided AtoN node, unless already
+     * assigned.
+     *
+     * @param atonNode      The AtoN node to assign the ID for
+     */
+    private void assignId(AtonNode atonNode) {
+        final String id = this.generateId(atonNode);
+        if(atonNode.getId() != null) {
+            this.idMap.putIfAbsent(atonNode.getId(), id);
+        }
+    }
+
 }
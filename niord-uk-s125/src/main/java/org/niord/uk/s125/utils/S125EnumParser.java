@@ -17,7 +17,10 @@ package org.niord.uk.s125.utils;
 
 import _int.iho.s125.gml.cs0._1.*;
 
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,6 +34,118 @@ import java.util.stream.Collectors;
  */
 public class S125EnumParser {
 
+    /**
+     * The maximum number of distinct unknown enum values to be counted.
+     */
+    public static final int MAX_UNKNOWN_VALUES = 1000;
+
+    // The value lookup tables of the S-125 enums, built once per enum type
+    private static final Map<Class<?>, Map<String, ?>> valueTables = new ConcurrentHashMap<>();
+
+    // The unknown enum values encountered by all the parsers
+    private static final Map<String, LongAdder> unknownValues = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up the S-125 enum entry of the provided type with the provided
+     * schema value, i.e. just like the generated fromValue() functions of the
+     * JAXB enums, but without throwing an exception when the value is not
+     * found. Instead, the unknown value is counted and null is returned.
+     *
+     * @param enumType      The S-125 enum type
+     * @param value         The schema value of the enum entry
+     * @return the S-125 enum entry, or null if not found
+     */
+    public static <E extends Enum<E>> E fromValue(Class<E> enumType, String value) {
+        if(value == null) {
+            return null;
+        }
+        final Object entry = valueTables.computeIfAbsent(enumType, S125EnumParser::buildValueTable).get(value);
+        return entry != null ? enumType.cast(entry) : unknown(enumType, value);
+    }
+
+    /**
+     * Returns the number of times each unknown enum value has been
+     * encountered so far, indexed by the enum type and the value, e.g.
+     * "StatusType:broken", along with the tag values outside the value
+     * domains of the S-125 preset, indexed by the tag key and the value, e.g.
+     * "seamark:status=broken". Once too many distinct unknown values have
+     * been seen, the rest are counted under "*" for each enum type or tag
+     * key.
+     *
+     * @return the counts per unknown enum value
+     */
+    public static Map<String, Long> getUnknownValues() {
+        return unknownValues.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), (a, b) -> a, TreeMap::new));
+    }
+
+    /**
+     * Counts the provided value as an unknown value of the provided enum
+     * type, so that it can be included in the data quality reports.
+     *
+     * @param enumType      The enum type
+     * @param value         The unknown value
+     * @return always null, for use as the default of the parsers
+     */
+    protected static <E> E unknown(Class<E> enumType, String value) {
+        count(enumType.getSimpleName() + ":" + value, enumType.getSimpleName() + ":*");
+        return null;
+    }
+
+    /**
+     * Counts the provided tag value, which falls outside the value domain
+     * the S-125 preset defines for the provided tag key, as an unknown
+     * value, so that it can be included in the data quality reports.
+     *
+     * @param key           The tag key
+     * @param value         The tag value outside the value domain
+     */
+    public static void unknownTagValue(String key, String value) {
+        count(key + "=" + value, key + "=*");
+    }
+
+    /**
+     * Increments the count of the provided unknown value key, or of the
+     * provided overflow key once too many distinct unknown values have been
+     * seen.
+     *
+     * @param key           The unknown value key
+     * @param overflowKey   The key to count the value under on overflow
+     */
+    private static void count(String key, String overflowKey) {
+        final String counted = unknownValues.size() < MAX_UNKNOWN_VALUES || unknownValues.containsKey(key) ? key : overflowKey;
+        unknownValues.computeIfAbsent(counted, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Builds the value lookup table of the provided enum type, indexing its
+     * entries by their schema values, as returned by their value() function,
+     * or by their names if they do not have one.
+     *
+     * @param enumType      The enum type
+     * @return the value lookup table
+     */
+    private static Map<String, ?> buildValueTable(Class<?> enumType) {
+        final Map<String, Object> valueTable = new HashMap<>();
+        Method valueMethod;
+        try {
+            valueMethod = enumType.getMethod("value");
+        } catch (NoSuchMethodException ex) {
+            valueMethod = null;
+        }
+        for(Object entry : enumType.getEnumConstants()) {
+            String value;
+            try {
+                value = valueMethod != null ? String.valueOf(valueMethod.invoke(entry)) : ((Enum<?>) entry).name();
+            } catch (ReflectiveOperationException ex) {
+                value = ((Enum<?>) entry).name();
+            }
+            valueTable.putIfAbsent(value, entry);
+        }
+        return Collections.unmodifiableMap(valueTable);
+    }
+
     /**
      * Splits the list string separated by a special character into an actual
      * Java list or S125 enum entries. The colours should be separated by a
@@ -67,7 +182,7 @@ public class S125EnumParser {
             case "radar_scanner" -> CategoryOfLandmarkType.RADAR_SCANNER;
             case "tower" -> CategoryOfLandmarkType.TOWER;
             case "windmotor" -> CategoryOfLandmarkType.WINDMOTOR;
-            default -> null;
+            default -> unknown(CategoryOfLandmarkType.class, categoryOfLandmark);
         };
     }
 
@@ -92,7 +207,7 @@ public class S125EnumParser {
             case "safe_water" -> VirtualAISAidToNavigationTypeType.SAFE_WATER;
             case "special_purpose" -> VirtualAISAidToNavigationTypeType.SPECIAL_PURPOSE;
             case "wreck" -> VirtualAISAidToNavigationTypeType.NEW_DANGER_MARKING;
-            default -> null;
+            default -> unknown(VirtualAISAidToNavigationTypeType.class, virtualAisAidsToNavigationType);
         };
     }
     
@@ -114,7 +229,7 @@ public class S125EnumParser {
             case "painted" -> NatureOfConstructionType.PAINTED;
             case "grp" -> NatureOfConstructionType.FIBERGLASS;
             case "plastic" -> NatureOfConstructionType.PLASTIC;
-            default -> null;
+            default -> unknown(NatureOfConstructionType.class, natureOfConstruction);
         };
     }
 
@@ -143,7 +258,7 @@ public class S125EnumParser {
             case "experimental" -> StatusType.EXPERIMENTAL;
             case "temporarily discontinued" -> StatusType.TEMPORARILY_DISCONTINUED;
             case "temporarily relocated" -> StatusType.TEMPORARILY_RELOCATED;
-            default -> null;
+            default -> unknown(StatusType.class, status);
         };
     }
     
@@ -158,7 +273,7 @@ public class S125EnumParser {
         return switch (radarConspicuous) {
             case "conspicuous" -> RadarConspicuousType.RADAR_CONSPICUOUS;
             case "not_conspicuous" -> RadarConspicuousType.NOT_RADAR_CONSPICUOUS;
-            default -> null;
+            default -> unknown(RadarConspicuousType.class, radarConspicuous);
         };
     }
 
@@ -173,7 +288,7 @@ public class S125EnumParser {
         return switch (visuallyConspicuous) {
             case "conspicuous" -> VisualProminenceType.VISUALLY_CONSPICUOUS;
             case "not_conspicuous" -> VisualProminenceType.NOT_VISUALLY_CONSPICUOUS;
-            default -> null;
+            default -> unknown(VisualProminenceType.class, visuallyConspicuous);
         };
     }
 
@@ -190,7 +305,7 @@ public class S125EnumParser {
             case "iala-b" -> MarksNavigationalSystemOfType.IALA_B;
             case "cevni" -> MarksNavigationalSystemOfType.OTHER_SYSTEM;
             case "none" -> MarksNavigationalSystemOfType.NO_SYSTEM;
-            default -> null;
+            default -> unknown(MarksNavigationalSystemOfType.class, marksNavigationalSystemOf);
         };
     }
 
@@ -205,7 +320,7 @@ public class S125EnumParser {
         return switch (installationBuoy) {
             case "calm" ->  CategoryOfInstallationBuoyType.CATENARY_ANCHOR_LEG_MOORING_CALM;
             case "sbm" -> CategoryOfInstallationBuoyType.SINGLE_BUOY_MOORING_SBM_OR_SPM;
-            default -> null;
+            default -> unknown(CategoryOfInstallationBuoyType.class, installationBuoy);
         };
     }
 
@@ -273,7 +388,7 @@ public class S125EnumParser {
             case ("channel_separation") ->  CategoryOfSpecialPurposeMarkType.CHANNEL_SEPARATION_MARK;
             case ("marine_farm") -> CategoryOfSpecialPurposeMarkType.MARINE_FARM_MARK;
             case ("artificial_reef") -> CategoryOfSpecialPurposeMarkType.ARTIFICIAL_REEF_MARK;
-            default -> null;
+            default -> unknown(CategoryOfSpecialPurposeMarkType.class, specialPurposeMark);
         };
     }
 
@@ -290,7 +405,7 @@ public class S125EnumParser {
             case "starboard" -> CategoryOfLateralMarkType.STARBOARD_HAND_LATERAL_MARK;
             case "preferred_channel_port" ->CategoryOfLateralMarkType.PREFERRED_CHANNEL_TO_PORT_LATERAL_MARK;
             case "preferred_channel_starboard" -> CategoryOfLateralMarkType.PREFERRED_CHANNEL_TO_STARBOARD_LATERAL_MARK;
-            default -> null;
+            default -> unknown(CategoryOfLateralMarkType.class, lateralMark);
         };
     }
 
@@ -307,7 +422,7 @@ public class S125EnumParser {
             case "east" -> CategoryOfCardinalMarkType.EAST_CARDINAL_MARK;
             case "south" -> CategoryOfCardinalMarkType.SOUTH_CARDINAL_MARK;
             case "west" -> CategoryOfCardinalMarkType.WEST_CARDINAL_MARK;
-            default -> null;
+            default -> unknown(CategoryOfCardinalMarkType.class, cardinalMark);
         };
     }
 
@@ -324,7 +439,7 @@ public class S125EnumParser {
             case "tower" -> BeaconShapeType.BEACON_TOWER;
             case "lattice" -> BeaconShapeType.LATTICE_BEACON;
             case "pile" -> BeaconShapeType.PILE_BEACON;
-            default -> null;
+            default -> unknown(BeaconShapeType.class, beaconShape);
         };
     }
 
@@ -345,7 +460,7 @@ public class S125EnumParser {
             case "spar" -> BuoyShapeType.SPAR_SPINDLE;
             case "barrel" -> BuoyShapeType.BARREL_TUN;
             case "ice-buoy" -> BuoyShapeType.ICE_BUOY;
-            default -> null;
+            default -> unknown(BuoyShapeType.class, buoyShape);
         };
     }
 
@@ -374,7 +489,7 @@ public class S125EnumParser {
             case "horizontal" -> CategoryOfLightType.HORIZONTALLY_DISPOSED;
             case "vertical" -> CategoryOfLightType.VERTICALLY_DISPOSED;
             case "bridge_light" -> CategoryOfLightType.BRIDGE_LIGHT;
-            default -> null;
+            default -> unknown(CategoryOfLightType.class, lightCategory);
         };
     }
 
@@ -412,7 +527,7 @@ public class S125EnumParser {
             case "VQ+LFl" -> LightCharacteristicType.VERY_QUICK_FLASH_PLUS_LONG_FLASH;
             case "UQ+LFl" -> LightCharacteristicType.ULTRA_QUICK_FLASH_PLUS_LONG_FLASH;
             case "Al" -> LightCharacteristicType.ALTERNATING;
-            default -> null;
+            default -> unknown(LightCharacteristicType.class, lightCharacter);
         };
     }
 
@@ -432,7 +547,7 @@ public class S125EnumParser {
             case "stripes" -> ColourPatternType.STRIPES_DIRECTION_UNKNOWN;
             case "border" -> ColourPatternType.BORDER_STRIPE;
             case "single" -> ColourPatternType.SINGLE_COLOUR;
-            default -> null;
+            default -> unknown(ColourPatternType.class, colourPattern);
         };
     }
 
@@ -456,7 +571,7 @@ public class S125EnumParser {
             case "fluorescent_red" -> ColourType.FLUORESCENT_RED;
             case "fluorescent_green" -> ColourType.FLUORESCENT_GREEN;
             case "fluorescent_orange" -> ColourType.FLUORESCENT_ORANGE;
-            default -> null;
+            default -> unknown(ColourType.class, colour);
         };
     }
 
@@ -486,7 +601,7 @@ public class S125EnumParser {
             case "radar" -> FunctionType.RADAR;
             case "light_support" -> FunctionType.LIGHT_SUPPORT;
             case "bus_station" -> FunctionType.BUS_STATION;
-            default -> null;
+            default -> unknown(FunctionType.class, function);
         };
     }
 
@@ -503,7 +618,7 @@ public class S125EnumParser {
             case "horm" -> CategoryOfFogSignalType.HORN;
             case "siren" -> CategoryOfFogSignalType.SIREN;
             case "whistle" -> CategoryOfFogSignalType.WHISTLE;
-            default -> null;
+            default -> unknown(CategoryOfFogSignalType.class, fogSignalCategory);
         };
     }
 
@@ -518,7 +633,7 @@ public class S125EnumParser {
         return switch (radioStationCategory) {
             case "ais" -> CategoryOfRadioStationType.AIS_BASE_STATION;
             case "differential" -> CategoryOfRadioStationType.DIFFERENTIAL_GNSS;
-            default -> null;
+            default -> unknown(CategoryOfRadioStationType.class, radioStationCategory);
         };
     }
 
@@ -533,7 +648,7 @@ public class S125EnumParser {
         return switch (radioTransponderBeaconCategory) {
             case "ramark" -> CategoryOfRadarTransponderBeaconType.RAMARK_RADAR_BEACON_TRANSMITTING_CONTINUOUSLY;
             case "racon" -> CategoryOfRadarTransponderBeaconType.RACON_RADAR_TRANSPONDER_BEACON;
-            default -> null;
+            default -> unknown(CategoryOfRadarTransponderBeaconType.class, radioTransponderBeaconCategory);
         };
     }
 
@@ -551,7 +666,7 @@ public class S125EnumParser {
             case "high rise building" -> BuildingShapeType.HIGH_RISE_BUILDING;
             case "cylindrical" -> BuildingShapeType.CYLINDRICAL;
             case "pyramid" -> BuildingShapeType.PYRAMID;
-            default -> null;
+            default -> unknown(BuildingShapeType.class, buildingShape);
         };
     }
 
@@ -566,7 +681,7 @@ public class S125EnumParser {
         return switch (siloTankCategory) {
             case "silo" -> CategoryOfSiloTankType.SILO_IN_GENERAL;
             case "tank" -> CategoryOfSiloTankType.TANK_IN_GENERAL;
-            default -> null;
+            default -> unknown(CategoryOfSiloTankType.class, siloTankCategory);
         };
     }
 
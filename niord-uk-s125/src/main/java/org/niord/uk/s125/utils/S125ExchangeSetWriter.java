@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.utils;
+
+import org.niord.uk.s100.common.utils.S100ExchangeSetWriter;
+import org.niord.uk.s100.common.utils.S100XsdCache;
+
+/**
+ * The S-125 Exchange Set Writer Class.
+ * <p/>
+ * Packages S-125 datasets as an S-100 exchange set, along with the S-125
+ * XSD files bundled with the S-125 library.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S125ExchangeSetWriter extends S100ExchangeSetWriter {
+
+    /**
+     * The S-125 data product folder of the exchange set.
+     */
+    public static final String PRODUCT = "S-125";
+
+    /**
+     * Class Constructor.
+     */
+    public S125ExchangeSetWriter() {
+        this(S125XsdCache.getInstance());
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param xsdCache      The cache of the XSDs to be included
+     */
+    public S125ExchangeSetWriter(S100XsdCache xsdCache) {
+        super(PRODUCT, xsdCache);
+    }
+
+}
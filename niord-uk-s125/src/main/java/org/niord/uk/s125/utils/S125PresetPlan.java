@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.utils;
+
+import org.niord.uk.s100.common.utils.S100PresetPlan;
+import org.niord.uk.s100.common.utils.S100PresetTypePlan;
+import org.niord.uk.s125.models.S125AtonTypes;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * The S-125 Preset Plan Class.
+ * <p/>
+ * Provides the shared plan compiled out of the INT-1-preset_S125Ext.xml
+ * preset, which defines the tag vocabulary of the S-125 AtoN types, along
+ * with the S-125 AtoN type decisions the S-125 dataset builder looks up,
+ * i.e. the AtoN types identified by more than their seamark type and the
+ * geometries each AtoN type may be encoded with.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S125PresetPlan extends S100PresetPlan {
+
+    /**
+     * The INT-1 preset extension resource with the S-125 tag vocabulary.
+     */
+    public static final String PRESET_RESOURCE = "/aton/INT-1-preset_S125Ext.xml";
+
+    // The shared plan instance
+    private static volatile S125PresetPlan instance;
+
+    // Class Variables
+    private final S100PresetTypePlan<S125AtonTypes> atonTypes;
+
+    /**
+     * Class Constructor.
+     *
+     * @param plan      The compiled S-125 preset plan
+     */
+    protected S125PresetPlan(S100PresetPlan plan) {
+        super(plan);
+        this.atonTypes = new S100PresetTypePlan<>(plan, List.of(S125AtonTypes.values()), S125AtonTypes::getJosmNodeTypes, S125AtonTypes::fromSeamarkType);
+    }
+
+    /**
+     * Returns the shared S-125 preset plan, compiling the S-125 preset if
+     * that has not already happened.
+     *
+     * @return the shared S-125 preset plan
+     */
+    public static S125PresetPlan getInstance() {
+        return instance != null ? instance : initialise(null);
+    }
+
+    /**
+     * Initialises the shared S-125 preset plan out of the S-125 preset. If
+     * a cache folder is provided, a plan already compiled from the same
+     * preset is read from there instead, or otherwise the compiled plan is
+     * written there for the next start-up. If the plan has already been
+     * initialised, the existing plan is returned.
+     *
+     * @param cacheFolder   The folder of the cached plans, null for none
+     * @return the shared S-125 preset plan
+     */
+    public static synchronized S125PresetPlan initialise(Path cacheFolder) {
+        if(instance == null) {
+            try(InputStream in = S125PresetPlan.class.getResourceAsStream(PRESET_RESOURCE)) {
+                if(in == null) {
+                    throw new FileNotFoundException(PRESET_RESOURCE);
+                }
+                instance = new S125PresetPlan(load(in.readAllBytes(), cacheFolder));
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to compile the S-125 preset plan", ex);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Resolves the S-125 AtoN type of the provided seamark type, taking into
+     * account the other tag values that identify the S-125 AtoN types in the
+     * S-125 preset, e.g. radio stations with an "ais" category are physical
+     * AIS AtoNs.
+     *
+     * @param seamarkType   The seamark type
+     * @param tagValues     The lookup of the AtoN tag values by their key
+     * @return the S-125 AtoN type, or null if the seamark type is unknown
+     */
+    public S125AtonTypes resolveAtonType(String seamarkType, UnaryOperator<String> tagValues) {
+        return this.atonTypes.resolveAtonType(seamarkType, tagValues);
+    }
+
+    /**
+     * Returns whether the provided S-125 AtoN type may be encoded with the
+     * provided geometry, according to the S-125 preset items of the type.
+     *
+     * @param atonType      The S-125 AtoN type
+     * @param geometry      The preset geometry, e.g. "closedway"
+     * @return whether the AtoN type may be encoded with the geometry
+     */
+    public boolean allowsGeometry(S125AtonTypes atonType, String geometry) {
+        return this.atonTypes.allowsGeometry(atonType, geometry);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.utils;
+
+import org.grad.eNav.s100.utils.SpecificJarClassLoader;
+import org.grad.eNav.s125.utils.S125Utils;
+import org.niord.uk.s100.common.utils.S100SchemaValidator;
+import org.xml.sax.SAXException;
+
+import javax.xml.validation.Schema;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * The S-125 Schema Validator Class.
+ * <p/>
+ * Provides the shared validator of the generated S-125 datasets against the
+ * S-125 schema bundled with the S-125 library.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S125SchemaValidator extends S100SchemaValidator {
+
+    /**
+     * The S-125 schema file in the S-125 library.
+     */
+    public static final String SCHEMA_FILE = "xsd/S125.xsd";
+
+    // The shared validator instance
+    private static volatile S125SchemaValidator instance;
+
+    /**
+     * Class Constructor.
+     *
+     * @param schema    The compiled schema to validate against
+     */
+    protected S125SchemaValidator(Schema schema) {
+        super(schema);
+    }
+
+    /**
+     * Returns the shared S-125 schema validator, compiling the S-125 schema
+     * if that has not already happened.
+     *
+     * @return the shared S-125 schema validator
+     */
+    public static S125SchemaValidator getInstance() {
+        return instance != null ? instance : initialise();
+    }
+
+    /**
+     * Initialises the shared S-125 schema validator by compiling the S-125
+     * schema. If the validator has already been initialised, the existing
+     * validator is returned.
+     *
+     * @return the shared S-125 schema validator
+     */
+    public static synchronized S125SchemaValidator initialise() {
+        if(instance == null) {
+            try {
+                instance = new S125SchemaValidator(compileSchema());
+            } catch (SAXException | IOException ex) {
+                throw new IllegalStateException("Failed to compile the S-125 schema", ex);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Compiles the S-125 schema bundled with the S-125 library.
+     *
+     * @return the compiled S-125 schema
+     * @throws SAXException for any errors while compiling the schema
+     * @throws IOException for any errors while reading the schema
+     */
+    protected static Schema compileSchema() throws SAXException, IOException {
+        try (URLClassLoader classLoader = new SpecificJarClassLoader(S125Utils.class)) {
+            final URL schemaUrl = classLoader.getResource(SCHEMA_FILE);
+            if(schemaUrl == null) {
+                throw new FileNotFoundException("No S-125 schema found at " + SCHEMA_FILE);
+            }
+            return S100SchemaValidator.compileSchema(schemaUrl);
+        }
+    }
+
+}
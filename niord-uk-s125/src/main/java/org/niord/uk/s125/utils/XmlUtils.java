@@ -1,95 +0,0 @@
-/*
- * Copyright (c) 2023 GLA Research and Development Directorate
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *      http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package org.niord.uk.s125.utils;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
-import java.io.ByteArrayInputStream;
-import java.io.StringWriter;
-
-/**
- * The S-125 Utilities Class.
- * <p/>
- * A utility class some static helper methods to be used anywhere the S-125
- * module.
- *
- * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
- */
-public class XmlUtils {
-
-    /**
-     * A string processor to try and prettify the input XML into something
-     * more easily readable.
-     * <p/>
-     * The original Niord version wasn't working due to existing while spaces
-     * in the DOM. Based on the DOM specification, whitespaces outside the t
-     * ags are perfectly valid, and they are properly preserved. To remove them,
-     * we can use XPath’s normalize-space to locate all the whitespace nodes
-     * and remove them first.
-     *
-     * @param input     The XML string input
-     * @param indent    The XML indentation, 0 will minify the output
-     * @return The prettified output
-     */
-    public static String xmlPrettyPrint(String input, int indent) {
-        try {
-            // Turn xml string into a document
-            Document document = DocumentBuilderFactory.newInstance()
-                    .newDocumentBuilder()
-                    .parse(new ByteArrayInputStream(input.getBytes()));
-
-            // Remove whitespaces outside tags
-            document.normalize();
-            XPath xPath = XPathFactory.newInstance().newXPath();
-            NodeList nodeList = (NodeList) xPath.evaluate("//text()[normalize-space()='']",
-                    document,
-                    XPathConstants.NODESET);
-
-            for (int i = 0; i < nodeList.getLength(); ++i) {
-                Node node = nodeList.item(i);
-                node.getParentNode().removeChild(node);
-            }
-
-            // Setup pretty print options
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            transformerFactory.setAttribute("indent-number", indent);
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-            transformer.setOutputProperty(OutputKeys.INDENT, indent > 0 ? "yes" : "no");
-
-            // Return pretty print xml string
-            StringWriter stringWriter = new StringWriter();
-            transformer.transform(new DOMSource(document), new StreamResult(stringWriter));
-            return stringWriter.toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-}
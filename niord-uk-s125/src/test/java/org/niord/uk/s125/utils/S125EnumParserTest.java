@@ -55,6 +55,30 @@ public class S125EnumParserTest {
         assertEquals(Integer.valueOf(3), resultList.get(2));
     }
 
+    /**
+     * Test that the S-125 enum entries are looked up by their schema values
+     * without throwing exceptions for unknown values.
+     */
+    @Test
+    public void testFromValue() {
+        assertEquals(LightVisibilityType.values()[0], S125EnumParser.fromValue(LightVisibilityType.class, LightVisibilityType.values()[0].value()));
+        assertEquals(CategoryOfAggregationType.values()[0], S125EnumParser.fromValue(CategoryOfAggregationType.class, CategoryOfAggregationType.values()[0].value()));
+        assertNull(S125EnumParser.fromValue(LightVisibilityType.class, null));
+        assertNull(S125EnumParser.fromValue(LightVisibilityType.class, "error"));
+    }
+
+    /**
+     * Test that the unknown values are counted per enum type.
+     */
+    @Test
+    public void testUnknownValues() {
+        final long before = S125EnumParser.getUnknownValues().getOrDefault("StatusType:unknown_test_status", 0L);
+
+        assertNull(S125EnumParser.parseStatus("unknown_test_status"));
+        assertNull(S125EnumParser.fromValue(StatusType.class, "unknown_test_status"));
+        assertEquals(before + 2, S125EnumParser.getUnknownValues().getOrDefault("StatusType:unknown_test_status", 0L).longValue());
+    }
+
     /**
      * Test that we can successfully parse the category of landmark enum.
      */
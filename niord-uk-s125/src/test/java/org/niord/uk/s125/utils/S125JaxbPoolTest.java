@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.utils;
+
+import _int.iho.s125.gml.cs0._1.Dataset;
+import jakarta.xml.bind.JAXBException;
+import org.grad.eNav.s125.utils.S125Utils;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.aton.AtonTag;
+import org.niord.uk.s100.common.utils.AbstractS100JaxbPoolTest;
+import org.niord.uk.s100.common.utils.S100JaxbPool;
+import org.niord.uk.s125.models.S125DatasetInfo;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
+
+/**
+ * A testing class for the S-125 JAXB Pool utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S125JaxbPoolTest extends AbstractS100JaxbPoolTest<Dataset> {
+
+    /**
+     * Creates a dedicated S-125 pool for each test.
+     */
+    @Override
+    protected S100JaxbPool<Dataset> createPool(int size) {
+        return new S125JaxbPool(size);
+    }
+
+    /**
+     * Initialise an empty S-125 dataset.
+     */
+    @Override
+    protected Dataset createDataset() throws JAXBException {
+        return new S125DatasetBuilder().packageToDataset(
+                new S125DatasetInfo("test", "test", Collections.emptyList()),
+                Collections.emptyList());
+    }
+
+    /**
+     * Test that the unmarshalled S-125 datasets retain their identity.
+     */
+    @Test
+    public void testUnmarshalDatasetId() throws JAXBException {
+        final Dataset result = this.pool.unmarshal(this.pool.marshal(this.dataset));
+        assertNotNull(result);
+        assertEquals(this.dataset.getId(), result.getId());
+    }
+
+    /**
+     * Test that the pooled marshallers produce exactly the same output as
+     * the S125 library marshaller they replace, i.e. the same root element,
+     * namespace prefixes and schema locations, for a dataset that uses
+     * structure, equipment and geometry members.
+     */
+    @Test
+    public void testMarshalMatchesLibrary() throws JAXBException {
+        final AtonNode atonNode = new AtonNode();
+        atonNode.setId(1);
+        atonNode.setAtonUid("test-beacon");
+        atonNode.setChangeset(0);
+        atonNode.setLat(52.98);
+        atonNode.setLon(1.28);
+        atonNode.setGeometry(new GeometryFactory().createPoint(new Coordinate(1.28, 52.98)));
+        atonNode.setTimestamp(Date.from(Instant.now()));
+        atonNode.setTags(List.of(
+                new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                new AtonTag("seamark:name", "Test Beacon"),
+                new AtonTag("seamark:beacon_cardinal:category", "north"),
+                new AtonTag("seamark:beacon_cardinal:colour", "black;yellow"),
+                new AtonTag("seamark:status", "permanent")
+        ));
+        final AtonNode equipmentNode = new AtonNode();
+        equipmentNode.setId(2);
+        equipmentNode.setAtonUid("test-light");
+        equipmentNode.setChangeset(0);
+        equipmentNode.setLat(atonNode.getLat());
+        equipmentNode.setLon(atonNode.getLon());
+        equipmentNode.setGeometry(atonNode.getGeometry());
+        equipmentNode.setTimestamp(Date.from(Instant.now()));
+        equipmentNode.setTags(List.of(
+                new AtonTag(TAG_ATON_TYPE, "light"),
+                new AtonTag("seamark:light:colour", "white"),
+                new AtonTag("seamark:status", "permanent")
+        ));
+        equipmentNode.setParent(atonNode);
+        atonNode.setChildren(Collections.singleton(equipmentNode));
+
+        final Dataset populatedDataset = new S125DatasetBuilder().packageToDataset(
+                new S125DatasetInfo("test", "test", Collections.emptyList()),
+                Collections.singletonList(atonNode));
+
+        assertEquals(S125Utils.marshalS125(populatedDataset), this.pool.marshal(populatedDataset));
+        assertEquals(S125Utils.marshalS125(this.dataset), this.pool.marshal(this.dataset));
+    }
+
+}
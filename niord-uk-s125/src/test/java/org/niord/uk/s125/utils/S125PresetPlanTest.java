@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s125.utils;
+
+import org.junit.Test;
+import org.niord.uk.s100.common.utils.S100PresetPlan;
+import org.niord.uk.s125.models.S125AtonTypes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-125 Preset Plan utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S125PresetPlanTest {
+
+    /**
+     * Test that the S-125 preset compiles.
+     */
+    @Test
+    public void testCompileS125Preset() throws IOException {
+        try(InputStream in = S125PresetPlan.class.getResourceAsStream(S125PresetPlan.PRESET_RESOURCE)) {
+            final S100PresetPlan plan = S100PresetPlan.compile("digest", in);
+            assertFalse(plan.getKeys().isEmpty());
+            assertFalse(plan.getTypes().isEmpty());
+        }
+    }
+
+    /**
+     * Test that the S-125 AtoN types identified by more than their seamark
+     * type are resolved out of the S-125 preset.
+     */
+    @Test
+    public void testResolveAtonType() {
+        final S125PresetPlan plan = S125PresetPlan.getInstance();
+        final Map<String, String> tags = new HashMap<>();
+        assertEquals(S125AtonTypes.RADIO_STATION, plan.resolveAtonType("radio_station", tags::get));
+        tags.put("seamark:radio_station:category", "ais");
+        assertEquals(S125AtonTypes.PHYSICAL_AIS_ATON, plan.resolveAtonType("radio_station", tags::get));
+        assertEquals(S125AtonTypes.CARDINAL_BEACON, plan.resolveAtonType("beacon_cardinal", tags::get));
+        assertNull(plan.resolveAtonType("unknown", tags::get));
+    }
+
+    /**
+     * Test that the geometries of the S-125 AtoN types are looked up from the
+     * S-125 preset, which only allows cardinal beacons to be drawn as nodes.
+     */
+    @Test
+    public void testAllowsGeometry() {
+        final S125PresetPlan plan = S125PresetPlan.getInstance();
+        assertTrue(plan.allowsGeometry(S125AtonTypes.CARDINAL_BEACON, S100PresetPlan.GEOMETRY_NODE));
+        assertFalse(plan.allowsGeometry(S125AtonTypes.CARDINAL_BEACON, S100PresetPlan.GEOMETRY_CLOSED_WAY));
+        assertTrue(plan.allowsGeometry(S125AtonTypes.LANDMARK, S100PresetPlan.GEOMETRY_CLOSED_WAY));
+        assertFalse(plan.allowsGeometry(S125AtonTypes.LANDMARK, S100PresetPlan.GEOMETRY_WAY));
+        assertFalse(plan.allowsGeometry(S125AtonTypes.DAYMARK, S100PresetPlan.GEOMETRY_CLOSED_WAY));
+    }
+
+}
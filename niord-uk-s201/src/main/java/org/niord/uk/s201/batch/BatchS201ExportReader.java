@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.batch;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.core.aton.AtonNode;
+import org.niord.uk.s100.common.batch.AbstractBatchS100ExportReader;
+import org.niord.uk.s201.models.S201DatasetInfo;
+import org.niord.uk.s201.services.S201FragmentCacheService;
+import org.niord.uk.s201.utils.S201DatasetBuilder;
+import org.niord.uk.s201.utils.S201DatasetWriter;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reads the S-201 dataset of an export batch job as a sequence of marshalled
+ * dataset fragments, i.e. the dataset head, the chunks of dataset members and
+ * the dataset tail.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Dependent
+@Named("batchS201ExportReader")
+public class BatchS201ExportReader extends AbstractBatchS100ExportReader<S201DatasetInfo, S201DatasetBuilder> {
+
+    /**
+     * The name of the S-201 export batch job.
+     */
+    public static final String EXPORT_JOB = "s201-export";
+
+    /**
+     * The S-201 Fragment Cache Service.
+     */
+    @Inject
+    S201FragmentCacheService fragmentCacheService;
+
+    /**
+     * The number of AtoN nodes to be loaded per query.
+     */
+    @ConfigProperty(name = "niord.s201.search.page-size", defaultValue = "1000")
+    int searchPageSize;
+
+    /**
+     * Creates the S-201 dataset builder.
+     *
+     * @param stableIds whether to generate stable dataset IDs
+     * @return the S-201 dataset builder
+     */
+    @Override
+    protected S201DatasetBuilder createBuilder(boolean stableIds) {
+        return new S201DatasetBuilder(stableIds);
+    }
+
+    /**
+     * Creates the S-201 dataset information.
+     *
+     * @param datasetId the GML dataset identifier
+     * @param organisation the producing organisation
+     * @param atonNodes the AtoN nodes to be exported
+     * @return the S-201 dataset information
+     */
+    @Override
+    protected S201DatasetInfo createDatasetInfo(String datasetId, String organisation, List<AtonNode> atonNodes) {
+        return new S201DatasetInfo(datasetId, organisation, atonNodes);
+    }
+
+    /**
+     * Creates the S-201 dataset writer, using the S-201 fragment cache.
+     *
+     * @param builder the S-201 dataset builder
+     * @param forkJoinPool the pool to render the member chunks in parallel, if any
+     * @return the S-201 dataset writer
+     */
+    @Override
+    protected S201DatasetWriter createWriter(S201DatasetBuilder builder, ForkJoinPool forkJoinPool) {
+        return new S201DatasetWriter(builder, S201DatasetWriter.DEFAULT_CHUNK_SIZE, fragmentCacheService.getCache(), forkJoinPool);
+    }
+
+    /**
+     * Returns the number of AtoN nodes to be loaded per query, as configured
+     * for the S-201 data product.
+     *
+     * @return the number of AtoN nodes to be loaded per query
+     */
+    @Override
+    protected int getSearchPageSize() {
+        return searchPageSize;
+    }
+
+}
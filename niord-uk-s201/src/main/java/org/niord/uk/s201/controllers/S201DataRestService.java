@@ -28,12 +28,23 @@ import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.niord.uk.s100.common.models.vo.S100ExportBudgetStatsVo;
+import org.niord.uk.s100.common.models.vo.S100JaxbPoolStatsVo;
+import org.niord.uk.s100.common.models.vo.S100PresetPlanVo;
+import org.niord.uk.s100.common.models.vo.S100ValidationStatsVo;
+import org.niord.uk.s100.common.services.S100ExportBudgetService;
 import org.niord.uk.s201.models.S201AtonTypes;
 import org.niord.uk.s201.models.vo.S201AtonTypeVo;
+import org.niord.uk.s201.services.S201JaxbPoolService;
+import org.niord.uk.s201.services.S201PresetPlanService;
+import org.niord.uk.s201.services.S201SchemaValidatorService;
+import org.niord.uk.s201.utils.S201DatasetBuilder;
+import org.niord.uk.s201.utils.S201EnumParser;
 import org.slf4j.Logger;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +60,18 @@ public class S201DataRestService {
     @Inject
     Logger log;
 
+    @Inject
+    S201JaxbPoolService s201JaxbPoolService;
+
+    @Inject
+    S201SchemaValidatorService s201SchemaValidatorService;
+
+    @Inject
+    S201PresetPlanService s201PresetPlanService;
+
+    @Inject
+    S100ExportBudgetService s100ExportBudgetService;
+
     /**
      * Returns the list of the S-201 supported feature types.
      */
@@ -76,4 +99,143 @@ public class S201DataRestService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the usage statistics of the S-201 JAXB marshaller pool.
+     */
+    @GET
+    @Path("/jaxb-pool")
+    @Operation(
+            description = "The usage statistics of the S-201 JAXB marshaller pool.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100JaxbPoolStatsVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100JaxbPoolStatsVo s201JaxbPoolStats() {
+        log.debug("Request for the S-201 JAXB pool statistics");
+        return this.s201JaxbPoolService.getStats();
+    }
+
+    /**
+     * Returns the number of AtoNs of unknown seamark types encountered so far
+     * while generating S-201 datasets, per seamark type.
+     */
+    @GET
+    @Path("/unknown-types")
+    @Operation(
+            description = "The number of AtoNs of unknown seamark types encountered while generating S-201 datasets.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = Map.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public Map<String, Long> s201UnknownTypes() {
+        log.debug("Request for the S-201 unknown seamark types");
+        return S201DatasetBuilder.getUnknownAtonTypes();
+    }
+
+    /**
+     * Returns the number of times each unknown tag value has been encountered
+     * so far while generating S-201 datasets, per S-201 enum type and value,
+     * or per tag key and value for the values outside the S-201 preset.
+     */
+    @GET
+    @Path("/unknown-values")
+    @Operation(
+            description = "The number of unknown tag values encountered while generating S-201 datasets.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = Map.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public Map<String, Long> s201UnknownValues() {
+        log.debug("Request for the S-201 unknown tag values");
+        return S201EnumParser.getUnknownValues();
+    }
+
+    /**
+     * Returns the statistics of the S-201 schema validations performed so
+     * far, along with the errors of the last failed validation.
+     */
+    @GET
+    @Path("/validation")
+    @Operation(
+            description = "The statistics of the S-201 schema validations.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100ValidationStatsVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100ValidationStatsVo s201ValidationStats() {
+        log.debug("Request for the S-201 schema validation statistics");
+        return this.s201SchemaValidatorService.getStats();
+    }
+
+    /**
+     * Returns a summary of the S-201 preset plan compiled at start-up, along
+     * with the drift between the S-201 preset and the S-201 tag mappings.
+     */
+    @GET
+    @Path("/preset-plan")
+    @Operation(
+            description = "The summary of the S-201 preset plan.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100PresetPlanVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100PresetPlanVo s201PresetPlan() {
+        log.debug("Request for the S-201 preset plan summary");
+        return this.s201PresetPlanService.getStats();
+    }
+
+    /**
+     * Returns the usage statistics of the export memory budget, i.e. the
+     * reserved budget and the number of exports queued waiting for it. Note
+     * that the budget is shared by the S-125 and S-201 AtoN exports.
+     */
+    @GET
+    @Path("/export-budget")
+    @Operation(
+            description = "The usage statistics of the shared S-125/S-201 export memory budget.",
+            hidden = true
+    )
+    @APIResponse(
+            responseCode = "200",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100ExportBudgetStatsVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    public S100ExportBudgetStatsVo s201ExportBudgetStats() {
+        log.debug("Request for the S-100 export budget statistics");
+        return this.s100ExportBudgetService.getStats();
+    }
+
 }
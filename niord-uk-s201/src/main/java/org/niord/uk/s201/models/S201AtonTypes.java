@@ -15,8 +15,7 @@
  */
 package org.niord.uk.s201.models;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * The S-201 AtoN Types Enum.
@@ -139,6 +138,17 @@ public enum S201AtonTypes {
             "Power Source (S7)"
     });
 
+    /*
+     * The case-insensitive lookup table of the seamark types.
+     */
+    private static final Map<String, S201AtonTypes> SEAMARK_TYPES = new HashMap<>();
+
+    static {
+        for(S201AtonTypes atonType : S201AtonTypes.values()) {
+            SEAMARK_TYPES.putIfAbsent(atonType.getName().toLowerCase(Locale.ROOT), atonType);
+        }
+    }
+
     // Enum Variables
     final String name;
     final String description;
@@ -193,12 +203,16 @@ public enum S201AtonTypes {
      * type.
      *
      * @param type      The JOSM Seachart type string
-     * @return The respective S125 AtoN Type enum entry
+     * @return The respective S201 AtoN Type enum entry
      */
     public static S201AtonTypes fromSeamarkType(String type) {
-        return Arrays.stream(S201AtonTypes.values())
-                .filter(t -> t.getName().equalsIgnoreCase(type))
-                .findFirst()
-                .orElse(null);
+        // Sanity Check
+        if(type == null) {
+            return null;
+        }
+
+        // Most types are already in lower case, so try that first
+        final S201AtonTypes atonType = SEAMARK_TYPES.get(type);
+        return atonType != null ? atonType : SEAMARK_TYPES.get(type.toLowerCase(Locale.ROOT));
     }
 }
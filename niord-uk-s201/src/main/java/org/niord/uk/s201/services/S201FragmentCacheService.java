@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.uk.s100.common.utils.S100FragmentCache;
+
+/**
+ * The S-201 Fragment Cache Service
+ * <p/>
+ * Holds the application-wide cache of the pre-rendered S-201 dataset
+ * members, so that the members of unchanged AtoNs can be reused between
+ * the S-201 exports.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S201FragmentCacheService {
+
+    @ConfigProperty(name = "niord.s201.fragment-cache.size", defaultValue = "10000")
+    int cacheSize;
+
+    // Service Variables
+    private S100FragmentCache cache;
+
+    /**
+     * Initialises the S-201 fragment cache.
+     */
+    @PostConstruct
+    void init() {
+        this.cache = new S100FragmentCache(this.cacheSize);
+    }
+
+    /**
+     * Returns the S-201 fragment cache.
+     *
+     * @return the S-201 fragment cache
+     */
+    public S100FragmentCache getCache() {
+        return this.cache;
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.xml.bind.JAXBException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.uk.s100.common.models.vo.S100JaxbPoolStatsVo;
+import org.niord.uk.s201.utils.S201JaxbPool;
+import org.slf4j.Logger;
+
+/**
+ * The S-201 JAXB Pool Service
+ * <p/>
+ * Initialises the shared S-201 JAXB pool when the application starts up and
+ * warms it up, so that the first S-201 exports do not have to pay for the
+ * creation of the JAXB context and its marshallers.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S201JaxbPoolService {
+
+    @Inject
+    Logger log;
+
+    @ConfigProperty(name = "niord.s201.jaxb-pool.size", defaultValue = "4")
+    int poolSize;
+
+    /**
+     * Initialises and warms up the S-201 JAXB pool on start-up.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        final long t0 = System.currentTimeMillis();
+        try {
+            S201JaxbPool.initialise(this.poolSize).warmUp();
+            log.info("Initialised the S-201 JAXB pool of size " + this.poolSize + " in " + (System.currentTimeMillis() - t0) + " ms");
+        } catch (JAXBException | RuntimeException ex) {
+            log.error("Failed to warm up the S-201 JAXB pool: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the current statistics of the S-201 JAXB pool.
+     *
+     * @return the pool statistics
+     */
+    public S100JaxbPoolStatsVo getStats() {
+        return S201JaxbPool.getInstance().getStats();
+    }
+
+}
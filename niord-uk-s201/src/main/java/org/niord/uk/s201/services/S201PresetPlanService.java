@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.uk.s100.common.services.S100PresetPlanService;
+import org.niord.uk.s201.utils.S201DatasetBuilder;
+import org.niord.uk.s201.utils.S201PresetPlan;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The S-201 Preset Plan Service
+ * <p/>
+ * Compiles the S-201 INT-1 preset into the S-201 preset plan when the
+ * application starts up, and reports any drift between the preset and the
+ * tag mappings of the S-201 dataset builder.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S201PresetPlanService extends S100PresetPlanService {
+
+    @ConfigProperty(name = "niord.s201.preset-plan.cache-dir")
+    Optional<String> cacheDir;
+
+    /**
+     * Compiles the S-201 preset plan on start-up.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        this.initialise();
+    }
+
+    /**
+     * Returns the name of the S-201 data product.
+     *
+     * @return the data product name
+     */
+    @Override
+    protected String getProduct() {
+        return "S-201";
+    }
+
+    /**
+     * Initialises the shared S-201 preset plan.
+     *
+     * @param cacheFolder the folder of the cached plans, null for none
+     * @return the S-201 preset plan
+     */
+    @Override
+    protected S201PresetPlan initialisePlan(Path cacheFolder) {
+        return S201PresetPlan.initialise(cacheFolder);
+    }
+
+    /**
+     * Returns the compiled S-201 preset plan.
+     *
+     * @return the S-201 preset plan
+     */
+    @Override
+    public S201PresetPlan getPlan() {
+        return S201PresetPlan.getInstance();
+    }
+
+    /**
+     * Returns the tag keys the S-201 dataset builder maps.
+     *
+     * @return the mapped tag keys
+     */
+    @Override
+    protected Set<String> getMappedTagKeys() {
+        return S201DatasetBuilder.getMappedTagKeys();
+    }
+
+    /**
+     * Returns the configured folder of the cached S-201 preset plans.
+     *
+     * @return the configured cache folder
+     */
+    @Override
+    protected Optional<String> getCacheDir() {
+        return this.cacheDir;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import _int.iho.s201.gml.cs0._1.Dataset;
+import _int.iho.s201.s100.gml.base._5_0.AbstractGMLType;
+import org.niord.uk.s100.common.utils.S100DatasetWriter;
+import org.niord.uk.s100.common.utils.S100FragmentCache;
+import org.niord.uk.s201.models.S201DatasetInfo;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The S-201 Dataset Writer Class.
+ *
+ * This class writes an S-201 Dataset directly into an output stream, as
+ * generated by the {@link S201DatasetBuilder} and marshalled through the
+ * shared {@link S201JaxbPool}. The produced output contains the same
+ * elements, in the same order, as marshalling the dataset generated by
+ * {@link S201DatasetBuilder#packageToDataset(S201DatasetInfo, List)}.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201DatasetWriter extends S100DatasetWriter<S201DatasetInfo, Dataset, AbstractGMLType> {
+
+    /**
+     * Class Constructor.
+     */
+    public S201DatasetWriter() {
+        this(new S201DatasetBuilder(), DEFAULT_CHUNK_SIZE, null, null);
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param builder       The S-201 dataset builder to generate the members
+     * @param chunkSize     The number of members to be marshalled per chunk
+     */
+    public S201DatasetWriter(S201DatasetBuilder builder, int chunkSize) {
+        this(builder, chunkSize, null, null);
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param builder       The S-201 dataset builder to generate the members
+     * @param chunkSize     The number of members to be marshalled per chunk
+     * @param fragmentCache The cache of pre-rendered members, if any
+     */
+    public S201DatasetWriter(S201DatasetBuilder builder, int chunkSize, S100FragmentCache fragmentCache) {
+        this(builder, chunkSize, fragmentCache, null);
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param builder       The S-201 dataset builder to generate the members
+     * @param chunkSize     The number of members to be marshalled per chunk
+     * @param fragmentCache The cache of pre-rendered members, if any
+     * @param forkJoinPool  The pool to marshal the member chunks in parallel, if any
+     */
+    public S201DatasetWriter(S201DatasetBuilder builder, int chunkSize, S100FragmentCache fragmentCache, ForkJoinPool forkJoinPool) {
+        super(builder, S201JaxbPool.getInstance(), chunkSize, fragmentCache, forkJoinPool);
+    }
+
+}
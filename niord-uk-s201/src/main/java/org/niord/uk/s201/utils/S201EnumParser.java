@@ -17,7 +17,10 @@ package org.niord.uk.s201.utils;
 
 import _int.iho.s201.gml.cs0._1.*;
 
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,6 +34,118 @@ import java.util.stream.Collectors;
  */
 public class S201EnumParser {
 
+    /**
+     * The maximum number of distinct unknown enum values to be counted.
+     */
+    public static final int MAX_UNKNOWN_VALUES = 1000;
+
+    // The value lookup tables of the S-201 enums, built once per enum type
+    private static final Map<Class<?>, Map<String, ?>> valueTables = new ConcurrentHashMap<>();
+
+    // The unknown enum values encountered by all the parsers
+    private static final Map<String, LongAdder> unknownValues = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up the S-201 enum entry of the provided type with the provided
+     * schema value, i.e. just like the generated fromValue() functions of the
+     * JAXB enums, but without throwing an exception when the value is not
+     * found. Instead, the unknown value is counted and null is returned.
+     *
+     * @param enumType      The S-201 enum type
+     * @param value         The schema value of the enum entry
+     * @return the S-201 enum entry, or null if not found
+     */
+    public static <E extends Enum<E>> E fromValue(Class<E> enumType, String value) {
+        if(value == null) {
+            return null;
+        }
+        final Object entry = valueTables.computeIfAbsent(enumType, S201EnumParser::buildValueTable).get(value);
+        return entry != null ? enumType.cast(entry) : unknown(enumType, value);
+    }
+
+    /**
+     * Returns the number of times each unknown enum value has been
+     * encountered so far, indexed by the enum type and the value, e.g.
+     * "StatusType:broken", along with the tag values outside the value
+     * domains of the S-201 preset, indexed by the tag key and the value, e.g.
+     * "seamark:status=broken". Once too many distinct unknown values have
+     * been seen, the rest are counted under "*" for each enum type or tag
+     * key.
+     *
+     * @return the counts per unknown enum value
+     */
+    public static Map<String, Long> getUnknownValues() {
+        return unknownValues.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(), (a, b) -> a, TreeMap::new));
+    }
+
+    /**
+     * Counts the provided value as an unknown value of the provided enum
+     * type, so that it can be included in the data quality reports.
+     *
+     * @param enumType      The enum type
+     * @param value         The unknown value
+     * @return always null, for use as the default of the parsers
+     */
+    protected static <E> E unknown(Class<E> enumType, String value) {
+        count(enumType.getSimpleName() + ":" + value, enumType.getSimpleName() + ":*");
+        return null;
+    }
+
+    /**
+     * Counts the provided tag value, which falls outside the value domain
+     * the S-201 preset defines for the provided tag key, as an unknown
+     * value, so that it can be included in the data quality reports.
+     *
+     * @param key           The tag key
+     * @param value         The tag value outside the value domain
+     */
+    public static void unknownTagValue(String key, String value) {
+        count(key + "=" + value, key + "=*");
+    }
+
+    /**
+     * Increments the count of the provided unknown value key, or of the
+     * provided overflow key once too many distinct unknown values have been
+     * seen.
+     *
+     * @param key           The unknown value key
+     * @param overflowKey   The key to count the value under on overflow
+     */
+    private static void count(String key, String overflowKey) {
+        final String counted = unknownValues.size() < MAX_UNKNOWN_VALUES || unknownValues.containsKey(key) ? key : overflowKey;
+        unknownValues.computeIfAbsent(counted, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Builds the value lookup table of the provided enum type, indexing its
+     * entries by their schema values, as returned by their value() function,
+     * or by their names if they do not have one.
+     *
+     * @param enumType      The enum type
+     * @return the value lookup table
+     */
+    private static Map<String, ?> buildValueTable(Class<?> enumType) {
+        final Map<String, Object> valueTable = new HashMap<>();
+        Method valueMethod;
+        try {
+            valueMethod = enumType.getMethod("value");
+        } catch (NoSuchMethodException ex) {
+            valueMethod = null;
+        }
+        for(Object entry : enumType.getEnumConstants()) {
+            String value;
+            try {
+                value = valueMethod != null ? String.valueOf(valueMethod.invoke(entry)) : ((Enum<?>) entry).name();
+            } catch (ReflectiveOperationException ex) {
+                value = ((Enum<?>) entry).name();
+            }
+            valueTable.putIfAbsent(value, entry);
+        }
+        return Collections.unmodifiableMap(valueTable);
+    }
+
     /**
      * Splits the list string separated by a special character into an actual
      * Java list or S125 enum entries. The colours should be separated by a
@@ -66,7 +181,7 @@ public class S201EnumParser {
             case "screw_pin_shackles" -> ShackleTypeType.SCREW_PIN_SHACKLES;
             case "kenter_shackle" -> ShackleTypeType.KENTER_SHACKLE;
             case "quick_release_link" -> ShackleTypeType.QUICK_RELEASE_LINK;
-            default -> null;
+            default -> unknown(ShackleTypeType.class, shackleType);
         };
     }
 
@@ -83,7 +198,7 @@ public class S201EnumParser {
             case "generator" -> CategoryOfPowerSourceType.GENERATOR;
             case "solar-panel" -> CategoryOfPowerSourceType.SOLAR_PANEL;
             case "electrical-service" -> CategoryOfPowerSourceType.ELECTRICAL_SERVICE;
-            default -> null;
+            default -> unknown(CategoryOfPowerSourceType.class, categoryOfPowerSource);
         };
     }
 
@@ -99,7 +214,7 @@ public class S201EnumParser {
             case "category_1" -> AidAvailabilityCategoryType.CATEGORY_1;
             case "category_2" -> AidAvailabilityCategoryType.CATEGORY_2;
             case "category_3" -> AidAvailabilityCategoryType.CATEGORY_3;
-            default -> null;
+            default -> unknown(AidAvailabilityCategoryType.class, aidAvailabilityCategory);
         };
     }
 
@@ -119,7 +234,7 @@ public class S201EnumParser {
             case "radar_scanner" -> CategoryOfLandmarkType.RADAR_SCANNER;
             case "tower" -> CategoryOfLandmarkType.TOWER;
             case "windmotor" -> CategoryOfLandmarkType.WINDMOTOR;
-            default -> null;
+            default -> unknown(CategoryOfLandmarkType.class, categoryOfLandmark);
         };
     }
 
@@ -144,7 +259,7 @@ public class S201EnumParser {
             case "safe_water" -> VirtualAISAidToNavigationTypeType.SAFE_WATER;
             case "special_purpose" -> VirtualAISAidToNavigationTypeType.SPECIAL_PURPOSE;
             case "wreck" -> VirtualAISAidToNavigationTypeType.NEW_DANGER_MARKING;
-            default -> null;
+            default -> unknown(VirtualAISAidToNavigationTypeType.class, virtualAisAidsToNavigationType);
         };
     }
     
@@ -166,7 +281,7 @@ public class S201EnumParser {
             case "painted" -> NatureOfConstructionType.PAINTED;
             case "grp" -> NatureOfConstructionType.FIBERGLASS;
             case "plastic" -> NatureOfConstructionType.PLASTIC;
-            default -> null;
+            default -> unknown(NatureOfConstructionType.class, natureOfConstruction);
         };
     }
 
@@ -195,7 +310,7 @@ public class S201EnumParser {
             case "experimental" -> StatusType.EXPERIMENTAL;
             case "temporarily discontinued" -> StatusType.TEMPORARILY_DISCONTINUED;
             case "temporarily relocated" -> StatusType.TEMPORARILY_RELOCATED;
-            default -> null;
+            default -> unknown(StatusType.class, status);
         };
     }
     
@@ -210,7 +325,7 @@ public class S201EnumParser {
         return switch (radarConspicuous) {
             case "conspicuous" -> RadarConspicuousType.RADAR_CONSPICUOUS;
             case "not_conspicuous" -> RadarConspicuousType.NOT_RADAR_CONSPICUOUS;
-            default -> null;
+            default -> unknown(RadarConspicuousType.class, radarConspicuous);
         };
     }
 
@@ -225,7 +340,7 @@ public class S201EnumParser {
         return switch (visuallyConspicuous) {
             case "conspicuous" -> VisualProminenceType.VISUALLY_CONSPICUOUS;
             case "not_conspicuous" -> VisualProminenceType.NOT_VISUALLY_CONSPICUOUS;
-            default -> null;
+            default -> unknown(VisualProminenceType.class, visuallyConspicuous);
         };
     }
 
@@ -242,7 +357,7 @@ public class S201EnumParser {
             case "iala-b" -> MarksNavigationalSystemOfType.IALA_B;
             case "cevni" -> MarksNavigationalSystemOfType.OTHER_SYSTEM;
             case "none" -> MarksNavigationalSystemOfType.NO_SYSTEM;
-            default -> null;
+            default -> unknown(MarksNavigationalSystemOfType.class, marksNavigationalSystemOf);
         };
     }
 
@@ -257,7 +372,7 @@ public class S201EnumParser {
         return switch (installationBuoy) {
             case "calm" ->  CategoryOfInstallationBuoyType.CATENARY_ANCHOR_LEG_MOORING_CALM;
             case "sbm" -> CategoryOfInstallationBuoyType.SINGLE_BUOY_MOORING_SBM_OR_SPM;
-            default -> null;
+            default -> unknown(CategoryOfInstallationBuoyType.class, installationBuoy);
         };
     }
 
@@ -325,7 +440,7 @@ public class S201EnumParser {
             case ("channel_separation") ->  CategoryOfSpecialPurposeMarkType.CHANNEL_SEPARATION_MARK;
             case ("marine_farm") -> CategoryOfSpecialPurposeMarkType.MARINE_FARM_MARK;
             case ("artificial_reef") -> CategoryOfSpecialPurposeMarkType.ARTIFICIAL_REEF_MARK;
-            default -> null;
+            default -> unknown(CategoryOfSpecialPurposeMarkType.class, specialPurposeMark);
         };
     }
 
@@ -342,7 +457,7 @@ public class S201EnumParser {
             case "starboard" -> CategoryOfLateralMarkType.STARBOARD_HAND_LATERAL_MARK;
             case "preferred_channel_port" -> CategoryOfLateralMarkType.PREFERRED_CHANNEL_TO_PORT_LATERAL_MARK;
             case "preferred_channel_starboard" -> CategoryOfLateralMarkType.PREFERRED_CHANNEL_TO_STARBOARD_LATERAL_MARK;
-            default -> null;
+            default -> unknown(CategoryOfLateralMarkType.class, lateralMark);
         };
     }
 
@@ -359,7 +474,7 @@ public class S201EnumParser {
             case "east" -> CategoryOfCardinalMarkType.EAST_CARDINAL_MARK;
             case "south" -> CategoryOfCardinalMarkType.SOUTH_CARDINAL_MARK;
             case "west" -> CategoryOfCardinalMarkType.WEST_CARDINAL_MARK;
-            default -> null;
+            default -> unknown(CategoryOfCardinalMarkType.class, cardinalMark);
         };
     }
 
@@ -376,7 +491,7 @@ public class S201EnumParser {
             case "tower" -> BeaconShapeType.BEACON_TOWER;
             case "lattice" -> BeaconShapeType.LATTICE_BEACON;
             case "pile" -> BeaconShapeType.PILE_BEACON;
-            default -> null;
+            default -> unknown(BeaconShapeType.class, beaconShape);
         };
     }
 
@@ -397,7 +512,7 @@ public class S201EnumParser {
             case "spar" -> BuoyShapeType.SPAR_SPINDLE;
             case "barrel" -> BuoyShapeType.BARREL_TUN;
             case "ice-buoy" -> BuoyShapeType.ICE_BUOY;
-            default -> null;
+            default -> unknown(BuoyShapeType.class, buoyShape);
         };
     }
 
@@ -426,7 +541,7 @@ public class S201EnumParser {
             case "horizontal" -> CategoryOfLightType.HORIZONTALLY_DISPOSED;
             case "vertical" -> CategoryOfLightType.VERTICALLY_DISPOSED;
             case "bridge_light" -> CategoryOfLightType.BRIDGE_LIGHT;
-            default -> null;
+            default -> unknown(CategoryOfLightType.class, lightCategory);
         };
     }
 
@@ -464,7 +579,7 @@ public class S201EnumParser {
             case "VQ+LFl" -> LightCharacteristicType.VERY_QUICK_FLASH_PLUS_LONG_FLASH;
             case "UQ+LFl" -> LightCharacteristicType.ULTRA_QUICK_FLASH_PLUS_LONG_FLASH;
             case "Al" -> LightCharacteristicType.ALTERNATING;
-            default -> null;
+            default -> unknown(LightCharacteristicType.class, lightCharacter);
         };
     }
 
@@ -484,7 +599,7 @@ public class S201EnumParser {
             case "stripes" -> ColourPatternType.STRIPES_DIRECTION_UNKNOWN;
             case "border" -> ColourPatternType.BORDER_STRIPE;
             case "single" -> ColourPatternType.SINGLE_COLOUR;
-            default -> null;
+            default -> unknown(ColourPatternType.class, colourPattern);
         };
     }
 
@@ -508,7 +623,7 @@ public class S201EnumParser {
             case "fluorescent_red" -> ColourType.FLUORESCENT_RED;
             case "fluorescent_green" -> ColourType.FLUORESCENT_GREEN;
             case "fluorescent_orange" -> ColourType.FLUORESCENT_ORANGE;
-            default -> null;
+            default -> unknown(ColourType.class, colour);
         };
     }
 
@@ -538,7 +653,7 @@ public class S201EnumParser {
             case "radar" -> FunctionType.RADAR;
             case "light_support" -> FunctionType.LIGHT_SUPPORT;
             case "bus_station" -> FunctionType.BUS_STATION;
-            default -> null;
+            default -> unknown(FunctionType.class, function);
         };
     }
 
@@ -555,7 +670,7 @@ public class S201EnumParser {
             case "horm" -> CategoryOfFogSignalType.HORN;
             case "siren" -> CategoryOfFogSignalType.SIREN;
             case "whistle" -> CategoryOfFogSignalType.WHISTLE;
-            default -> null;
+            default -> unknown(CategoryOfFogSignalType.class, fogSignalCategory);
         };
     }
 
@@ -570,7 +685,7 @@ public class S201EnumParser {
         return switch (radioStationCategory) {
             case "ais" -> CategoryOfRadioStationType.AIS_BASE_STATION;
             case "differential" -> CategoryOfRadioStationType.DIFFERENTIAL_GNSS;
-            default -> null;
+            default -> unknown(CategoryOfRadioStationType.class, radioStationCategory);
         };
     }
 
@@ -585,7 +700,7 @@ public class S201EnumParser {
         return switch (radioTransponderBeaconCategory) {
             case "ramark" -> CategoryOfRadarTransponderBeaconType.RAMARK_RADAR_BEACON_TRANSMITTING_CONTINUOUSLY;
             case "racon" -> CategoryOfRadarTransponderBeaconType.RACON_RADAR_TRANSPONDER_BEACON;
-            default -> null;
+            default -> unknown(CategoryOfRadarTransponderBeaconType.class, radioTransponderBeaconCategory);
         };
     }
 
@@ -603,7 +718,7 @@ public class S201EnumParser {
             case "high rise building" -> BuildingShapeType.HIGH_RISE_BUILDING;
             case "cylindrical" -> BuildingShapeType.CYLINDRICAL;
             case "pyramid" -> BuildingShapeType.PYRAMID;
-            default -> null;
+            default -> unknown(BuildingShapeType.class, buildingShape);
         };
     }
 
@@ -618,7 +733,7 @@ public class S201EnumParser {
         return switch (siloTankCategory) {
             case "silo" -> CategoryOfSiloTankType.SILO_IN_GENERAL;
             case "tank" -> CategoryOfSiloTankType.TANK_IN_GENERAL;
-            default -> null;
+            default -> unknown(CategoryOfSiloTankType.class, siloTankCategory);
         };
     }
 
@@ -635,7 +750,7 @@ public class S201EnumParser {
             case "ruined" -> ConditionType.RUINED;
             case "under reclamation" -> ConditionType.UNDER_RECLAMATION;
             case "planned construction" -> ConditionType.PLANNED_CONSTRUCTION;
-            default -> null;
+            default -> unknown(ConditionType.class, conditionType);
         };
     }
 
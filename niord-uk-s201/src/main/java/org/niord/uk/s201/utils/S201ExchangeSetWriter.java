@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import org.niord.uk.s100.common.utils.S100ExchangeSetWriter;
+import org.niord.uk.s100.common.utils.S100XsdCache;
+
+/**
+ * The S-201 Exchange Set Writer Class.
+ * <p/>
+ * Packages S-201 datasets as an S-100 exchange set, along with the S-201
+ * XSD files bundled with the S-201 library.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201ExchangeSetWriter extends S100ExchangeSetWriter {
+
+    /**
+     * The S-201 data product folder of the exchange set.
+     */
+    public static final String PRODUCT = "S-201";
+
+    /**
+     * Class Constructor.
+     */
+    public S201ExchangeSetWriter() {
+        this(S201XsdCache.getInstance());
+    }
+
+    /**
+     * Class Constructor.
+     *
+     * @param xsdCache      The cache of the XSDs to be included
+     */
+    public S201ExchangeSetWriter(S100XsdCache xsdCache) {
+        super(PRODUCT, xsdCache);
+    }
+
+}
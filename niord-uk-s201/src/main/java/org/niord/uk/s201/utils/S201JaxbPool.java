@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import _int.iho.s201.gml.cs0._1.Dataset;
+import _int.iho.s201.gml.cs0._1.impl.DatasetImpl;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import org.niord.uk.s100.common.utils.S100JaxbPool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The S-201 JAXB Pool Class.
+ * <p/>
+ * Provides the shared pool of the S-201 JAXB marshallers and unmarshallers.
+ * The marshallers generate formatted UTF-8 output, exactly like the
+ * {@link org.grad.eNav.s201.utils.S201Utils#marshalS201(Dataset)} function.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201JaxbPool extends S100JaxbPool<Dataset> {
+
+    // The shared pool instance
+    private static volatile S201JaxbPool instance;
+
+    /**
+     * Class Constructor.
+     *
+     * @param size      The maximum number of marshallers/unmarshallers
+     * @throws JAXBException for any errors while creating the JAXB context
+     */
+    protected S201JaxbPool(int size) throws JAXBException {
+        super(size, Dataset.class, DatasetImpl.class, Map.of(
+                Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE,
+                Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name()));
+    }
+
+    /**
+     * Returns the shared S-201 JAXB pool, initialising it with the default
+     * size if that has not already happened.
+     *
+     * @return the shared S-201 JAXB pool
+     */
+    public static S201JaxbPool getInstance() {
+        return instance != null ? instance : initialise(DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Initialises the shared S-201 JAXB pool with the provided size. If the
+     * pool has already been initialised, the existing pool is returned.
+     *
+     * @param size      The maximum number of marshallers/unmarshallers
+     * @return the shared S-201 JAXB pool
+     */
+    public static synchronized S201JaxbPool initialise(int size) {
+        if(instance == null) {
+            try {
+                instance = new S201JaxbPool(size);
+            } catch (JAXBException ex) {
+                throw new IllegalStateException("Failed to create the S-201 JAXB context", ex);
+            }
+        }
+        return instance;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import org.grad.eNav.s100.utils.SpecificJarClassLoader;
+import org.grad.eNav.s201.utils.S201Utils;
+import org.niord.uk.s100.common.utils.S100SchemaValidator;
+import org.xml.sax.SAXException;
+
+import javax.xml.validation.Schema;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * The S-201 Schema Validator Class.
+ * <p/>
+ * Provides the shared validator of the generated S-201 datasets against the
+ * S-201 schema bundled with the S-201 library.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201SchemaValidator extends S100SchemaValidator {
+
+    /**
+     * The S-201 schema file in the S-201 library.
+     */
+    public static final String SCHEMA_FILE = "xsd/S201.xsd";
+
+    // The shared validator instance
+    private static volatile S201SchemaValidator instance;
+
+    /**
+     * Class Constructor.
+     *
+     * @param schema    The compiled schema to validate against
+     */
+    protected S201SchemaValidator(Schema schema) {
+        super(schema);
+    }
+
+    /**
+     * Returns the shared S-201 schema validator, compiling the S-201 schema
+     * if that has not already happened.
+     *
+     * @return the shared S-201 schema validator
+     */
+    public static S201SchemaValidator getInstance() {
+        return instance != null ? instance : initialise();
+    }
+
+    /**
+     * Initialises the shared S-201 schema validator by compiling the S-201
+     * schema. If the validator has already been initialised, the existing
+     * validator is returned.
+     *
+     * @return the shared S-201 schema validator
+     */
+    public static synchronized S201SchemaValidator initialise() {
+        if(instance == null) {
+            try {
+                instance = new S201SchemaValidator(compileSchema());
+            } catch (SAXException | IOException ex) {
+                throw new IllegalStateException("Failed to compile the S-201 schema", ex);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Compiles the S-201 schema bundled with the S-201 library.
+     *
+     * @return the compiled S-201 schema
+     * @throws SAXException for any errors while compiling the schema
+     * @throws IOException for any errors while reading the schema
+     */
+    protected static Schema compileSchema() throws SAXException, IOException {
+        try (URLClassLoader classLoader = new SpecificJarClassLoader(S201Utils.class)) {
+            final URL schemaUrl = classLoader.getResource(SCHEMA_FILE);
+            if(schemaUrl == null) {
+                throw new FileNotFoundException("No S-201 schema found at " + SCHEMA_FILE);
+            }
+            return S100SchemaValidator.compileSchema(schemaUrl);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import org.grad.eNav.s201.utils.S201Utils;
+import org.niord.uk.s100.common.utils.S100XsdCache;
+
+import java.io.IOException;
+
+/**
+ * The S-201 XSD Cache Class.
+ * <p/>
+ * Provides the shared cache of the XSD files bundled with the S-201
+ * library, indexed by their path relative to the XSD folder of the library,
+ * e.g. "S201.xsd".
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201XsdCache extends S100XsdCache {
+
+    // The shared cache instance
+    private static volatile S201XsdCache instance;
+
+    /**
+     * Class Constructor.
+     *
+     * @throws IOException for any errors while reading the XSDs
+     */
+    protected S201XsdCache() throws IOException {
+        super(S201Utils.class);
+    }
+
+    /**
+     * Returns the shared S-201 XSD cache, loading the XSDs of the S-201
+     * library if that has not already happened.
+     *
+     * @return the shared S-201 XSD cache
+     */
+    public static S201XsdCache getInstance() {
+        return instance != null ? instance : initialise();
+    }
+
+    /**
+     * Initialises the shared S-201 XSD cache by loading all the XSDs of the
+     * S-201 library. If the cache has already been initialised, the existing
+     * cache is returned.
+     *
+     * @return the shared S-201 XSD cache
+     */
+    public static synchronized S201XsdCache initialise() {
+        if(instance == null) {
+            try {
+                instance = new S201XsdCache();
+            } catch (IOException ex) {
+                throw new IllegalStateException("Failed to load the S-201 XSDs", ex);
+            }
+        }
+        return instance;
+    }
+
+}
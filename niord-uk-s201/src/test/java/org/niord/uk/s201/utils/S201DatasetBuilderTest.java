@@ -17,18 +17,24 @@
 package org.niord.uk.s201.utils;
 
 import _int.iho.s201.gml.cs0._1.*;
+import _int.iho.s201.s100.gml.base._5_0.*;
+import _int.iho.s201.s100.gml.profiles._5_0.*;
 import org.junit.Before;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.niord.core.aton.AtonNode;
 import org.niord.core.aton.AtonTag;
+import org.niord.uk.s100.common.utils.S100CoordinateUtils;
+import org.niord.uk.s201.models.S201AtonTypes;
 import org.niord.uk.s201.models.S201DatasetInfo;
 
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 import static org.niord.core.aton.AtonTag.TAG_ATON_TYPE;
@@ -158,4 +164,246 @@ public class S201DatasetBuilderTest {
         assertEquals(StatusType.PERMANENT, resultEquipment.getStatus());
     }
 
-}
\ No newline at end of file
+    /**
+     * Test that the multi-valued AtoN tags keep all their values when mapped
+     * against the shipped S-201 preset, even when the preset declares them
+     * as single valued, while only the values the S-201 enums do not know
+     * are left out.
+     */
+    @Test
+    public void testS201PackageToDatasetMultiValued() {
+        this.atonNode.setTags(Stream.concat(this.atonNode.getTags().stream()
+                        .filter(tag -> !tag.getK().equals("seamark:status") && !tag.getK().equals("seamark:beacon_cardinal:colour")),
+                Stream.of(new AtonTag("seamark:status", "permanent;watched;unknown"), new AtonTag("seamark:beacon_cardinal:colour", "black;yellow")))
+                .toList());
+        final Dataset dataset = this.builder.packageToDataset(this.info, Collections.singletonList(this.atonNode));
+
+        final BeaconCardinal result = (BeaconCardinal) dataset.getMembers().getBeaconCardinal().getFirst();
+        assertEquals(List.of(StatusType.PERMANENT, StatusType.WATCHED), result.getStatuses());
+        assertEquals(List.of(ColourType.BLACK, ColourType.YELLOW), result.getColours());
+    }
+
+    /**
+     * Test that with stable IDs enabled, the dataset IDs are derived from
+     * the MRNs or UIDs of the AtoN nodes, so that the same AtoN gets the
+     * same ID no matter which dataset it is part of.
+     */
+    @Test
+    public void testS201PackageToDatasetWithStableIds() {
+        this.atonNode.setAtonUid("test-beacon");
+        this.equipmentNode.setAtonUid("test-equipment");
+        this.equipmentNode.setTags(Stream.concat(this.equipmentNode.getTags().stream(), Stream.of(new AtonTag("mrn", "urn:mrn:test:aton:equipment")))
+                .toList());
+
+        final Dataset dataset = new S201DatasetBuilder(true).packageToDataset(this.info, Collections.singletonList(this.atonNode));
+        final BeaconCardinal result = (BeaconCardinal) dataset.getMembers().getBeaconCardinal().getFirst();
+        final PowerSource resultEquipment = (PowerSource) dataset.getMembers().getPowerSource().getFirst();
+        assertEquals(S201DatasetBuilder.generateStableId("aton.uk.test-beacon"), result.getId());
+        assertEquals(S201DatasetBuilder.generateStableId("urn:mrn:test:aton:equipment"), resultEquipment.getId());
+        assertTrue(result.getId().matches("ID[0-9a-f]{16}"));
+        assertEquals("#" + resultEquipment.getId(), result.getchildren().getFirst().getHref());
+
+        // Adding another AtoN in front should not affect the IDs
+        final AtonNode otherNode = new AtonNode();
+        otherNode.setId(3);
+        otherNode.setAtonUid("test-other");
+        otherNode.setChangeset(0);
+        otherNode.setGeometry(this.atonNode.getGeometry());
+        otherNode.setTimestamp(Date.from(Instant.now()));
+        otherNode.setTags(this.atonNode.getTags());
+        otherNode.setChildren(Collections.emptySet());
+        final Dataset otherDataset = new S201DatasetBuilder(true).packageToDataset(this.info, List.of(otherNode, this.atonNode));
+        assertEquals(result.getId(), otherDataset.getMembers().getBeaconCardinal().get(1).getId());
+        assertEquals(resultEquipment.getId(), otherDataset.getMembers().getPowerSource().getFirst().getId());
+
+        // While AtoNs without an MRN or UID are still numbered sequentially
+        otherNode.setAtonUid(null);
+        assertTrue(new S201DatasetBuilder(true).packageToDataset(this.info, List.of(otherNode))
+                .getMembers().getBeaconCardinal().getFirst().getId().matches("ID\\d+"));
+    }
+
+    /**
+     * Test that the sequential dataset IDs are assigned in the same order as
+     * the dataset members are generated, i.e. each member ID is followed by
+     * the IDs of its references and its geometry, before moving on to its
+     * children and the next member.
+     */
+    @Test
+    public void testS201PackageToDatasetIdOrder() {
+        final AtonNode otherNode = new AtonNode();
+        otherNode.setId(3);
+        otherNode.setChangeset(0);
+        otherNode.setLat(this.atonNode.getLat());
+        otherNode.setLon(this.atonNode.getLon());
+        otherNode.setGeometry(this.atonNode.getGeometry());
+        otherNode.setTimestamp(Date.from(Instant.now()));
+        otherNode.setTags(this.atonNode.getTags());
+        otherNode.setChildren(Collections.emptySet());
+
+        final Dataset dataset = this.builder.packageToDataset(this.info, List.of(this.atonNode, otherNode));
+        final BeaconCardinal result = (BeaconCardinal) dataset.getMembers().getBeaconCardinal().getFirst();
+        final BeaconCardinal otherResult = (BeaconCardinal) dataset.getMembers().getBeaconCardinal().get(1);
+        final PowerSource resultEquipment = (PowerSource) dataset.getMembers().getPowerSource().getFirst();
+        assertEquals("ID001", result.getId());
+        assertEquals("#ID002", result.getchildren().getFirst().getHref());
+        assertEquals("ID003", result.getGeometries().getFirst().getPointProperty().getPoint().getId());
+        assertEquals("ID002", resultEquipment.getId());
+        assertEquals("#ID001", resultEquipment.getParent().getHref());
+        assertEquals("ID004", resultEquipment.getGeometries().getFirst().getPointProperty().getPoint().getId());
+        assertEquals("ID005", otherResult.getId());
+        assertEquals("ID006", otherResult.getGeometries().getFirst().getPointProperty().getPoint().getId());
+    }
+
+    /**
+     * Test that the AtoN nodes that have not been persisted get member and
+     * geometry IDs derived from their identity, so that identical exports
+     * always generate the same IDs.
+     */
+    @Test
+    public void testS201PackageToDatasetUnpersistedIds() {
+        this.atonNode.setId(null);
+        this.atonNode.setAtonUid("test-beacon");
+        this.atonNode.setChildren(Collections.emptySet());
+
+        final BeaconCardinal result = (BeaconCardinal) new S201DatasetBuilder().packageToDataset(this.info, List.of(this.atonNode))
+                .getMembers().getBeaconCardinal().getFirst();
+        final BeaconCardinal otherResult = (BeaconCardinal) new S201DatasetBuilder().packageToDataset(this.info, List.of(this.atonNode))
+                .getMembers().getBeaconCardinal().getFirst();
+        assertEquals(S201DatasetBuilder.generateStableId("aton.uk.test-beacon"), result.getId());
+        assertEquals(S201DatasetBuilder.generateStableId("aton.uk.test-beacon#geometry"), result.getGeometries().getFirst().getPointProperty().getPoint().getId());
+        assertEquals(result.getId(), otherResult.getId());
+        assertEquals(result.getGeometries().getFirst().getPointProperty().getPoint().getId(), otherResult.getGeometries().getFirst().getPointProperty().getPoint().getId());
+    }
+
+    /**
+     * Test that the AtoN node tags are indexed by their key, keeping the
+     * first tag of each key just like the AtoN node does.
+     */
+    @Test
+    public void testIndexTags() {
+        final AtonNode node = new AtonNode();
+        node.setTags(List.of(
+                new AtonTag(TAG_ATON_TYPE, "beacon_cardinal"),
+                new AtonTag("seamark:status", "permanent"),
+                new AtonTag("seamark:status", "temporary")));
+
+        final Map<String, AtonTag> atonTags = this.builder.indexTags(node);
+
+        assertEquals(2, atonTags.size());
+        assertEquals("beacon_cardinal", atonTags.get(TAG_ATON_TYPE).getV());
+        assertEquals(node.getTag("seamark:status").getV(), atonTags.get("seamark:status").getV());
+        assertNull(atonTags.get("seamark:name"));
+    }
+
+    /**
+     * Test that the AtoN types are resolved case-insensitively, including
+     * the radio stations with an AIS category.
+     */
+    @Test
+    public void testResolveAtonType() {
+        final AtonNode node = new AtonNode();
+        node.setTags(List.of(new AtonTag(TAG_ATON_TYPE, "Beacon_Cardinal")));
+        assertEquals(S201AtonTypes.CARDINAL_BEACON, this.builder.resolveAtonType(node));
+
+        node.setTags(List.of(new AtonTag(TAG_ATON_TYPE, "radio_station")));
+        assertEquals(S201AtonTypes.RADIO_STATION, this.builder.resolveAtonType(node));
+
+        node.setTags(List.of(
+                new AtonTag(TAG_ATON_TYPE, "radio_station"),
+                new AtonTag("seamark:radio_station:category", "ais")));
+        assertEquals(S201AtonTypes.PHYSICAL_AIS_ATON, this.builder.resolveAtonType(node));
+    }
+
+    /**
+     * Test that AtoNs of unknown seamark types do not generate any members
+     * but are counted instead.
+     */
+    @Test
+    public void testGenerateUnknownAtonType() {
+        final AtonNode node = new AtonNode();
+        node.setTags(List.of(new AtonTag(TAG_ATON_TYPE, "unknown_test_type")));
+        final long before = S201DatasetBuilder.getUnknownAtonTypes().getOrDefault("unknown_test_type", 0L);
+
+        assertNull(this.builder.resolveAtonType(node));
+        assertNull(this.builder.generateAidsToNavigation(node));
+        assertEquals(before + 1, S201DatasetBuilder.getUnknownAtonTypes().getOrDefault("unknown_test_type", 0L).longValue());
+    }
+
+    /**
+     * Test that the bounding shape of the dataset encloses all the AtoN
+     * nodes, with the lower corner at the minimum of both coordinates.
+     */
+    @Test
+    public void testGenerateBoundingShape() {
+        final AtonNode otherNode = new AtonNode();
+        otherNode.setId(3);
+        otherNode.setChangeset(0);
+        otherNode.setGeometry(new GeometryFactory().createPoint(new Coordinate(53.10, 1.20)));
+        otherNode.setTimestamp(Date.from(Instant.now()));
+        otherNode.setTags(this.atonNode.getTags());
+        otherNode.setChildren(Collections.emptySet());
+
+        final Dataset dataset = this.builder.packageToDataset(this.info, List.of(this.atonNode, otherNode));
+
+        assertArrayEquals(new Double[]{52.98, 1.20}, dataset.getBoundedBy().getEnvelope().getLowerCorner().getValue());
+        assertArrayEquals(new Double[]{53.10, 1.28}, dataset.getBoundedBy().getEnvelope().getUpperCorner().getValue());
+    }
+
+    /**
+     * Test that line and polygon AtoN geometries are encoded as curves and
+     * surfaces when the member geometry type supports them.
+     */
+    @Test
+    public void testGenerateGeometryProperty() {
+        final GeometryFactory geometryFactory = new GeometryFactory();
+        this.atonNode.setGeometry(geometryFactory.createLineString(new Coordinate[]{
+                new Coordinate(1.28, 52.98), new Coordinate(1.29, 52.99), new Coordinate(1.30, 53.00)}));
+        assertTrue(this.builder.generateGeometryProperty(this.atonNode, this.builder.indexTags(this.atonNode), TestGeometry.class) instanceof CurveProperty);
+
+        this.atonNode.setGeometry(geometryFactory.createPolygon(new Coordinate[]{
+                new Coordinate(1.28, 52.98), new Coordinate(1.29, 52.98), new Coordinate(1.29, 52.99), new Coordinate(1.28, 52.98)}));
+        assertTrue(this.builder.generateGeometryProperty(this.atonNode, this.builder.indexTags(this.atonNode), TestGeometry.class) instanceof SurfaceProperty);
+    }
+
+    /**
+     * Test that line and polygon AtoN geometries fall back to points when
+     * the member geometry type does not support curves and surfaces.
+     */
+    @Test
+    public void testGenerateGeometryPropertyFallback() {
+        this.atonNode.setGeometry(new GeometryFactory().createLineString(new Coordinate[]{
+                new Coordinate(1.28, 52.98), new Coordinate(1.29, 52.99)}));
+        assertTrue(this.builder.generateGeometryProperty(this.atonNode, this.builder.indexTags(this.atonNode), TestPointGeometry.class) instanceof PointProperty);
+    }
+
+    /**
+     * Test that the AtoN geometries are only simplified when a valid minimum
+     * scale has been provided.
+     */
+    @Test
+    public void testGetSimplificationTolerance() {
+        assertEquals(0.0, this.builder.getSimplificationTolerance(this.builder.indexTags(this.atonNode)), 0.0);
+
+        this.atonNode.setTags(List.of(new AtonTag("s100:aidsToNavigation:scale_minimum", "invalid")));
+        assertEquals(0.0, this.builder.getSimplificationTolerance(this.builder.indexTags(this.atonNode)), 0.0);
+
+        this.atonNode.setTags(List.of(new AtonTag("s100:aidsToNavigation:scale_minimum", "100000")));
+        assertEquals(S100CoordinateUtils.toleranceForScale(100000), this.builder.getSimplificationTolerance(this.builder.indexTags(this.atonNode)), 0.0);
+    }
+
+    /**
+     * A member geometry type supporting points, curves and surfaces.
+     */
+    public static class TestGeometry extends TestPointGeometry {
+        public void setCurveProperty(CurveProperty curveProperty) {}
+        public void setSurfaceProperty(SurfaceProperty surfaceProperty) {}
+    }
+
+    /**
+     * A member geometry type supporting only points.
+     */
+    public static class TestPointGeometry {
+        public void setPointProperty(PointProperty pointProperty) {}
+    }
+
+}
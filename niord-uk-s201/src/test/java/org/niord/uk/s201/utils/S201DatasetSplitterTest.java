@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import org.niord.uk.s100.common.utils.AbstractS100DatasetSplitterTest;
+import org.niord.uk.s100.common.utils.S100DatasetAdapter;
+
+/**
+ * A testing class for the S-100 Dataset Splitter utility, navigating the
+ * AtoN nodes with the S-201 dataset builder.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201DatasetSplitterTest extends AbstractS100DatasetSplitterTest {
+
+    /**
+     * Creates the S-201 dataset builder.
+     */
+    @Override
+    protected S100DatasetAdapter<?, ?, ?> createBuilder() {
+        return new S201DatasetBuilder();
+    }
+
+}
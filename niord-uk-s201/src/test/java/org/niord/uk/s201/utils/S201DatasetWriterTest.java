@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import _int.iho.s201.gml.cs0._1.Dataset;
+import _int.iho.s201.s100.gml.base._5_0.AbstractGMLType;
+import jakarta.xml.bind.JAXBException;
+import org.grad.eNav.s201.utils.S201Utils;
+import org.niord.core.aton.AtonNode;
+import org.niord.uk.s100.common.utils.AbstractS100DatasetWriterTest;
+import org.niord.uk.s100.common.utils.S100DatasetWriter;
+import org.niord.uk.s100.common.utils.S100FragmentCache;
+import org.niord.uk.s201.models.S201DatasetInfo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A testing class for the S-201 Dataset Writer utility. The streamed
+ * datasets are checked to be byte-identical to the output of the S-201
+ * library marshaller, once both are indented the way they are served.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201DatasetWriterTest extends AbstractS100DatasetWriterTest<S201DatasetInfo, Dataset, AbstractGMLType> {
+
+    /**
+     * Initialise the S-201 dataset information.
+     */
+    @Override
+    protected S201DatasetInfo createDatasetInfo() {
+        return new S201DatasetInfo("test", "test", Collections.emptyList());
+    }
+
+    /**
+     * Creates the S-201 dataset writer to be tested.
+     */
+    @Override
+    protected S100DatasetWriter<S201DatasetInfo, Dataset, AbstractGMLType> createWriter(int chunkSize, S100FragmentCache fragmentCache, ForkJoinPool forkJoinPool) {
+        return new S201DatasetWriter(new S201DatasetBuilder(), chunkSize, fragmentCache, forkJoinPool);
+    }
+
+    /**
+     * Marshals the complete S-201 dataset using the S-201 library marshaller.
+     */
+    @Override
+    protected String marshalDataset(S201DatasetInfo info, List<AtonNode> atonNodes) throws JAXBException {
+        return S201Utils.marshalS201(new S201DatasetBuilder().packageToDataset(info, atonNodes));
+    }
+
+}
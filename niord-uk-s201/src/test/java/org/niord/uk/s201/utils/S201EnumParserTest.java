@@ -92,6 +92,30 @@ public class S201EnumParserTest {
         assertNull(S201EnumParser.parseAidAvailabilityCategory("error"));
     }
 
+    /**
+     * Test that the S-201 enum entries are looked up by their schema values
+     * without throwing exceptions for unknown values.
+     */
+    @Test
+    public void testFromValue() {
+        assertEquals(LightVisibilityType.values()[0], S201EnumParser.fromValue(LightVisibilityType.class, LightVisibilityType.values()[0].value()));
+        assertEquals(CategoryOfAggregationType.values()[0], S201EnumParser.fromValue(CategoryOfAggregationType.class, CategoryOfAggregationType.values()[0].value()));
+        assertNull(S201EnumParser.fromValue(LightVisibilityType.class, null));
+        assertNull(S201EnumParser.fromValue(LightVisibilityType.class, "error"));
+    }
+
+    /**
+     * Test that the unknown values are counted per enum type.
+     */
+    @Test
+    public void testUnknownValues() {
+        final long before = S201EnumParser.getUnknownValues().getOrDefault("StatusType:unknown_test_status", 0L);
+
+        assertNull(S201EnumParser.parseStatus("unknown_test_status"));
+        assertNull(S201EnumParser.fromValue(StatusType.class, "unknown_test_status"));
+        assertEquals(before + 2, S201EnumParser.getUnknownValues().getOrDefault("StatusType:unknown_test_status", 0L).longValue());
+    }
+
     /**
      * Test that we can successfully parse the category of landmark enum.
      */
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import org.junit.Test;
+import org.niord.uk.s100.common.utils.S100PresetPlan;
+import org.niord.uk.s201.models.S201AtonTypes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-201 Preset Plan utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201PresetPlanTest {
+
+    /**
+     * Test that the S-201 preset compiles.
+     */
+    @Test
+    public void testCompileS201Preset() throws IOException {
+        try(InputStream in = S201PresetPlan.class.getResourceAsStream(S201PresetPlan.PRESET_RESOURCE)) {
+            final S100PresetPlan plan = S100PresetPlan.compile("digest", in);
+            assertFalse(plan.getKeys().isEmpty());
+            assertFalse(plan.getTypes().isEmpty());
+        }
+    }
+
+    /**
+     * Test that the S-201 AtoN types identified by more than their seamark
+     * type are resolved out of the S-201 preset.
+     */
+    @Test
+    public void testResolveAtonType() {
+        final S201PresetPlan plan = S201PresetPlan.getInstance();
+        final Map<String, String> tags = new HashMap<>();
+        assertEquals(S201AtonTypes.RADIO_STATION, plan.resolveAtonType("radio_station", tags::get));
+        tags.put("seamark:radio_station:category", "ais");
+        assertEquals(S201AtonTypes.PHYSICAL_AIS_ATON, plan.resolveAtonType("radio_station", tags::get));
+        assertEquals(S201AtonTypes.CARDINAL_BEACON, plan.resolveAtonType("beacon_cardinal", tags::get));
+        assertNull(plan.resolveAtonType("unknown", tags::get));
+    }
+
+    /**
+     * Test that the geometries of the S-201 AtoN types are looked up from the
+     * S-201 preset, which does not restrict the cardinal beacon geometries.
+     */
+    @Test
+    public void testAllowsGeometry() {
+        final S201PresetPlan plan = S201PresetPlan.getInstance();
+        assertTrue(plan.allowsGeometry(S201AtonTypes.CARDINAL_BEACON, S100PresetPlan.GEOMETRY_NODE));
+        assertTrue(plan.allowsGeometry(S201AtonTypes.CARDINAL_BEACON, S100PresetPlan.GEOMETRY_CLOSED_WAY));
+        assertTrue(plan.allowsGeometry(S201AtonTypes.LANDMARK, S100PresetPlan.GEOMETRY_CLOSED_WAY));
+        assertFalse(plan.allowsGeometry(S201AtonTypes.LANDMARK, S100PresetPlan.GEOMETRY_WAY));
+        assertFalse(plan.allowsGeometry(S201AtonTypes.DAYMARK, S100PresetPlan.GEOMETRY_CLOSED_WAY));
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s201.utils;
+
+import org.junit.Test;
+import org.niord.uk.s100.common.utils.S100XsdCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * A testing class for the S-201 XSD Cache utility.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S201XsdCacheTest {
+
+    /**
+     * Test that the XSDs of the S-201 library are cached along with their
+     * gzip compressed variants.
+     */
+    @Test
+    public void testLoad() throws IOException {
+        final S201XsdCache xsdCache = S201XsdCache.getInstance();
+        assertTrue(xsdCache.size() > 0);
+
+        final S100XsdCache.Xsd xsd = xsdCache.get("S201.xsd").orElseThrow();
+        assertEquals("S201.xsd", xsd.name());
+        assertTrue(xsd.content().length > 0);
+        assertArrayEquals(xsd.content(), new GZIPInputStream(new ByteArrayInputStream(xsd.gzipped())).readAllBytes());
+        assertFalse(xsd.etag().isEmpty());
+    }
+
+}
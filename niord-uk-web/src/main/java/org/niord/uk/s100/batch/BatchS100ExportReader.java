@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.batch;
+
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.batch.AbstractItemHandler;
+import org.niord.uk.s100.common.batch.S100ExportCheckpoint;
+import org.niord.uk.s100.common.services.S100AtonLoaderService;
+import org.niord.uk.s100.common.services.S100ExportBudgetService;
+import org.niord.uk.s100.common.services.S100ForkJoinPoolService;
+import org.niord.uk.s100.common.utils.S100ExportBudget;
+import org.niord.uk.s125.models.S125DatasetInfo;
+import org.niord.uk.s125.services.S125FragmentCacheService;
+import org.niord.uk.s125.utils.S125DatasetBuilder;
+import org.niord.uk.s125.utils.S125DatasetWriter;
+import org.niord.uk.s201.models.S201DatasetInfo;
+import org.niord.uk.s201.services.S201FragmentCacheService;
+import org.niord.uk.s201.utils.S201DatasetBuilder;
+import org.niord.uk.s201.utils.S201DatasetWriter;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+
+/**
+ * Reads both the S-125 and the S-201 datasets of a combined export batch
+ * job as a sequence of marshalled dataset fragments, first all the S-125
+ * fragments and then all the S-201 ones.
+ * <p/>
+ * The AtoN nodes are loaded and initialised only once, and the same
+ * snapshot is handed over to both the S-125 and the S-201 dataset writers,
+ * so a publication run producing both products only queries and walks the
+ * AtoN graph a single time. The checkpoint holds the number of fragments
+ * already read for each product, and a restarted job skips them without
+ * generating them again, as long as the digest of the AtoN nodes stored
+ * along with them still matches.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Dependent
+@Named("batchS100ExportReader")
+public class BatchS100ExportReader extends AbstractItemHandler {
+
+    /**
+     * The name of the combined S-125 and S-201 export batch job.
+     */
+    public static final String EXPORT_JOB = "s100-export";
+
+    /**
+     * The batch job property holding the GML dataset identifier.
+     */
+    public static final String DATASET_ID_PROPERTY = "datasetId";
+
+    /**
+     * The batch job property holding the producing organisation.
+     */
+    public static final String ORGANISATION_PROPERTY = "organisation";
+
+    /**
+     * The batch job property holding whether to generate stable S-125 dataset IDs.
+     */
+    public static final String STABLE_S125_IDS_PROPERTY = "stableS125Ids";
+
+    /**
+     * The batch job property holding whether to generate stable S-201 dataset IDs.
+     */
+    public static final String STABLE_S201_IDS_PROPERTY = "stableS201Ids";
+
+    /**
+     * The batch job step context, shared with the export writer.
+     */
+    @Inject
+    StepContext stepContext;
+
+    /**
+     * The S-100 AtoN Loader Service.
+     */
+    @Inject
+    S100AtonLoaderService atonLoaderService;
+
+    /**
+     * The S-125 Fragment Cache Service.
+     */
+    @Inject
+    S125FragmentCacheService s125FragmentCacheService;
+
+    /**
+     * The S-201 Fragment Cache Service.
+     */
+    @Inject
+    S201FragmentCacheService s201FragmentCacheService;
+
+    /**
+     * The S-100 Fork-Join Pool Service.
+     */
+    @Inject
+    S100ForkJoinPoolService forkJoinPoolService;
+
+    /**
+     * The S-100 Export Budget Service.
+     */
+    @Inject
+    S100ExportBudgetService exportBudgetService;
+
+    /**
+     * The number of AtoN nodes to be loaded per query, the same as for the
+     * S-125 link retrieval the exported AtoN nodes were resolved with.
+     */
+    @ConfigProperty(name = "niord.s125.search.page-size", defaultValue = "1000")
+    int searchPageSize;
+
+    private Iterator<String> s125Fragments;
+    private Iterator<String> s201Fragments;
+    private int s125FragmentNo = 0;
+    private int s201FragmentNo = 0;
+    private int totalFragmentNo;
+    private String digest;
+    private S100ExportBudget.Permit permit;
+
+    /** {@inheritDoc} **/
+    @Override
+    public void open(Serializable prevCheckpointInfo) throws Exception {
+
+        try {
+            // Get hold of the data file with the AtoN UIDs
+            final Path path = batchService.getBatchJobDataFile(jobContext.getInstanceId());
+            final List<String> atonUIDs = Files.readAllLines(path, StandardCharsets.UTF_8)
+                    .stream()
+                    .filter(StringUtils::isNotBlank)
+                    .map(String::trim)
+                    .toList();
+
+            // Make sure there is enough memory to export them before loading
+            // any, estimating their number with count-only queries. The
+            // permit is released once the reader is closed. Since the
+            // products are exported one after the other, a single permit
+            // covers both.
+            permit = exportBudgetService.admit(atonLoaderService.estimateAtonCount(atonUIDs, searchPageSize));
+
+            // Load the AtoN nodes once for both products, fully initialised
+            // since the fragments are generated across multiple chunk
+            // transactions
+            final List<AtonNode> atonNodes = this.loadAtonNodes(atonUIDs);
+
+            // Fast forward to the previous fragment indexes, as long as the
+            // AtoN nodes are still the ones they were taken for
+            digest = S100ExportCheckpoint.digest(atonNodes);
+            final int[] fragmentNos = S100ExportCheckpoint.restore(prevCheckpointInfo, digest, Product.values().length);
+            s125FragmentNo = fragmentNos[Product.S125.ordinal()];
+            s201FragmentNo = fragmentNos[Product.S201.ordinal()];
+
+            // Prepare the dataset fragments, skipping the ones already written
+            final String datasetId = (String) job.getProperties().get(DATASET_ID_PROPERTY);
+            final String organisation = (String) job.getProperties().get(ORGANISATION_PROPERTY);
+            final ForkJoinPool forkJoinPool = forkJoinPoolService.getForkJoinPool();
+            final S125DatasetBuilder s125Builder = new S125DatasetBuilder(Boolean.TRUE.equals(job.getProperties().get(STABLE_S125_IDS_PROPERTY)));
+            s125Fragments = new S125DatasetWriter(s125Builder, S125DatasetWriter.DEFAULT_CHUNK_SIZE, s125FragmentCacheService.getCache(), forkJoinPool)
+                    .fragments(new S125DatasetInfo(datasetId, organisation, atonNodes), atonNodes, s125FragmentNo);
+            final S201DatasetBuilder s201Builder = new S201DatasetBuilder(Boolean.TRUE.equals(job.getProperties().get(STABLE_S201_IDS_PROPERTY)));
+            s201Fragments = new S201DatasetWriter(s201Builder, S201DatasetWriter.DEFAULT_CHUNK_SIZE, s201FragmentCacheService.getCache(), forkJoinPool)
+                    .fragments(new S201DatasetInfo(datasetId, organisation, atonNodes), atonNodes, s201FragmentNo);
+
+            // Estimate the number of fragments for the progress reports
+            final long s125MemberNo = atonNodes.stream().mapToLong(aton -> 1 + s125Builder.getChildren(aton).size()).sum()
+                    + s125Builder.collectAidsToNavigationLinks(atonNodes).size();
+            final long s201MemberNo = atonNodes.stream().mapToLong(aton -> 1 + s201Builder.getChildren(aton).size()).sum()
+                    + s201Builder.collectAidsToNavigationLinks(atonNodes).size();
+            totalFragmentNo = (int) (4
+                    + (s125MemberNo + S125DatasetWriter.DEFAULT_CHUNK_SIZE - 1) / S125DatasetWriter.DEFAULT_CHUNK_SIZE
+                    + (s201MemberNo + S201DatasetWriter.DEFAULT_CHUNK_SIZE - 1) / S201DatasetWriter.DEFAULT_CHUNK_SIZE);
+
+            getLog().info("Start exporting " + atonNodes.size() + " AtoNs from S-125 fragment " + s125FragmentNo
+                    + " and S-201 fragment " + s201FragmentNo + " of " + totalFragmentNo);
+
+        } catch (Exception e) {
+            getLog().log(Level.SEVERE, "Error opening s100-export data file", e);
+            // Release the export budget, if already admitted
+            this.close();
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public Object readItem() throws Exception {
+        final int fragmentNo = s125FragmentNo + s201FragmentNo;
+
+        // Every now and then, update the progress
+        if (fragmentNo % 10 == 0) {
+            updateProgress(Math.min(100, (int)(100.0 * fragmentNo / totalFragmentNo)));
+        }
+
+        // Read all the S-125 fragments first
+        if (s125Fragments.hasNext()) {
+            s125FragmentNo++;
+            return new Fragment(Product.S125, s125Fragments.next());
+        }
+
+        // And then all the S-201 ones
+        if (s201Fragments.hasNext()) {
+            s201FragmentNo++;
+            return new Fragment(Product.S201, s201Fragments.next());
+        }
+
+        // Let the writer know that both datasets are complete
+        stepContext.setTransientUserData(Boolean.TRUE);
+        getLog().info("Completed reading all " + s125FragmentNo + " S-125 and " + s201FragmentNo + " S-201 fragments.");
+        return null;
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void close() throws Exception {
+        // Release the export budget
+        if (permit != null) {
+            permit.close();
+            permit = null;
+        }
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return new S100ExportCheckpoint(digest, new int[]{s125FragmentNo, s201FragmentNo});
+    }
+
+    /**
+     * Loads the AtoN nodes of the provided UIDs in the same order, along with
+     * everything the dataset members of both products are generated from,
+     * i.e. their tags, their parents, their links and all their children.
+     *
+     * @param atonUIDs the UIDs of the AtoN nodes to load
+     * @return the loaded AtoN nodes
+     */
+    protected List<AtonNode> loadAtonNodes(List<String> atonUIDs) {
+        final List<AtonNode> atonNodes = atonLoaderService.loadAtonNodes(atonUIDs, searchPageSize);
+
+        // Make sure nothing is lazily loaded outside of this transaction
+        atonLoaderService.initialiseAtonNodes(atonNodes);
+
+        if (atonNodes.size() < atonUIDs.size()) {
+            getLog().warning("Exporting " + atonNodes.size() + " out of " + atonUIDs.size() + " AtoNs, the rest no longer exist");
+        }
+        return atonNodes;
+    }
+
+    /**
+     * The products exported by the combined export batch job.
+     */
+    public enum Product {
+        S125, S201
+    }
+
+    /**
+     * A marshalled dataset fragment of one of the exported products.
+     *
+     * @param product   The product the fragment belongs to
+     * @param content   The marshalled dataset fragment
+     */
+    public record Fragment(Product product, String content) {
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.batch;
+
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.niord.core.batch.AbstractItemHandler;
+import org.niord.core.repo.RepositoryService;
+import org.niord.uk.s125.batch.BatchS125ExportWriter;
+import org.niord.uk.s125.utils.S125SchemaValidator;
+import org.niord.uk.s201.batch.BatchS201ExportWriter;
+import org.niord.uk.s201.utils.S201SchemaValidator;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Writes the S-125 and S-201 dataset fragments of a combined export batch
+ * job into the repository.
+ * <p/>
+ * Each product is written exactly like its own export batch job would, i.e.
+ * appended to a partial file in the export folder of the product, so that
+ * the combined datasets can be downloaded through the usual S-125 and S-201
+ * export endpoints. The checkpoint holds the length of both partial files,
+ * and both are only renamed to their final export files once the two
+ * datasets are complete, after validating them against their schemas if
+ * requested.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@Dependent
+@Named("batchS100ExportWriter")
+public class BatchS100ExportWriter extends AbstractItemHandler {
+
+    /**
+     * The batch job property defining whether to validate the S-125 dataset.
+     */
+    public static final String VALIDATE_S125_PROPERTY = "validateS125";
+
+    /**
+     * The batch job property defining whether to validate the S-201 dataset.
+     */
+    public static final String VALIDATE_S201_PROPERTY = "validateS201";
+
+    /**
+     * The batch job step context, shared with the export reader.
+     */
+    @Inject
+    StepContext stepContext;
+
+    /**
+     * The Repository Service.
+     */
+    @Inject
+    RepositoryService repositoryService;
+
+    private String datasetId;
+    private Path s125ExportFile;
+    private Path s125PartialFile;
+    private FileChannel s125Channel;
+    private long s125Position = 0L;
+    private Path s201ExportFile;
+    private Path s201PartialFile;
+    private FileChannel s201Channel;
+    private long s201Position = 0L;
+
+    /** {@inheritDoc} **/
+    @Override
+    public void open(Serializable prevCheckpointInfo) throws Exception {
+
+        try {
+            // Resolve the export files of both products
+            final Path repoRoot = repositoryService.getRepoRoot();
+            datasetId = (String) job.getProperties().get(BatchS100ExportReader.DATASET_ID_PROPERTY);
+            s125ExportFile = BatchS125ExportWriter.getExportFile(repoRoot, datasetId);
+            s125PartialFile = BatchS125ExportWriter.getPartialExportFile(repoRoot, datasetId);
+            s201ExportFile = BatchS201ExportWriter.getExportFile(repoRoot, datasetId);
+            s201PartialFile = BatchS201ExportWriter.getPartialExportFile(repoRoot, datasetId);
+
+            // Drop anything written after the previous checkpoint
+            if (prevCheckpointInfo != null) {
+                final long[] positions = (long[]) prevCheckpointInfo;
+                s125Position = positions[0];
+                s201Position = positions[1];
+            }
+            s125Channel = openPartialFile(s125PartialFile, s125Position);
+            s201Channel = openPartialFile(s201PartialFile, s201Position);
+
+            getLog().info("Start writing " + s125PartialFile + " from byte " + s125Position
+                    + " and " + s201PartialFile + " from byte " + s201Position);
+
+        } catch (Exception e) {
+            getLog().log(Level.SEVERE, "Error opening s100-export output files", e);
+            throw e;
+        }
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void writeItems(List<Object> items) throws Exception {
+        for (Object item : items) {
+            final BatchS100ExportReader.Fragment fragment = (BatchS100ExportReader.Fragment) item;
+            final ByteBuffer buffer = StandardCharsets.UTF_8.encode(fragment.content());
+            while (buffer.hasRemaining()) {
+                switch (fragment.product()) {
+                    case S125 -> s125Position += s125Channel.write(buffer);
+                    case S201 -> s201Position += s201Channel.write(buffer);
+                }
+            }
+        }
+
+        // Make sure the checkpoint only covers what is on disk
+        s125Channel.force(false);
+        s201Channel.force(false);
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return new long[]{s125Position, s201Position};
+    }
+
+    /** {@inheritDoc} **/
+    @Override
+    public void close() throws Exception {
+        if (s125Channel != null) {
+            s125Channel.close();
+        }
+        if (s201Channel != null) {
+            s201Channel.close();
+        }
+
+        // Publish the export files only once both datasets are complete
+        if (Boolean.TRUE.equals(stepContext.getTransientUserData()) && stepContext.getException() == null) {
+            if (Boolean.TRUE.equals(job.getProperties().get(VALIDATE_S125_PROPERTY))) {
+                validateS125();
+            }
+            if (Boolean.TRUE.equals(job.getProperties().get(VALIDATE_S201_PROPERTY))) {
+                validateS201();
+            }
+            Files.move(s125PartialFile, s125ExportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(s201PartialFile, s201ExportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            getLog().info("Completed writing " + s125ExportFile + " with " + s125Position + " bytes and "
+                    + s201ExportFile + " with " + s201Position + " bytes.");
+        }
+    }
+
+    /**
+     * Opens the provided partial file for writing, truncated to the provided
+     * checkpoint position.
+     *
+     * @param partialFile the partial file
+     * @param position the checkpoint position
+     * @return the file channel positioned at the checkpoint
+     * @throws Exception for any errors while opening the partial file
+     */
+    private FileChannel openPartialFile(Path partialFile, long position) throws Exception {
+        Files.createDirectories(partialFile.getParent());
+        final FileChannel channel = FileChannel.open(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(position);
+        channel.position(position);
+        return channel;
+    }
+
+    /**
+     * Validates the complete S-125 partial file against the S-125 schema.
+     *
+     * @throws Exception if the dataset is not valid
+     */
+    private void validateS125() throws Exception {
+        final S125SchemaValidator.Validation validation = S125SchemaValidator.getInstance()
+                .newValidation(datasetId)
+                .validate(s125PartialFile)
+                .complete();
+        if (!validation.isValid()) {
+            getLog().severe("The S-125 dataset " + datasetId + " failed the schema validation with " + validation.getErrorCount() + " errors");
+            validation.getErrors().forEach(getLog()::severe);
+            throw new Exception("The S-125 dataset " + datasetId + " failed the schema validation: " + String.join("; ", validation.getErrors()));
+        }
+        getLog().info("Validated " + s125PartialFile + " in " + validation.getValidationTimeMillis() + " ms");
+    }
+
+    /**
+     * Validates the complete S-201 partial file against the S-201 schema.
+     *
+     * @throws Exception if the dataset is not valid
+     */
+    private void validateS201() throws Exception {
+        final S201SchemaValidator.Validation validation = S201SchemaValidator.getInstance()
+                .newValidation(datasetId)
+                .validate(s201PartialFile)
+                .complete();
+        if (!validation.isValid()) {
+            getLog().severe("The S-201 dataset " + datasetId + " failed the schema validation with " + validation.getErrorCount() + " errors");
+            validation.getErrors().forEach(getLog()::severe);
+            throw new Exception("The S-201 dataset " + datasetId + " failed the schema validation: " + String.join("; ", validation.getErrors()));
+        }
+        getLog().info("Validated " + s201PartialFile + " in " + validation.getValidationTimeMillis() + " ms");
+    }
+
+}
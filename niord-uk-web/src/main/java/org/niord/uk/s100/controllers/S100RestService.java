@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.controllers;
+
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.niord.core.user.Roles;
+import org.niord.uk.s100.batch.BatchS100ExportReader;
+import org.niord.uk.s100.models.vo.S100ExportJobVo;
+import org.niord.uk.s100.services.S100Service;
+import org.niord.uk.s125.controllers.S125RestService;
+import org.niord.uk.s125.services.S125SchemaValidatorService;
+import org.niord.uk.s201.controllers.S201RestService;
+import org.niord.uk.s201.services.S201SchemaValidatorService;
+import org.slf4j.Logger;
+
+import java.util.List;
+
+/**
+ * A REST API for exporting the S-125 and S-201 GML datasets of the same
+ * AtoN together.
+ * <p>
+ * The exported datasets are downloaded through the S-125 and S-201 export
+ * endpoints respectively, e.g.
+ * <pre>
+ *     http://localhost:8080/rest/S-125/atons/export/aton-dataset-export-0
+ *     http://localhost:8080/rest/S-201/atons/export/aton-dataset-export-0
+ * </pre>
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@RequestScoped
+@Path("/S-100")
+public class S100RestService {
+
+    /**
+     * The System Logger.
+     */
+    @Inject
+    Logger log;
+
+    /**
+     * The S-100 Service.
+     */
+    @Inject
+    S100Service s100Service;
+
+    /**
+     * The S-125 Schema Validator Service.
+     */
+    @Inject
+    S125SchemaValidatorService s125SchemaValidatorService;
+
+    /**
+     * The S-201 Schema Validator Service.
+     */
+    @Inject
+    S201SchemaValidatorService s201SchemaValidatorService;
+
+    /**
+     * Starts a batch job exporting both the S-125 and the S-201 GML datasets
+     * for multiple AtoN into the repository, loading the AtoN only once for
+     * both products. The response includes the batch job ID, whose progress
+     * can be followed like any other batch job, and the URLs to download
+     * the datasets from once the job has completed.
+     */
+    @POST
+    @Path("/atons/export")
+    @Operation(
+            description = "Starts a batch job exporting both the S-125 and S-201 GML representations for a list of AtoN UIDs."
+    )
+    @APIResponse(
+            responseCode = "202",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON,
+                    schema = @Schema(implementation = S100ExportJobVo.class)
+            )
+    )
+    @Produces({"application/json;charset=UTF-8"})
+    @RolesAllowed(Roles.ADMIN)
+    public Response s100AtonExport(
+            @Context UriInfo uriInfo,
+            @Parameter(name="validate", description = "Whether to validate the generated GML against the S-125 and S-201 schemas", example = "false")
+            @QueryParam("validate") Boolean validate,
+            @Parameter(name="atonUIDs", description = "The aton UIDs or aton ID", example = "[aton-001]")
+            List<String> atonUIDs
+    ) {
+
+        long t0 = System.currentTimeMillis();
+
+        try {
+            final String[] uids = atonUIDs.toArray(String[]::new);
+            final String gmlDatasetId = String.format("aton-dataset-export-%d", t0);
+
+            // Start the combined export batch job
+            final S100ExportJobVo exportJob = new S100ExportJobVo();
+            exportJob.setJobId(s100Service.startExportJob(gmlDatasetId,
+                    this.s125SchemaValidatorService.isValidating(validate),
+                    this.s201SchemaValidatorService.isValidating(validate),
+                    uids));
+            exportJob.setDatasetId(gmlDatasetId);
+            exportJob.setS125DownloadUrl(uriInfo.getBaseUriBuilder()
+                    .path(S125RestService.class)
+                    .path(S125RestService.class, "s125AtonExportDownload")
+                    .build(gmlDatasetId)
+                    .toString());
+            exportJob.setS201DownloadUrl(uriInfo.getBaseUriBuilder()
+                    .path(S201RestService.class)
+                    .path(S201RestService.class, "s201AtonExportDownload")
+                    .build(gmlDatasetId)
+                    .toString());
+            log.info("Started '%s' batch job %d for AtoNs %s".formatted(BatchS100ExportReader.EXPORT_JOB, exportJob.getJobId(), String.join(",", atonUIDs)));
+            return Response.accepted(exportJob)
+                    .build();
+
+        } catch (IllegalArgumentException ex) {
+            log.error(ex.getMessage());
+            return Response
+                    .status(Response.Status.NOT_FOUND)
+                    .entity("Error on input parameters: " + ex.getMessage())
+                    .build();
+        } catch (Exception ex) {
+            log.error(ex.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_HTML_TYPE)
+                    .entity("Error starting the GML export: " + ex.getMessage())
+                    .build();
+        }
+    }
+
+}
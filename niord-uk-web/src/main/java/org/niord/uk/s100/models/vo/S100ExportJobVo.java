@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.models.vo;
+
+/**
+ * The S-100 Export Job Vo Class.
+ * <p>
+ * This is a VO object to transfer the information about a combined S-125
+ * and S-201 export batch job, i.e. the batch job execution ID, the GML
+ * identifier shared by both exported datasets and the URLs they can be
+ * downloaded from once the batch job has completed.
+ *
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+public class S100ExportJobVo {
+
+    // Class Variables
+    private long jobId;
+    private String datasetId;
+    private String s125DownloadUrl;
+    private String s201DownloadUrl;
+
+    /**
+     * Gets job id.
+     *
+     * @return the job id
+     */
+    public long getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Sets job id.
+     *
+     * @param jobId the job id
+     */
+    public void setJobId(long jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Gets dataset id.
+     *
+     * @return the dataset id
+     */
+    public String getDatasetId() {
+        return datasetId;
+    }
+
+    /**
+     * Sets dataset id.
+     *
+     * @param datasetId the dataset id
+     */
+    public void setDatasetId(String datasetId) {
+        this.datasetId = datasetId;
+    }
+
+    /**
+     * Gets the S-125 download url.
+     *
+     * @return the S-125 download url
+     */
+    public String getS125DownloadUrl() {
+        return s125DownloadUrl;
+    }
+
+    /**
+     * Sets the S-125 download url.
+     *
+     * @param s125DownloadUrl the S-125 download url
+     */
+    public void setS125DownloadUrl(String s125DownloadUrl) {
+        this.s125DownloadUrl = s125DownloadUrl;
+    }
+
+    /**
+     * Gets the S-201 download url.
+     *
+     * @return the S-201 download url
+     */
+    public String getS201DownloadUrl() {
+        return s201DownloadUrl;
+    }
+
+    /**
+     * Sets the S-201 download url.
+     *
+     * @param s201DownloadUrl the S-201 download url
+     */
+    public void setS201DownloadUrl(String s201DownloadUrl) {
+        this.s201DownloadUrl = s201DownloadUrl;
+    }
+
+}
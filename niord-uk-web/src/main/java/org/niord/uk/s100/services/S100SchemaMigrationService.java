@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+
+/**
+ * The S-100 Schema Migration Service.
+ * <p/>
+ * Applies the niord-uk schema migrations (e.g. the AtoN node indexes the
+ * S-125 and S-201 updates rely on) on start-up. The migrations cannot run
+ * along with the Flyway start-up migration, since they apply to tables
+ * generated by Hibernate, which only exist once the persistence unit has
+ * started. Each migration is applied once and recorded in its own schema
+ * history table.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@ApplicationScoped
+public class S100SchemaMigrationService {
+
+    @Inject
+    Logger log;
+
+    @Inject
+    Flyway flyway;
+
+    /**
+     * Applies any pending schema migrations on start-up.
+     *
+     * @param init the application initialisation event
+     */
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        try {
+            final MigrateResult result = this.flyway.migrate();
+            if(result.migrationsExecuted > 0) {
+                log.info("Applied " + result.migrationsExecuted + " schema migrations, now at version " + result.targetSchemaVersion);
+            }
+        } catch (FlywayException ex) {
+            log.error("Failed to apply the schema migrations: " + ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023 GLA Research and Development Directorate
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.niord.uk.s100.services;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.niord.core.NiordApp;
+import org.niord.core.aton.AtonNode;
+import org.niord.core.batch.BatchService;
+import org.niord.uk.s100.batch.BatchS100ExportReader;
+import org.niord.uk.s100.batch.BatchS100ExportWriter;
+import org.niord.uk.s125.services.S125Service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The S-100 Service.
+ * <p/>
+ * Exports the S-125 and S-201 datasets of the same AtoN nodes together, so
+ * that publication runs producing both products only load and walk the
+ * AtoN graph once, instead of once per product.
+ * <p/>
+ * @author Nikolaos Vastardis (email: Nikolaos.Vastardis@gla-rad.org)
+ */
+@RequestScoped
+public class S100Service {
+
+    @Inject
+    NiordApp app;
+
+    @Inject
+    S125Service s125Service;
+
+    @Inject
+    BatchService batchService;
+
+    @ConfigProperty(name = "niord.s125.stable-ids.enabled", defaultValue = "false")
+    boolean stableS125Ids;
+
+    @ConfigProperty(name = "niord.s201.stable-ids.enabled", defaultValue = "false")
+    boolean stableS201Ids;
+
+    /**
+     * Starts a batch job exporting both the S-125 and the S-201 datasets for
+     * the provided AtoN UIDs, along with all the AtoN nodes they are linked
+     * with, into the repository. The AtoN nodes are resolved straight away
+     * and handed over to the batch job as a single data file of AtoN UIDs,
+     * shared by both products. The exported datasets can be downloaded
+     * through the S-125 and S-201 export endpoints respectively, using the
+     * same GML dataset identifier.
+     * @param gmlDatasetId the GML dataset identifier string
+     * @param validateS125 whether to validate the GML against the S-125 schema
+     * @param validateS201 whether to validate the GML against the S-201 schema
+     * @param atonUIDs the aton UID
+     * @return the batch job execution ID
+     * @throws Exception for any errors while starting the batch job
+     */
+    @Transactional
+    public long startExportJob(String gmlDatasetId, boolean validateS125, boolean validateS201, String... atonUIDs) throws Exception {
+        // Try to access the AtoN, the link retrieval is the same for both products
+        final List<AtonNode> atonNodes = this.s125Service.retrieveAtonNodes(atonUIDs);
+
+        // Hand over the AtoN UIDs in the dataset order
+        final String data = atonNodes.stream()
+                .map(AtonNode::getAtonUid)
+                .collect(Collectors.joining("\n"));
+        final Map<String, Object> properties = new HashMap<>();
+        properties.put(BatchS100ExportReader.DATASET_ID_PROPERTY, gmlDatasetId);
+        properties.put(BatchS100ExportReader.ORGANISATION_PROPERTY, app.getOrganisation());
+        properties.put(BatchS100ExportReader.STABLE_S125_IDS_PROPERTY, this.stableS125Ids);
+        properties.put(BatchS100ExportReader.STABLE_S201_IDS_PROPERTY, this.stableS201Ids);
+        properties.put(BatchS100ExportWriter.VALIDATE_S125_PROPERTY, validateS125);
+        properties.put(BatchS100ExportWriter.VALIDATE_S201_PROPERTY, validateS201);
+
+        // And start the batch job
+        return this.batchService.startBatchJobWithDataFile(
+                BatchS100ExportReader.EXPORT_JOB,
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)),
+                gmlDatasetId + ".txt",
+                properties);
+    }
+
+}
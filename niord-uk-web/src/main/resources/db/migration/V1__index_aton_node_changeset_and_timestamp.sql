@@ -0,0 +1,18 @@
+-- Indexes the AtoN node changesets and timestamps, which the S-125/S-201
+-- update datasets select the modified AtoN nodes by, and the dataset
+-- freshness checks aggregate. Deployments that already hold the indexes
+-- (created on start-up by earlier versions) are left untouched.
+
+SET @index_exists := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'AtonNode' AND index_name = 'IDX_ATON_NODE_CHANGESET');
+SET @ddl := IF(@index_exists = 0, 'CREATE INDEX IDX_ATON_NODE_CHANGESET ON AtonNode (changeset)', 'DO 0');
+PREPARE statement FROM @ddl;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @index_exists := (SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'AtonNode' AND index_name = 'IDX_ATON_NODE_TIMESTAMP');
+SET @ddl := IF(@index_exists = 0, 'CREATE INDEX IDX_ATON_NODE_TIMESTAMP ON AtonNode (`timestamp`)', 'DO 0');
+PREPARE statement FROM @ddl;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;